@@ -0,0 +1,14 @@
+package com.phoenix.productinventory.bulk;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Configuration of bulk product updates.
+ *
+ * @param chunkSize number of products changed per statement and transaction
+ * @param upsertBatchSize number of products written per {@code MERGE} statement of a SKU upsert
+ */
+@ConfigurationProperties(prefix = "bulk")
+public record BulkUpdateProperties(
+    @DefaultValue("1000") int chunkSize, @DefaultValue("500") int upsertBatchSize) {}
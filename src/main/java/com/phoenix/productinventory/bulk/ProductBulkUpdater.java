@@ -0,0 +1,167 @@
+package com.phoenix.productinventory.bulk;
+
+import com.phoenix.productinventory.dto.BulkProductUpdateDto;
+import com.phoenix.productinventory.exception.BadRequestException;
+import com.phoenix.productinventory.model.Product;
+import com.phoenix.productinventory.outbox.ChangeType;
+import com.phoenix.productinventory.outbox.OutboxService;
+import com.phoenix.productinventory.repository.ProductRepository;
+import com.phoenix.productinventory.search.SearchCondition;
+import com.phoenix.productinventory.search.SearchField;
+import com.phoenix.productinventory.search.SearchOperator;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+import java.util.function.ToIntFunction;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Applies price and quantity changes to every product matching a filter with set-based {@code
+ * UPDATE} statements.
+ *
+ * <p>The matching products are walked in id order in chunks of {@code bulk.chunk-size}. Each chunk
+ * selects its ids, changes them with one statement that also increments their versions, and
+ * records their new state in the outbox, all in its own transaction, so locks are held briefly and
+ * a failure keeps the chunks committed before it. Changes that would make a price non-positive or
+ * a quantity negative are rejected up front with one existence query.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ProductBulkUpdater {
+
+  /** Smallest unrounded price that still rounds to a positive amount of cents. */
+  private static final BigDecimal MIN_UNROUNDED_PRICE = new BigDecimal("0.005");
+
+  private static final BigDecimal HUNDRED = BigDecimal.valueOf(100);
+
+  private final ProductRepository repository;
+  private final OutboxService outbox;
+  private final TransactionTemplate transactionTemplate;
+  private final BulkUpdateProperties properties;
+
+  /**
+   * Changes the prices of the matching products to {@code round(price * (1 + percent / 100) +
+   * amount, 2)}.
+   *
+   * @param spec the products to change (can be null for all products)
+   * @param percent relative change in percent (can be null)
+   * @param amount absolute change added after the percentage (can be null)
+   * @return the number of changed products
+   * @throws BadRequestException if a matching product would get a price of zero or less
+   */
+  public long adjustPrices(Specification<Product> spec, BigDecimal percent, BigDecimal amount) {
+    BigDecimal factor = factor(percent);
+    BigDecimal addend = amount == null ? BigDecimal.ZERO : amount;
+    Specification<Product> tooCheap =
+        (root, query, cb) ->
+            cb.lessThan(
+                cb.sum(cb.prod(root.<BigDecimal>get("price"), factor), addend),
+                MIN_UNROUNDED_PRICE);
+    if (repository.exists(Specification.where(spec).and(tooCheap))) {
+      throw new BadRequestException("The price change would make some prices zero or negative");
+    }
+    return apply(spec, ids -> repository.adjustPrices(ids, factor, addend));
+  }
+
+  /**
+   * Adds a delta to the quantities of the matching products.
+   *
+   * @param spec the products to change (can be null for all products)
+   * @param delta the quantity to add, negative to remove stock
+   * @return the number of changed products
+   * @throws BadRequestException if a matching product would get a negative quantity
+   */
+  public long adjustQuantities(Specification<Product> spec, int delta) {
+    Specification<Product> understocked =
+        (root, query, cb) -> cb.lessThan(cb.sum(root.<Integer>get("quantity"), delta), 0);
+    if (delta < 0 && repository.exists(Specification.where(spec).and(understocked))) {
+      throw new BadRequestException("The quantity change would make some quantities negative");
+    }
+    return apply(spec, ids -> repository.adjustQuantities(ids, delta));
+  }
+
+  /**
+   * Applies a validated change to the given products in the caller's transaction and records their
+   * new state in the outbox. Used by bulk update jobs, which select and check their chunks
+   * themselves and commit each chunk together with their progress.
+   *
+   * @param ids the products to change
+   * @param update the price or quantity change
+   */
+  @Transactional(propagation = Propagation.MANDATORY)
+  public void update(List<Long> ids, BulkProductUpdateDto update) {
+    if (update.getQuantityDelta() == null) {
+      BigDecimal amount = update.getPriceAmount();
+      repository.adjustPrices(
+          ids, factor(update.getPricePercent()), amount == null ? BigDecimal.ZERO : amount);
+    } else {
+      repository.adjustQuantities(ids, update.getQuantityDelta());
+    }
+    repository.findAllById(ids).forEach(product -> outbox.record(ChangeType.UPDATED, product));
+  }
+
+  /**
+   * Returns the search condition matching the products a validated change would leave with a price
+   * of zero or less or a negative quantity.
+   *
+   * @param update the price or quantity change
+   * @return the condition, or null if the change cannot be rejected
+   */
+  public static SearchCondition rejected(BulkProductUpdateDto update) {
+    if (update.getQuantityDelta() != null) {
+      return update.getQuantityDelta() < 0
+          ? new SearchCondition.Comparison(
+              SearchField.QUANTITY, SearchOperator.LT, -update.getQuantityDelta())
+          : null;
+    }
+    // price * factor + amount < MIN_UNROUNDED_PRICE solved for the price; rounding the bound up to
+    // ten decimals does not change which prices of two decimals lie below it
+    BigDecimal amount =
+        update.getPriceAmount() == null ? BigDecimal.ZERO : update.getPriceAmount();
+    BigDecimal bound =
+        MIN_UNROUNDED_PRICE
+            .subtract(amount)
+            .divide(factor(update.getPricePercent()), 10, RoundingMode.CEILING);
+    return new SearchCondition.Comparison(SearchField.PRICE, SearchOperator.LT, bound);
+  }
+
+  private static BigDecimal factor(BigDecimal percent) {
+    return percent == null
+        ? BigDecimal.ONE
+        : BigDecimal.ONE.add(percent.divide(HUNDRED, 10, RoundingMode.HALF_UP));
+  }
+
+  private long apply(Specification<Product> spec, ToIntFunction<List<Long>> update) {
+    long updated = 0;
+    long afterId = 0;
+    List<Long> ids;
+    do {
+      long from = afterId;
+      ids = transactionTemplate.execute(status -> applyChunk(spec, from, update));
+      if (ids == null || ids.isEmpty()) {
+        break;
+      }
+      updated += ids.size();
+      afterId = ids.get(ids.size() - 1);
+    } while (ids.size() == properties.chunkSize());
+    log.info("Bulk update changed {} products", updated);
+    return updated;
+  }
+
+  private List<Long> applyChunk(
+      Specification<Product> spec, long afterId, ToIntFunction<List<Long>> update) {
+    List<Long> ids = repository.findIdsAfter(spec, afterId, properties.chunkSize());
+    if (!ids.isEmpty()) {
+      update.applyAsInt(ids);
+      repository.findAllById(ids).forEach(product -> outbox.record(ChangeType.UPDATED, product));
+    }
+    return ids;
+  }
+}
@@ -0,0 +1,116 @@
+package com.phoenix.productinventory.bulk;
+
+import com.phoenix.productinventory.dto.ProductResponseDto;
+import com.phoenix.productinventory.dto.ProductUpsertDto;
+import com.phoenix.productinventory.dto.ProductUpsertResultDto;
+import com.phoenix.productinventory.mapper.ProductMapper;
+import com.phoenix.productinventory.membership.CategoryMembershipIndex;
+import com.phoenix.productinventory.model.Product;
+import com.phoenix.productinventory.outbox.ChangeType;
+import com.phoenix.productinventory.outbox.OutboxService;
+import com.phoenix.productinventory.repository.ProductRepository;
+import com.phoenix.productinventory.repository.ProductSkuKey;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Inserts or updates products by SKU with one {@code MERGE} statement per batch.
+ *
+ * <p>The products are written in batches of {@code bulk.upsert-batch-size}, all in the caller's
+ * transaction. Each batch takes three statements regardless of its size: the existing products are
+ * selected and write-locked, which decides which products are created and checks the expected
+ * versions, then one {@code MERGE} inserts or updates all of them, and one query loads the results
+ * for the change events and the response. Updates increment the version like any other write, so
+ * concurrent single-product updates still fail their optimistic lock check.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ProductUpserter {
+
+  private final ProductRepository repository;
+  private final ProductMapper mapper;
+  private final OutboxService outbox;
+  private final CategoryMembershipIndex membershipIndex;
+  private final BulkUpdateProperties properties;
+
+  /**
+   * Writes the given products. SKUs must be distinct and the referenced categories must exist.
+   *
+   * @param products the products to create or update
+   * @return the number of created and updated products and their new state in request order
+   * @throws OptimisticLockingFailureException if a product with an expected version does not exist
+   *     or has another version
+   */
+  @Transactional(propagation = Propagation.MANDATORY)
+  public ProductUpsertResultDto upsert(List<ProductUpsertDto> products) {
+    List<ProductResponseDto> results = new ArrayList<>(products.size());
+    long created = 0;
+    for (int from = 0; from < products.size(); from += properties.upsertBatchSize()) {
+      List<ProductUpsertDto> batch =
+          products.subList(from, Math.min(from + properties.upsertBatchSize(), products.size()));
+      created += upsertBatch(batch, results);
+    }
+    log.info("Upserted {} products, {} of them new", products.size(), created);
+    return new ProductUpsertResultDto(created, products.size() - created, results);
+  }
+
+  private long upsertBatch(List<ProductUpsertDto> batch, List<ProductResponseDto> results) {
+    List<String> skus = batch.stream().map(ProductUpsertDto::getSku).toList();
+    Map<String, ProductSkuKey> existing =
+        repository.lockBySkus(skus).stream()
+            .collect(Collectors.toMap(ProductSkuKey::sku, Function.identity()));
+    for (ProductUpsertDto product : batch) {
+      checkVersion(product, existing.get(product.getSku()));
+    }
+
+    repository.mergeBySku(batch);
+
+    Map<String, Product> written = new HashMap<>();
+    repository.findAllBySkuIn(skus).forEach(product -> written.put(product.getSku(), product));
+    long created = 0;
+    for (String sku : skus) {
+      Product product = written.get(sku);
+      Long categoryId = product.getCategory() == null ? null : product.getCategory().getId();
+      ProductSkuKey previous = existing.get(sku);
+      if (previous == null) {
+        created++;
+        outbox.record(ChangeType.CREATED, product);
+        membershipIndex.addProduct(product.getId(), categoryId, product.getVersion());
+      } else {
+        outbox.record(ChangeType.UPDATED, product);
+        if (!Objects.equals(previous.categoryId(), categoryId)) {
+          membershipIndex.changePrimaryCategory(
+              product.getId(), previous.categoryId(), categoryId, product.getVersion());
+        }
+      }
+      results.add(mapper.toDto(product));
+    }
+    return created;
+  }
+
+  private static void checkVersion(ProductUpsertDto product, ProductSkuKey existing) {
+    if (product.getVersion() == null) {
+      return;
+    }
+    if (existing == null) {
+      throw new OptimisticLockingFailureException(
+          "Product with SKU " + product.getSku() + " was expected to exist but does not.");
+    }
+    if (!existing.version().equals(product.getVersion())) {
+      throw new OptimisticLockingFailureException(
+          "Product with SKU " + product.getSku() + " was updated by another transaction.");
+    }
+  }
+}
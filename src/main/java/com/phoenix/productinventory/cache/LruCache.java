@@ -0,0 +1,64 @@
+package com.phoenix.productinventory.cache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Map of bounded size that drops its least recently used entry when a new entry would exceed the
+ * capacity.
+ *
+ * <p>Entries are kept in access order, so every lookup updates the order; all operations therefore
+ * take the same lock. They are short map operations, so the lock is only held briefly.
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ */
+public final class LruCache<K, V> {
+
+  private final Map<K, V> entries;
+
+  /**
+   * Creates an empty cache.
+   *
+   * @param capacity the maximum number of entries
+   */
+  public LruCache(int capacity) {
+    this.entries =
+        new LinkedHashMap<>(16, 0.75f, true) {
+          @Override
+          protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+            return size() > capacity;
+          }
+        };
+  }
+
+  /**
+   * Returns the value of a key and marks it as recently used.
+   *
+   * @param key the key
+   * @return the value, or null if the key is not cached
+   */
+  public synchronized V get(K key) {
+    return entries.get(key);
+  }
+
+  /**
+   * Adds or replaces the value of a key, dropping the least recently used entry if the cache is
+   * full.
+   *
+   * @param key the key
+   * @param value the value
+   */
+  public synchronized void put(K key, V value) {
+    entries.put(key, value);
+  }
+
+  /**
+   * Returns the number of entries.
+   *
+   * @return the number of cached keys
+   */
+  public synchronized int size() {
+    return entries.size();
+  }
+}
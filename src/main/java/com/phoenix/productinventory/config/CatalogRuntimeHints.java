@@ -0,0 +1,98 @@
+package com.phoenix.productinventory.config;
+
+import com.phoenix.productinventory.dto.CategoryFacetDto;
+import com.phoenix.productinventory.dto.CategoryNodeDto;
+import com.phoenix.productinventory.dto.CategoryRequestDto;
+import com.phoenix.productinventory.dto.CategoryResponseDto;
+import com.phoenix.productinventory.dto.InventoryChangeDto;
+import com.phoenix.productinventory.dto.JobRequestDto;
+import com.phoenix.productinventory.dto.PriceRangeFacetDto;
+import com.phoenix.productinventory.dto.ProductFacetsDto;
+import com.phoenix.productinventory.dto.ProductRequestDto;
+import com.phoenix.productinventory.dto.ProductResponseDto;
+import com.phoenix.productinventory.membership.CategoryMembership;
+import com.phoenix.productinventory.model.Category;
+import com.phoenix.productinventory.model.CategoryClosure;
+import com.phoenix.productinventory.model.Job;
+import com.phoenix.productinventory.model.OutboxEvent;
+import com.phoenix.productinventory.model.Product;
+import com.phoenix.productinventory.model.ProductCategory;
+import com.phoenix.productinventory.model.ReorderThreshold;
+import com.phoenix.productinventory.outbox.ChangeEvent;
+import com.phoenix.productinventory.repository.CategoryProductCount;
+import com.phoenix.productinventory.snapshot.CatalogFingerprint;
+import com.phoenix.productinventory.snapshot.CategoryState;
+import com.phoenix.productinventory.snapshot.ProductState;
+import java.util.List;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+
+/**
+ * Reflection hints for AOT-processed and native image builds.
+ *
+ * <p>Spring derives hints for controller signatures, but DTOs that are only reached through
+ * wildcard return types (sparse fieldsets, {@code Page<?>}) or are read and written with the
+ * {@code ObjectMapper} directly (job payloads, change events), and the types instantiated by JPQL
+ * constructor expressions are invisible to it. Entities and their id classes are registered
+ * explicitly so that Hibernate can build its metamodel without falling back to runtime reflection
+ * discovery. Every new entity or constructor expression target has to be added here.
+ */
+public class CatalogRuntimeHints implements RuntimeHintsRegistrar {
+
+  static final List<Class<?>> DTOS =
+      List.of(
+          ProductRequestDto.class,
+          ProductResponseDto.class,
+          CategoryRequestDto.class,
+          CategoryResponseDto.class,
+          ProductFacetsDto.class,
+          CategoryFacetDto.class,
+          PriceRangeFacetDto.class,
+          CategoryNodeDto.class,
+          JobRequestDto.class,
+          InventoryChangeDto.class,
+          ChangeEvent.class);
+
+  static final List<Class<?>> ENTITIES =
+      List.of(
+          Product.class,
+          Category.class,
+          CategoryClosure.class,
+          CategoryClosure.Key.class,
+          ProductCategory.class,
+          ProductCategory.Key.class,
+          OutboxEvent.class,
+          Job.class,
+          ReorderThreshold.class);
+
+  static final List<Class<?>> QUERY_RESULTS =
+      List.of(
+          CatalogFingerprint.class,
+          ProductState.class,
+          CategoryState.class,
+          CategoryNodeDto.class,
+          CategoryMembership.class,
+          CategoryProductCount.class);
+
+  @Override
+  public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+    new BindingReflectionHintsRegistrar()
+        .registerReflectionHints(hints.reflection(), DTOS.toArray(Class<?>[]::new));
+    ENTITIES.forEach(
+        entity ->
+            hints
+                .reflection()
+                .registerType(
+                    entity,
+                    MemberCategory.DECLARED_FIELDS,
+                    MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                    MemberCategory.INVOKE_DECLARED_METHODS));
+    QUERY_RESULTS.forEach(
+        type ->
+            hints
+                .reflection()
+                .registerType(type, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS));
+  }
+}
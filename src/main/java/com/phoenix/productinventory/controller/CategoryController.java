@@ -1,17 +1,27 @@
 package com.phoenix.productinventory.controller;
 
+import com.phoenix.productinventory.dto.CategoryNodeDto;
 import com.phoenix.productinventory.dto.CategoryRequestDto;
 import com.phoenix.productinventory.dto.CategoryResponseDto;
+import com.phoenix.productinventory.dto.KeysetPageDto;
+import com.phoenix.productinventory.dto.ProductResponseDto;
+import com.phoenix.productinventory.fragment.ProductFragmentCache;
 import com.phoenix.productinventory.model.Category;
+import com.phoenix.productinventory.model.Product;
 import com.phoenix.productinventory.service.CategoryService;
+import com.phoenix.productinventory.service.ProductService;
 import com.phoenix.productinventory.spcification.CategorySpecification;
+import com.phoenix.productinventory.spcification.ProductSpecification;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import java.math.BigDecimal;
+import java.util.List;
 import lombok.RequiredArgsConstructor;
 import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.data.domain.Page;
@@ -35,7 +45,11 @@ import org.springframework.web.bind.annotation.RestController;
 @Tag(name = "Category", description = "API for managing categories")
 public class CategoryController {
 
+  private static final int DEFAULT_KEYSET_PAGE_SIZE = 20;
+
   private final CategoryService categoryService;
+  private final ProductService productService;
+  private final ProductFragmentCache fragmentCache;
 
   @Operation(
       summary = "Create a new category",
@@ -99,6 +113,58 @@ public class CategoryController {
     return ResponseEntity.ok(categoryService.getAllCategories(spec, pageable));
   }
 
+  @Operation(
+      summary = "Get the products of a category",
+      description =
+          "Lists the products whose primary category is the given one, with optional filters. "
+              + "Without afterId the result is an offset page; with afterId it is a keyset page "
+              + "of the products with a greater id in id order, where page and sort are ignored.",
+      responses = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Products retrieved successfully",
+            content = @Content(mediaType = "application/json")),
+        @ApiResponse(responseCode = "404", description = "Category not found")
+      })
+  @GetMapping("/{id}/products")
+  public ResponseEntity<?> getCategoryProducts(
+      @Parameter(description = "Category ID") @PathVariable Long id,
+      @Parameter(description = "Product name filter (optional)") @RequestParam(required = false)
+          String name,
+      @Parameter(description = "Minimum price filter (optional)") @RequestParam(required = false)
+          BigDecimal minPrice,
+      @Parameter(description = "Maximum price filter (optional)") @RequestParam(required = false)
+          BigDecimal maxPrice,
+      @Parameter(description = "Minimum quantity filter (optional)") @RequestParam(required = false)
+          Integer minQuantity,
+      @Parameter(description = "Maximum quantity filter (optional)") @RequestParam(required = false)
+          Integer maxQuantity,
+      @Parameter(description = "Continue after this product id in id order (optional)")
+          @RequestParam(required = false)
+          Long afterId,
+      @ParameterObject Pageable pageable) {
+    categoryService.getCategoryById(id);
+    Specification<Product> spec =
+        Specification.where(ProductSpecification.hasCategoryId(id))
+            .and(ProductSpecification.hasName(name))
+            .and(ProductSpecification.hasMinPrice(minPrice))
+            .and(ProductSpecification.hasMaxPrice(maxPrice))
+            .and(ProductSpecification.hasMinQuantity(minQuantity))
+            .and(ProductSpecification.hasMaxQuantity(maxQuantity));
+
+    if (afterId == null) {
+      return ResponseEntity.ok(fragmentCache.wrap(productService.getAllProducts(spec, pageable)));
+    }
+    int size = pageable.isPaged() ? pageable.getPageSize() : DEFAULT_KEYSET_PAGE_SIZE;
+    // One extra row tells whether another page follows
+    List<ProductResponseDto> products = productService.getProductsAfter(spec, afterId, size + 1);
+    boolean hasNext = products.size() > size;
+    List<ProductResponseDto> content = hasNext ? products.subList(0, size) : products;
+    return ResponseEntity.ok(
+        new KeysetPageDto<>(
+            fragmentCache.wrap(content), size, hasNext ? content.get(size - 1).getId() : null));
+  }
+
   @Operation(
       summary = "Update a category",
       description = "Updates a category by its ID.",
@@ -111,7 +177,10 @@ public class CategoryController {
                     mediaType = "application/json",
                     schema = @Schema(implementation = CategoryResponseDto.class))),
         @ApiResponse(responseCode = "404", description = "Category not found"),
-        @ApiResponse(responseCode = "400", description = "Invalid input data")
+        @ApiResponse(responseCode = "400", description = "Invalid input data"),
+        @ApiResponse(
+            responseCode = "409",
+            description = "Category does not have the expected version")
       })
   @PutMapping("/{id}")
   public ResponseEntity<CategoryResponseDto> updateCategory(
@@ -123,9 +192,11 @@ public class CategoryController {
 
   @Operation(
       summary = "Delete a category",
-      description = "Deletes a category by its ID.",
+      description =
+          "Deletes a category by its ID. Categories with subcategories cannot be deleted.",
       responses = {
         @ApiResponse(responseCode = "204", description = "Category deleted successfully"),
+        @ApiResponse(responseCode = "400", description = "Category has subcategories"),
         @ApiResponse(responseCode = "404", description = "Category not found")
       })
   @DeleteMapping("/{id}")
@@ -134,4 +205,73 @@ public class CategoryController {
     categoryService.deleteCategory(id);
     return ResponseEntity.noContent().build();
   }
+
+  @Operation(
+      summary = "Get the subtree of a category",
+      description =
+          "Lists a category and its descendants, ordered by depth and name, with the number of "
+              + "products in the subtree of each listed category. 'maxDepth' limits the listed "
+              + "levels (e.g., maxDepth=1 for the direct subcategories).",
+      responses = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Subtree retrieved successfully",
+            content =
+                @Content(
+                    mediaType = "application/json",
+                    array =
+                        @ArraySchema(schema = @Schema(implementation = CategoryNodeDto.class)))),
+        @ApiResponse(responseCode = "400", description = "Negative maximum depth"),
+        @ApiResponse(responseCode = "404", description = "Category not found")
+      })
+  @GetMapping("/{id}/subtree")
+  public ResponseEntity<List<CategoryNodeDto>> getSubtree(
+      @Parameter(description = "Category ID") @PathVariable Long id,
+      @Parameter(description = "Deepest level to list relative to the category (optional)")
+          @RequestParam(required = false)
+          Integer maxDepth) {
+    return ResponseEntity.ok(categoryService.getSubtree(id, maxDepth));
+  }
+
+  @Operation(
+      summary = "Move a category below another category",
+      description = "Moves a category together with all of its subcategories.",
+      responses = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Category moved successfully",
+            content =
+                @Content(
+                    mediaType = "application/json",
+                    schema = @Schema(implementation = CategoryResponseDto.class))),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Parent lies in the subtree of the moved category"),
+        @ApiResponse(responseCode = "404", description = "Category or parent not found")
+      })
+  @PutMapping("/{id}/parent/{parentId}")
+  public ResponseEntity<CategoryResponseDto> moveCategory(
+      @Parameter(description = "Category ID") @PathVariable Long id,
+      @Parameter(description = "New parent category ID") @PathVariable Long parentId) {
+    return ResponseEntity.ok(categoryService.moveCategory(id, parentId));
+  }
+
+  @Operation(
+      summary = "Make a category top-level",
+      description = "Detaches a category and its subcategories from their parent.",
+      responses = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Category moved successfully",
+            content =
+                @Content(
+                    mediaType = "application/json",
+                    schema = @Schema(implementation = CategoryResponseDto.class))),
+        @ApiResponse(responseCode = "404", description = "Category not found")
+      })
+  @DeleteMapping("/{id}/parent")
+  public ResponseEntity<CategoryResponseDto> removeParent(
+      @Parameter(description = "Category ID") @PathVariable Long id) {
+    return ResponseEntity.ok(categoryService.moveCategory(id, null));
+  }
 }
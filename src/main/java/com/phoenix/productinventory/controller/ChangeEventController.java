@@ -0,0 +1,33 @@
+package com.phoenix.productinventory.controller;
+
+import com.phoenix.productinventory.outbox.SseChangeEventSink;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/** REST controller that streams committed product and category changes. */
+@RestController
+@RequestMapping("/events")
+@RequiredArgsConstructor
+@Tag(name = "Change events", description = "Stream of committed product and category changes")
+public class ChangeEventController {
+
+  private final SseChangeEventSink sseSink;
+
+  @Operation(
+      summary = "Subscribe to change events",
+      description =
+          "Streams every product and category change committed after subscribing as server-sent "
+              + "events. The event id is the outbox id; the event name is e.g. product.updated.",
+      responses = {@ApiResponse(responseCode = "200", description = "Event stream opened")})
+  @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+  public SseEmitter subscribe() {
+    return sseSink.subscribe();
+  }
+}
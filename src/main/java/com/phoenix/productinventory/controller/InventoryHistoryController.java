@@ -0,0 +1,100 @@
+package com.phoenix.productinventory.controller;
+
+import com.phoenix.productinventory.dto.InventoryHistoryPointDto;
+import com.phoenix.productinventory.history.HistoryResolution;
+import com.phoenix.productinventory.history.InventoryHistoryService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/** REST controller for the quantity and price history of products. */
+@RestController
+@RequiredArgsConstructor
+@Tag(name = "History", description = "API for the quantity and price history of products")
+public class InventoryHistoryController {
+
+  private static final Duration DEFAULT_RANGE = Duration.ofDays(1);
+
+  private final InventoryHistoryService historyService;
+
+  @Operation(
+      summary = "Get the history of a product",
+      description =
+          "Returns the open, close, lowest and highest quantity and price of the product per "
+              + "bucket, for buckets starting in the range. Changes are recorded when the outbox "
+              + "is relayed; points older than the retention of the requested resolution are "
+              + "coarser. The history of deleted products remains available.",
+      responses = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "History retrieved successfully",
+            content =
+                @Content(
+                    mediaType = "application/json",
+                    schema = @Schema(implementation = InventoryHistoryPointDto.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid range or too many points")
+      })
+  @GetMapping("/products/{id}/history")
+  public ResponseEntity<List<InventoryHistoryPointDto>> getProductHistory(
+      @PathVariable Long id,
+      @Parameter(description = "Start of the range, inclusive (default: one day before to)")
+          @RequestParam(required = false)
+          @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+          Instant from,
+      @Parameter(description = "End of the range, exclusive (default: now)")
+          @RequestParam(required = false)
+          @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+          Instant to,
+      @Parameter(description = "Bucket size") @RequestParam(defaultValue = "MINUTE")
+          HistoryResolution resolution) {
+    Instant end = to == null ? Instant.now() : to;
+    Instant start = from == null ? end.minus(DEFAULT_RANGE) : from;
+    return ResponseEntity.ok(historyService.getProductHistory(id, start, end, resolution));
+  }
+
+  @Operation(
+      summary = "Get the history of the products of a category",
+      description =
+          "Returns the history points of the products whose primary category was the given one "
+              + "when they changed, ordered by bucket start and product id.",
+      responses = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "History retrieved successfully",
+            content =
+                @Content(
+                    mediaType = "application/json",
+                    schema = @Schema(implementation = InventoryHistoryPointDto.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid range or too many points")
+      })
+  @GetMapping("/categories/{id}/history")
+  public ResponseEntity<List<InventoryHistoryPointDto>> getCategoryHistory(
+      @PathVariable Long id,
+      @Parameter(description = "Start of the range, inclusive (default: one day before to)")
+          @RequestParam(required = false)
+          @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+          Instant from,
+      @Parameter(description = "End of the range, exclusive (default: now)")
+          @RequestParam(required = false)
+          @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+          Instant to,
+      @Parameter(description = "Bucket size") @RequestParam(defaultValue = "MINUTE")
+          HistoryResolution resolution) {
+    Instant end = to == null ? Instant.now() : to;
+    Instant start = from == null ? end.minus(DEFAULT_RANGE) : from;
+    return ResponseEntity.ok(historyService.getCategoryHistory(id, start, end, resolution));
+  }
+}
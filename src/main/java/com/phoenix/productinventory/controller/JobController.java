@@ -0,0 +1,91 @@
+package com.phoenix.productinventory.controller;
+
+import com.phoenix.productinventory.dto.JobDto;
+import com.phoenix.productinventory.dto.JobRequestDto;
+import com.phoenix.productinventory.job.JobService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import java.net.URI;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/** REST controller for long-running bulk operations executed in the background. */
+@RestController
+@RequestMapping("/jobs")
+@Profile("!sharding")
+@RequiredArgsConstructor
+@Tag(name = "Job", description = "API for running bulk operations in the background")
+public class JobController {
+
+  private final JobService jobService;
+
+  @Operation(
+      summary = "Submit a background job",
+      description =
+          "Queues a product bulk update (type PRODUCT_BULK_UPDATE with a search filter and an "
+              + "update) or a supplier feed (type PRODUCT_UPSERT with products). The job runs in "
+              + "chunks that commit one by one; poll the returned location for its progress.",
+      responses = {
+        @ApiResponse(
+            responseCode = "202",
+            description = "Job queued",
+            content =
+                @Content(
+                    mediaType = "application/json",
+                    schema = @Schema(implementation = JobDto.class))),
+        @ApiResponse(responseCode = "400", description = "Unknown type or invalid job")
+      })
+  @PostMapping
+  public ResponseEntity<JobDto> submitJob(@RequestBody JobRequestDto request) {
+    JobDto job = jobService.submit(request);
+    return ResponseEntity.accepted().location(URI.create("/jobs/" + job.getId())).body(job);
+  }
+
+  @Operation(
+      summary = "Get a job by ID",
+      description = "Retrieves the status and progress of a job.",
+      responses = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Job found",
+            content =
+                @Content(
+                    mediaType = "application/json",
+                    schema = @Schema(implementation = JobDto.class))),
+        @ApiResponse(responseCode = "404", description = "Job not found")
+      })
+  @GetMapping("/{id}")
+  public ResponseEntity<JobDto> getJob(@PathVariable Long id) {
+    return ResponseEntity.ok(jobService.getJob(id));
+  }
+
+  @Operation(
+      summary = "Cancel a job",
+      description =
+          "Cancels a queued job at once and stops a running job before its next chunk; committed "
+              + "chunks are kept. Cancelling a finished job has no effect.",
+      responses = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Cancellation requested",
+            content =
+                @Content(
+                    mediaType = "application/json",
+                    schema = @Schema(implementation = JobDto.class))),
+        @ApiResponse(responseCode = "404", description = "Job not found")
+      })
+  @PostMapping("/{id}/cancel")
+  public ResponseEntity<JobDto> cancelJob(@PathVariable Long id) {
+    return ResponseEntity.ok(jobService.cancel(id));
+  }
+}
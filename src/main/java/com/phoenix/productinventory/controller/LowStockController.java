@@ -0,0 +1,131 @@
+package com.phoenix.productinventory.controller;
+
+import com.phoenix.productinventory.dto.KeysetPageDto;
+import com.phoenix.productinventory.dto.LowStockProductDto;
+import com.phoenix.productinventory.dto.ReorderThresholdDto;
+import com.phoenix.productinventory.stock.LowStockIndex;
+import com.phoenix.productinventory.stock.ReorderThresholdService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/** REST controller for reorder thresholds and the products that are low on stock. */
+@RestController
+@RequiredArgsConstructor
+@Tag(name = "Stock", description = "API for reorder thresholds and low-stock products")
+public class LowStockController {
+
+  private final LowStockIndex lowStockIndex;
+  private final ReorderThresholdService thresholdService;
+
+  @Operation(
+      summary = "List products that are low on stock",
+      description =
+          "Lists the products whose quantity is at or below their reorder threshold, in id order. "
+              + "The list is kept in memory and follows committed changes within the outbox "
+              + "relay interval, so it costs no database query.",
+      responses = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Low-stock products retrieved successfully",
+            content =
+                @Content(
+                    mediaType = "application/json",
+                    schema = @Schema(implementation = KeysetPageDto.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid page size")
+      })
+  @GetMapping("/products/low-stock")
+  public ResponseEntity<KeysetPageDto<LowStockProductDto>> getLowStock(
+      @Parameter(description = "Only products of this primary category (optional)")
+          @RequestParam(required = false)
+          Long categoryId,
+      @Parameter(description = "Continue after this product id (optional)")
+          @RequestParam(required = false)
+          Long afterId,
+      @Parameter(description = "Maximum number of products") @RequestParam(defaultValue = "100")
+          int size) {
+    return ResponseEntity.ok(lowStockIndex.getLowStock(categoryId, afterId, size));
+  }
+
+  @Operation(
+      summary = "Set the reorder threshold of a product",
+      description =
+          "Sets the highest quantity at which the product counts as low on stock, overriding the "
+              + "threshold of its category.",
+      responses = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Threshold set",
+            content =
+                @Content(
+                    mediaType = "application/json",
+                    schema = @Schema(implementation = ReorderThresholdDto.class))),
+        @ApiResponse(responseCode = "400", description = "Missing or negative threshold"),
+        @ApiResponse(responseCode = "404", description = "Product not found")
+      })
+  @PutMapping("/products/{id}/reorder-threshold")
+  public ResponseEntity<ReorderThresholdDto> setProductThreshold(
+      @PathVariable Long id, @RequestBody ReorderThresholdDto dto) {
+    return ResponseEntity.ok(thresholdService.setProductThreshold(id, dto.getThreshold()));
+  }
+
+  @Operation(
+      summary = "Remove the reorder threshold of a product",
+      description = "Removes the threshold of the product, so the one of its category applies.",
+      responses = {
+        @ApiResponse(responseCode = "204", description = "Threshold removed"),
+        @ApiResponse(responseCode = "404", description = "Product not found")
+      })
+  @DeleteMapping("/products/{id}/reorder-threshold")
+  public ResponseEntity<Void> removeProductThreshold(@PathVariable Long id) {
+    thresholdService.removeProductThreshold(id);
+    return ResponseEntity.noContent().build();
+  }
+
+  @Operation(
+      summary = "Set the reorder threshold of a category",
+      description =
+          "Sets the threshold of the products whose primary category is the given one and that "
+              + "have no threshold of their own.",
+      responses = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Threshold set",
+            content =
+                @Content(
+                    mediaType = "application/json",
+                    schema = @Schema(implementation = ReorderThresholdDto.class))),
+        @ApiResponse(responseCode = "400", description = "Missing or negative threshold"),
+        @ApiResponse(responseCode = "404", description = "Category not found")
+      })
+  @PutMapping("/categories/{id}/reorder-threshold")
+  public ResponseEntity<ReorderThresholdDto> setCategoryThreshold(
+      @PathVariable Long id, @RequestBody ReorderThresholdDto dto) {
+    return ResponseEntity.ok(thresholdService.setCategoryThreshold(id, dto.getThreshold()));
+  }
+
+  @Operation(
+      summary = "Remove the reorder threshold of a category",
+      description = "Removes the threshold of the category, so the default threshold applies.",
+      responses = {
+        @ApiResponse(responseCode = "204", description = "Threshold removed"),
+        @ApiResponse(responseCode = "404", description = "Category not found")
+      })
+  @DeleteMapping("/categories/{id}/reorder-threshold")
+  public ResponseEntity<Void> removeCategoryThreshold(@PathVariable Long id) {
+    thresholdService.removeCategoryThreshold(id);
+    return ResponseEntity.noContent().build();
+  }
+}
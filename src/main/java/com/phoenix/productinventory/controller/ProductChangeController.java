@@ -0,0 +1,62 @@
+package com.phoenix.productinventory.controller;
+
+import com.phoenix.productinventory.dto.InventoryChangeDto;
+import com.phoenix.productinventory.outbox.InventoryChangeFilter;
+import com.phoenix.productinventory.outbox.InventoryChangeStream;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/** REST controller that streams product inventory changes. */
+@RestController
+@RequestMapping("/products/changes")
+@RequiredArgsConstructor
+@Tag(name = "Product", description = "API for managing products in the inventory")
+public class ProductChangeController {
+
+  private final InventoryChangeStream inventoryChangeStream;
+
+  @Operation(
+      summary = "Stream product inventory changes",
+      description =
+          "Pushes the quantity, price, category and version of every product change as it commits, "
+              + "as server-sent events named 'inventory'. Reconnecting clients resume after the "
+              + "event id sent in the Last-Event-ID header (or the lastEventId parameter).",
+      responses = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Event stream opened",
+            content =
+                @Content(
+                    mediaType = MediaType.TEXT_EVENT_STREAM_VALUE,
+                    schema = @Schema(implementation = InventoryChangeDto.class)))
+      })
+  @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+  public SseEmitter streamChanges(
+      @Parameter(description = "Only changes of products in this category (optional)")
+          @RequestParam(required = false)
+          Long categoryId,
+      @Parameter(description = "Only changes leaving at most this quantity in stock (optional)")
+          @RequestParam(required = false)
+          Integer maxQuantity,
+      @Parameter(description = "Resume after this event id (optional)")
+          @RequestParam(required = false)
+          Long lastEventId,
+      @Parameter(hidden = true) @RequestHeader(name = "Last-Event-ID", required = false)
+          Long lastEventIdHeader) {
+    return inventoryChangeStream.subscribe(
+        lastEventIdHeader != null ? lastEventIdHeader : lastEventId,
+        new InventoryChangeFilter(categoryId, maxQuantity));
+  }
+}
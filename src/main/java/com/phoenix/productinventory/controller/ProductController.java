@@ -1,8 +1,21 @@
 package com.phoenix.productinventory.controller;
 
+import com.phoenix.productinventory.dto.BulkProductUpdateDto;
+import com.phoenix.productinventory.dto.BulkUpdateResultDto;
+import com.phoenix.productinventory.dto.CategoryResponseDto;
+import com.phoenix.productinventory.dto.ProductFacetsDto;
+import com.phoenix.productinventory.dto.ProductField;
 import com.phoenix.productinventory.dto.ProductRequestDto;
 import com.phoenix.productinventory.dto.ProductResponseDto;
+import com.phoenix.productinventory.dto.ProductSearchDto;
+import com.phoenix.productinventory.dto.ProductUpsertDto;
+import com.phoenix.productinventory.dto.ProductUpsertResultDto;
+import com.phoenix.productinventory.fragment.CachedProductJson;
+import com.phoenix.productinventory.fragment.ProductFragmentCache;
+import com.phoenix.productinventory.membership.CategoryExpression;
+import com.phoenix.productinventory.membership.CategoryMembershipIndex;
 import com.phoenix.productinventory.model.Product;
+import com.phoenix.productinventory.search.ProductSearchQuery;
 import com.phoenix.productinventory.service.ProductService;
 import com.phoenix.productinventory.spcification.ProductSpecification;
 import io.swagger.v3.oas.annotations.Operation;
@@ -13,11 +26,17 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 import lombok.RequiredArgsConstructor;
 import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -25,6 +44,7 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
@@ -37,6 +57,8 @@ import org.springframework.web.bind.annotation.RestController;
 public class ProductController {
 
   private final ProductService productService;
+  private final CategoryMembershipIndex membershipIndex;
+  private final ProductFragmentCache fragmentCache;
 
   @Operation(
       summary = "Create a new product",
@@ -61,7 +83,9 @@ public class ProductController {
       summary = "Get products with optional filters, pagination, and sorting",
       description =
           "Retrieves products optionally filtered by name, price, and quantity, with support for pagination and sorting. "
-              + "Sorting can be applied by adding 'sort' query parameters (e.g., sort=price,asc).",
+              + "Sorting can be applied by adding 'sort' query parameters (e.g., sort=price,asc). "
+              + "Use 'fields' to return only some properties (e.g., fields=name,price). "
+              + "'underCategoryId' limits the list to a category and all of its subcategories.",
       responses = {
         @ApiResponse(
             responseCode = "200",
@@ -69,7 +93,7 @@ public class ProductController {
             content = @Content(mediaType = "application/json"))
       })
   @GetMapping
-  public ResponseEntity<Page<ProductResponseDto>> getAllProducts(
+  public ResponseEntity<Page<?>> getAllProducts(
       @Parameter(description = "Product name filter (optional)") @RequestParam(required = false)
           String name,
       @Parameter(description = "Minimum price filter (optional)") @RequestParam(required = false)
@@ -80,16 +104,195 @@ public class ProductController {
           Integer minQuantity,
       @Parameter(description = "Maximum quantity filter (optional)") @RequestParam(required = false)
           Integer maxQuantity,
+      @Parameter(description = "Only products in this category or its subcategories (optional)")
+          @RequestParam(required = false)
+          Long underCategoryId,
+      @Parameter(description = "Only products in all of these categories (optional)")
+          @RequestParam(required = false)
+          List<Long> allCategories,
+      @Parameter(description = "Only products in at least one of these categories (optional)")
+          @RequestParam(required = false)
+          List<Long> anyCategories,
+      @Parameter(description = "Only products in none of these categories (optional)")
+          @RequestParam(required = false)
+          List<Long> noneCategories,
+      @Parameter(description = "Comma-separated fields to return, e.g. name,price (optional)")
+          @RequestParam(required = false)
+          String fields,
       @ParameterObject Pageable pageable) {
 
     Specification<Product> spec =
-        Specification.where(ProductSpecification.hasName(name))
-            .and(ProductSpecification.hasMinPrice(minPrice))
-            .and(ProductSpecification.hasMaxPrice(maxPrice))
-            .and(ProductSpecification.hasMinQuantity(minQuantity))
-            .and(ProductSpecification.hasMaxQuantity(maxQuantity));
+        filter(name, minPrice, maxPrice, minQuantity, maxQuantity, underCategoryId)
+            .and(
+                membershipIndex.toSpecification(
+                    new CategoryExpression(allCategories, anyCategories, noneCategories)));
 
-    return ResponseEntity.ok(productService.getAllProducts(spec, pageable));
+    if (fields == null) {
+      return ResponseEntity.ok(fragmentCache.wrap(productService.getAllProducts(spec, pageable)));
+    }
+    Set<ProductField> selection = ProductField.parse(fields);
+    return ResponseEntity.ok(
+        productService
+            .getAllProducts(spec, pageable, selection)
+            .map(product -> ProductField.select(product, selection)));
+  }
+
+  @Operation(
+      summary = "Search products with a filter expression",
+      description =
+          "Finds products matching a filter built from and, or and not over tests of id, name, "
+              + "description, price, quantity, sku, categoryId and underCategoryId with the "
+              + "operators eq, in, gt, gte, lt, lte, contains and isNull, e.g. "
+              + "{\"filter\": {\"and\": [{\"field\": \"price\", \"gte\": 10, \"lt\": 100}, "
+              + "{\"field\": \"underCategoryId\", \"eq\": 1}]}, "
+              + "\"sort\": [{\"field\": \"price\", \"direction\": \"desc\"}], \"size\": 20}. "
+              + "Searches of the same shape share one compiled query.",
+      responses = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Products retrieved successfully",
+            content = @Content(mediaType = "application/json")),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Malformed filter, unknown field, unsupported operator or invalid value")
+      })
+  @PostMapping("/search")
+  public ResponseEntity<Page<CachedProductJson>> searchProducts(
+      @RequestBody ProductSearchDto search) {
+    ProductSearchQuery query = ProductSearchQuery.of(search);
+    return ResponseEntity.ok(
+        fragmentCache.wrap(productService.searchProducts(query.filter(), query.pageable())));
+  }
+
+  @Operation(
+      summary = "Get facet counts for the products matching optional filters",
+      description =
+          "Computes the number of matching products per category, per price range and in/out of "
+              + "stock in a single aggregate query. Accepts the same filters as the product list.",
+      responses = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Facets computed successfully",
+            content =
+                @Content(
+                    mediaType = "application/json",
+                    schema = @Schema(implementation = ProductFacetsDto.class))),
+        @ApiResponse(responseCode = "400", description = "Price breaks are not ascending")
+      })
+  @GetMapping("/facets")
+  public ResponseEntity<ProductFacetsDto> getFacets(
+      @Parameter(description = "Product name filter (optional)") @RequestParam(required = false)
+          String name,
+      @Parameter(description = "Minimum price filter (optional)") @RequestParam(required = false)
+          BigDecimal minPrice,
+      @Parameter(description = "Maximum price filter (optional)") @RequestParam(required = false)
+          BigDecimal maxPrice,
+      @Parameter(description = "Minimum quantity filter (optional)") @RequestParam(required = false)
+          Integer minQuantity,
+      @Parameter(description = "Maximum quantity filter (optional)") @RequestParam(required = false)
+          Integer maxQuantity,
+      @Parameter(description = "Only products in this category or its subcategories (optional)")
+          @RequestParam(required = false)
+          Long underCategoryId,
+      @Parameter(description = "Only products in all of these categories (optional)")
+          @RequestParam(required = false)
+          List<Long> allCategories,
+      @Parameter(description = "Only products in at least one of these categories (optional)")
+          @RequestParam(required = false)
+          List<Long> anyCategories,
+      @Parameter(description = "Only products in none of these categories (optional)")
+          @RequestParam(required = false)
+          List<Long> noneCategories,
+      @Parameter(description = "Ascending bounds separating the price ranges")
+          @RequestParam(defaultValue = "50,100,500,1000")
+          List<BigDecimal> priceBreaks) {
+    return ResponseEntity.ok(
+        productService.getFacets(
+            filter(name, minPrice, maxPrice, minQuantity, maxQuantity, underCategoryId)
+                .and(
+                    membershipIndex.toSpecification(
+                        new CategoryExpression(allCategories, anyCategories, noneCategories))),
+            priceBreaks));
+  }
+
+  @Operation(
+      summary = "Change the price or stock of all matching products",
+      description =
+          "Applies a price change (pricePercent and/or priceAmount) or a quantity adjustment "
+              + "(quantityDelta) to every product matching the filters, which are the same as for "
+              + "the product list, using chunked set-based updates.",
+      responses = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Products updated successfully",
+            content =
+                @Content(
+                    mediaType = "application/json",
+                    schema = @Schema(implementation = BulkUpdateResultDto.class))),
+        @ApiResponse(
+            responseCode = "400",
+            description =
+                "Invalid change, or a price would become non-positive or a quantity negative")
+      })
+  @PostMapping("/bulk-update")
+  public ResponseEntity<BulkUpdateResultDto> bulkUpdateProducts(
+      @Parameter(description = "Product name filter (optional)") @RequestParam(required = false)
+          String name,
+      @Parameter(description = "Minimum price filter (optional)") @RequestParam(required = false)
+          BigDecimal minPrice,
+      @Parameter(description = "Maximum price filter (optional)") @RequestParam(required = false)
+          BigDecimal maxPrice,
+      @Parameter(description = "Minimum quantity filter (optional)") @RequestParam(required = false)
+          Integer minQuantity,
+      @Parameter(description = "Maximum quantity filter (optional)") @RequestParam(required = false)
+          Integer maxQuantity,
+      @Parameter(description = "Only products in this category or its subcategories (optional)")
+          @RequestParam(required = false)
+          Long underCategoryId,
+      @Parameter(description = "Only products in all of these categories (optional)")
+          @RequestParam(required = false)
+          List<Long> allCategories,
+      @Parameter(description = "Only products in at least one of these categories (optional)")
+          @RequestParam(required = false)
+          List<Long> anyCategories,
+      @Parameter(description = "Only products in none of these categories (optional)")
+          @RequestParam(required = false)
+          List<Long> noneCategories,
+      @RequestBody BulkProductUpdateDto update) {
+    Specification<Product> spec =
+        filter(name, minPrice, maxPrice, minQuantity, maxQuantity, underCategoryId)
+            .and(
+                membershipIndex.toSpecification(
+                    new CategoryExpression(allCategories, anyCategories, noneCategories)));
+    return ResponseEntity.ok(productService.bulkUpdate(spec, update));
+  }
+
+  @Operation(
+      summary = "Create or update products by SKU",
+      description =
+          "Writes a supplier feed: products whose SKU exists are updated, the others are created. "
+              + "A product with a version is only updated if it has that version. All products are "
+              + "written in one transaction with one MERGE statement per batch.",
+      responses = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Products created or updated successfully",
+            content =
+                @Content(
+                    mediaType = "application/json",
+                    schema = @Schema(implementation = ProductUpsertResultDto.class))),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Empty feed, repeated SKU or invalid product"),
+        @ApiResponse(responseCode = "404", description = "Category not found"),
+        @ApiResponse(
+            responseCode = "409",
+            description = "A product does not have its expected version")
+      })
+  @PostMapping("/upsert")
+  public ResponseEntity<ProductUpsertResultDto> upsertProducts(
+      @RequestBody List<ProductUpsertDto> products) {
+    return ResponseEntity.ok(productService.upsertProducts(products));
   }
 
   @Operation(
@@ -106,10 +309,37 @@ public class ProductController {
         @ApiResponse(responseCode = "404", description = "Product not found")
       })
   @GetMapping("/{id}")
-  public ResponseEntity<ProductResponseDto> getProductById(
-      @Parameter(description = "Product ID") @PathVariable Long id) {
-    ProductResponseDto response = productService.getProductById(id);
-    return ResponseEntity.ok(response);
+  public ResponseEntity<?> getProductById(
+      @Parameter(description = "Product ID") @PathVariable Long id,
+      @Parameter(description = "Comma-separated fields to return, e.g. name,price (optional)")
+          @RequestParam(required = false)
+          String fields,
+      @Parameter(hidden = true) @RequestHeader(value = HttpHeaders.ACCEPT, required = false)
+          String accept,
+      @Parameter(hidden = true)
+          @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false)
+          String acceptEncoding) {
+    if (fields == null) {
+      ProductResponseDto product = productService.getProductById(id);
+      // Hot products are sent precompressed to JSON clients that accept gzip
+      Optional<byte[]> gzip =
+          acceptsGzippedJson(accept, acceptEncoding)
+              ? fragmentCache.gzip(product)
+              : Optional.empty();
+      if (gzip.isPresent()) {
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_JSON)
+            .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+            .varyBy(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING)
+            .body(gzip.get());
+      }
+      return ResponseEntity.ok()
+          .varyBy(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING)
+          .body(fragmentCache.wrap(product));
+    }
+    Set<ProductField> selection = ProductField.parse(fields);
+    return ResponseEntity.ok(
+        ProductField.select(productService.getProductById(id, selection), selection));
   }
 
   @PutMapping("/{id}")
@@ -174,4 +404,85 @@ public class ProductController {
       @Parameter(description = "Product ID") @PathVariable Long productId) {
     return ResponseEntity.ok(productService.removeCategory(productId));
   }
+
+  @Operation(
+      summary = "List the categories of a product",
+      description =
+          "Lists the primary category of the product followed by its additional categories.",
+      responses = {
+        @ApiResponse(responseCode = "200", description = "Categories retrieved successfully"),
+        @ApiResponse(responseCode = "404", description = "Product not found")
+      })
+  @GetMapping("/{productId}/categories")
+  public ResponseEntity<List<CategoryResponseDto>> getProductCategories(
+      @Parameter(description = "Product ID") @PathVariable Long productId) {
+    return ResponseEntity.ok(productService.getCategories(productId));
+  }
+
+  @Operation(
+      summary = "Add a product to an additional category",
+      description =
+          "Makes the product a member of the category without changing its primary category.",
+      responses = {
+        @ApiResponse(responseCode = "200", description = "Membership added successfully"),
+        @ApiResponse(responseCode = "404", description = "Product or category not found")
+      })
+  @PutMapping("/{productId}/categories/{categoryId}")
+  public ResponseEntity<List<CategoryResponseDto>> addProductCategory(
+      @Parameter(description = "Product ID") @PathVariable Long productId,
+      @Parameter(description = "Category ID") @PathVariable Long categoryId) {
+    return ResponseEntity.ok(productService.addCategoryMembership(productId, categoryId));
+  }
+
+  @Operation(
+      summary = "Remove a product from an additional category",
+      description = "Removes an additional category membership of the product.",
+      responses = {
+        @ApiResponse(responseCode = "200", description = "Membership removed successfully"),
+        @ApiResponse(responseCode = "404", description = "Product not found")
+      })
+  @DeleteMapping("/{productId}/categories/{categoryId}")
+  public ResponseEntity<List<CategoryResponseDto>> removeProductCategory(
+      @Parameter(description = "Product ID") @PathVariable Long productId,
+      @Parameter(description = "Category ID") @PathVariable Long categoryId) {
+    return ResponseEntity.ok(productService.removeCategoryMembership(productId, categoryId));
+  }
+
+  private static boolean acceptsGzippedJson(String accept, String acceptEncoding) {
+    if (acceptEncoding == null) {
+      return false;
+    }
+    boolean gzip = false;
+    for (String coding : acceptEncoding.split(",")) {
+      String[] parts = coding.split(";");
+      if (parts[0].trim().equalsIgnoreCase("gzip")) {
+        gzip = parts.length == 1 || !parts[1].trim().matches("q=0(\\.0*)?");
+      }
+    }
+    if (!gzip || accept == null) {
+      return gzip;
+    }
+    try {
+      // JSON is the default representation, so it is sent unless another one is preferred
+      List<MediaType> mediaTypes = MediaType.parseMediaTypes(accept);
+      return mediaTypes.isEmpty() || mediaTypes.get(0).isCompatibleWith(MediaType.APPLICATION_JSON);
+    } catch (InvalidMediaTypeException e) {
+      return false;
+    }
+  }
+
+  private static Specification<Product> filter(
+      String name,
+      BigDecimal minPrice,
+      BigDecimal maxPrice,
+      Integer minQuantity,
+      Integer maxQuantity,
+      Long underCategoryId) {
+    return Specification.where(ProductSpecification.hasName(name))
+        .and(ProductSpecification.hasMinPrice(minPrice))
+        .and(ProductSpecification.hasMaxPrice(maxPrice))
+        .and(ProductSpecification.hasMinQuantity(minQuantity))
+        .and(ProductSpecification.hasMaxQuantity(maxQuantity))
+        .and(ProductSpecification.inCategorySubtree(underCategoryId));
+  }
 }
@@ -0,0 +1,7 @@
+package com.phoenix.productinventory.datasource;
+
+/** Targets of the {@link ReadWriteRoutingDataSource}. */
+public enum DataSourceRoute {
+  PRIMARY,
+  REPLICA
+}
@@ -0,0 +1,50 @@
+package com.phoenix.productinventory.datasource;
+
+/**
+ * Thread-bound override that sends read-only transactions to the primary database.
+ *
+ * <p>Used where a read must observe writes that may not have reached the replica yet, e.g. right
+ * after a client's own write or when resuming a change stream. Outside the {@code replica} profile
+ * there is only one database and the override has no effect.
+ */
+public final class DataSourceRouting {
+
+  private static final ThreadLocal<Boolean> PRIMARY_FORCED = new ThreadLocal<>();
+
+  private DataSourceRouting() {}
+
+  /**
+   * Routes every transaction started by the current thread to the primary until the returned
+   * scope is closed.
+   *
+   * @return the scope restoring the previous routing when closed
+   */
+  public static Scope forcePrimary() {
+    Boolean previous = PRIMARY_FORCED.get();
+    PRIMARY_FORCED.set(Boolean.TRUE);
+    return () -> {
+      if (previous == null) {
+        PRIMARY_FORCED.remove();
+      } else {
+        PRIMARY_FORCED.set(previous);
+      }
+    };
+  }
+
+  /**
+   * Tells whether the current thread is inside a {@link #forcePrimary()} scope.
+   *
+   * @return true if reads must go to the primary
+   */
+  public static boolean isPrimaryForced() {
+    return Boolean.TRUE.equals(PRIMARY_FORCED.get());
+  }
+
+  /** A routing override that is undone when closed. */
+  @FunctionalInterface
+  public interface Scope extends AutoCloseable {
+
+    @Override
+    void close();
+  }
+}
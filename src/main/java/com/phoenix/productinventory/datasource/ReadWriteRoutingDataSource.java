@@ -0,0 +1,48 @@
+package com.phoenix.productinventory.datasource;
+
+import java.util.Map;
+import javax.sql.DataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Sends read-only transactions to the replica and everything else to the primary.
+ *
+ * <p>The route is decided when a connection is obtained, so this data source must be wrapped in a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}: the transaction
+ * manager only marks the transaction as read-only after it has begun, and the proxy defers the
+ * physical connection until the first statement.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+  /**
+   * Creates a routing data source.
+   *
+   * @param primary the data source for writes and forced-primary reads
+   * @param replica the data source for read-only transactions
+   */
+  public ReadWriteRoutingDataSource(DataSource primary, DataSource replica) {
+    setTargetDataSources(
+        Map.of(DataSourceRoute.PRIMARY, primary, DataSourceRoute.REPLICA, replica));
+    setDefaultTargetDataSource(primary);
+    afterPropertiesSet();
+  }
+
+  @Override
+  protected Object determineCurrentLookupKey() {
+    return currentRoute();
+  }
+
+  /**
+   * Returns the route a connection obtained by the current thread would take.
+   *
+   * @return {@link DataSourceRoute#REPLICA} inside read-only transactions unless the primary is
+   *     forced, {@link DataSourceRoute#PRIMARY} otherwise
+   */
+  public static DataSourceRoute currentRoute() {
+    return TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+            && !DataSourceRouting.isPrimaryForced()
+        ? DataSourceRoute.REPLICA
+        : DataSourceRoute.PRIMARY;
+  }
+}
@@ -0,0 +1,147 @@
+package com.phoenix.productinventory.datasource;
+
+import com.phoenix.productinventory.limiter.EndpointGroup;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.Base64;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+/**
+ * Gives clients read-your-writes consistency on top of an asynchronously replicated database.
+ *
+ * <p>After every write the client gets a cookie holding the replication position the replica has
+ * to reach before it reflects that write (see {@link ReplicationMonitor}). Reads carrying a
+ * position the replica has not reached yet run inside {@link DataSourceRouting#forcePrimary()};
+ * all other reads go to the replica. The position is signed, so a client cannot pin its reads to
+ * the primary by making one up, and the cookie expires after {@code replica.token-time-to-live}.
+ *
+ * <p>Write responses are buffered so the cookie can be set once the write has committed. Which
+ * requests are reads is decided by {@link EndpointGroup}, like for load shedding.
+ */
+@Component
+@Profile("replica")
+@Order(Ordered.HIGHEST_PRECEDENCE + 20)
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+  /** Cookie holding the signed replication position the client's reads must observe. */
+  public static final String COOKIE_NAME = "replica-position";
+
+  private static final String ALGORITHM = "HmacSHA256";
+
+  private final ReplicationMonitor monitor;
+  private final SecretKeySpec key;
+  private final int maxAgeSeconds;
+
+  public ReadYourWritesFilter(ReplicaProperties properties, ReplicationMonitor monitor) {
+    this.monitor = monitor;
+    this.key = new SecretKeySpec(secret(properties), ALGORITHM);
+    this.maxAgeSeconds =
+        (int) Math.max(1, (properties.tokenTimeToLive().toMillis() + 999) / 1000);
+  }
+
+  /**
+   * Signs a replication position.
+   *
+   * @param position the position returned by {@link ReplicationMonitor#nextPosition()}
+   * @return the cookie value
+   */
+  String token(long position) {
+    return position + "." + signature(String.valueOf(position));
+  }
+
+  @Override
+  protected void doFilterInternal(
+      HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+      throws ServletException, IOException {
+    if (EndpointGroup.of(request) == EndpointGroup.READ) {
+      if (monitor.hasReached(position(request))) {
+        filterChain.doFilter(request, response);
+        return;
+      }
+      try (DataSourceRouting.Scope ignored = DataSourceRouting.forcePrimary()) {
+        filterChain.doFilter(request, response);
+      }
+      return;
+    }
+
+    ContentCachingResponseWrapper buffered = new ContentCachingResponseWrapper(response);
+    try (DataSourceRouting.Scope ignored = DataSourceRouting.forcePrimary()) {
+      filterChain.doFilter(request, buffered);
+    }
+    Cookie cookie = new Cookie(COOKIE_NAME, token(monitor.nextPosition()));
+    cookie.setPath("/");
+    cookie.setHttpOnly(true);
+    cookie.setMaxAge(maxAgeSeconds);
+    response.addCookie(cookie);
+    buffered.copyBodyToResponse();
+  }
+
+  /** Returns the highest correctly signed position among the request's cookies, 0 if none. */
+  private long position(HttpServletRequest request) {
+    if (request.getCookies() == null) {
+      return 0;
+    }
+    return Arrays.stream(request.getCookies())
+        .filter(cookie -> COOKIE_NAME.equals(cookie.getName()))
+        .mapToLong(this::verify)
+        .max()
+        .orElse(0);
+  }
+
+  private long verify(Cookie cookie) {
+    String value = cookie.getValue();
+    int separator = value.indexOf('.');
+    if (separator < 0) {
+      return 0;
+    }
+    String position = value.substring(0, separator);
+    byte[] expected = signature(position).getBytes(StandardCharsets.US_ASCII);
+    byte[] actual = value.substring(separator + 1).getBytes(StandardCharsets.US_ASCII);
+    if (!MessageDigest.isEqual(expected, actual)) {
+      return 0;
+    }
+    try {
+      return Long.parseLong(position);
+    } catch (NumberFormatException e) {
+      return 0;
+    }
+  }
+
+  private String signature(String position) {
+    try {
+      Mac mac = Mac.getInstance(ALGORITHM);
+      mac.init(key);
+      return Base64.getUrlEncoder()
+          .withoutPadding()
+          .encodeToString(mac.doFinal(position.getBytes(StandardCharsets.US_ASCII)));
+    } catch (GeneralSecurityException e) {
+      throw new IllegalStateException("Could not sign the replication position", e);
+    }
+  }
+
+  private static byte[] secret(ReplicaProperties properties) {
+    if (StringUtils.hasText(properties.tokenSecret())) {
+      return properties.tokenSecret().getBytes(StandardCharsets.UTF_8);
+    }
+    byte[] secret = new byte[32];
+    new SecureRandom().nextBytes(secret);
+    return secret;
+  }
+}
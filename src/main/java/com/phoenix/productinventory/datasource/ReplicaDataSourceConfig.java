@@ -0,0 +1,69 @@
+package com.phoenix.productinventory.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import javax.sql.DataSource;
+import org.flywaydb.core.Flyway;
+import org.springframework.boot.autoconfigure.flyway.FlywayProperties;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+/**
+ * Splits database access between the primary ({@code spring.datasource.*}) and a read replica
+ * ({@code replica.*}) in the {@code replica} profile.
+ *
+ * <p>Both pools are separate beans so they are closed on shutdown, but only the routing proxy is
+ * injected into JPA, Flyway and the rest of the application. Flyway and schema validation run
+ * outside of read-only transactions and therefore always reach the primary.
+ */
+@Configuration
+@Profile("replica")
+@EnableConfigurationProperties({ReplicaProperties.class, FlywayProperties.class})
+public class ReplicaDataSourceConfig {
+
+  @Bean(defaultCandidate = false)
+  public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+    HikariDataSource dataSource =
+        properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    dataSource.setPoolName("primary");
+    return dataSource;
+  }
+
+  @Bean(defaultCandidate = false)
+  public HikariDataSource replicaDataSource(
+      ReplicaProperties replica, FlywayProperties flywayProperties) {
+    HikariDataSource dataSource =
+        DataSourceBuilder.create()
+            .type(HikariDataSource.class)
+            .url(replica.url())
+            .username(replica.username())
+            .password(replica.password())
+            .build();
+    dataSource.setPoolName("replica");
+    dataSource.setReadOnly(true);
+    if (replica.migrate()) {
+      Flyway.configure()
+          .dataSource(replica.url(), replica.username(), replica.password())
+          .locations(flywayProperties.getLocations().toArray(String[]::new))
+          .load()
+          .migrate();
+    }
+    return dataSource;
+  }
+
+  @Bean
+  @Primary
+  public DataSource dataSource(
+      DataSourceProperties properties,
+      ReplicaProperties replica,
+      FlywayProperties flywayProperties) {
+    return new LazyConnectionDataSourceProxy(
+        new ReadWriteRoutingDataSource(
+            primaryDataSource(properties), replicaDataSource(replica, flywayProperties)));
+  }
+}
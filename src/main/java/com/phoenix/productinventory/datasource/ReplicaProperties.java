@@ -0,0 +1,31 @@
+package com.phoenix.productinventory.datasource;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Configuration of the read replica used in the {@code replica} profile.
+ *
+ * @param url JDBC URL of the replica
+ * @param username user of the replica
+ * @param password password of the replica
+ * @param heartbeatInterval how often the replication position is advanced on the primary and read
+ *     from the replica; bounds how long a client's reads stay on the primary after replication
+ *     caught up
+ * @param tokenTimeToLive how long a client's reads wait on the primary for the replica to apply
+ *     its last write; after that they go to the replica even if it is still behind
+ * @param tokenSecret key signing the read-your-writes tokens; instances behind one load balancer
+ *     must share it, a random key is generated when it is not set
+ * @param migrate whether Flyway migrations are applied to the replica as well; only meant for a
+ *     local stand-in that is not fed by replication
+ */
+@ConfigurationProperties(prefix = "replica")
+public record ReplicaProperties(
+    String url,
+    String username,
+    String password,
+    @DefaultValue("1s") Duration heartbeatInterval,
+    @DefaultValue("1m") Duration tokenTimeToLive,
+    String tokenSecret,
+    @DefaultValue("false") boolean migrate) {}
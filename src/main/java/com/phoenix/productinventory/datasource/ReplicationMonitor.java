@@ -0,0 +1,88 @@
+package com.phoenix.productinventory.datasource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.sql.DataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Measures how far the replica has got by advancing a heartbeat row on the primary and reading it
+ * back from the replica.
+ *
+ * <p>The heartbeat position is advanced every {@code replica.heartbeat-interval}. Replication
+ * applies changes in commit order, so once the replica has a position that was written after a
+ * transaction committed on the primary, it has that transaction as well. The gap between both
+ * positions is published as {@code replica.heartbeat.lag}.
+ */
+@Slf4j
+@Component
+@Profile("replica")
+public class ReplicationMonitor implements MeterBinder {
+
+  private static final String SELECT_POSITION =
+      "SELECT position FROM replication_heartbeat WHERE id = 1";
+
+  private final JdbcTemplate primary;
+  private final JdbcTemplate replica;
+  private final AtomicLong primaryPosition = new AtomicLong();
+  private final AtomicLong replicaPosition = new AtomicLong();
+
+  public ReplicationMonitor(
+      @Qualifier("primaryDataSource") DataSource primary,
+      @Qualifier("replicaDataSource") DataSource replica) {
+    this.primary = new JdbcTemplate(primary);
+    this.replica = new JdbcTemplate(replica);
+  }
+
+  /** Advances the heartbeat on the primary and reads the position the replica has reached. */
+  @Scheduled(fixedDelayString = "${replica.heartbeat-interval:1s}")
+  public void beat() {
+    try {
+      primary.update("UPDATE replication_heartbeat SET position = position + 1 WHERE id = 1");
+      primaryPosition.set(primary.queryForObject(SELECT_POSITION, Long.class));
+      replicaPosition.set(replica.queryForObject(SELECT_POSITION, Long.class));
+    } catch (DataAccessException e) {
+      log.warn("Could not measure the replication position", e);
+    }
+  }
+
+  /**
+   * Returns the first heartbeat position that commits after everything committed on the primary so
+   * far. Reads the primary, so it must be called after the client's write has committed.
+   *
+   * @return the position the replica has to reach before it reflects the client's writes
+   */
+  public long nextPosition() {
+    return primary.queryForObject(SELECT_POSITION, Long.class) + 1;
+  }
+
+  /**
+   * Tells whether the replica has applied everything up to the given heartbeat position, as of the
+   * last heartbeat.
+   *
+   * @param position a position returned by {@link #nextPosition()}
+   * @return true if reads that must reflect the position may go to the replica
+   */
+  public boolean hasReached(long position) {
+    return replicaPosition.get() >= position;
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    Gauge.builder("replica.heartbeat.lag", this, ReplicationMonitor::lag)
+        .description("Heartbeats written to the primary that the replica has not applied yet")
+        .register(registry);
+  }
+
+  private double lag() {
+    return Math.max(0, primaryPosition.get() - replicaPosition.get());
+  }
+}
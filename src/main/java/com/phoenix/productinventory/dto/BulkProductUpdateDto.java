@@ -0,0 +1,31 @@
+package com.phoenix.productinventory.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+
+/**
+ * Data Transfer Object describing a change applied to every product matching a filter: either a
+ * price change (a percentage, an absolute amount, or both with the percentage applied first) or a
+ * quantity adjustment.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkProductUpdateDto {
+
+  /** Relative price change in percent, e.g. -15 for a 15% discount. Must be above -100. */
+  private BigDecimal pricePercent;
+
+  /** Absolute price change, added after the percentage. */
+  private BigDecimal priceAmount;
+
+  /** Quantity added to the stock; negative to remove stock. */
+  private Integer quantityDelta;
+}
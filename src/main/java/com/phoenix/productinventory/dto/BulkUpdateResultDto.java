@@ -0,0 +1,19 @@
+package com.phoenix.productinventory.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/** Data Transfer Object reporting the outcome of a bulk product update. */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkUpdateResultDto {
+
+  /** Number of products that were changed. */
+  private long updated;
+}
@@ -0,0 +1,25 @@
+package com.phoenix.productinventory.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/** Data Transfer Object with the number of matching products in one category. */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CategoryFacetDto {
+
+  /** Identifier of the category, or null for products without a category. */
+  private Long categoryId;
+
+  /** Name of the category, or null for products without a category. */
+  private String name;
+
+  /** Number of matching products. */
+  private long count;
+}
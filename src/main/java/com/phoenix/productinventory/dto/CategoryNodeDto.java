@@ -0,0 +1,31 @@
+package com.phoenix.productinventory.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/** Data Transfer Object describing one category of a subtree together with its product count. */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CategoryNodeDto {
+
+  /** Unique identifier of the category. */
+  private Long id;
+
+  /** Name of the category. */
+  private String name;
+
+  /** Identifier of the parent category, or null for a top-level category. */
+  private Long parentId;
+
+  /** Distance from the root of the requested subtree, 0 for the root itself. */
+  private int depth;
+
+  /** Number of products in this category and all of its descendants. */
+  private long productCount;
+}
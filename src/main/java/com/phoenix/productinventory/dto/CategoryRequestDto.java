@@ -26,4 +26,16 @@ public class CategoryRequestDto {
 
   /** Optional description of the category. */
   private String description;
+
+  /**
+   * Optional parent category, only used when the category is created. Use the parent endpoints
+   * to move an existing category.
+   */
+  private Long parentId;
+
+  /**
+   * Optional version the category is expected to have when it is updated. If given, the update
+   * fails with a conflict unless the category still has this version. Ignored on creation.
+   */
+  private Long version;
 }
@@ -1,7 +1,9 @@
 package com.phoenix.productinventory.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
+import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
@@ -12,6 +14,7 @@ import lombok.Setter;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
+@EqualsAndHashCode
 public class CategoryResponseDto {
 
   /** Unique identifier of the category. */
@@ -22,4 +25,14 @@ public class CategoryResponseDto {
 
   /** Description of the category. */
   private String description;
+
+  /** Identifier of the parent category, or null for a top-level category. */
+  private Long parentId;
+
+  /**
+   * Number of products whose primary category this is. Only filled in when categories are read
+   * directly, and omitted from categories embedded in products.
+   */
+  @JsonInclude(JsonInclude.Include.NON_NULL)
+  private Long productCount;
 }
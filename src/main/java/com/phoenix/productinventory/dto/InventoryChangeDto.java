@@ -0,0 +1,37 @@
+package com.phoenix.productinventory.dto;
+
+import com.phoenix.productinventory.outbox.ChangeType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+
+/** Data Transfer Object pushed to inventory change stream subscribers. */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InventoryChangeDto {
+
+  /** Identifier of the changed product. */
+  private Long productId;
+
+  /** Kind of the change. */
+  private ChangeType type;
+
+  /** Quantity in stock after the change. */
+  private Integer quantity;
+
+  /** Price after the change. */
+  private BigDecimal price;
+
+  /** Category after the change, or null if the product has none. */
+  private Long categoryId;
+
+  /** Version of the product after the change. */
+  private Long version;
+}
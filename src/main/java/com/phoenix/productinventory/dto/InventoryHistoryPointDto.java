@@ -0,0 +1,59 @@
+package com.phoenix.productinventory.dto;
+
+import com.phoenix.productinventory.history.HistoryResolution;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/** Data Transfer Object for the quantity and price of a product over one time bucket. */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InventoryHistoryPointDto {
+
+  /** Identifier of the product. */
+  private Long productId;
+
+  /** Primary category of the product at its last change in the bucket. */
+  private Long categoryId;
+
+  /** Length of the bucket; older points may be coarser than requested. */
+  private HistoryResolution resolution;
+
+  /** Start of the bucket. */
+  private Instant bucketStart;
+
+  /** Quantity after the first change in the bucket. */
+  private Integer openQuantity;
+
+  /** Quantity after the last change in the bucket. */
+  private Integer closeQuantity;
+
+  /** Lowest quantity in the bucket. */
+  private Integer minQuantity;
+
+  /** Highest quantity in the bucket. */
+  private Integer maxQuantity;
+
+  /** Price after the first change in the bucket. */
+  private BigDecimal openPrice;
+
+  /** Price after the last change in the bucket. */
+  private BigDecimal closePrice;
+
+  /** Lowest price in the bucket. */
+  private BigDecimal minPrice;
+
+  /** Highest price in the bucket. */
+  private BigDecimal maxPrice;
+
+  /** Number of changes in the bucket. */
+  private Integer changes;
+}
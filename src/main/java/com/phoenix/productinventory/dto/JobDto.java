@@ -0,0 +1,50 @@
+package com.phoenix.productinventory.dto;
+
+import com.phoenix.productinventory.job.JobStatus;
+import com.phoenix.productinventory.job.JobType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/** Data Transfer Object reporting the state and progress of a background job. */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class JobDto {
+
+  /** Unique identifier of the job. */
+  private Long id;
+
+  /** Kind of the job. */
+  private JobType type;
+
+  /** Current state of the job. */
+  private JobStatus status;
+
+  /** Number of items processed by the committed chunks. */
+  private long processed;
+
+  /** Number of items the job processes in total, null until it has started. */
+  private Long total;
+
+  /** Whether the job was asked to stop before its next chunk. */
+  private boolean cancelRequested;
+
+  /** Reason of the failure of a failed job. */
+  private String error;
+
+  /** Submission time. */
+  private Instant createdAt;
+
+  /** Time at which the job was first started. */
+  private Instant startedAt;
+
+  /** Time at which the job succeeded, failed or was cancelled. */
+  private Instant finishedAt;
+}
@@ -0,0 +1,34 @@
+package com.phoenix.productinventory.dto;
+
+import com.phoenix.productinventory.job.JobType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object describing a background job. Which fields besides the type are used
+ * depends on the type; the request is stored as it is and read again when the job is resumed.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class JobRequestDto {
+
+  /** Kind of the job. */
+  private JobType type;
+
+  /** Products changed by a product bulk update, in the search DSL; null for all products. */
+  private SearchConditionDto filter;
+
+  /** Change applied by a product bulk update. */
+  private BulkProductUpdateDto update;
+
+  /** Products written by a product upsert. */
+  private List<ProductUpsertDto> products;
+}
@@ -0,0 +1,32 @@
+package com.phoenix.productinventory.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object for one page of a keyset-paginated listing. Instead of a page number and
+ * total, it carries the key to continue from.
+ *
+ * @param <T> the element type
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class KeysetPageDto<T> {
+
+  /** Elements of the page in key order. */
+  private List<T> content;
+
+  /** Requested page size. */
+  private int size;
+
+  /** Key to pass as {@code afterId} for the next page, or null if this is the last page. */
+  private Long nextAfterId;
+}
@@ -0,0 +1,39 @@
+package com.phoenix.productinventory.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/** Data Transfer Object for a product whose quantity is at or below its reorder threshold. */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LowStockProductDto {
+
+  /** Identifier of the product. */
+  private Long productId;
+
+  /** Name of the product. */
+  private String name;
+
+  /** Stock keeping unit, or null if the product has none. */
+  private String sku;
+
+  /** Primary category of the product, or null if it has none. */
+  private Long categoryId;
+
+  /** Quantity in stock. */
+  private Integer quantity;
+
+  /** Threshold that applies to the product: its own, else the one of its category. */
+  private Integer threshold;
+
+  /** Time at which the quantity fell to or below the threshold, as far as this instance saw it. */
+  private Instant since;
+}
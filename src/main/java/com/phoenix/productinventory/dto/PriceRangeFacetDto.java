@@ -0,0 +1,27 @@
+package com.phoenix.productinventory.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+
+/** Data Transfer Object with the number of matching products in one price range. */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PriceRangeFacetDto {
+
+  /** Inclusive lower bound of the range, or null for the lowest range. */
+  private BigDecimal from;
+
+  /** Exclusive upper bound of the range, or null for the highest range. */
+  private BigDecimal to;
+
+  /** Number of matching products. */
+  private long count;
+}
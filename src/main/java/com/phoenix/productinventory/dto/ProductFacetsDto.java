@@ -0,0 +1,33 @@
+package com.phoenix.productinventory.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+/** Data Transfer Object with the facet counts of the products matching a filter. */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductFacetsDto {
+
+  /** Number of products matching the filter. */
+  private long total;
+
+  /** Matching products per category, ordered by category name; uncategorized products last. */
+  private List<CategoryFacetDto> categories;
+
+  /** Matching products per price range, in ascending price order. */
+  private List<PriceRangeFacetDto> priceRanges;
+
+  /** Matching products with a quantity greater than zero. */
+  private long inStock;
+
+  /** Matching products with a quantity of zero. */
+  private long outOfStock;
+}
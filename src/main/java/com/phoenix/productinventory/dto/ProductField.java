@@ -0,0 +1,92 @@
+package com.phoenix.productinventory.dto;
+
+import com.phoenix.productinventory.exception.BadRequestException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Fields of {@link ProductResponseDto} that can be requested through the {@code fields} query
+ * parameter. The identifier is always returned.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum ProductField {
+  ID("id", ProductResponseDto::getId),
+  NAME("name", ProductResponseDto::getName),
+  DESCRIPTION("description", ProductResponseDto::getDescription),
+  PRICE("price", ProductResponseDto::getPrice),
+  QUANTITY("quantity", ProductResponseDto::getQuantity),
+  CATEGORY("category", ProductResponseDto::getCategory),
+  VERSION("version", ProductResponseDto::getVersion),
+  SKU("sku", ProductResponseDto::getSku);
+
+  private static final Map<String, ProductField> BY_PROPERTY =
+      Arrays.stream(values())
+          .collect(Collectors.toUnmodifiableMap(ProductField::getProperty, Function.identity()));
+
+  /** Name of the JSON property and of the entity attribute. */
+  private final String property;
+
+  private final Function<ProductResponseDto, Object> accessor;
+
+  /**
+   * Looks up a field by the name of its property.
+   *
+   * @param property the property name, e.g. {@code price}
+   * @return the field, or empty if no field has that name
+   */
+  public static Optional<ProductField> byProperty(String property) {
+    return Optional.ofNullable(BY_PROPERTY.get(property));
+  }
+
+  /**
+   * Parses a comma-separated list of field names.
+   *
+   * @param fields the requested fields, e.g. {@code id,name,price}
+   * @return the requested fields plus {@link #ID}, in declaration order
+   * @throws BadRequestException if a name does not match any field
+   */
+  public static Set<ProductField> parse(String fields) {
+    Set<ProductField> selection = EnumSet.of(ID);
+    for (String name : fields.split(",")) {
+      String trimmed = name.trim();
+      if (trimmed.isEmpty()) {
+        continue;
+      }
+      ProductField field = BY_PROPERTY.get(trimmed);
+      if (field == null) {
+        throw new BadRequestException(
+            "Unknown product field '"
+                + trimmed
+                + "', expected any of "
+                + Arrays.stream(values()).map(ProductField::getProperty).toList());
+      }
+      selection.add(field);
+    }
+    return Collections.unmodifiableSet(selection);
+  }
+
+  /**
+   * Copies the selected fields of a product into a map that serializes to a sparse document.
+   *
+   * @param product the product
+   * @param fields the fields to keep
+   * @return the selected properties, in declaration order
+   */
+  public static Map<String, Object> select(ProductResponseDto product, Set<ProductField> fields) {
+    Map<String, Object> values = new LinkedHashMap<>();
+    for (ProductField field : fields) {
+      values.put(field.property, field.accessor.apply(product));
+    }
+    return values;
+  }
+}
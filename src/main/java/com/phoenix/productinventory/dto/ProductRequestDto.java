@@ -4,6 +4,7 @@ import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
@@ -39,4 +40,14 @@ public class ProductRequestDto {
   @NotNull(message = "Quantity is required")
   @Min(value = 0, message = "Quantity must be zero or positive")
   private Integer quantity;
+
+  /** Optional stock keeping unit, unique across products. */
+  @Size(max = 64, message = "SKU must be at most 64 characters")
+  private String sku;
+
+  /**
+   * Optional version the product is expected to have when it is updated. If given, the update
+   * fails with a conflict unless the product still has this version. Ignored on creation.
+   */
+  private Integer version;
 }
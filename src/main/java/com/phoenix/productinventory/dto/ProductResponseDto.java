@@ -2,6 +2,7 @@ package com.phoenix.productinventory.dto;
 
 import lombok.AllArgsConstructor;
 import lombok.Builder;
+import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
@@ -14,6 +15,7 @@ import java.math.BigDecimal;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
+@EqualsAndHashCode
 public class ProductResponseDto {
 
   /** Unique identifier of the product. */
@@ -36,4 +38,7 @@ public class ProductResponseDto {
 
   /** Version used for optimistic locking. */
   private Integer version;
+
+  /** Stock keeping unit, or null if the product has none. */
+  private String sku;
 }
@@ -0,0 +1,33 @@
+package com.phoenix.productinventory.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object for a product search: a filter expression, the sort order and the page to
+ * return.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductSearchDto {
+
+  /** Condition the products must match, or null to match all products. */
+  private SearchConditionDto filter;
+
+  /** Sort order, applied in list order; the id is always used as the last tie-break. */
+  private List<SearchSortDto> sort;
+
+  /** Zero-based page number, 0 if missing. */
+  private Integer page;
+
+  /** Page size, 20 if missing. */
+  private Integer size;
+}
@@ -0,0 +1,45 @@
+package com.phoenix.productinventory.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+
+/**
+ * Data Transfer Object describing one product of a supplier feed, identified by its SKU. The
+ * product is created if no product has the SKU yet and replaced otherwise.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductUpsertDto {
+
+  /** Stock keeping unit identifying the product. Required, at most 64 characters. */
+  private String sku;
+
+  /** Name of the product. Required. */
+  private String name;
+
+  /** Optional description; an existing description is kept if omitted. */
+  private String description;
+
+  /** Price of the product. Required and greater than 0. */
+  private BigDecimal price;
+
+  /** Quantity in stock. Required and zero or positive. */
+  private Integer quantity;
+
+  /** Optional primary category; an existing category is kept if omitted. */
+  private Long categoryId;
+
+  /**
+   * Optional version the product is expected to have. If given, the product must exist with this
+   * version, otherwise the feed is rejected as a conflict.
+   */
+  private Integer version;
+}
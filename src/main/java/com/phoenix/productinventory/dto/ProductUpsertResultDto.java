@@ -0,0 +1,27 @@
+package com.phoenix.productinventory.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+/** Data Transfer Object reporting the outcome of a SKU upsert. */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductUpsertResultDto {
+
+  /** Number of products that did not exist and were created. */
+  private long created;
+
+  /** Number of existing products that were updated. */
+  private long updated;
+
+  /** The products after the upsert, in the order of the request. */
+  private List<ProductResponseDto> products;
+}
@@ -0,0 +1,28 @@
+package com.phoenix.productinventory.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Data Transfer Object for the reorder threshold of a product or a category. Requests only carry
+ * the threshold; the product or category is taken from the path.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReorderThresholdDto {
+
+  /** Product the threshold applies to, or null for a category threshold. */
+  private Long productId;
+
+  /** Category whose products the threshold applies to, or null for a product threshold. */
+  private Long categoryId;
+
+  /** Highest quantity at which a product is considered low on stock. */
+  private Integer threshold;
+}
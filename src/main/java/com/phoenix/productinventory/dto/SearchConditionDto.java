@@ -0,0 +1,64 @@
+package com.phoenix.productinventory.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object for one node of a product search filter.
+ *
+ * <p>A node is either a combination of other nodes ({@code and}, {@code or} or {@code not}) or a
+ * test of one {@code field} with one or more operators, which must all hold. For example {@code
+ * {"field": "price", "gte": 10, "lt": 100}} matches prices from 10 up to, but excluding, 100.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SearchConditionDto {
+
+  /** Conditions that must all hold. */
+  private List<SearchConditionDto> and;
+
+  /** Conditions of which at least one must hold. */
+  private List<SearchConditionDto> or;
+
+  /** Condition that must not hold. */
+  private SearchConditionDto not;
+
+  /**
+   * Field tested by the operators of this node: id, name, description, price, quantity, sku,
+   * categoryId (the primary category) or underCategoryId (the primary category or one of its
+   * descendants).
+   */
+  private String field;
+
+  /** Value the field must equal. */
+  private Object eq;
+
+  /** Values of which the field must equal one. */
+  private List<Object> in;
+
+  /** Exclusive lower bound of the field. */
+  private Object gt;
+
+  /** Inclusive lower bound of the field. */
+  private Object gte;
+
+  /** Exclusive upper bound of the field. */
+  private Object lt;
+
+  /** Inclusive upper bound of the field. */
+  private Object lte;
+
+  /** Text the field must contain, ignoring case. */
+  private String contains;
+
+  /** Whether the field must be null (true) or must have a value (false). */
+  private Boolean isNull;
+}
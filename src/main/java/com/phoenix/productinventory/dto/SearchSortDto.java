@@ -0,0 +1,22 @@
+package com.phoenix.productinventory.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/** Data Transfer Object for one sort key of a product search. */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SearchSortDto {
+
+  /** Field to sort by: id, name, price, quantity or sku. */
+  private String field;
+
+  /** Direction, {@code asc} (the default) or {@code desc}. */
+  private String direction;
+}
@@ -1,5 +1,6 @@
 package com.phoenix.productinventory.exception;
 
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -15,11 +16,22 @@ public class GlobalExceptionHandler {
     return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ex.getMessage());
   }
 
+  @ExceptionHandler(BadRequestException.class)
+  public ResponseEntity<String> handleBadRequest(BadRequestException ex) {
+    return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ex.getMessage());
+  }
+
   @ExceptionHandler(OptimisticLockingFailureException.class)
   public ResponseEntity<String> handleOptimisticLocking(OptimisticLockingFailureException ex) {
     return ResponseEntity.status(HttpStatus.CONFLICT).body("Update conflict: " + ex.getMessage());
   }
 
+  @ExceptionHandler(DataIntegrityViolationException.class)
+  public ResponseEntity<String> handleDataIntegrityViolation(DataIntegrityViolationException ex) {
+    return ResponseEntity.status(HttpStatus.CONFLICT)
+        .body("Conflict: the change violates a uniqueness or reference constraint");
+  }
+
   @ExceptionHandler(Exception.class)
   public ResponseEntity<String> handleGeneric(Exception ex) {
     return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -0,0 +1,46 @@
+package com.phoenix.productinventory.fragment;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.core.json.JsonGeneratorImpl;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.phoenix.productinventory.dto.ProductResponseDto;
+import java.io.IOException;
+
+/**
+ * A product in a response, written from the {@link ProductFragmentCache} instead of being
+ * serialized property by property.
+ *
+ * <p>In compact JSON the cached document is copied into the output as it is. Binary encodings and
+ * pretty-printed JSON serialize the product as usual, so the wrapper never changes a response.
+ *
+ * @param product the product to write
+ * @param cache the cache holding its serialized document
+ */
+@JsonSerialize(using = CachedProductJson.Serializer.class)
+public record CachedProductJson(ProductResponseDto product, ProductFragmentCache cache) {
+
+  /** Writes the cached document of the product where possible. */
+  static class Serializer extends StdSerializer<CachedProductJson> {
+
+    Serializer() {
+      super(CachedProductJson.class);
+    }
+
+    @Override
+    public void serialize(CachedProductJson value, JsonGenerator gen, SerializerProvider provider)
+        throws IOException {
+      SerializedString json =
+          gen instanceof JsonGeneratorImpl && gen.getPrettyPrinter() == null
+              ? value.cache().json(value.product())
+              : null;
+      if (json == null) {
+        provider.defaultSerializeValue(value.product(), gen);
+      } else {
+        gen.writeRawValue(json);
+      }
+    }
+  }
+}
@@ -0,0 +1,185 @@
+package com.phoenix.productinventory.fragment;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.phoenix.productinventory.cache.LruCache;
+import com.phoenix.productinventory.dto.ProductResponseDto;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.GZIPOutputStream;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.data.domain.Page;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the serialized JSON document of recently served products, so list pages are assembled by
+ * copying documents instead of serializing every product again.
+ *
+ * <p>Entries are keyed by product id and hold the product they were rendered from. A product is
+ * only served from the cache if it has the cached version and is otherwise equal to it, which also
+ * catches changes of its category that leave the product version alone; any other state replaces
+ * the entry, so old versions do not pile up. Documents are rendered with the application's {@link
+ * ObjectMapper} and are therefore identical to what Jackson would write.
+ *
+ * <p>Products that are served often also get a gzip-compressed copy of their document, which
+ * single-product responses can send as they are to clients accepting {@code gzip}.
+ *
+ * <p>At most {@code fragment.cache.max-entries} products are kept; the least recently served ones
+ * are dropped first.
+ *
+ * <p>Hits, misses and the number of entries are published as {@code product.fragment.cache.hits},
+ * {@code product.fragment.cache.misses} and {@code product.fragment.cache.size}.
+ */
+@Component
+@EnableConfigurationProperties(ProductFragmentCacheProperties.class)
+public class ProductFragmentCache implements MeterBinder {
+
+  private final ObjectMapper objectMapper;
+  private final ProductFragmentCacheProperties properties;
+  private final LruCache<Long, Fragment> fragments;
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+
+  public ProductFragmentCache(
+      ObjectMapper objectMapper, ProductFragmentCacheProperties properties) {
+    this.objectMapper = objectMapper;
+    this.properties = properties;
+    this.fragments = new LruCache<>(properties.maxEntries());
+  }
+
+  /**
+   * Wraps a product so that it is written from the cache.
+   *
+   * @param product the product to respond with
+   * @return the product to put into the response
+   */
+  public CachedProductJson wrap(ProductResponseDto product) {
+    return new CachedProductJson(product, this);
+  }
+
+  /**
+   * Wraps the products of a list response.
+   *
+   * @param products the products to respond with
+   * @return the products to put into the response, in the same order
+   */
+  public List<CachedProductJson> wrap(List<ProductResponseDto> products) {
+    return products.stream().map(this::wrap).toList();
+  }
+
+  /**
+   * Wraps the products of a page response.
+   *
+   * @param products the page to respond with
+   * @return the same page with wrapped products
+   */
+  public Page<CachedProductJson> wrap(Page<ProductResponseDto> products) {
+    return products.map(this::wrap);
+  }
+
+  /**
+   * Returns the gzip-compressed JSON document of a product once it has been served often enough.
+   *
+   * @param product the product to respond with
+   * @return the compressed document, or empty if the product is not served often enough yet or
+   *     the cache is disabled
+   */
+  public Optional<byte[]> gzip(ProductResponseDto product) {
+    Fragment fragment = fragment(product);
+    if (fragment == null || fragment.hits.get() < properties.gzipAfterHits()) {
+      return Optional.empty();
+    }
+    byte[] gzip = fragment.gzip;
+    if (gzip == null) {
+      gzip = compress(fragment.json.asUnquotedUTF8());
+      fragment.gzip = gzip;
+    }
+    return Optional.of(gzip);
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    FunctionCounter.builder("product.fragment.cache.hits", hits, LongAdder::sum)
+        .description("Products written from a cached JSON document")
+        .register(registry);
+    FunctionCounter.builder("product.fragment.cache.misses", misses, LongAdder::sum)
+        .description("Products serialized because no current JSON document was cached")
+        .register(registry);
+    Gauge.builder("product.fragment.cache.size", fragments, LruCache::size)
+        .description("Products with a cached JSON document")
+        .register(registry);
+  }
+
+  /** Returns the JSON document of a product, or null if the cache is disabled. */
+  SerializedString json(ProductResponseDto product) {
+    Fragment fragment = fragment(product);
+    return fragment == null ? null : fragment.json;
+  }
+
+  private Fragment fragment(ProductResponseDto product) {
+    if (!properties.enabled() || product.getId() == null) {
+      return null;
+    }
+    Fragment fragment = fragments.get(product.getId());
+    if (fragment != null && fragment.renders(product)) {
+      hits.increment();
+      fragment.hits.incrementAndGet();
+      return fragment;
+    }
+    misses.increment();
+    fragment = new Fragment(product, render(product));
+    fragments.put(product.getId(), fragment);
+    return fragment;
+  }
+
+  private SerializedString render(ProductResponseDto product) {
+    try {
+      SerializedString json = new SerializedString(objectMapper.writeValueAsString(product));
+      // Encodes the document once up front instead of on its first use
+      json.asUnquotedUTF8();
+      return json;
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException("Cannot serialize product " + product.getId(), e);
+    }
+  }
+
+  private static byte[] compress(byte[] json) {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream(json.length / 2 + 32);
+    try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+      gzip.write(json);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return bytes.toByteArray();
+  }
+
+  /** Cached document of one product. */
+  private static final class Fragment {
+
+    private final ProductResponseDto product;
+    private final SerializedString json;
+    private final AtomicInteger hits = new AtomicInteger(1);
+    private volatile byte[] gzip;
+
+    private Fragment(ProductResponseDto product, SerializedString json) {
+      this.product = product;
+      this.json = json;
+    }
+
+    private boolean renders(ProductResponseDto current) {
+      return product.getVersion() != null
+          && product.getVersion().equals(current.getVersion())
+          && product.equals(current);
+    }
+  }
+}
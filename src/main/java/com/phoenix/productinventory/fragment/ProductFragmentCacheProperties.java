@@ -0,0 +1,18 @@
+package com.phoenix.productinventory.fragment;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Configuration of the cache of serialized product documents.
+ *
+ * @param enabled whether product documents are cached; if not, every product is serialized again
+ * @param maxEntries number of products kept; beyond it the least recently served are dropped
+ * @param gzipAfterHits number of times a product must be served before a gzip-compressed copy of
+ *     its document is kept for single-product responses
+ */
+@ConfigurationProperties(prefix = "fragment.cache")
+public record ProductFragmentCacheProperties(
+    @DefaultValue("true") boolean enabled,
+    @DefaultValue("10000") int maxEntries,
+    @DefaultValue("3") int gzipAfterHits) {}
@@ -0,0 +1,17 @@
+package com.phoenix.productinventory.graphql;
+
+import graphql.analysis.MaxQueryDepthInstrumentation;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/** Guards the GraphQL endpoint against queries nested deep enough to fan out into many loads. */
+@Configuration
+@EnableConfigurationProperties(CatalogGraphQlProperties.class)
+public class CatalogGraphQlConfig {
+
+  @Bean
+  MaxQueryDepthInstrumentation maxQueryDepthInstrumentation(CatalogGraphQlProperties properties) {
+    return new MaxQueryDepthInstrumentation(properties.maxDepth());
+  }
+}
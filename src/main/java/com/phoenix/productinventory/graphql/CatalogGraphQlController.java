@@ -0,0 +1,172 @@
+package com.phoenix.productinventory.graphql;
+
+import com.phoenix.productinventory.dto.CategoryResponseDto;
+import com.phoenix.productinventory.dto.ProductField;
+import com.phoenix.productinventory.dto.ProductResponseDto;
+import com.phoenix.productinventory.exception.BadRequestException;
+import com.phoenix.productinventory.exception.ResourceNotFoundException;
+import com.phoenix.productinventory.service.CategoryService;
+import com.phoenix.productinventory.service.ProductService;
+import com.phoenix.productinventory.spcification.CategorySpecification;
+import graphql.GraphQLError;
+import graphql.GraphqlErrorBuilder;
+import graphql.schema.DataFetchingEnvironment;
+import graphql.schema.DataFetchingFieldSelectionSet;
+import graphql.schema.SelectedField;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.graphql.data.method.annotation.Argument;
+import org.springframework.graphql.data.method.annotation.BatchMapping;
+import org.springframework.graphql.data.method.annotation.GraphQlExceptionHandler;
+import org.springframework.graphql.data.method.annotation.QueryMapping;
+import org.springframework.graphql.execution.ErrorType;
+import org.springframework.stereotype.Controller;
+
+/**
+ * Read-only GraphQL view of products and categories ({@code POST /graphql}).
+ *
+ * <p>Product queries only select the columns of the requested fields, through the same projection
+ * as the {@code fields} parameter of the REST API; the category of a product is joined in the same
+ * query when it is requested. Relations of categories are resolved by batch loaders, so the
+ * parents, subcategories or product counts of all categories in a response cost one query each,
+ * however many categories there are.
+ */
+@Controller
+@RequiredArgsConstructor
+public class CatalogGraphQlController {
+
+  private static final Sort BY_ID = Sort.by("id");
+
+  private final ProductService productService;
+  private final CategoryService categoryService;
+  private final CatalogGraphQlProperties properties;
+
+  @QueryMapping
+  public ProductResponseDto product(@Argument Long id, DataFetchingFieldSelectionSet selection) {
+    return productService.getProductById(id, fields(selection.getImmediateFields()));
+  }
+
+  @QueryMapping
+  public Page<ProductResponseDto> products(
+      @Argument ProductFilterInput filter,
+      @Argument int page,
+      @Argument int size,
+      DataFetchingFieldSelectionSet selection) {
+    if (page < 0 || size < 1 || size > properties.maxPageSize()) {
+      throw new BadRequestException(
+          "Page must not be negative and size must be between 1 and " + properties.maxPageSize());
+    }
+    return productService.getAllProducts(
+        filter == null ? null : filter.toSpecification(),
+        PageRequest.of(page, size, BY_ID),
+        fields(selection.getFields("content/*")));
+  }
+
+  @QueryMapping
+  public CategoryResponseDto category(@Argument Long id) {
+    return categoryService.getCategoriesByIds(List.of(id)).stream()
+        .findFirst()
+        .orElseThrow(() -> new ResourceNotFoundException("Category not found with id " + id));
+  }
+
+  @QueryMapping
+  public List<CategoryResponseDto> categories(@Argument Long parentId) {
+    if (parentId == null) {
+      return categoryService
+          .getAllCategories(CategorySpecification.isTopLevel(), Pageable.unpaged(BY_ID))
+          .getContent();
+    }
+    return categoryService.getSubcategories(List.of(parentId));
+  }
+
+  @BatchMapping(typeName = "Category")
+  public Map<CategoryResponseDto, CategoryResponseDto> parent(
+      List<CategoryResponseDto> categories) {
+    Set<Long> parentIds =
+        categories.stream()
+            .map(CategoryResponseDto::getParentId)
+            .filter(Objects::nonNull)
+            .collect(Collectors.toSet());
+    Map<Long, CategoryResponseDto> parents = byId(categoryService.getCategoriesByIds(parentIds));
+    Map<CategoryResponseDto, CategoryResponseDto> result = new HashMap<>();
+    for (CategoryResponseDto category : categories) {
+      CategoryResponseDto parent = parents.get(category.getParentId());
+      if (parent != null) {
+        result.put(category, parent);
+      }
+    }
+    return result;
+  }
+
+  @BatchMapping(typeName = "Category")
+  public Map<CategoryResponseDto, List<CategoryResponseDto>> children(
+      List<CategoryResponseDto> categories) {
+    Map<Long, List<CategoryResponseDto>> children =
+        categoryService.getSubcategories(ids(categories)).stream()
+            .collect(Collectors.groupingBy(CategoryResponseDto::getParentId));
+    Map<CategoryResponseDto, List<CategoryResponseDto>> result = new HashMap<>();
+    categories.forEach(
+        category -> result.put(category, children.getOrDefault(category.getId(), List.of())));
+    return result;
+  }
+
+  /** Counts only the categories that were not read with their count already. */
+  @BatchMapping(typeName = "Category")
+  public Map<CategoryResponseDto, Long> productCount(List<CategoryResponseDto> categories) {
+    List<CategoryResponseDto> uncounted =
+        categories.stream().filter(category -> category.getProductCount() == null).toList();
+    Map<Long, Long> counts =
+        uncounted.isEmpty() ? Map.of() : categoryService.countProducts(ids(uncounted));
+    Map<CategoryResponseDto, Long> result = new HashMap<>();
+    for (CategoryResponseDto category : categories) {
+      Long count = category.getProductCount();
+      result.put(category, count != null ? count : counts.getOrDefault(category.getId(), 0L));
+    }
+    return result;
+  }
+
+  @GraphQlExceptionHandler
+  public GraphQLError handleNotFound(ResourceNotFoundException ex, DataFetchingEnvironment env) {
+    return error(ErrorType.NOT_FOUND, ex, env);
+  }
+
+  @GraphQlExceptionHandler
+  public GraphQLError handleBadRequest(BadRequestException ex, DataFetchingEnvironment env) {
+    return error(ErrorType.BAD_REQUEST, ex, env);
+  }
+
+  /** The product fields to select for a GraphQL selection; the id is always selected. */
+  private static Set<ProductField> fields(List<SelectedField> selection) {
+    Set<ProductField> fields = EnumSet.of(ProductField.ID);
+    for (SelectedField field : selection) {
+      ProductField.byProperty(field.getName()).ifPresent(fields::add);
+    }
+    return fields;
+  }
+
+  private static List<Long> ids(Collection<CategoryResponseDto> categories) {
+    return categories.stream().map(CategoryResponseDto::getId).distinct().toList();
+  }
+
+  private static Map<Long, CategoryResponseDto> byId(List<CategoryResponseDto> categories) {
+    return categories.stream()
+        .collect(Collectors.toMap(CategoryResponseDto::getId, Function.identity()));
+  }
+
+  private static GraphQLError error(
+      ErrorType type, RuntimeException ex, DataFetchingEnvironment env) {
+    return GraphqlErrorBuilder.newError(env).errorType(type).message(ex.getMessage()).build();
+  }
+}
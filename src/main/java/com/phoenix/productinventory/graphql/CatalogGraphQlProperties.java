@@ -0,0 +1,15 @@
+package com.phoenix.productinventory.graphql;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Limits of the GraphQL endpoint ({@code POST /graphql}).
+ *
+ * @param maxDepth deepest nesting of fields a query may select; deeper queries are rejected
+ *     before they run
+ * @param maxPageSize largest page of products a query may request
+ */
+@ConfigurationProperties(prefix = "catalog.graphql")
+public record CatalogGraphQlProperties(
+    @DefaultValue("8") int maxDepth, @DefaultValue("500") int maxPageSize) {}
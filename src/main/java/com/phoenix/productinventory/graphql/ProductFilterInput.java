@@ -0,0 +1,40 @@
+package com.phoenix.productinventory.graphql;
+
+import com.phoenix.productinventory.model.Product;
+import com.phoenix.productinventory.spcification.ProductSpecification;
+import java.math.BigDecimal;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * The {@code ProductFilter} input of the GraphQL schema, with the filters of {@code GET
+ * /products}.
+ *
+ * @param name part of the name, case-insensitive
+ * @param minPrice minimum price
+ * @param maxPrice maximum price
+ * @param minQuantity minimum quantity
+ * @param maxQuantity maximum quantity
+ * @param underCategoryId only products in this category or its subcategories
+ */
+public record ProductFilterInput(
+    String name,
+    BigDecimal minPrice,
+    BigDecimal maxPrice,
+    Integer minQuantity,
+    Integer maxQuantity,
+    Long underCategoryId) {
+
+  /**
+   * Turns the filter into a product specification.
+   *
+   * @return the specification; absent conditions are ignored
+   */
+  public Specification<Product> toSpecification() {
+    return Specification.where(ProductSpecification.hasName(name))
+        .and(ProductSpecification.hasMinPrice(minPrice))
+        .and(ProductSpecification.hasMaxPrice(maxPrice))
+        .and(ProductSpecification.hasMinQuantity(minQuantity))
+        .and(ProductSpecification.hasMaxQuantity(maxQuantity))
+        .and(ProductSpecification.inCategorySubtree(underCategoryId));
+  }
+}
@@ -0,0 +1,48 @@
+package com.phoenix.productinventory.history;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+/** Time resolutions of the inventory history, each stored in a table of its own. */
+public enum HistoryResolution {
+  MINUTE("inventory_history_minute", ChronoUnit.MINUTES),
+  HOUR("inventory_history_hour", ChronoUnit.HOURS),
+  DAY("inventory_history_day", ChronoUnit.DAYS);
+
+  private final String table;
+  private final ChronoUnit unit;
+
+  HistoryResolution(String table, ChronoUnit unit) {
+    this.table = table;
+    this.unit = unit;
+  }
+
+  /**
+   * Returns the table holding the buckets of this resolution.
+   *
+   * @return the table name
+   */
+  public String table() {
+    return table;
+  }
+
+  /**
+   * Returns the start of the bucket containing an instant, in UTC.
+   *
+   * @param instant the instant
+   * @return the bucket start
+   */
+  public Instant truncate(Instant instant) {
+    return instant.truncatedTo(unit);
+  }
+
+  /**
+   * Returns the coarser of two resolutions.
+   *
+   * @param other the other resolution
+   * @return this resolution or the other one, whichever has the longer buckets
+   */
+  public HistoryResolution coarsest(HistoryResolution other) {
+    return compareTo(other) >= 0 ? this : other;
+  }
+}
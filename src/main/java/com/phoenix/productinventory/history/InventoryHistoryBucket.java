@@ -0,0 +1,172 @@
+package com.phoenix.productinventory.history;
+
+import com.phoenix.productinventory.dto.InventoryHistoryPointDto;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Quantity and price of one product over one time bucket: the values at its first and last change
+ * and their extremes.
+ *
+ * @param productId the product
+ * @param bucketStart start of the bucket
+ * @param categoryId primary category at the last change, or null if the product had none
+ * @param openQuantity quantity after the first change in the bucket
+ * @param closeQuantity quantity after the last change in the bucket
+ * @param minQuantity lowest quantity in the bucket
+ * @param maxQuantity highest quantity in the bucket
+ * @param openPrice price after the first change in the bucket
+ * @param closePrice price after the last change in the bucket
+ * @param minPrice lowest price in the bucket
+ * @param maxPrice highest price in the bucket
+ * @param changes number of changes in the bucket
+ * @param firstVersion product version written by the first change in the bucket, or null if unknown
+ * @param lastVersion product version written by the last change in the bucket, or null if unknown
+ */
+public record InventoryHistoryBucket(
+    long productId,
+    Instant bucketStart,
+    Long categoryId,
+    int openQuantity,
+    int closeQuantity,
+    int minQuantity,
+    int maxQuantity,
+    BigDecimal openPrice,
+    BigDecimal closePrice,
+    BigDecimal minPrice,
+    BigDecimal maxPrice,
+    int changes,
+    Long firstVersion,
+    Long lastVersion) {
+
+  /**
+   * Creates the bucket of a single change.
+   *
+   * @param productId the product
+   * @param at time of the change; {@link #rollUp} moves it to the start of its bucket
+   * @param categoryId primary category after the change
+   * @param quantity quantity after the change
+   * @param price price after the change
+   * @param version product version written by the change
+   * @return the bucket
+   */
+  public static InventoryHistoryBucket of(
+      long productId,
+      Instant at,
+      Long categoryId,
+      int quantity,
+      BigDecimal price,
+      Long version) {
+    return new InventoryHistoryBucket(
+        productId,
+        at,
+        categoryId,
+        quantity,
+        quantity,
+        quantity,
+        quantity,
+        price,
+        price,
+        price,
+        price,
+        1,
+        version,
+        version);
+  }
+
+  /**
+   * Combines the buckets that fall into the same bucket of a resolution.
+   *
+   * @param buckets buckets in time order per product, at the given resolution or a finer one
+   * @param resolution the resolution to combine them at
+   * @return one bucket per product and bucket of the resolution, in order of first appearance
+   */
+  public static List<InventoryHistoryBucket> rollUp(
+      List<InventoryHistoryBucket> buckets, HistoryResolution resolution) {
+    Map<Key, InventoryHistoryBucket> rolledUp = new LinkedHashMap<>();
+    for (InventoryHistoryBucket bucket : buckets) {
+      InventoryHistoryBucket moved = bucket.in(resolution);
+      rolledUp.merge(
+          new Key(moved.productId, moved.bucketStart), moved, InventoryHistoryBucket::followedBy);
+    }
+    return new ArrayList<>(rolledUp.values());
+  }
+
+  /**
+   * Combines this bucket with the one of later changes of the same product.
+   *
+   * @param later the later bucket
+   * @return a bucket starting at the start of this one and covering both
+   */
+  public InventoryHistoryBucket followedBy(InventoryHistoryBucket later) {
+    return new InventoryHistoryBucket(
+        productId,
+        bucketStart,
+        later.categoryId,
+        openQuantity,
+        later.closeQuantity,
+        Math.min(minQuantity, later.minQuantity),
+        Math.max(maxQuantity, later.maxQuantity),
+        openPrice,
+        later.closePrice,
+        minPrice.min(later.minPrice),
+        maxPrice.max(later.maxPrice),
+        changes + later.changes,
+        firstVersion == null ? later.firstVersion : firstVersion,
+        later.lastVersion == null ? lastVersion : later.lastVersion);
+  }
+
+  /**
+   * Moves this bucket to the bucket of a resolution that contains it.
+   *
+   * @param resolution the resolution, as coarse as the one of this bucket or coarser
+   * @return the bucket with an adjusted start
+   */
+  public InventoryHistoryBucket in(HistoryResolution resolution) {
+    return new InventoryHistoryBucket(
+        productId,
+        resolution.truncate(bucketStart),
+        categoryId,
+        openQuantity,
+        closeQuantity,
+        minQuantity,
+        maxQuantity,
+        openPrice,
+        closePrice,
+        minPrice,
+        maxPrice,
+        changes,
+        firstVersion,
+        lastVersion);
+  }
+
+  /**
+   * Creates the response form of this bucket.
+   *
+   * @param resolution the resolution of the bucket
+   * @return the history point
+   */
+  public InventoryHistoryPointDto toDto(HistoryResolution resolution) {
+    return new InventoryHistoryPointDto(
+        productId,
+        categoryId,
+        resolution,
+        bucketStart,
+        openQuantity,
+        closeQuantity,
+        minQuantity,
+        maxQuantity,
+        openPrice,
+        closePrice,
+        minPrice,
+        maxPrice,
+        changes);
+  }
+
+  /** Identifies the bucket of a product. */
+  private record Key(long productId, Instant bucketStart) {}
+}
@@ -0,0 +1,88 @@
+package com.phoenix.productinventory.history;
+
+import com.phoenix.productinventory.repository.InventoryHistoryRepository;
+import java.time.Instant;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Rolls aged inventory history up into coarser buckets: per-minute buckets older than {@code
+ * history.minute-retention} into hourly ones, and hourly buckets older than {@code
+ * history.hour-retention} into daily ones, which are kept.
+ *
+ * <p>Cutoffs are aligned to the coarser buckets, so a coarse bucket is always built from all of
+ * its fine buckets at once and every instant is stored in exactly one table. Products are moved in
+ * batches of {@code history.downsample-batch-size}, each in its own transaction that inserts the
+ * coarse buckets and deletes the fine ones.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class InventoryHistoryDownsampler {
+
+  private final InventoryHistoryRepository repository;
+  private final InventoryHistoryProperties properties;
+  private final TransactionTemplate transactionTemplate;
+
+  /** Downsamples the history of the current database. */
+  @Scheduled(fixedDelayString = "${history.downsample-interval:5m}")
+  public void downsample() {
+    try {
+      downsample(Instant.now());
+    } catch (RuntimeException e) {
+      log.warn("Downsampling the inventory history failed, retrying on the next run", e);
+    }
+  }
+
+  /**
+   * Downsamples the history as of a given time.
+   *
+   * @param now the current time
+   * @return the number of buckets that were rolled up
+   */
+  public long downsample(Instant now) {
+    long moved =
+        rollUp(
+            HistoryResolution.MINUTE,
+            HistoryResolution.HOUR,
+            HistoryResolution.HOUR.truncate(now.minus(properties.minuteRetention())));
+    moved +=
+        rollUp(
+            HistoryResolution.HOUR,
+            HistoryResolution.DAY,
+            HistoryResolution.DAY.truncate(now.minus(properties.hourRetention())));
+    if (moved > 0) {
+      log.debug("Rolled up {} inventory history buckets", moved);
+    }
+    return moved;
+  }
+
+  private long rollUp(HistoryResolution from, HistoryResolution to, Instant cutoff) {
+    long moved = 0;
+    long afterProductId = 0;
+    List<Long> productIds;
+    do {
+      productIds =
+          repository.findProductsBefore(
+              from, cutoff, afterProductId, properties.downsampleBatchSize());
+      if (productIds.isEmpty()) {
+        break;
+      }
+      List<Long> batch = productIds;
+      Integer deleted =
+          transactionTemplate.execute(
+              status -> {
+                List<InventoryHistoryBucket> buckets = repository.findBefore(from, batch, cutoff);
+                repository.merge(to, InventoryHistoryBucket.rollUp(buckets, to));
+                return repository.deleteBefore(from, batch, cutoff);
+              });
+      moved += deleted == null ? 0 : deleted;
+      afterProductId = productIds.get(productIds.size() - 1);
+    } while (productIds.size() == properties.downsampleBatchSize());
+    return moved;
+  }
+}
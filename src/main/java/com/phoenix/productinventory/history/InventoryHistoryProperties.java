@@ -0,0 +1,22 @@
+package com.phoenix.productinventory.history;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Configuration of the inventory history ({@code GET /products/{id}/history}).
+ *
+ * @param minuteRetention how long per-minute buckets are kept before they are rolled up per hour
+ * @param hourRetention how long hourly buckets are kept before they are rolled up per day
+ * @param downsampleInterval pause between two downsampling runs
+ * @param downsampleBatchSize number of products whose old buckets are rolled up per transaction
+ * @param maxPoints largest number of buckets a range query may return
+ */
+@ConfigurationProperties(prefix = "history")
+public record InventoryHistoryProperties(
+    @DefaultValue("2d") Duration minuteRetention,
+    @DefaultValue("30d") Duration hourRetention,
+    @DefaultValue("5m") Duration downsampleInterval,
+    @DefaultValue("500") int downsampleBatchSize,
+    @DefaultValue("10000") int maxPoints) {}
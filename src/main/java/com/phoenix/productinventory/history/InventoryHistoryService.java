@@ -0,0 +1,41 @@
+package com.phoenix.productinventory.history;
+
+import com.phoenix.productinventory.dto.InventoryHistoryPointDto;
+import com.phoenix.productinventory.exception.BadRequestException;
+import java.time.Instant;
+import java.util.List;
+
+/** Service interface for reading the inventory history. */
+public interface InventoryHistoryService {
+
+  /**
+   * Retrieves the history of a product, including a product that has been deleted since.
+   *
+   * @param productId the product
+   * @param from start of the range, inclusive
+   * @param to end of the range, exclusive
+   * @param resolution the resolution of the points; points older than the retention of that
+   *     resolution are coarser
+   * @return the points in time order
+   * @throws BadRequestException if the range is empty or holds more than {@code
+   *     history.max-points} points
+   */
+  List<InventoryHistoryPointDto> getProductHistory(
+      Long productId, Instant from, Instant to, HistoryResolution resolution);
+
+  /**
+   * Retrieves the history of the products of a primary category. A product counts in the
+   * category it had at its last change in a bucket.
+   *
+   * @param categoryId the category
+   * @param from start of the range, inclusive
+   * @param to end of the range, exclusive
+   * @param resolution the resolution of the points; points older than the retention of that
+   *     resolution are coarser
+   * @return the points ordered by time and product
+   * @throws BadRequestException if the range is empty or holds more than {@code
+   *     history.max-points} points
+   */
+  List<InventoryHistoryPointDto> getCategoryHistory(
+      Long categoryId, Instant from, Instant to, HistoryResolution resolution);
+}
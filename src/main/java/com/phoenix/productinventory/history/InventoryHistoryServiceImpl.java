@@ -0,0 +1,114 @@
+package com.phoenix.productinventory.history;
+
+import com.phoenix.productinventory.dto.InventoryHistoryPointDto;
+import com.phoenix.productinventory.exception.BadRequestException;
+import com.phoenix.productinventory.repository.InventoryHistoryRepository;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Implementation of {@link InventoryHistoryService}.
+ *
+ * <p>A range query only reads the tables whose buckets can overlap the range: the retentions
+ * bound the age of the buckets in every table, with a margin for the time between two
+ * downsampling runs. Finer buckets are rolled up to the requested resolution; a bucket starts in
+ * the range, so the first point may cover time before {@code from}.
+ */
+@Service
+@RequiredArgsConstructor
+public class InventoryHistoryServiceImpl implements InventoryHistoryService {
+
+  private static final Comparator<InventoryHistoryPointDto> BY_TIME_AND_PRODUCT =
+      Comparator.comparing(InventoryHistoryPointDto::getBucketStart)
+          .thenComparing(InventoryHistoryPointDto::getProductId);
+
+  private final InventoryHistoryRepository repository;
+  private final InventoryHistoryProperties properties;
+
+  @Override
+  @Transactional(readOnly = true)
+  public List<InventoryHistoryPointDto> getProductHistory(
+      Long productId, Instant from, Instant to, HistoryResolution resolution) {
+    return query(
+        from,
+        to,
+        resolution,
+        table -> repository.findByProduct(table, productId, from, to, properties.maxPoints() + 1));
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public List<InventoryHistoryPointDto> getCategoryHistory(
+      Long categoryId, Instant from, Instant to, HistoryResolution resolution) {
+    return query(
+        from,
+        to,
+        resolution,
+        table ->
+            repository.findByCategory(table, categoryId, from, to, properties.maxPoints() + 1));
+  }
+
+  /**
+   * Returns the resolutions whose table can hold buckets starting in a range.
+   *
+   * @param from start of the range, inclusive
+   * @param to end of the range, exclusive
+   * @param now the current time
+   * @return the resolutions to read, finest first
+   */
+  List<HistoryResolution> tablesFor(Instant from, Instant to, Instant now) {
+    Duration lag = properties.downsampleInterval();
+    // Downsampling cuts at the start of the hour or day that reaches past the retention
+    Instant oldestMinute =
+        now.minus(properties.minuteRetention()).minus(lag).minus(Duration.ofHours(1));
+    Instant oldestHour =
+        now.minus(properties.hourRetention()).minus(lag).minus(Duration.ofDays(1));
+    Instant newestHour = now.minus(properties.minuteRetention());
+    Instant newestDay = now.minus(properties.hourRetention());
+
+    List<HistoryResolution> tables = new ArrayList<>();
+    if (to.isAfter(oldestMinute)) {
+      tables.add(HistoryResolution.MINUTE);
+    }
+    if (from.isBefore(newestHour) && to.isAfter(oldestHour)) {
+      tables.add(HistoryResolution.HOUR);
+    }
+    if (from.isBefore(newestDay)) {
+      tables.add(HistoryResolution.DAY);
+    }
+    return tables;
+  }
+
+  private List<InventoryHistoryPointDto> query(
+      Instant from,
+      Instant to,
+      HistoryResolution resolution,
+      Function<HistoryResolution, List<InventoryHistoryBucket>> read) {
+    if (from == null || to == null || !from.isBefore(to)) {
+      throw new BadRequestException("The history range must start before it ends");
+    }
+    List<InventoryHistoryPointDto> points = new ArrayList<>();
+    for (HistoryResolution table : tablesFor(from, to, Instant.now())) {
+      HistoryResolution target = table.coarsest(resolution);
+      List<InventoryHistoryBucket> buckets = read.apply(table);
+      for (InventoryHistoryBucket bucket : InventoryHistoryBucket.rollUp(buckets, target)) {
+        points.add(bucket.toDto(target));
+      }
+      if (points.size() > properties.maxPoints()) {
+        throw new BadRequestException(
+            "The history range holds more than "
+                + properties.maxPoints()
+                + " points; request a shorter range or a coarser resolution");
+      }
+    }
+    points.sort(BY_TIME_AND_PRODUCT);
+    return points;
+  }
+}
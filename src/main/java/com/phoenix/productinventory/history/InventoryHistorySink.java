@@ -0,0 +1,152 @@
+package com.phoenix.productinventory.history;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.phoenix.productinventory.dto.ProductResponseDto;
+import com.phoenix.productinventory.outbox.AggregateType;
+import com.phoenix.productinventory.outbox.ChangeEvent;
+import com.phoenix.productinventory.outbox.ChangeEventSink;
+import com.phoenix.productinventory.outbox.ChangeType;
+import com.phoenix.productinventory.repository.InventoryHistoryRepository;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Records the quantity and price of every committed product change in the per-minute inventory
+ * history.
+ *
+ * <p>The history is captured from the outbox, off the request thread: each relayed batch is folded
+ * into one bucket per product and minute and written with a single {@code MERGE} in its own
+ * transaction. A failed write leaves the batch pending for this sink alone. Deletions end a
+ * product's history without adding to it; the outbox itself serves as the log of single changes.
+ *
+ * <p>Outbox ids do not follow the commit order and events may be delivered more than once, also by
+ * relays of other instances at the same time, so an older change may arrive after a newer one.
+ * Changes are therefore ordered by product version and merged after or before the versions a
+ * stored bucket covers, changes within that range are dropped as delivered already, and a write
+ * that collides with a concurrent insert of the same bucket is retried up to three times.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@EnableConfigurationProperties(InventoryHistoryProperties.class)
+public class InventoryHistorySink implements ChangeEventSink {
+
+  private static final int MAX_ATTEMPTS = 3;
+
+  private static final Comparator<InventoryHistoryBucket> VERSION_ORDER =
+      Comparator.comparingLong(InventoryHistoryBucket::productId)
+          .thenComparing(
+              InventoryHistoryBucket::firstVersion,
+              Comparator.nullsFirst(Comparator.naturalOrder()));
+
+  private final InventoryHistoryRepository repository;
+  private final ObjectMapper objectMapper;
+  private final TransactionTemplate transactionTemplate;
+
+  @Override
+  public void publish(List<ChangeEvent> events) {
+    List<InventoryHistoryBucket> changes =
+        events.stream()
+            .filter(event -> event.aggregateType() == AggregateType.PRODUCT)
+            .filter(event -> event.type() != ChangeType.DELETED)
+            .map(this::toChange)
+            .sorted(VERSION_ORDER)
+            .toList();
+    if (changes.isEmpty()) {
+      return;
+    }
+    for (int attempt = 1; ; attempt++) {
+      try {
+        transactionTemplate.executeWithoutResult(status -> write(changes));
+        return;
+      } catch (DataIntegrityViolationException e) {
+        if (attempt == MAX_ATTEMPTS) {
+          throw e;
+        }
+        log.debug("Inventory history bucket was inserted concurrently, retrying", e);
+      }
+    }
+  }
+
+  /**
+   * Merges the changes that the stored buckets do not hold yet, in version order: those after the
+   * versions of their stored bucket, then those before them.
+   */
+  private void write(List<InventoryHistoryBucket> changes) {
+    Instant from =
+        HistoryResolution.MINUTE.truncate(
+            changes.stream()
+                .map(InventoryHistoryBucket::bucketStart)
+                .min(Comparator.naturalOrder())
+                .orElseThrow());
+    Map<BucketKey, InventoryHistoryBucket> stored = new HashMap<>();
+    for (InventoryHistoryBucket bucket :
+        repository.findSince(
+            HistoryResolution.MINUTE,
+            changes.stream().map(InventoryHistoryBucket::productId).distinct().toList(),
+            from)) {
+      if (bucket.firstVersion() != null && bucket.lastVersion() != null) {
+        stored.put(BucketKey.of(bucket), bucket);
+      }
+    }
+    List<InventoryHistoryBucket> later = new ArrayList<>();
+    List<InventoryHistoryBucket> earlier = new ArrayList<>();
+    for (InventoryHistoryBucket change : changes) {
+      InventoryHistoryBucket bucket = stored.get(BucketKey.of(change.in(HistoryResolution.MINUTE)));
+      if (bucket == null
+          || change.firstVersion() == null
+          || change.firstVersion() > bucket.lastVersion()) {
+        later.add(change);
+      } else if (change.firstVersion() < bucket.firstVersion()) {
+        earlier.add(change);
+      }
+    }
+    // In version order, so each minute opens with its first change
+    for (List<InventoryHistoryBucket> unseen : List.of(later, earlier)) {
+      if (!unseen.isEmpty()) {
+        repository.merge(
+            HistoryResolution.MINUTE,
+            InventoryHistoryBucket.rollUp(unseen, HistoryResolution.MINUTE));
+      }
+    }
+  }
+
+  private InventoryHistoryBucket toChange(ChangeEvent event) {
+    ProductResponseDto product = decode(event.payload());
+    return InventoryHistoryBucket.of(
+        product.getId(),
+        event.occurredAt(),
+        product.getCategory() == null ? null : product.getCategory().getId(),
+        product.getQuantity(),
+        product.getPrice(),
+        event.aggregateVersion());
+  }
+
+  private ProductResponseDto decode(String payload) {
+    try {
+      return objectMapper.readValue(payload, ProductResponseDto.class);
+    } catch (JsonProcessingException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /** Identifies the bucket of a product. */
+  private record BucketKey(long productId, Instant bucketStart) {
+
+    static BucketKey of(InventoryHistoryBucket bucket) {
+      return new BucketKey(bucket.productId(), bucket.bucketStart());
+    }
+  }
+}
@@ -0,0 +1,10 @@
+package com.phoenix.productinventory.job;
+
+/**
+ * Outcome of one chunk of a job.
+ *
+ * @param processed number of items processed by the chunk
+ * @param cursor position after the chunk, where the next chunk or a resumed job starts
+ * @param last whether the job has no further chunks
+ */
+public record JobChunk(int processed, long cursor, boolean last) {}
@@ -0,0 +1,48 @@
+package com.phoenix.productinventory.job;
+
+import com.phoenix.productinventory.dto.JobRequestDto;
+import com.phoenix.productinventory.exception.BadRequestException;
+
+/**
+ * Executes the jobs of one type chunk by chunk.
+ *
+ * <p>A handler keeps no state between chunks: everything it needs to continue is the request and
+ * the cursor of the last committed chunk, so a job interrupted by a restart resumes where it
+ * stopped.
+ */
+public interface JobHandler {
+
+  /**
+   * Returns the type of the jobs this handler executes.
+   *
+   * @return the job type
+   */
+  JobType type();
+
+  /**
+   * Checks a job before it is queued, without touching the database.
+   *
+   * @param request the job
+   * @throws BadRequestException if the job is invalid
+   */
+  void validate(JobRequestDto request);
+
+  /**
+   * Prepares the start or resumption of a job.
+   *
+   * @param request the job
+   * @param cursor position after the last committed chunk, 0 for a new job
+   * @return the number of items left to process
+   * @throws BadRequestException if the job cannot be executed against the current data
+   */
+  long remaining(JobRequestDto request, long cursor);
+
+  /**
+   * Processes the next chunk in the caller's transaction, which also records the progress.
+   *
+   * @param request the job
+   * @param cursor position after the last committed chunk
+   * @return the outcome of the chunk
+   */
+  JobChunk process(JobRequestDto request, long cursor);
+}
@@ -0,0 +1,21 @@
+package com.phoenix.productinventory.job;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Configuration of background jobs.
+ *
+ * @param threads number of jobs executed at the same time; further jobs stay queued
+ * @param pollInterval how often queued jobs are looked for besides submissions and completions
+ * @param shutdownTimeout how long a shutdown waits for running jobs to finish their current chunk
+ * @param leaseTimeout how long a running job stays leased to its runner after its last chunk
+ *     started; must exceed the duration of a chunk, and a job whose lease expired is requeued
+ */
+@ConfigurationProperties(prefix = "jobs")
+public record JobProperties(
+    @DefaultValue("2") int threads,
+    @DefaultValue("5s") Duration pollInterval,
+    @DefaultValue("30s") Duration shutdownTimeout,
+    @DefaultValue("2m") Duration leaseTimeout) {}
@@ -0,0 +1,265 @@
+package com.phoenix.productinventory.job;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.phoenix.productinventory.dto.JobRequestDto;
+import com.phoenix.productinventory.model.Job;
+import com.phoenix.productinventory.repository.JobRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Executes queued jobs on a bounded pool of {@code jobs.threads} threads.
+ *
+ * <p>The {@code jobs} table is the queue: a job is claimed with a conditional update when a thread
+ * is free, so requests never wait for a job and jobs beyond the pool size simply stay queued. A job
+ * runs as a sequence of chunks, each committed in its own transaction together with the cursor and
+ * progress of the job, so a crash or shutdown loses at most the chunk in flight. Jobs still running
+ * when the application stops are requeued and continue after their last committed chunk.
+ * Cancellation is checked at the start of every chunk.
+ *
+ * <p>Several instances may share the {@code jobs} table. A started job is leased to the runner that
+ * claimed it for {@code jobs.lease-timeout}, and every chunk renews the lease in its own
+ * transaction, which keeps the job row locked until the chunk commits. Only running jobs whose
+ * lease expired, because their runner stopped without releasing them, are requeued, at startup and
+ * on every poll; a runner that finds its lease taken over stops without committing the chunk. The
+ * number of running jobs and committed chunks are published as {@code jobs.running} and {@code
+ * jobs.chunks}.
+ */
+@Slf4j
+@Component
+@Profile("!sharding")
+public class JobRunner implements MeterBinder {
+
+  private static final int MAX_ERROR_LENGTH = 1000;
+
+  private final JobRepository repository;
+  private final Map<JobType, JobHandler> handlers = new EnumMap<>(JobType.class);
+  private final ObjectMapper objectMapper;
+  private final TransactionTemplate transactionTemplate;
+  private final JobProperties properties;
+  private final ExecutorService executor;
+  private final Semaphore freeThreads;
+  private final LongAdder chunks = new LongAdder();
+  private final String runnerId = UUID.randomUUID().toString();
+  private volatile boolean ready;
+  private volatile boolean stopping;
+
+  public JobRunner(
+      JobRepository repository,
+      List<JobHandler> handlers,
+      ObjectMapper objectMapper,
+      TransactionTemplate transactionTemplate,
+      JobProperties properties) {
+    this.repository = repository;
+    handlers.forEach(handler -> this.handlers.put(handler.type(), handler));
+    this.objectMapper = objectMapper;
+    this.transactionTemplate = transactionTemplate;
+    this.properties = properties;
+    this.executor =
+        Executors.newFixedThreadPool(
+            properties.threads(), Thread.ofPlatform().name("job-", 1).factory());
+    this.freeThreads = new Semaphore(properties.threads());
+  }
+
+  /**
+   * Tells whether jobs of a type can be executed.
+   *
+   * @param type the job type
+   * @return true if a handler is registered for the type
+   */
+  public boolean supports(JobType type) {
+    return handlers.containsKey(type);
+  }
+
+  /**
+   * Returns the handler of a job type.
+   *
+   * @param type the job type
+   * @return the handler
+   * @throws IllegalArgumentException if the type has no handler
+   */
+  public JobHandler handler(JobType type) {
+    JobHandler handler = handlers.get(type);
+    if (handler == null) {
+      throw new IllegalArgumentException("No handler for jobs of type " + type);
+    }
+    return handler;
+  }
+
+  /** Requeues the interrupted jobs whose lease expired and starts executing jobs. */
+  @EventListener(ApplicationReadyEvent.class)
+  public void resume() {
+    ready = true;
+    poll();
+  }
+
+  /** Requeues the interrupted jobs whose lease expired and starts queued jobs. */
+  @Scheduled(fixedDelayString = "${jobs.poll-interval:5s}")
+  public void poll() {
+    if (!ready || stopping) {
+      return;
+    }
+    int requeued = repository.requeueExpired(JobStatus.RUNNING, JobStatus.QUEUED, Instant.now());
+    if (requeued > 0) {
+      log.info("Resuming {} interrupted jobs", requeued);
+    }
+    dispatch();
+  }
+
+  /** Starts queued jobs while job threads are free. */
+  public void dispatch() {
+    while (ready && !stopping && freeThreads.tryAcquire()) {
+      Long id = claim();
+      if (id == null) {
+        freeThreads.release();
+        return;
+      }
+      try {
+        executor.execute(
+            () -> {
+              try {
+                run(id);
+              } finally {
+                freeThreads.release();
+                dispatch();
+              }
+            });
+      } catch (RejectedExecutionException e) {
+        // Shutting down; the job is requeued once its lease expires
+        freeThreads.release();
+        return;
+      }
+    }
+  }
+
+  /** Lets running jobs finish their current chunk and requeues them for another runner. */
+  @PreDestroy
+  public void stop() throws InterruptedException {
+    stopping = true;
+    executor.shutdown();
+    long timeout = properties.shutdownTimeout().toMillis();
+    if (!executor.awaitTermination(timeout, TimeUnit.MILLISECONDS)) {
+      log.warn("Jobs did not stop within {}, interrupting them", properties.shutdownTimeout());
+      executor.shutdownNow();
+    }
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    Gauge.builder("jobs.running", this, JobRunner::runningJobs)
+        .description("Jobs being executed")
+        .register(registry);
+    FunctionCounter.builder("jobs.chunks", chunks, LongAdder::sum)
+        .description("Committed job chunks")
+        .register(registry);
+  }
+
+  private int runningJobs() {
+    return properties.threads() - freeThreads.availablePermits();
+  }
+
+  private Long claim() {
+    for (Long id :
+        repository.findIdsByStatus(JobStatus.QUEUED, PageRequest.ofSize(properties.threads()))) {
+      Instant now = Instant.now();
+      if (repository.start(
+              id,
+              JobStatus.QUEUED,
+              JobStatus.RUNNING,
+              runnerId,
+              now.plus(properties.leaseTimeout()),
+              now)
+          == 1) {
+        return id;
+      }
+    }
+    return null;
+  }
+
+  private void run(Long id) {
+    try {
+      Job job = repository.findById(id).orElseThrow();
+      JobHandler handler = handler(job.getType());
+      JobRequestDto request = objectMapper.readValue(job.getPayload(), JobRequestDto.class);
+      long cursor = job.getCursor();
+      Long remaining = transactionTemplate.execute(status -> handler.remaining(request, cursor));
+      repository.updateTotal(id, job.getProcessed() + remaining);
+      long position = cursor;
+      while (true) {
+        if (stopping) {
+          repository.release(id, JobStatus.RUNNING, JobStatus.QUEUED, runnerId);
+          log.info("Job {} stopped by shutdown at position {}", id, position);
+          return;
+        }
+        long from = position;
+        JobChunk chunk =
+            transactionTemplate.execute(status -> runChunk(id, handler, request, from));
+        if (chunk == null) {
+          end(id, JobStatus.CANCELLED, null);
+          return;
+        }
+        chunks.increment();
+        position = chunk.cursor();
+        if (chunk.last()) {
+          end(id, JobStatus.SUCCEEDED, null);
+          return;
+        }
+      }
+    } catch (JsonProcessingException | RuntimeException e) {
+      log.warn("Job {} failed", id, e);
+      end(id, JobStatus.FAILED, message(e));
+    }
+  }
+
+  /**
+   * Runs one chunk and records it, or returns null if the job was cancelled or this runner lost
+   * its lease.
+   */
+  private JobChunk runChunk(Long id, JobHandler handler, JobRequestDto request, long cursor) {
+    Instant claimedUntil = Instant.now().plus(properties.leaseTimeout());
+    if (repository.renew(id, JobStatus.RUNNING, runnerId, claimedUntil) == 0
+        || repository.isCancelRequested(id)) {
+      return null;
+    }
+    JobChunk chunk = handler.process(request, cursor);
+    repository.advance(id, chunk.cursor(), chunk.processed());
+    return chunk;
+  }
+
+  private void end(Long id, JobStatus status, String error) {
+    if (repository.finishClaimed(id, JobStatus.RUNNING, runnerId, status, error, Instant.now())
+        == 0) {
+      log.info("Job {} was taken over by another runner", id);
+    } else if (status != JobStatus.FAILED) {
+      log.info("Job {} {}", id, status.name().toLowerCase());
+    }
+  }
+
+  private static String message(Exception e) {
+    String message = e.getMessage() == null ? e.getClass().getSimpleName() : e.getMessage();
+    return message.length() <= MAX_ERROR_LENGTH ? message : message.substring(0, MAX_ERROR_LENGTH);
+  }
+}
@@ -0,0 +1,92 @@
+package com.phoenix.productinventory.job;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.phoenix.productinventory.dto.JobDto;
+import com.phoenix.productinventory.dto.JobRequestDto;
+import com.phoenix.productinventory.exception.BadRequestException;
+import com.phoenix.productinventory.exception.ResourceNotFoundException;
+import com.phoenix.productinventory.mapper.JobMapper;
+import com.phoenix.productinventory.model.Job;
+import com.phoenix.productinventory.repository.JobRepository;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+
+/** Submits, reports and cancels background jobs. */
+@Service
+@Profile("!sharding")
+@RequiredArgsConstructor
+public class JobService {
+
+  private static final String JOB_NOT_FOUND = "Job not found with id %s";
+
+  private final JobRepository repository;
+  private final JobRunner runner;
+  private final JobMapper mapper;
+  private final ObjectMapper objectMapper;
+
+  /**
+   * Validates and queues a job, and starts it right away if a job thread is free.
+   *
+   * @param request the job
+   * @return the queued job
+   * @throws BadRequestException if the job has no supported type or is invalid for its type
+   */
+  public JobDto submit(JobRequestDto request) {
+    if (request == null || request.getType() == null || !runner.supports(request.getType())) {
+      throw new BadRequestException("A job needs a supported type");
+    }
+    runner.handler(request.getType()).validate(request);
+    Job job;
+    try {
+      job =
+          repository.save(
+              Job.builder()
+                  .type(request.getType())
+                  .status(JobStatus.QUEUED)
+                  .payload(objectMapper.writeValueAsString(request))
+                  .createdAt(Instant.now())
+                  .build());
+    } catch (JsonProcessingException e) {
+      throw new UncheckedIOException(e);
+    }
+    runner.dispatch();
+    return mapper.toDto(job);
+  }
+
+  /**
+   * Retrieves the current state of a job.
+   *
+   * @param id the job
+   * @return the job
+   * @throws ResourceNotFoundException if the job does not exist
+   */
+  public JobDto getJob(Long id) {
+    return repository
+        .findById(id)
+        .map(mapper::toDto)
+        .orElseThrow(() -> new ResourceNotFoundException(String.format(JOB_NOT_FOUND, id)));
+  }
+
+  /**
+   * Cancels a job. A queued job is cancelled at once; a running job stops before its next chunk,
+   * keeping the chunks it committed. Cancelling a finished job changes nothing.
+   *
+   * @param id the job
+   * @return the job after the cancellation request
+   * @throws ResourceNotFoundException if the job does not exist
+   */
+  public JobDto cancel(Long id) {
+    getJob(id);
+    if (repository.finish(
+            id, List.of(JobStatus.QUEUED), JobStatus.CANCELLED, null, Instant.now())
+        == 0) {
+      repository.requestCancel(id, JobStatus.RUNNING);
+    }
+    return getJob(id);
+  }
+}
@@ -0,0 +1,24 @@
+package com.phoenix.productinventory.job;
+
+/** Lifecycle of a background job. */
+public enum JobStatus {
+  /** Waiting for a free job thread. */
+  QUEUED,
+  /** Being executed, or interrupted by a shutdown and resumed on the next start. */
+  RUNNING,
+  /** All chunks were committed. */
+  SUCCEEDED,
+  /** A chunk failed; the chunks before it stay committed. */
+  FAILED,
+  /** Cancelled before it started or between two chunks. */
+  CANCELLED;
+
+  /**
+   * Tells whether the job has ended.
+   *
+   * @return true for {@link #SUCCEEDED}, {@link #FAILED} and {@link #CANCELLED}
+   */
+  public boolean isFinished() {
+    return this != QUEUED && this != RUNNING;
+  }
+}
@@ -0,0 +1,9 @@
+package com.phoenix.productinventory.job;
+
+/** Kinds of background jobs. */
+public enum JobType {
+  /** Price or quantity change of all products matching a search filter, like a bulk update. */
+  PRODUCT_BULK_UPDATE,
+  /** Supplier feed written by SKU, like an upsert. */
+  PRODUCT_UPSERT
+}
@@ -0,0 +1,76 @@
+package com.phoenix.productinventory.job;
+
+import com.phoenix.productinventory.bulk.BulkUpdateProperties;
+import com.phoenix.productinventory.bulk.ProductBulkUpdater;
+import com.phoenix.productinventory.dto.JobRequestDto;
+import com.phoenix.productinventory.exception.BadRequestException;
+import com.phoenix.productinventory.repository.ProductRepository;
+import com.phoenix.productinventory.search.ProductSearchQuery;
+import com.phoenix.productinventory.search.SearchCondition;
+import com.phoenix.productinventory.search.SearchField;
+import com.phoenix.productinventory.search.SearchOperator;
+import com.phoenix.productinventory.service.ProductServiceImpl;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+/**
+ * Executes product bulk updates as jobs.
+ *
+ * <p>The matching products are walked in id order in chunks of {@code bulk.chunk-size}, and the
+ * cursor is the id of the last changed product. Before the job starts or resumes, the products it
+ * has not reached yet are checked for prices or quantities the change would make invalid, as a
+ * synchronous bulk update does.
+ */
+@Component
+@Profile("!sharding")
+@RequiredArgsConstructor
+public class ProductBulkUpdateJobHandler implements JobHandler {
+
+  private final ProductRepository repository;
+  private final ProductBulkUpdater bulkUpdater;
+  private final ProductServiceImpl productService;
+  private final BulkUpdateProperties properties;
+
+  @Override
+  public JobType type() {
+    return JobType.PRODUCT_BULK_UPDATE;
+  }
+
+  @Override
+  public void validate(JobRequestDto request) {
+    productService.validateBulkUpdate(request.getUpdate());
+    ProductSearchQuery.filter(request.getFilter());
+  }
+
+  @Override
+  public long remaining(JobRequestDto request, long cursor) {
+    SearchCondition left = after(ProductSearchQuery.filter(request.getFilter()), cursor);
+    SearchCondition rejected = ProductBulkUpdater.rejected(request.getUpdate());
+    if (rejected != null && repository.exists(new SearchCondition.And(List.of(left, rejected)))) {
+      throw new BadRequestException(
+          "The change would make some prices zero or negative or some quantities negative");
+    }
+    return repository.countMatching(left);
+  }
+
+  @Override
+  public JobChunk process(JobRequestDto request, long cursor) {
+    List<Long> ids =
+        repository.findIdsAfter(
+            ProductSearchQuery.filter(request.getFilter()), cursor, properties.chunkSize());
+    if (ids.isEmpty()) {
+      return new JobChunk(0, cursor, true);
+    }
+    bulkUpdater.update(ids, request.getUpdate());
+    return new JobChunk(
+        ids.size(), ids.get(ids.size() - 1), ids.size() < properties.chunkSize());
+  }
+
+  private static SearchCondition after(SearchCondition filter, long cursor) {
+    SearchCondition after =
+        new SearchCondition.Comparison(SearchField.ID, SearchOperator.GT, cursor);
+    return filter == null ? after : new SearchCondition.And(List.of(filter, after));
+  }
+}
@@ -0,0 +1,51 @@
+package com.phoenix.productinventory.job;
+
+import com.phoenix.productinventory.bulk.BulkUpdateProperties;
+import com.phoenix.productinventory.dto.JobRequestDto;
+import com.phoenix.productinventory.dto.ProductUpsertDto;
+import com.phoenix.productinventory.service.ProductServiceImpl;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+/**
+ * Executes supplier feeds written by SKU as jobs.
+ *
+ * <p>Each chunk upserts the next {@code bulk.upsert-batch-size} products of the feed, and the
+ * cursor is the number of products written so far. Unlike a synchronous upsert, a feed is not
+ * written atomically: a failing chunk, e.g. one with an unexpected version, fails the job and keeps
+ * the chunks before it.
+ */
+@Component
+@Profile("!sharding")
+@RequiredArgsConstructor
+public class ProductUpsertJobHandler implements JobHandler {
+
+  private final ProductServiceImpl productService;
+  private final BulkUpdateProperties properties;
+
+  @Override
+  public JobType type() {
+    return JobType.PRODUCT_UPSERT;
+  }
+
+  @Override
+  public void validate(JobRequestDto request) {
+    productService.validateUpserts(request.getProducts());
+  }
+
+  @Override
+  public long remaining(JobRequestDto request, long cursor) {
+    return request.getProducts().size() - cursor;
+  }
+
+  @Override
+  public JobChunk process(JobRequestDto request, long cursor) {
+    List<ProductUpsertDto> products = request.getProducts();
+    int from = Math.toIntExact(cursor);
+    int to = Math.min(from + properties.upsertBatchSize(), products.size());
+    productService.upsertProducts(products.subList(from, to));
+    return new JobChunk(to - from, to, to == products.size());
+  }
+}
@@ -0,0 +1,166 @@
+package com.phoenix.productinventory.limiter;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+/**
+ * Concurrency limit that adapts to the observed latency.
+ *
+ * <p>Every completed request contributes a round-trip time sample. A long-term exponential average
+ * of the samples tracks the latency the service sustains when it is healthy. When a sample exceeds
+ * that average by more than the tolerance, requests are queueing somewhere downstream (typically
+ * for a database connection) and the limit shrinks in proportion to the ratio. While latency stays
+ * within the tolerance the limit grows by the square root of its current value, probing for spare
+ * capacity. A failed request cuts the limit multiplicatively.
+ *
+ * <p>Samples taken while fewer than half of the permits were in use carry no information about the
+ * capacity of the service and do not move the limit.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+  /** Ratio between a sample and the long-term average that is still considered healthy. */
+  private static final double TOLERANCE = 1.5;
+
+  /** Largest reduction of the limit caused by a single latency sample. */
+  private static final double MIN_GRADIENT = 0.5;
+
+  /** Factor applied to the limit when a request fails. */
+  private static final double BACKOFF_RATIO = 0.9;
+
+  /** Weight of a sample in the long-term average, equivalent to a window of about 600 samples. */
+  private static final double LONG_RTT_WEIGHT = 2.0 / 601;
+
+  /** Number of samples averaged evenly before the limit starts to adapt. */
+  private static final int WARMUP_SAMPLES = 10;
+
+  private final int minLimit;
+  private final int maxLimit;
+  private final double smoothing;
+  private final LongSupplier nanoClock;
+  private final AtomicInteger inFlight = new AtomicInteger();
+
+  private volatile double limit;
+
+  // Guarded by this.
+  private double longRtt;
+  private int samples;
+
+  /**
+   * Creates a limiter.
+   *
+   * @param properties the initial limit, bounds and smoothing
+   * @param nanoClock source of monotonic timestamps in nanoseconds, e.g. {@link System#nanoTime}
+   */
+  public AdaptiveConcurrencyLimiter(ConcurrencyLimitProperties properties, LongSupplier nanoClock) {
+    this.minLimit = properties.minLimit();
+    this.maxLimit = properties.maxLimit();
+    this.smoothing = properties.smoothing();
+    this.nanoClock = nanoClock;
+    this.limit = clamp(properties.initialLimit(), minLimit, maxLimit);
+  }
+
+  /**
+   * Reserves a slot for a request if the limit allows it.
+   *
+   * @return a permit that must be released once the request completes, or empty if the limit is
+   *     reached
+   */
+  public Optional<Permit> tryAcquire() {
+    while (true) {
+      int current = inFlight.get();
+      if (current >= getLimit()) {
+        return Optional.empty();
+      }
+      if (inFlight.compareAndSet(current, current + 1)) {
+        return Optional.of(new Permit(nanoClock.getAsLong(), current + 1));
+      }
+    }
+  }
+
+  /**
+   * Returns the current limit.
+   *
+   * @return the number of requests that may run concurrently
+   */
+  public int getLimit() {
+    return (int) limit;
+  }
+
+  /**
+   * Returns the number of requests currently holding a permit.
+   *
+   * @return the number of in-flight requests
+   */
+  public int getInFlight() {
+    return inFlight.get();
+  }
+
+  private synchronized void onSample(long rtt, int inFlightAtStart) {
+    if (samples < WARMUP_SAMPLES) {
+      samples++;
+      longRtt += (rtt - longRtt) / samples;
+      return;
+    }
+    longRtt += (rtt - longRtt) * LONG_RTT_WEIGHT;
+    // After an overload the long-term average is inflated; let it catch up with recovered latency.
+    if (longRtt > 2.0 * rtt) {
+      longRtt *= 0.95;
+    }
+    if (inFlightAtStart < limit / 2) {
+      return;
+    }
+    double gradient = clamp(TOLERANCE * longRtt / Math.max(rtt, 1), MIN_GRADIENT, 1.0);
+    double estimate = limit * gradient + Math.sqrt(limit);
+    limit = clamp(limit * (1 - smoothing) + estimate * smoothing, minLimit, maxLimit);
+  }
+
+  private synchronized void onDropped() {
+    limit = clamp(limit * BACKOFF_RATIO, minLimit, maxLimit);
+  }
+
+  private static double clamp(double value, double min, double max) {
+    return Math.max(min, Math.min(max, value));
+  }
+
+  /** A slot held by one request. Only the first call to one of the release methods counts. */
+  public final class Permit {
+
+    private final long startNanos;
+    private final int inFlightAtStart;
+    private final AtomicBoolean released = new AtomicBoolean();
+
+    private Permit(long startNanos, int inFlightAtStart) {
+      this.startNanos = startNanos;
+      this.inFlightAtStart = inFlightAtStart;
+    }
+
+    /** Releases the permit and feeds the request latency into the limit. */
+    public void success() {
+      if (release()) {
+        onSample(nanoClock.getAsLong() - startNanos, inFlightAtStart);
+      }
+    }
+
+    /** Releases the permit after a failed request and backs the limit off. */
+    public void dropped() {
+      if (release()) {
+        onDropped();
+      }
+    }
+
+    /** Releases the permit without affecting the limit, e.g. for long-lived async requests. */
+    public void ignore() {
+      release();
+    }
+
+    private boolean release() {
+      if (released.compareAndSet(false, true)) {
+        inFlight.decrementAndGet();
+        return true;
+      }
+      return false;
+    }
+  }
+}
@@ -0,0 +1,138 @@
+package com.phoenix.productinventory.limiter;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Sheds load in front of the product, category and job controllers and the GraphQL endpoint.
+ *
+ * <p>Reads and writes are limited by separate {@link AdaptiveConcurrencyLimiter}s, so a burst of
+ * slow writes cannot starve the catalog reads and vice versa. Requests beyond the current limit are
+ * rejected immediately with {@code 503 Service Unavailable} and a {@code Retry-After} header instead
+ * of queueing for a Tomcat thread or a database connection. Responses with a 5xx status and
+ * requests that throw count as failures and back the limit off.
+ *
+ * <p>The limit, the number of in-flight requests and the rejections are published per group as
+ * {@code http.server.concurrency.limit}, {@code http.server.concurrency.in.flight} and {@code
+ * http.server.concurrency.rejected}.
+ */
+@Component
+@EnableConfigurationProperties(ConcurrencyLimitProperties.class)
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(
+    prefix = "concurrency.limit",
+    name = "enabled",
+    havingValue = "true",
+    matchIfMissing = true)
+public class ConcurrencyLimitFilter extends OncePerRequestFilter implements MeterBinder {
+
+  private static final List<String> LIMITED_PATHS =
+      List.of("/products", "/categories", "/jobs", "/graphql");
+  private static final String GROUP_TAG = "group";
+
+  private final Map<EndpointGroup, AdaptiveConcurrencyLimiter> limiters =
+      new EnumMap<>(EndpointGroup.class);
+  private final Map<EndpointGroup, LongAdder> rejections = new EnumMap<>(EndpointGroup.class);
+  private final String retryAfterSeconds;
+
+  @Autowired
+  public ConcurrencyLimitFilter(ConcurrencyLimitProperties properties) {
+    this(properties, System::nanoTime);
+  }
+
+  ConcurrencyLimitFilter(ConcurrencyLimitProperties properties, LongSupplier nanoClock) {
+    for (EndpointGroup group : EndpointGroup.values()) {
+      limiters.put(group, new AdaptiveConcurrencyLimiter(properties, nanoClock));
+      rejections.put(group, new LongAdder());
+    }
+    this.retryAfterSeconds =
+        String.valueOf(Math.max(1, (properties.retryAfter().toMillis() + 999) / 1000));
+  }
+
+  @Override
+  protected boolean shouldNotFilter(HttpServletRequest request) {
+    String path = path(request);
+    return LIMITED_PATHS.stream()
+        .noneMatch(prefix -> path.equals(prefix) || path.startsWith(prefix + "/"));
+  }
+
+  @Override
+  protected void doFilterInternal(
+      HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+      throws ServletException, IOException {
+    EndpointGroup group = EndpointGroup.of(request);
+    Optional<AdaptiveConcurrencyLimiter.Permit> permit = limiters.get(group).tryAcquire();
+    if (permit.isEmpty()) {
+      rejections.get(group).increment();
+      response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+      response.setHeader(HttpHeaders.RETRY_AFTER, retryAfterSeconds);
+      response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+      response.getWriter().write("Too many concurrent requests, retry later");
+      return;
+    }
+
+    boolean failed = true;
+    try {
+      filterChain.doFilter(request, response);
+      failed = false;
+    } finally {
+      if (failed || response.getStatus() >= 500) {
+        permit.get().dropped();
+      } else if (request.isAsyncStarted()) {
+        permit.get().ignore();
+      } else {
+        permit.get().success();
+      }
+    }
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    for (EndpointGroup group : EndpointGroup.values()) {
+      AdaptiveConcurrencyLimiter limiter = limiters.get(group);
+      Gauge.builder("http.server.concurrency.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+          .description("Current adaptive concurrency limit")
+          .tag(GROUP_TAG, group.tag())
+          .register(registry);
+      Gauge.builder(
+              "http.server.concurrency.in.flight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+          .description("Requests currently holding a concurrency permit")
+          .tag(GROUP_TAG, group.tag())
+          .register(registry);
+      FunctionCounter.builder(
+              "http.server.concurrency.rejected", rejections.get(group), LongAdder::sum)
+          .description("Requests rejected because the concurrency limit was reached")
+          .tag(GROUP_TAG, group.tag())
+          .register(registry);
+    }
+  }
+
+  private static String path(HttpServletRequest request) {
+    return request.getRequestURI().substring(request.getContextPath().length());
+  }
+}
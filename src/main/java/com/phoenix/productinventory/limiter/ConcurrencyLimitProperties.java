@@ -0,0 +1,25 @@
+package com.phoenix.productinventory.limiter;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Configuration of the adaptive concurrency limits applied in front of the REST controllers. Each
+ * endpoint group (reads and writes) gets its own limiter with these settings.
+ *
+ * @param enabled whether excess requests are shed
+ * @param initialLimit number of concurrent requests allowed before any latency was observed
+ * @param minLimit lower bound of the limit
+ * @param maxLimit upper bound of the limit
+ * @param smoothing weight of a new limit estimate, between 0 (never change) and 1 (no smoothing)
+ * @param retryAfter value of the {@code Retry-After} header sent with rejected requests
+ */
+@ConfigurationProperties(prefix = "concurrency.limit")
+public record ConcurrencyLimitProperties(
+    @DefaultValue("true") boolean enabled,
+    @DefaultValue("20") int initialLimit,
+    @DefaultValue("4") int minLimit,
+    @DefaultValue("200") int maxLimit,
+    @DefaultValue("0.2") double smoothing,
+    @DefaultValue("1s") Duration retryAfter) {}
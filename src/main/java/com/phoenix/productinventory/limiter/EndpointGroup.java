@@ -0,0 +1,52 @@
+package com.phoenix.productinventory.limiter;
+
+import jakarta.servlet.http.HttpServletRequest;
+import java.util.Set;
+
+/**
+ * Groups of endpoints that are limited independently of each other. Replica routing uses the same
+ * classification, so an endpoint is treated as a read by both or by neither.
+ */
+public enum EndpointGroup {
+  READ,
+  WRITE;
+
+  /** Paths of the product search and of GraphQL queries, which are reads sent with {@code POST}. */
+  private static final Set<String> READ_POST_PATHS = Set.of("/products/search", "/graphql");
+
+  /**
+   * Classifies a request by its HTTP method and its path within the application.
+   *
+   * @param request the request
+   * @return the group of the request
+   */
+  public static EndpointGroup of(HttpServletRequest request) {
+    return of(
+        request.getMethod(), request.getRequestURI().substring(request.getContextPath().length()));
+  }
+
+  /**
+   * Classifies a request by its HTTP method and path.
+   *
+   * @param method the HTTP method
+   * @param path the request path without the context path
+   * @return {@link #READ} for safe methods, product searches and GraphQL queries, {@link #WRITE}
+   *     otherwise
+   */
+  static EndpointGroup of(String method, String path) {
+    return switch (method) {
+      case "GET", "HEAD", "OPTIONS" -> READ;
+      case "POST" -> READ_POST_PATHS.contains(path) ? READ : WRITE;
+      default -> WRITE;
+    };
+  }
+
+  /**
+   * Returns the value used for the {@code group} metric tag.
+   *
+   * @return the lower-case group name
+   */
+  String tag() {
+    return name().toLowerCase();
+  }
+}
@@ -5,6 +5,7 @@ import com.phoenix.productinventory.dto.CategoryResponseDto;
 import com.phoenix.productinventory.model.Category;
 import org.mapstruct.BeanMapping;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 import org.mapstruct.MappingConstants;
 import org.mapstruct.MappingTarget;
 import org.mapstruct.NullValuePropertyMappingStrategy;
@@ -20,6 +21,8 @@ public interface CategoryMapper {
    * @param dto the category request data
    * @return the corresponding Category entity
    */
+  @Mapping(target = "parent", ignore = true)
+  @Mapping(target = "version", ignore = true)
   Category toEntity(CategoryRequestDto dto);
 
   /**
@@ -28,6 +31,8 @@ public interface CategoryMapper {
    * @param entity the Category entity
    * @return the corresponding CategoryResponseDto
    */
+  @Mapping(target = "parentId", source = "parent.id")
+  @Mapping(target = "productCount", ignore = true)
   CategoryResponseDto toDto(Category entity);
 
   /**
@@ -46,5 +51,7 @@ public interface CategoryMapper {
    * @param entity the entity to be updated
    */
   @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
+  @Mapping(target = "parent", ignore = true)
+  @Mapping(target = "version", ignore = true)
   void updateEntityFromDto(CategoryRequestDto dto, @MappingTarget Category entity);
 }
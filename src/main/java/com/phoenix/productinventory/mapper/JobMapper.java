@@ -0,0 +1,18 @@
+package com.phoenix.productinventory.mapper;
+
+import com.phoenix.productinventory.dto.JobDto;
+import com.phoenix.productinventory.model.Job;
+import org.mapstruct.Mapper;
+import org.mapstruct.MappingConstants;
+
+@Mapper(componentModel = MappingConstants.ComponentModel.SPRING)
+public interface JobMapper {
+
+  /**
+   * Converts a Job entity into a JobDto.
+   *
+   * @param entity the Job entity
+   * @return the corresponding JobDto
+   */
+  JobDto toDto(Job entity);
+}
@@ -6,6 +6,7 @@ import com.phoenix.productinventory.model.Product;
 import java.util.List;
 import org.mapstruct.BeanMapping;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 import org.mapstruct.MappingConstants;
 import org.mapstruct.MappingTarget;
 import org.mapstruct.NullValuePropertyMappingStrategy;
@@ -15,7 +16,7 @@ import org.mapstruct.NullValuePropertyMappingStrategy;
  *
  * <p>This mapper simplifies object transformations and ensures consistency across layers.
  */
-@Mapper(componentModel = MappingConstants.ComponentModel.SPRING, uses = ProductMapper.class)
+@Mapper(componentModel = MappingConstants.ComponentModel.SPRING, uses = CategoryMapper.class)
 public interface ProductMapper {
 
   /**
@@ -24,6 +25,7 @@ public interface ProductMapper {
    * @param dto the product request data
    * @return the corresponding Product entity
    */
+  @Mapping(target = "version", ignore = true)
   Product toEntity(ProductRequestDto dto);
 
   /**
@@ -50,5 +52,6 @@ public interface ProductMapper {
    * @param entity the entity to be updated
    */
   @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
+  @Mapping(target = "version", ignore = true)
   void updateEntityFromDto(ProductRequestDto dto, @MappingTarget Product entity);
 }
@@ -0,0 +1,30 @@
+package com.phoenix.productinventory.membership;
+
+import java.util.List;
+
+/**
+ * Boolean combination of category memberships: products that belong to every category of {@code
+ * all}, to at least one category of {@code any} and to none of the categories of {@code none}.
+ * Empty lists do not restrict the result.
+ *
+ * @param all categories a product must belong to
+ * @param any categories of which a product must belong to at least one
+ * @param none categories a product must not belong to
+ */
+public record CategoryExpression(List<Long> all, List<Long> any, List<Long> none) {
+
+  public CategoryExpression {
+    all = all == null ? List.of() : List.copyOf(all);
+    any = any == null ? List.of() : List.copyOf(any);
+    none = none == null ? List.of() : List.copyOf(none);
+  }
+
+  /**
+   * Tells whether the expression restricts anything.
+   *
+   * @return true if all three lists are empty
+   */
+  public boolean isEmpty() {
+    return all.isEmpty() && any.isEmpty() && none.isEmpty();
+  }
+}
@@ -0,0 +1,9 @@
+package com.phoenix.productinventory.membership;
+
+/**
+ * Membership of a product in a category, as loaded into the {@link CategoryMembershipIndex}.
+ *
+ * @param productId the product
+ * @param categoryId the category, or null for a product without a primary category
+ */
+public record CategoryMembership(Long productId, Long categoryId) {}
@@ -0,0 +1,386 @@
+package com.phoenix.productinventory.membership;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.phoenix.productinventory.cache.LruCache;
+import com.phoenix.productinventory.datasource.DataSourceRouting;
+import com.phoenix.productinventory.dto.ProductResponseDto;
+import com.phoenix.productinventory.model.Product;
+import com.phoenix.productinventory.model.ProductCategory;
+import com.phoenix.productinventory.outbox.ChangeEvent;
+import com.phoenix.productinventory.outbox.ChangeType;
+import com.phoenix.productinventory.repository.ProductCategoryRepository;
+import com.phoenix.productinventory.repository.ProductRepository;
+import com.phoenix.productinventory.snapshot.CatalogSnapshotService;
+import com.phoenix.productinventory.spcification.ProductSpecification;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.longlong.Roaring64Bitmap;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * In-memory index of category memberships: one compressed bitmap of product ids per category for
+ * primary categories, one per category for additional memberships, and one of all products.
+ *
+ * <p>Category expressions are evaluated with bitmap operations instead of one join per category
+ * and handed to the database as an id restriction, so they combine with every other product
+ * filter. Results with more than {@code category.membership.max-id-list-size} products would make
+ * an id list too long for one statement and are filtered with membership subqueries instead. The
+ * index is loaded before the application accepts requests, with the primary categories
+ * taken from the verified catalog snapshot when snapshots are enabled. Changes made here are
+ * applied when the transaction that made them commits, so it never shows uncommitted memberships;
+ * product, category and membership changes made by other instances are applied from the outbox
+ * through the {@link com.phoenix.productinventory.outbox.OutboxTail}.
+ *
+ * <p>Commit callbacks of concurrent transactions and outbox events arrive in no particular order,
+ * so primary category changes carry the product version they wrote: a change older than one
+ * already applied is dropped, and one that does not directly follow the last applied change
+ * removes the product from every primary bitmap rather than trusting its previous category.
+ * Product ids are never reused, so the recently deleted products are remembered and any later
+ * state of them is dropped. Membership events are applied by reading whether the membership
+ * exists, so their order does not matter.
+ */
+@Slf4j
+@Component
+@EnableConfigurationProperties(CategoryMembershipProperties.class)
+public class CategoryMembershipIndex implements SmartInitializingSingleton {
+
+  private final ProductRepository productRepository;
+  private final ProductCategoryRepository membershipRepository;
+  private final ObjectProvider<CatalogSnapshotService> snapshots;
+  private final ObjectMapper objectMapper;
+  private final CategoryMembershipProperties properties;
+
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+  private final Roaring64Bitmap products = new Roaring64Bitmap();
+  private final Map<Long, Roaring64Bitmap> primary = new HashMap<>();
+  private final Map<Long, Roaring64Bitmap> additional = new HashMap<>();
+  private final Map<Long, Integer> versions = new HashMap<>();
+  private final LruCache<Long, Boolean> deletedProducts;
+
+  public CategoryMembershipIndex(
+      ProductRepository productRepository,
+      ProductCategoryRepository membershipRepository,
+      ObjectProvider<CatalogSnapshotService> snapshots,
+      ObjectMapper objectMapper,
+      CategoryMembershipProperties properties) {
+    this.productRepository = productRepository;
+    this.membershipRepository = membershipRepository;
+    this.snapshots = snapshots;
+    this.objectMapper = objectMapper;
+    this.properties = properties;
+    this.deletedProducts = new LruCache<>(properties.deletedProducts());
+  }
+
+  @Override
+  public void afterSingletonsInstantiated() {
+    CatalogSnapshotService snapshotService = snapshots.getIfAvailable();
+    if (snapshotService == null) {
+      load();
+      return;
+    }
+    load(
+        snapshotService.verifiedSnapshot().products().stream()
+            .map(product -> new CategoryMembership(product.id(), product.categoryId()))
+            .toList());
+  }
+
+  /**
+   * Adds the memberships stored in the database that the current thread is connected to. Loading
+   * is additive, so several databases can feed one index.
+   */
+  public void load() {
+    load(productRepository.findAllMemberships());
+  }
+
+  /**
+   * Applies a committed product, category or membership change, whichever instance made it.
+   * Events whose payload cannot be read are logged and skipped.
+   *
+   * @param event the change event read from the outbox
+   */
+  @EventListener
+  public void onChange(ChangeEvent event) {
+    try {
+      switch (event.aggregateType()) {
+        case PRODUCT -> applyProductChange(event);
+        case CATEGORY -> {
+          if (event.type() == ChangeType.DELETED) {
+            removeCategory(event.aggregateId());
+          }
+        }
+        case CATEGORY_MEMBERSHIP ->
+            refresh(objectMapper.readValue(event.payload(), CategoryMembership.class));
+        case REORDER_THRESHOLD -> {
+          // Thresholds do not change memberships
+        }
+      }
+    } catch (JsonProcessingException e) {
+      log.warn("Skipping undecodable change {}", event.id(), e);
+    }
+  }
+
+  /**
+   * Evaluates a category expression.
+   *
+   * @param expression the expression
+   * @return the ids of the matching products
+   */
+  public Roaring64Bitmap evaluate(CategoryExpression expression) {
+    lock.readLock().lock();
+    try {
+      Roaring64Bitmap result = products.clone();
+      for (Long category : expression.all()) {
+        result.and(membersOf(category));
+      }
+      if (!expression.any().isEmpty()) {
+        Roaring64Bitmap union = new Roaring64Bitmap();
+        expression.any().forEach(category -> union.or(membersOf(category)));
+        result.and(union);
+      }
+      for (Long category : expression.none()) {
+        result.andNot(membersOf(category));
+      }
+      return result;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Turns a category expression into a product filter.
+   *
+   * @param expression the expression
+   * @return a specification restricting products to the matching ids, or to the members of the
+   *     categories if there are too many of them, or null if the expression is empty
+   */
+  public Specification<Product> toSpecification(CategoryExpression expression) {
+    if (expression.isEmpty()) {
+      return null;
+    }
+    Roaring64Bitmap matching = evaluate(expression);
+    if (matching.getLongCardinality() > properties.maxIdListSize()) {
+      return membershipSpecification(expression);
+    }
+    List<Long> ids = new ArrayList<>((int) matching.getLongCardinality());
+    matching.forEach(ids::add);
+    return ProductSpecification.hasIdIn(ids);
+  }
+
+  /** Registers a new product once the current transaction commits. */
+  public void addProduct(long productId, Long categoryId, int version) {
+    afterCommit(
+        () -> {
+          if (deletedProducts.get(productId) != null) {
+            return;
+          }
+          products.addLong(productId);
+          Integer applied = versions.get(productId);
+          if (applied == null || applied < version) {
+            versions.put(productId, version);
+            if (categoryId != null) {
+              bitmap(primary, categoryId).addLong(productId);
+            }
+          }
+        });
+  }
+
+  /** Forgets a deleted product once the current transaction commits. */
+  public void removeProduct(long productId) {
+    afterCommit(
+        () -> {
+          products.removeLong(productId);
+          versions.remove(productId);
+          deletedProducts.put(productId, Boolean.TRUE);
+          primary.values().forEach(bitmap -> bitmap.removeLong(productId));
+          additional.values().forEach(bitmap -> bitmap.removeLong(productId));
+        });
+  }
+
+  /**
+   * Moves a product to another primary category once the current transaction commits, unless a
+   * later version of the product has been applied already.
+   *
+   * @param productId the product
+   * @param previousCategoryId the category the write replaced
+   * @param categoryId the new category, or null if the product has none
+   * @param version the product version written together with the new category
+   */
+  public void changePrimaryCategory(
+      long productId, Long previousCategoryId, Long categoryId, int version) {
+    afterCommit(
+        () -> {
+          Integer applied = versions.get(productId);
+          if (deletedProducts.get(productId) != null || (applied != null && applied >= version)) {
+            return;
+          }
+          versions.put(productId, version);
+          if (applied == null || applied != version - 1) {
+            primary.values().forEach(bitmap -> bitmap.removeLong(productId));
+          } else if (previousCategoryId != null) {
+            bitmap(primary, previousCategoryId).removeLong(productId);
+          }
+          if (categoryId != null) {
+            bitmap(primary, categoryId).addLong(productId);
+          }
+        });
+  }
+
+  /** Adds an additional membership once the current transaction commits. */
+  public void addMembership(long productId, long categoryId) {
+    afterCommit(() -> bitmap(additional, categoryId).addLong(productId));
+  }
+
+  /** Removes an additional membership once the current transaction commits. */
+  public void removeMembership(long productId, long categoryId) {
+    afterCommit(() -> bitmap(additional, categoryId).removeLong(productId));
+  }
+
+  /** Drops the bitmaps of a deleted category once the current transaction commits. */
+  public void removeCategory(long categoryId) {
+    afterCommit(
+        () -> {
+          primary.remove(categoryId);
+          additional.remove(categoryId);
+        });
+  }
+
+  private void applyProductChange(ChangeEvent event) throws JsonProcessingException {
+    if (event.type() == ChangeType.DELETED) {
+      removeProduct(event.aggregateId());
+      return;
+    }
+    ProductResponseDto product = objectMapper.readValue(event.payload(), ProductResponseDto.class);
+    long productId = product.getId();
+    Long categoryId = product.getCategory() == null ? null : product.getCategory().getId();
+    Integer version = product.getVersion();
+    write(
+        () -> {
+          Integer applied = versions.get(productId);
+          if (deletedProducts.get(productId) != null
+              || (applied != null && version != null && applied >= version)) {
+            return;
+          }
+          if (version != null) {
+            versions.put(productId, version);
+          }
+          products.addLong(productId);
+          // A product is in one primary bitmap at most, so one that is there already stays
+          Roaring64Bitmap current = categoryId == null ? null : primary.get(categoryId);
+          if (current != null && current.contains(productId)) {
+            return;
+          }
+          primary.values().forEach(bitmap -> bitmap.removeLong(productId));
+          if (categoryId != null) {
+            bitmap(primary, categoryId).addLong(productId);
+          }
+        });
+  }
+
+  /** Applies whether an additional membership currently exists in the database. */
+  private void refresh(CategoryMembership membership) {
+    boolean exists;
+    // A change made elsewhere may not have reached a replica yet
+    try (DataSourceRouting.Scope ignored = DataSourceRouting.forcePrimary()) {
+      exists =
+          membershipRepository.existsById(
+              new ProductCategory.Key(membership.productId(), membership.categoryId()));
+    }
+    write(
+        () -> {
+          if (exists && deletedProducts.get(membership.productId()) == null) {
+            bitmap(additional, membership.categoryId()).addLong(membership.productId());
+          } else if (additional.containsKey(membership.categoryId())) {
+            additional.get(membership.categoryId()).removeLong(membership.productId());
+          }
+        });
+  }
+
+  private void load(List<CategoryMembership> primaryMemberships) {
+    List<CategoryMembership> additionalMemberships = membershipRepository.findAllMemberships();
+    write(
+        () -> {
+          for (CategoryMembership membership : primaryMemberships) {
+            products.addLong(membership.productId());
+            if (membership.categoryId() != null) {
+              bitmap(primary, membership.categoryId()).addLong(membership.productId());
+            }
+          }
+          additionalMemberships.forEach(
+              membership ->
+                  bitmap(additional, membership.categoryId()).addLong(membership.productId()));
+        });
+    log.info(
+        "Loaded category membership index with {} products and {} additional memberships",
+        primaryMemberships.size(),
+        additionalMemberships.size());
+  }
+
+  private static Specification<Product> membershipSpecification(CategoryExpression expression) {
+    Specification<Product> spec =
+        Specification.allOf(
+            expression.all().stream().map(ProductSpecification::isMemberOf).toList());
+    if (!expression.any().isEmpty()) {
+      spec =
+          spec.and(
+              Specification.anyOf(
+                  expression.any().stream().map(ProductSpecification::isMemberOf).toList()));
+    }
+    for (Long category : expression.none()) {
+      spec = spec.and(Specification.not(ProductSpecification.isMemberOf(category)));
+    }
+    return spec;
+  }
+
+  private Roaring64Bitmap membersOf(Long categoryId) {
+    Roaring64Bitmap members = new Roaring64Bitmap();
+    Roaring64Bitmap primaryMembers = primary.get(categoryId);
+    if (primaryMembers != null) {
+      members.or(primaryMembers);
+    }
+    Roaring64Bitmap additionalMembers = additional.get(categoryId);
+    if (additionalMembers != null) {
+      members.or(additionalMembers);
+    }
+    return members;
+  }
+
+  private static Roaring64Bitmap bitmap(Map<Long, Roaring64Bitmap> bitmaps, Long categoryId) {
+    return bitmaps.computeIfAbsent(categoryId, id -> new Roaring64Bitmap());
+  }
+
+  private void afterCommit(Runnable change) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      write(change);
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(
+        new TransactionSynchronization() {
+          @Override
+          public void afterCommit() {
+            write(change);
+          }
+        });
+  }
+
+  private void write(Runnable change) {
+    lock.writeLock().lock();
+    try {
+      change.run();
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+}
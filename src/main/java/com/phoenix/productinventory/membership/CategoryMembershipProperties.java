@@ -0,0 +1,17 @@
+package com.phoenix.productinventory.membership;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Configuration of category expression filters ({@code allCategories}, {@code anyCategories},
+ * {@code noneCategories}).
+ *
+ * @param maxIdListSize largest number of matching products handed to the database as an id list;
+ *     larger results are filtered with membership subqueries instead
+ * @param deletedProducts number of recently deleted products remembered, so that a change of such a
+ *     product applied after its deletion does not bring it back
+ */
+@ConfigurationProperties(prefix = "category.membership")
+public record CategoryMembershipProperties(
+    @DefaultValue("1000") int maxIdListSize, @DefaultValue("10000") int deletedProducts) {}
@@ -3,9 +3,12 @@ package com.phoenix.productinventory.model;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.Table;
 import jakarta.persistence.Version;
@@ -20,7 +23,8 @@ import java.util.List;
 
 /**
  * Represents a category for products in the inventory system. Each category can have multiple
- * products.
+ * products and an optional parent category; the transitive hierarchy is kept in the {@link
+ * CategoryClosure} table.
  *
  * <p>Includes optimistic locking via the {@code version} field to handle concurrent updates.
  */
@@ -55,4 +59,9 @@ public class Category {
    */
   @OneToMany(mappedBy = "category", cascade = CascadeType.ALL, orphanRemoval = true)
   private List<Product> products;
+
+  /** Parent category, or null for a top-level category. */
+  @ManyToOne(fetch = FetchType.LAZY)
+  @JoinColumn(name = "parent_id")
+  private Category parent;
 }
@@ -0,0 +1,56 @@
+package com.phoenix.productinventory.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.io.Serializable;
+
+/**
+ * Row of the category closure table: {@code ancestorId} is an ancestor of {@code descendantId}
+ * at the given depth, and every category is its own ancestor at depth 0.
+ *
+ * <p>The table is maintained with set-based statements of the {@code CategoryClosureRepository};
+ * the entity is read-only and exists so criteria queries can join it.
+ */
+@Entity
+@Table(name = "category_closure")
+@IdClass(CategoryClosure.Key.class)
+@Immutable
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CategoryClosure {
+
+  /** Identifier of the ancestor category. */
+  @Id
+  @Column(name = "ancestor_id")
+  private Long ancestorId;
+
+  /** Identifier of the descendant category. */
+  @Id
+  @Column(name = "descendant_id")
+  private Long descendantId;
+
+  /** Number of edges between ancestor and descendant. */
+  @Column(nullable = false)
+  private int depth;
+
+  /** Composite primary key of {@link CategoryClosure}. */
+  @Getter
+  @NoArgsConstructor
+  @AllArgsConstructor
+  @EqualsAndHashCode
+  public static class Key implements Serializable {
+
+    private Long ancestorId;
+    private Long descendantId;
+  }
+}
@@ -0,0 +1,90 @@
+package com.phoenix.productinventory.model;
+
+import com.phoenix.productinventory.job.JobStatus;
+import com.phoenix.productinventory.job.JobType;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Lob;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * Entity that represents a long-running bulk operation executed in the background.
+ *
+ * <p>Only the job is inserted as an entity; its progress and status are changed with targeted
+ * update statements, so that the runner and a cancellation never overwrite each other's columns.
+ */
+@Entity
+@Table(name = "jobs")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class Job {
+
+  /** Unique identifier, also the order in which queued jobs are started. */
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private Long id;
+
+  /** Kind of the job. */
+  @Enumerated(EnumType.STRING)
+  @Column(nullable = false)
+  private JobType type;
+
+  /** Current state of the job. */
+  @Enumerated(EnumType.STRING)
+  @Column(nullable = false)
+  private JobStatus status;
+
+  /** JSON representation of the job request. */
+  @Lob
+  @Column(nullable = false)
+  private String payload;
+
+  /** Position after the last committed chunk, where a resumed job continues. */
+  @Column(name = "cursor_position", nullable = false)
+  private long cursor;
+
+  /** Number of items processed by the committed chunks. */
+  @Column(nullable = false)
+  private long processed;
+
+  /** Number of items the job processes in total, known once it has started. */
+  private Long total;
+
+  /** Whether cancellation was requested while the job was running. */
+  @Column(nullable = false)
+  private boolean cancelRequested;
+
+  /** Reason of the failure of a failed job. */
+  private String error;
+
+  /** Submission time. */
+  @Column(nullable = false)
+  private Instant createdAt;
+
+  /** Time at which the job was first started. */
+  private Instant startedAt;
+
+  /** Time at which the job succeeded, failed or was cancelled. */
+  private Instant finishedAt;
+
+  /** Runner executing the running job. */
+  private String claimedBy;
+
+  /** Expiry of the runner's lease, after which another runner may take the job over. */
+  private Instant claimedUntil;
+}
@@ -0,0 +1,83 @@
+package com.phoenix.productinventory.model;
+
+import com.phoenix.productinventory.outbox.AggregateType;
+import com.phoenix.productinventory.outbox.ChangeType;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Lob;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * Entity that represents a change event waiting in the transactional outbox.
+ *
+ * <p>Events are inserted in the same transaction as the change they describe, claimed by one relay
+ * at a time and marked as published once every sink has received them.
+ */
+@Entity
+@Table(name = "outbox_events")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OutboxEvent {
+
+  /**
+   * Unique, increasing identifier, assigned right before the transaction commits; concurrent
+   * transactions may commit out of id order.
+   */
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private Long id;
+
+  /** Kind of the changed entity. */
+  @Enumerated(EnumType.STRING)
+  @Column(nullable = false)
+  private AggregateType aggregateType;
+
+  /** Identifier of the changed entity. */
+  @Column(nullable = false)
+  private Long aggregateId;
+
+  /** Version of the changed entity after the change. */
+  private Long aggregateVersion;
+
+  /** Kind of the change. */
+  @Enumerated(EnumType.STRING)
+  @Column(name = "event_type", nullable = false)
+  private ChangeType type;
+
+  /** JSON representation of the entity after the change, or its last state if it was deleted. */
+  @Lob private String payload;
+
+  /** Commit time of the change. */
+  @Column(nullable = false)
+  private Instant createdAt;
+
+  /** Time at which the relay published the event, or null while it is pending. */
+  private Instant publishedAt;
+
+  /** Token of the relay run that claimed the event, or null if it is not claimed. */
+  private String claimedBy;
+
+  /** Time at which the claim expires and another relay run may take the event over. */
+  private Instant claimedUntil;
+
+  /**
+   * Comma-separated names of the sinks that still have to receive the event, or null for every
+   * sink.
+   */
+  private String pendingSinks;
+}
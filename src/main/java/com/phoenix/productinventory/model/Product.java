@@ -71,4 +71,8 @@ public class Product {
   @ManyToOne
   @JoinColumn(name = "category_id")
   private Category category;
+
+  /** Optional stock keeping unit, unique across products. */
+  @Column(unique = true, length = 64)
+  private String sku;
 }
@@ -0,0 +1,50 @@
+package com.phoenix.productinventory.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * Additional membership of a product in a category, next to its primary {@link
+ * Product#getCategory() category}.
+ *
+ * <p>Mapped by ids only so that adding or removing a membership never loads the product's or the
+ * category's collections.
+ */
+@Entity
+@Table(name = "product_categories")
+@IdClass(ProductCategory.Key.class)
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductCategory {
+
+  /** Identifier of the product. */
+  @Id
+  @Column(name = "product_id")
+  private Long productId;
+
+  /** Identifier of the category. */
+  @Id
+  @Column(name = "category_id")
+  private Long categoryId;
+
+  /** Composite primary key of {@link ProductCategory}. */
+  @Getter
+  @NoArgsConstructor
+  @AllArgsConstructor
+  @EqualsAndHashCode
+  public static class Key implements Serializable {
+
+    private Long productId;
+    private Long categoryId;
+  }
+}
@@ -0,0 +1,42 @@
+package com.phoenix.productinventory.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Entity that represents the reorder threshold of either one product or all products of a primary
+ * category. Exactly one of {@link #productId} and {@link #categoryId} is set.
+ */
+@Entity
+@Table(name = "reorder_thresholds")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReorderThreshold {
+
+  /** Unique identifier. */
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private Long id;
+
+  /** Product the threshold applies to, or null for a category threshold. */
+  private Long productId;
+
+  /** Category whose products the threshold applies to, or null for a product threshold. */
+  private Long categoryId;
+
+  /** Highest quantity at which a product is considered low on stock. */
+  @Column(nullable = false)
+  private int threshold;
+}
@@ -0,0 +1,9 @@
+package com.phoenix.productinventory.outbox;
+
+/** Kinds of entities whose changes are recorded in the outbox. */
+public enum AggregateType {
+  PRODUCT,
+  CATEGORY,
+  REORDER_THRESHOLD,
+  CATEGORY_MEMBERSHIP
+}
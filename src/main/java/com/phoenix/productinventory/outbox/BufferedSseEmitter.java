@@ -0,0 +1,120 @@
+package com.phoenix.productinventory.outbox;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Server-sent-event connection whose events are written from a bounded queue by a task of its
+ * own, so whoever produces the events never waits for a slow client.
+ *
+ * <p>At most one task writes to the connection at a time. A client that lets more than the
+ * capacity of events pile up is disconnected; it can resume with {@code Last-Event-ID}.
+ */
+final class BufferedSseEmitter {
+
+  private final SseEmitter emitter = new SseEmitter(0L);
+  private final Queue<SseEmitter.SseEventBuilder> queue = new ArrayDeque<>();
+  private final Executor executor;
+  private final int capacity;
+  private final Consumer<BufferedSseEmitter> onClose;
+  private boolean draining;
+  private boolean closed;
+
+  /**
+   * Creates a connection.
+   *
+   * @param executor runs the tasks that write queued events
+   * @param capacity maximum number of queued events
+   * @param onClose called once when the connection completes, times out or fails
+   */
+  BufferedSseEmitter(Executor executor, int capacity, Consumer<BufferedSseEmitter> onClose) {
+    this.executor = executor;
+    this.capacity = capacity;
+    this.onClose = onClose;
+    emitter.onCompletion(this::markClosed);
+    emitter.onTimeout(this::markClosed);
+    emitter.onError(error -> markClosed());
+  }
+
+  /** The emitter to return from the controller. */
+  SseEmitter emitter() {
+    return emitter;
+  }
+
+  /**
+   * Queues an event for writing, disconnecting the client if its queue is full.
+   *
+   * @param event the event
+   */
+  void offer(SseEmitter.SseEventBuilder event) {
+    synchronized (this) {
+      if (closed) {
+        return;
+      }
+      if (queue.size() < capacity) {
+        queue.add(event);
+        if (!draining) {
+          draining = true;
+          executor.execute(this::drain);
+        }
+        return;
+      }
+    }
+    close(new IOException("Client fell more than " + capacity + " events behind"));
+  }
+
+  /**
+   * Writes an event on the calling thread, bypassing the queue.
+   *
+   * @param event the event
+   */
+  void send(SseEmitter.SseEventBuilder event) {
+    try {
+      emitter.send(event);
+    } catch (IOException | IllegalStateException e) {
+      close(e);
+    }
+  }
+
+  /**
+   * Disconnects the client.
+   *
+   * @param cause the reason
+   */
+  void close(Exception cause) {
+    if (markClosed()) {
+      emitter.completeWithError(cause);
+    }
+  }
+
+  private void drain() {
+    while (true) {
+      SseEmitter.SseEventBuilder event;
+      synchronized (this) {
+        event = queue.poll();
+        if (event == null || closed) {
+          draining = false;
+          return;
+        }
+      }
+      send(event);
+    }
+  }
+
+  /** Marks the connection as closed; returns false if it was closed already. */
+  private boolean markClosed() {
+    synchronized (this) {
+      if (closed) {
+        return false;
+      }
+      closed = true;
+      queue.clear();
+    }
+    onClose.accept(this);
+    return true;
+  }
+}
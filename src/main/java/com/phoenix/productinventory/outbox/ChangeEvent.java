@@ -0,0 +1,45 @@
+package com.phoenix.productinventory.outbox;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import com.phoenix.productinventory.model.OutboxEvent;
+import java.time.Instant;
+
+/**
+ * A committed change of a product or category, as delivered to the {@link ChangeEventSink}s.
+ *
+ * @param id outbox identifier; assigned right before commit, so concurrent transactions may commit
+ *     out of id order
+ * @param aggregateType kind of the changed entity
+ * @param aggregateId identifier of the changed entity
+ * @param aggregateVersion version of the entity after the change; orders the events of one entity
+ * @param type kind of the change
+ * @param payload JSON representation of the entity after the change, or its last state if it was
+ *     deleted
+ * @param occurredAt commit time of the change
+ */
+public record ChangeEvent(
+    Long id,
+    AggregateType aggregateType,
+    Long aggregateId,
+    Long aggregateVersion,
+    ChangeType type,
+    @JsonRawValue String payload,
+    Instant occurredAt) {
+
+  /**
+   * Creates the published form of an outbox row.
+   *
+   * @param event the outbox row
+   * @return the change event
+   */
+  public static ChangeEvent of(OutboxEvent event) {
+    return new ChangeEvent(
+        event.getId(),
+        event.getAggregateType(),
+        event.getAggregateId(),
+        event.getAggregateVersion(),
+        event.getType(),
+        event.getPayload(),
+        event.getCreatedAt());
+  }
+}
@@ -0,0 +1,32 @@
+package com.phoenix.productinventory.outbox;
+
+import java.util.List;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Destination of the change events relayed from the outbox.
+ *
+ * <p>Delivery is at least once and tracked per sink: if a sink throws, the batch stays pending for
+ * that sink alone and is offered to it again on a later relay run, while the other sinks are not
+ * sent the batch a second time. A sink may still receive an event twice, e.g. after a relay stops
+ * between publishing and recording the publication, so sinks should be idempotent with respect
+ * to {@link ChangeEvent#id()} or the aggregate version.
+ */
+public interface ChangeEventSink {
+
+  /**
+   * Publishes a batch of events. Runs outside of any transaction.
+   *
+   * @param events events in id order
+   */
+  void publish(List<ChangeEvent> events);
+
+  /**
+   * Returns the name under which the outbox records that the sink still has to receive an event.
+   *
+   * @return a name that is unique among the sinks and stable across restarts
+   */
+  default String name() {
+    return ClassUtils.getUserClass(this).getSimpleName();
+  }
+}
@@ -0,0 +1,10 @@
+package com.phoenix.productinventory.outbox;
+
+/** Kinds of changes recorded in the outbox. */
+public enum ChangeType {
+  CREATED,
+  UPDATED,
+  DELETED,
+  CATEGORY_ASSIGNED,
+  CATEGORY_REMOVED
+}
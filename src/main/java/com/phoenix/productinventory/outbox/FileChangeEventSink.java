@@ -0,0 +1,50 @@
+package com.phoenix.productinventory.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/** Appends change events to a file, one JSON document per line. */
+@Component
+@ConditionalOnProperty(prefix = "outbox.file", name = "enabled", havingValue = "true")
+public class FileChangeEventSink implements ChangeEventSink {
+
+  private final ObjectMapper objectMapper;
+  private final Path path;
+
+  public FileChangeEventSink(ObjectMapper objectMapper, OutboxProperties properties) {
+    this.objectMapper = objectMapper;
+    this.path = properties.file().path();
+  }
+
+  @Override
+  public synchronized void publish(List<ChangeEvent> events) {
+    try {
+      Path directory = path.toAbsolutePath().getParent();
+      if (directory != null) {
+        Files.createDirectories(directory);
+      }
+      try (BufferedWriter writer =
+          Files.newBufferedWriter(
+              path,
+              StandardCharsets.UTF_8,
+              StandardOpenOption.CREATE,
+              StandardOpenOption.APPEND)) {
+        for (ChangeEvent event : events) {
+          writer.write(objectMapper.writeValueAsString(event));
+          writer.newLine();
+        }
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException("Could not append change events to " + path, e);
+    }
+  }
+}
@@ -0,0 +1,24 @@
+package com.phoenix.productinventory.outbox;
+
+import com.phoenix.productinventory.dto.InventoryChangeDto;
+
+/**
+ * Server-side filter of an inventory change stream subscription.
+ *
+ * @param categoryId only changes of products in this category, or null for all categories
+ * @param maxQuantity only changes that leave at most this quantity in stock, or null for all
+ */
+public record InventoryChangeFilter(Long categoryId, Integer maxQuantity) {
+
+  /**
+   * Tests whether a change is delivered to the subscriber.
+   *
+   * @param change the change
+   * @return true if the change passes every configured condition
+   */
+  public boolean matches(InventoryChangeDto change) {
+    return (categoryId == null || categoryId.equals(change.getCategoryId()))
+        && (maxQuantity == null
+            || (change.getQuantity() != null && change.getQuantity() <= maxQuantity));
+  }
+}
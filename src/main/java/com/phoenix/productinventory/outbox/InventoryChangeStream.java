@@ -0,0 +1,259 @@
+package com.phoenix.productinventory.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.phoenix.productinventory.datasource.DataSourceRouting;
+import com.phoenix.productinventory.dto.InventoryChangeDto;
+import com.phoenix.productinventory.dto.ProductResponseDto;
+import com.phoenix.productinventory.model.OutboxEvent;
+import com.phoenix.productinventory.repository.OutboxEventRepository;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Pushes product stock and price changes to server-sent-event subscribers as they commit.
+ *
+ * <p>Changes arrive as {@link ChangeEvent}s from the {@link OutboxTail}, so every instance sees the
+ * changes relayed by any instance. Each event is decoded and serialized once and then only
+ * filtered per subscriber, so the cost of an idle connection is a set entry. Events are written
+ * from a bounded queue per subscriber, so a slow client never holds up the tail; a client that
+ * falls too far behind is disconnected and resumes with {@code Last-Event-ID}.
+ *
+ * <p>Outbox ids are assigned right before commit, so concurrent transactions can commit, and be
+ * read, out of id order. Subscribers therefore skip changes by product version rather than by
+ * id: a change is sent unless a change of the same product with the same or a later version was
+ * sent already. A subscriber that reconnects with the id of the last event it saw first receives
+ * the changes recorded from {@code inventory.stream.replay-window} before that event on, which
+ * covers events with lower ids that committed later; changes it saw right before the disconnect
+ * may therefore be sent again, with the same version. Live events arriving during the replay are
+ * buffered and sent after it.
+ */
+@Slf4j
+@Component
+@EnableConfigurationProperties(InventoryStreamProperties.class)
+public class InventoryChangeStream {
+
+  private static final String EVENT_NAME = "inventory";
+  private static final int REPLAY_BATCH_SIZE = 500;
+
+  /** Products whose last sent version a subscriber remembers; older entries are forgotten. */
+  private static final int SENT_VERSIONS_CAPACITY = 10_000;
+
+  private final OutboxEventRepository repository;
+  private final ObjectMapper objectMapper;
+  private final Executor executor;
+  private final InventoryStreamProperties properties;
+  private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+  public InventoryChangeStream(
+      OutboxEventRepository repository,
+      ObjectMapper objectMapper,
+      @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+          Executor executor,
+      InventoryStreamProperties properties) {
+    this.repository = repository;
+    this.objectMapper = objectMapper;
+    this.executor = executor;
+    this.properties = properties;
+  }
+
+  /**
+   * Opens a subscription.
+   *
+   * @param lastEventId id of the last event the client received, or null to only receive new events
+   * @param filter the changes to deliver
+   * @return the emitter to return from the controller
+   */
+  public SseEmitter subscribe(Long lastEventId, InventoryChangeFilter filter) {
+    Subscriber subscriber = new Subscriber(filter, lastEventId != null);
+    subscribers.add(subscriber);
+    if (lastEventId != null) {
+      executor.execute(() -> replay(subscriber, lastEventId));
+    }
+    return subscriber.connection.emitter();
+  }
+
+  /**
+   * Returns the number of open subscriptions.
+   *
+   * @return the subscriber count
+   */
+  public int getSubscriberCount() {
+    return subscribers.size();
+  }
+
+  /**
+   * Queues a committed product change for every matching subscriber.
+   *
+   * @param event the change event read from the outbox
+   */
+  @EventListener
+  public void onChange(ChangeEvent event) {
+    if (event.aggregateType() != AggregateType.PRODUCT || subscribers.isEmpty()) {
+      return;
+    }
+    PreparedChange change;
+    try {
+      change = prepare(event.id(), event.type(), event.payload());
+    } catch (UncheckedIOException e) {
+      log.warn("Skipping undecodable inventory change {}", event.id(), e);
+      return;
+    }
+    subscribers.forEach(subscriber -> subscriber.deliver(change));
+  }
+
+  /** Keeps idle connections open through proxies and detects disconnected clients. */
+  @Scheduled(fixedDelayString = "${inventory.stream.heartbeat-interval:15s}")
+  public void heartbeat() {
+    subscribers.forEach(
+        subscriber -> subscriber.connection.offer(SseEmitter.event().comment("heartbeat")));
+  }
+
+  private void replay(Subscriber subscriber, long lastEventId) {
+    // Events already sent live may not have reached a replica yet
+    try (DataSourceRouting.Scope ignored = DataSourceRouting.forcePrimary()) {
+      long afterId = replayStart(lastEventId);
+      List<OutboxEvent> batch;
+      do {
+        batch =
+            repository.findAfter(
+                afterId, AggregateType.PRODUCT, PageRequest.ofSize(REPLAY_BATCH_SIZE));
+        for (OutboxEvent event : batch) {
+          subscriber.sendNow(prepare(event.getId(), event.getType(), event.getPayload()));
+          afterId = event.getId();
+        }
+      } while (batch.size() == REPLAY_BATCH_SIZE);
+      subscriber.goLive();
+    } catch (RuntimeException e) {
+      log.warn("Replaying inventory changes after event {} failed", lastEventId, e);
+      subscriber.connection.close(e);
+    }
+  }
+
+  /** Returns the id after which a replay starts, going back by the replay window. */
+  private long replayStart(long lastEventId) {
+    return repository
+        .findById(lastEventId)
+        .map(
+            last ->
+                repository.findFirstIdCreatedSince(
+                    last.getCreatedAt().minus(properties.replayWindow())))
+        .map(firstId -> Math.min(firstId - 1, lastEventId))
+        .orElse(lastEventId);
+  }
+
+  private PreparedChange prepare(Long id, ChangeType type, String payload) {
+    try {
+      ProductResponseDto product = objectMapper.readValue(payload, ProductResponseDto.class);
+      InventoryChangeDto change =
+          new InventoryChangeDto(
+              product.getId(),
+              type,
+              product.getQuantity(),
+              product.getPrice(),
+              product.getCategory() == null ? null : product.getCategory().getId(),
+              product.getVersion() == null ? null : product.getVersion().longValue());
+      return new PreparedChange(id, change, objectMapper.writeValueAsString(change));
+    } catch (JsonProcessingException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /** A change decoded and serialized once for all subscribers. */
+  private record PreparedChange(long id, InventoryChangeDto change, String json) {
+
+    /**
+     * Orders the changes of one product: by version, with the deletion after the last update,
+     * which carries the same version.
+     */
+    long rank() {
+      long version = change.getVersion() == null ? 0 : change.getVersion();
+      return version * 2 + (change.getType() == ChangeType.DELETED ? 1 : 0);
+    }
+  }
+
+  /** One open stream; its state is guarded by the instance monitor. */
+  private final class Subscriber {
+
+    private final BufferedSseEmitter connection;
+    private final InventoryChangeFilter filter;
+    private final List<PreparedChange> pending = new ArrayList<>();
+    private final Map<Long, Long> sentRanks =
+        new LinkedHashMap<>() {
+          @Override
+          protected boolean removeEldestEntry(Map.Entry<Long, Long> eldest) {
+            return size() > SENT_VERSIONS_CAPACITY;
+          }
+        };
+    private boolean replaying;
+
+    private Subscriber(InventoryChangeFilter filter, boolean replaying) {
+      this.connection =
+          new BufferedSseEmitter(
+              executor, properties.queueCapacity(), closed -> subscribers.remove(this));
+      this.filter = filter;
+      this.replaying = replaying;
+    }
+
+    /** Queues a live change, or holds it back until the replay is done. */
+    private synchronized void deliver(PreparedChange change) {
+      if (replaying) {
+        pending.add(change);
+      } else {
+        SseEmitter.SseEventBuilder event = toEvent(change);
+        if (event != null) {
+          connection.offer(event);
+        }
+      }
+    }
+
+    /** Writes a replayed change on the replay thread. */
+    private void sendNow(PreparedChange change) {
+      SseEmitter.SseEventBuilder event;
+      synchronized (this) {
+        event = toEvent(change);
+      }
+      if (event != null) {
+        connection.send(event);
+      }
+    }
+
+    private synchronized void goLive() {
+      replaying = false;
+      pending.forEach(this::deliver);
+      pending.clear();
+    }
+
+    /** Returns the event to send, or null if the change is filtered out or was sent already. */
+    private SseEmitter.SseEventBuilder toEvent(PreparedChange change) {
+      Long productId = change.change().getProductId();
+      Long sent = sentRanks.get(productId);
+      if (sent != null && sent >= change.rank()) {
+        return null;
+      }
+      sentRanks.put(productId, change.rank());
+      if (!filter.matches(change.change())) {
+        return null;
+      }
+      return SseEmitter.event()
+          .id(String.valueOf(change.id()))
+          .name(EVENT_NAME)
+          .data(change.json());
+    }
+  }
+}
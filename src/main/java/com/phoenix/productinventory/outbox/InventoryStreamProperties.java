@@ -0,0 +1,25 @@
+package com.phoenix.productinventory.outbox;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Configuration of the inventory change stream and of the {@link OutboxTail} that feeds it.
+ *
+ * @param heartbeatInterval pause between two heartbeat comments on idle connections
+ * @param replayWindow how long before the last event a client saw a replay starts, and how far
+ *     back each read of the outbox goes; events with lower ids can commit up to this long after it
+ * @param queueCapacity maximum number of events waiting to be written to one client; a client that
+ *     falls further behind is disconnected and resumes with {@code Last-Event-ID}
+ * @param pollInterval pause between two reads of the outbox
+ * @param seenEvents number of recently published event ids remembered, so an event read again
+ *     within the replay window is published once
+ */
+@ConfigurationProperties(prefix = "inventory.stream")
+public record InventoryStreamProperties(
+    @DefaultValue("15s") Duration heartbeatInterval,
+    @DefaultValue("5s") Duration replayWindow,
+    @DefaultValue("1000") int queueCapacity,
+    @DefaultValue("500ms") Duration pollInterval,
+    @DefaultValue("10000") int seenEvents) {}
@@ -0,0 +1,37 @@
+package com.phoenix.productinventory.outbox;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Configuration of the transactional outbox relay.
+ *
+ * @param relayInterval pause between two relay runs
+ * @param batchSize maximum number of events published per batch
+ * @param retention how long published events are kept before they are purged
+ * @param purgeInterval how often published events past their retention are purged
+ * @param claimTimeout how long a relay run may hold a batch before another run takes it over
+ * @param sseQueueCapacity maximum number of events waiting to be written to one {@code /events}
+ *     subscriber before it is dropped
+ * @param file configuration of the JSON lines file sink
+ */
+@ConfigurationProperties(prefix = "outbox")
+public record OutboxProperties(
+    @DefaultValue("500ms") Duration relayInterval,
+    @DefaultValue("100") int batchSize,
+    @DefaultValue("7d") Duration retention,
+    @DefaultValue("1h") Duration purgeInterval,
+    @DefaultValue("1m") Duration claimTimeout,
+    @DefaultValue("1000") int sseQueueCapacity,
+    @DefaultValue File file) {
+
+  /**
+   * Configuration of the file sink.
+   *
+   * @param enabled whether events are appended to the file
+   * @param path location of the JSON lines file
+   */
+  public record File(@DefaultValue("false") boolean enabled, Path path) {}
+}
@@ -0,0 +1,149 @@
+package com.phoenix.productinventory.outbox;
+
+import com.phoenix.productinventory.model.OutboxEvent;
+import com.phoenix.productinventory.repository.OutboxEventRepository;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Drains the transactional outbox in batches and hands the events to every {@link ChangeEventSink}.
+ *
+ * <p>A batch is first claimed with a conditional update and committed, so relays in other threads,
+ * instances or application contexts sharing the database skip it; a claim that is not completed
+ * within {@code outbox.claim-timeout} is taken over by the next run. The claimed events are then
+ * offered to each sink on its own, outside of any transaction. Events that every sink accepted are
+ * marked as published; the others are released with the names of the sinks that failed, and later
+ * runs offer them to those sinks only. Published events are purged once they are older than the
+ * configured retention.
+ *
+ * <p>Each event therefore reaches the sinks of one instance only; state that every instance keeps
+ * in memory is fed by the {@link OutboxTail} instead.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OutboxRelay {
+
+  private static final String SINK_SEPARATOR = ",";
+
+  private final OutboxEventRepository repository;
+  private final List<ChangeEventSink> sinks;
+  private final OutboxProperties properties;
+  private final TransactionTemplate transactionTemplate;
+
+  /** Publishes pending events until the outbox is empty or a sink fails. */
+  @Scheduled(fixedDelayString = "${outbox.relay-interval:500ms}")
+  public synchronized void relay() {
+    try {
+      int published;
+      do {
+        published = relayBatch();
+      } while (published == properties.batchSize());
+    } catch (RuntimeException e) {
+      log.warn("Relaying outbox events failed, retrying on the next run", e);
+    }
+  }
+
+  /** Deletes published events that are older than the retention. */
+  @Scheduled(fixedDelayString = "${outbox.purge-interval:1h}")
+  @Transactional
+  public void purge() {
+    int deleted = repository.deletePublishedBefore(Instant.now().minus(properties.retention()));
+    if (deleted > 0) {
+      log.debug("Purged {} published outbox events", deleted);
+    }
+  }
+
+  /**
+   * Claims and publishes one batch.
+   *
+   * @return the number of events every sink received, or 0 if a sink failed
+   */
+  private int relayBatch() {
+    String claimedBy = UUID.randomUUID().toString();
+    List<OutboxEvent> batch = transactionTemplate.execute(status -> claim(claimedBy));
+    if (batch == null || batch.isEmpty()) {
+      return 0;
+    }
+
+    Map<Long, Set<String>> pending = new LinkedHashMap<>();
+    batch.forEach(event -> pending.put(event.getId(), pendingSinks(event)));
+    Set<String> failed = new HashSet<>();
+    for (ChangeEventSink sink : sinks) {
+      List<ChangeEvent> events =
+          batch.stream()
+              .filter(event -> isPending(pending.get(event.getId()), sink.name()))
+              .map(ChangeEvent::of)
+              .toList();
+      if (events.isEmpty()) {
+        continue;
+      }
+      try {
+        sink.publish(events);
+      } catch (RuntimeException e) {
+        log.warn("Sink {} failed to publish {} outbox events", sink.name(), events.size(), e);
+        failed.add(sink.name());
+      }
+    }
+
+    List<Long> published = new ArrayList<>();
+    Map<String, List<Long>> retries = new LinkedHashMap<>();
+    pending.forEach(
+        (id, pendingSinks) -> {
+          Set<String> remaining = new TreeSet<>(failed);
+          if (pendingSinks != null) {
+            remaining.retainAll(pendingSinks);
+          }
+          if (remaining.isEmpty()) {
+            published.add(id);
+          } else {
+            retries
+                .computeIfAbsent(String.join(SINK_SEPARATOR, remaining), key -> new ArrayList<>())
+                .add(id);
+          }
+        });
+    transactionTemplate.executeWithoutResult(
+        status -> {
+          if (!published.isEmpty()) {
+            repository.markPublished(published, Instant.now());
+          }
+          retries.forEach((pendingSinks, ids) -> repository.release(ids, pendingSinks));
+        });
+    return failed.isEmpty() ? batch.size() : 0;
+  }
+
+  private List<OutboxEvent> claim(String claimedBy) {
+    Instant now = Instant.now();
+    List<Long> ids = repository.findClaimable(now, PageRequest.ofSize(properties.batchSize()));
+    if (ids.isEmpty()
+        || repository.claim(ids, claimedBy, now.plus(properties.claimTimeout()), now) == 0) {
+      return List.of();
+    }
+    return repository.findClaimed(claimedBy);
+  }
+
+  /** The sinks an event is pending for, or null if it is pending for every sink. */
+  private static Set<String> pendingSinks(OutboxEvent event) {
+    return event.getPendingSinks() == null
+        ? null
+        : Set.of(event.getPendingSinks().split(SINK_SEPARATOR));
+  }
+
+  private static boolean isPending(Set<String> pendingSinks, String sink) {
+    return pendingSinks == null || pendingSinks.contains(sink);
+  }
+}
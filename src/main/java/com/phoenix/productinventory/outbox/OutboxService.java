@@ -0,0 +1,188 @@
+package com.phoenix.productinventory.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.phoenix.productinventory.dto.ReorderThresholdDto;
+import com.phoenix.productinventory.mapper.CategoryMapper;
+import com.phoenix.productinventory.mapper.ProductMapper;
+import com.phoenix.productinventory.membership.CategoryMembership;
+import com.phoenix.productinventory.model.Category;
+import com.phoenix.productinventory.model.OutboxEvent;
+import com.phoenix.productinventory.model.Product;
+import com.phoenix.productinventory.model.ProductCategory;
+import com.phoenix.productinventory.model.ReorderThreshold;
+import com.phoenix.productinventory.repository.OutboxEventRepository;
+import jakarta.persistence.EntityManager;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Records product, category, category membership and reorder threshold changes in the
+ * transactional outbox.
+ *
+ * <p>Changes are buffered for the current transaction and written right before it commits, after
+ * the persistence context has been flushed. The events therefore carry the identifiers and
+ * versions the database assigned, and they are committed or rolled back together with the change
+ * they describe.
+ */
+@Service
+@RequiredArgsConstructor
+public class OutboxService {
+
+  private final OutboxEventRepository repository;
+  private final ProductMapper productMapper;
+  private final CategoryMapper categoryMapper;
+  private final ObjectMapper objectMapper;
+  private final EntityManager entityManager;
+
+  /** Key of the per-transaction buffer in the transaction synchronization resources. */
+  private final Object bufferKey = new Object();
+
+  /**
+   * Records a change of a product in the current transaction.
+   *
+   * @param type kind of the change
+   * @param product the changed product; its state at commit time is recorded
+   */
+  @Transactional(propagation = Propagation.MANDATORY)
+  public void record(ChangeType type, Product product) {
+    buffer()
+        .add(
+            new PendingChange(
+                AggregateType.PRODUCT,
+                type,
+                product::getId,
+                () -> product.getVersion() == null ? null : product.getVersion().longValue(),
+                () -> productMapper.toDto(product)));
+  }
+
+  /**
+   * Records a change of a category in the current transaction.
+   *
+   * @param type kind of the change
+   * @param category the changed category; its state at commit time is recorded
+   */
+  @Transactional(propagation = Propagation.MANDATORY)
+  public void record(ChangeType type, Category category) {
+    buffer()
+        .add(
+            new PendingChange(
+                AggregateType.CATEGORY,
+                type,
+                category::getId,
+                category::getVersion,
+                () -> categoryMapper.toDto(category)));
+  }
+
+  /**
+   * Records a change of a reorder threshold in the current transaction. Thresholds have no version;
+   * consumers read the threshold that is current when they apply the event.
+   *
+   * @param type kind of the change
+   * @param threshold the changed threshold; its state at commit time is recorded
+   */
+  @Transactional(propagation = Propagation.MANDATORY)
+  public void record(ChangeType type, ReorderThreshold threshold) {
+    buffer()
+        .add(
+            new PendingChange(
+                AggregateType.REORDER_THRESHOLD,
+                type,
+                threshold::getId,
+                () -> null,
+                () ->
+                    new ReorderThresholdDto(
+                        threshold.getProductId(),
+                        threshold.getCategoryId(),
+                        threshold.getThreshold())));
+  }
+
+  /**
+   * Records an added or removed additional category membership in the current transaction.
+   * Memberships have no version; consumers read whether the membership exists when they apply the
+   * event.
+   *
+   * @param type {@link ChangeType#CREATED} or {@link ChangeType#DELETED}
+   * @param membership the membership
+   */
+  @Transactional(propagation = Propagation.MANDATORY)
+  public void record(ChangeType type, ProductCategory membership) {
+    buffer()
+        .add(
+            new PendingChange(
+                AggregateType.CATEGORY_MEMBERSHIP,
+                type,
+                membership::getProductId,
+                () -> null,
+                () ->
+                    new CategoryMembership(
+                        membership.getProductId(), membership.getCategoryId())));
+  }
+
+  @SuppressWarnings("unchecked")
+  private List<PendingChange> buffer() {
+    List<PendingChange> buffer =
+        (List<PendingChange>) TransactionSynchronizationManager.getResource(bufferKey);
+    if (buffer == null) {
+      List<PendingChange> changes = new ArrayList<>();
+      TransactionSynchronizationManager.bindResource(bufferKey, changes);
+      TransactionSynchronizationManager.registerSynchronization(
+          new TransactionSynchronization() {
+            @Override
+            public void beforeCommit(boolean readOnly) {
+              write(changes);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+              TransactionSynchronizationManager.unbindResourceIfPossible(bufferKey);
+            }
+          });
+      buffer = changes;
+    }
+    return buffer;
+  }
+
+  private void write(List<PendingChange> changes) {
+    // Assigns generated ids and increments versions of the changed entities.
+    entityManager.flush();
+    Instant now = Instant.now();
+    repository.saveAll(changes.stream().map(change -> toOutboxEvent(change, now)).toList());
+  }
+
+  private String toJson(Object value) {
+    try {
+      return objectMapper.writeValueAsString(value);
+    } catch (JsonProcessingException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private OutboxEvent toOutboxEvent(PendingChange change, Instant createdAt) {
+    return OutboxEvent.builder()
+        .aggregateType(change.aggregateType())
+        .aggregateId(change.id().get())
+        .aggregateVersion(change.version().get())
+        .type(change.type())
+        .payload(toJson(change.state().get()))
+        .createdAt(createdAt)
+        .build();
+  }
+
+  /** A change whose outbox row is built from the entity state when the transaction commits. */
+  private record PendingChange(
+      AggregateType aggregateType,
+      ChangeType type,
+      Supplier<Long> id,
+      Supplier<Long> version,
+      Supplier<Object> state) {}
+}
@@ -0,0 +1,97 @@
+package com.phoenix.productinventory.outbox;
+
+import com.phoenix.productinventory.cache.LruCache;
+import com.phoenix.productinventory.datasource.DataSourceRouting;
+import com.phoenix.productinventory.model.OutboxEvent;
+import com.phoenix.productinventory.repository.OutboxEventRepository;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reads the change events committed to the outbox and publishes each one once per instance as a
+ * Spring application event, so in-process components can react to every committed change with
+ * {@code @EventListener(ChangeEvent.class)}, whichever instance made or relayed it.
+ *
+ * <p>The {@link OutboxRelay} hands each event to one instance only, which suits sinks that must
+ * see an event once in total; state held in memory by every instance needs every event instead.
+ * The outbox is read every {@code inventory.stream.poll-interval} in creation order. Outbox rows
+ * are written right before their transaction commits, so a row can become visible after rows
+ * created later; each read therefore starts {@code inventory.stream.replay-window} before the
+ * previous one, and events seen already are skipped by id. Events are published in creation order,
+ * which is not the commit order, so listeners order the changes of one aggregate by its version.
+ */
+@Slf4j
+@Component
+@EnableConfigurationProperties(InventoryStreamProperties.class)
+public class OutboxTail {
+
+  private static final int BATCH_SIZE = 500;
+
+  private final OutboxEventRepository repository;
+  private final ApplicationEventPublisher publisher;
+  private final InventoryStreamProperties properties;
+  private final LruCache<Long, Boolean> seen;
+  private final Map<Integer, Instant> positions = new ConcurrentHashMap<>();
+  private final Instant startedAt = Instant.now();
+
+  public OutboxTail(
+      OutboxEventRepository repository,
+      ApplicationEventPublisher publisher,
+      InventoryStreamProperties properties) {
+    this.repository = repository;
+    this.publisher = publisher;
+    this.properties = properties;
+    this.seen = new LruCache<>(properties.seenEvents());
+  }
+
+  /** Publishes the events recorded in the outbox of shard 0, or of the only database. */
+  @Scheduled(fixedDelayString = "${inventory.stream.poll-interval:500ms}")
+  public void tail() {
+    tail(0);
+  }
+
+  /**
+   * Publishes the events recorded in the outbox of the current database since the previous read.
+   *
+   * @param source the database read, so that each database keeps its own position
+   */
+  public synchronized void tail(int source) {
+    Instant readAt = Instant.now();
+    Instant createdAt = positions.getOrDefault(source, startedAt).minus(properties.replayWindow());
+    long afterId = 0;
+    // Events relayed elsewhere may not have reached a replica yet
+    try (DataSourceRouting.Scope ignored = DataSourceRouting.forcePrimary()) {
+      List<OutboxEvent> batch;
+      do {
+        batch =
+            repository.findCreatedAfter(createdAt, afterId, PageRequest.ofSize(BATCH_SIZE));
+        for (OutboxEvent event : batch) {
+          publish(event);
+          createdAt = event.getCreatedAt();
+          afterId = event.getId();
+        }
+      } while (batch.size() == BATCH_SIZE);
+    }
+    positions.put(source, readAt);
+  }
+
+  private void publish(OutboxEvent event) {
+    if (seen.get(event.getId()) != null) {
+      return;
+    }
+    try {
+      publisher.publishEvent(ChangeEvent.of(event));
+    } catch (RuntimeException e) {
+      log.warn("A listener failed to apply change event {}", event.getId(), e);
+    }
+    seen.put(event.getId(), Boolean.TRUE);
+  }
+}
@@ -0,0 +1,74 @@
+package com.phoenix.productinventory.outbox;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Streams change events to subscribed clients as server-sent events.
+ *
+ * <p>Each event carries its outbox id as SSE id and a name such as {@code product.updated}. The
+ * events are taken from the {@link OutboxTail}, so every instance streams every committed change,
+ * in creation order, whichever instance relayed it. Events are queued per subscriber and written
+ * by a task of its own, so publishing never waits for a client; subscribers that cannot be written
+ * to or fall more than {@code outbox.sse-queue-capacity} events behind are dropped.
+ */
+@Component
+public class SseChangeEventSink {
+
+  private final Set<BufferedSseEmitter> subscribers = ConcurrentHashMap.newKeySet();
+  private final Executor executor;
+  private final OutboxProperties properties;
+
+  public SseChangeEventSink(
+      @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+          Executor executor,
+      OutboxProperties properties) {
+    this.executor = executor;
+    this.properties = properties;
+  }
+
+  /**
+   * Registers a new subscriber that receives every event published from now on.
+   *
+   * @return the emitter to return from the controller
+   */
+  public SseEmitter subscribe() {
+    BufferedSseEmitter subscriber =
+        new BufferedSseEmitter(executor, properties.sseQueueCapacity(), subscribers::remove);
+    subscribers.add(subscriber);
+    return subscriber.emitter();
+  }
+
+  /**
+   * Queues a committed change for every subscriber.
+   *
+   * @param event the change event read from the outbox
+   */
+  @EventListener
+  public void onChange(ChangeEvent event) {
+    for (BufferedSseEmitter subscriber : subscribers) {
+      subscriber.offer(
+          SseEmitter.event()
+              .id(String.valueOf(event.id()))
+              .name(eventName(event))
+              .data(event, MediaType.APPLICATION_JSON));
+    }
+  }
+
+  /**
+   * Returns the SSE event name of a change event.
+   *
+   * @param event the change event
+   * @return the name, e.g. {@code product.updated}
+   */
+  public static String eventName(ChangeEvent event) {
+    return (event.aggregateType() + "." + event.type()).toLowerCase();
+  }
+}
@@ -0,0 +1,19 @@
+package com.phoenix.productinventory.reactive;
+
+import java.math.BigDecimal;
+
+/**
+ * Optional product filters, mirroring the ones accepted by the servlet {@code GET /products}.
+ *
+ * @param name case-insensitive substring of the product name
+ * @param minPrice minimum price, inclusive
+ * @param maxPrice maximum price, inclusive
+ * @param minQuantity minimum quantity, inclusive
+ * @param maxQuantity maximum quantity, inclusive
+ */
+public record ProductFilter(
+    String name,
+    BigDecimal minPrice,
+    BigDecimal maxPrice,
+    Integer minQuantity,
+    Integer maxQuantity) {}
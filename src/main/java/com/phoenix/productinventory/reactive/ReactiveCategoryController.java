@@ -0,0 +1,69 @@
+package com.phoenix.productinventory.reactive;
+
+import com.phoenix.productinventory.dto.CategoryResponseDto;
+import com.phoenix.productinventory.exception.ResourceNotFoundException;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PagedModel;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/** Reactive REST controller serving the category read endpoints. */
+@RestController
+@RequestMapping("/categories")
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@Tag(name = "Category (reactive)", description = "Non-blocking read API for categories")
+public class ReactiveCategoryController {
+
+  private static final String CATEGORY_NOT_FOUND = "Category not found with id %s";
+
+  private final ReactiveCategoryRepository repository;
+
+  @Operation(
+      summary = "Get categories with optional filters, pagination, and sorting",
+      description = "Same filters, paging and JSON structure as the servlet endpoint.")
+  @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+  public Mono<PagedModel<CategoryResponseDto>> getAllCategories(
+      @Parameter(description = "Category name filter (optional)") @RequestParam(required = false)
+          String name,
+      Pageable pageable) {
+    return repository
+        .findAll(name, pageable)
+        .collectList()
+        .zipWith(repository.count(name))
+        .map(page -> new PagedModel<>(new PageImpl<>(page.getT1(), pageable, page.getT2())));
+  }
+
+  @Operation(
+      summary = "Stream categories with optional filters, pagination, and sorting",
+      description = "Emits the matching categories one by one, honouring the consumer's demand.")
+  @GetMapping(produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+  public Flux<CategoryResponseDto> streamCategories(
+      @Parameter(description = "Category name filter (optional)") @RequestParam(required = false)
+          String name,
+      Pageable pageable) {
+    return repository.findAll(name, pageable);
+  }
+
+  @Operation(summary = "Get a category by ID", description = "Retrieves a category by its ID.")
+  @GetMapping("/{id}")
+  public Mono<CategoryResponseDto> getCategoryById(
+      @Parameter(description = "Category ID") @PathVariable Long id) {
+    return repository
+        .findById(id)
+        .switchIfEmpty(
+            Mono.error(new ResourceNotFoundException(String.format(CATEGORY_NOT_FOUND, id))));
+  }
+}
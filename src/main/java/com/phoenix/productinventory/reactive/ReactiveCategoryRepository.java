@@ -0,0 +1,94 @@
+package com.phoenix.productinventory.reactive;
+
+import com.phoenix.productinventory.dto.CategoryResponseDto;
+import io.r2dbc.spi.Readable;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.data.domain.Pageable;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking read access to the {@code categories} table through R2DBC. Product counts are
+ * correlated subqueries answered from the category index of {@code products}.
+ */
+@Repository
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveCategoryRepository {
+
+  private static final String SELECT =
+      "SELECT c.id, c.name, c.description, c.parent_id,"
+          + " (SELECT COUNT(*) FROM products p WHERE p.category_id = c.id) AS product_count"
+          + " FROM categories c";
+
+  private static final Map<String, String> SORTABLE_COLUMNS =
+      Map.of("id", "c.id", "name", "c.name", "description", "c.description");
+
+  private final DatabaseClient client;
+
+  /**
+   * Streams the categories whose name contains the given text for the requested page.
+   *
+   * @param name case-insensitive name filter (can be null)
+   * @param pageable page, size and sort
+   * @return the categories of the page, emitted as rows arrive
+   */
+  public Flux<CategoryResponseDto> findAll(String name, Pageable pageable) {
+    SqlWhereClause where = where(name);
+    String sql =
+        SELECT + where.toSql() + SqlOrderBy.of(pageable.getSort(), SORTABLE_COLUMNS, "c.id");
+    if (pageable.isPaged()) {
+      sql += " LIMIT " + pageable.getPageSize() + " OFFSET " + pageable.getOffset();
+    }
+    return where.bind(client.sql(sql)).map(ReactiveCategoryRepository::toDto).all();
+  }
+
+  /**
+   * Counts the categories whose name contains the given text.
+   *
+   * @param name case-insensitive name filter (can be null)
+   * @return the number of matching categories
+   */
+  public Mono<Long> count(String name) {
+    SqlWhereClause where = where(name);
+    return where
+        .bind(client.sql("SELECT COUNT(*) FROM categories c" + where.toSql()))
+        .map(row -> row.get(0, Long.class))
+        .one();
+  }
+
+  /**
+   * Finds a category by its ID.
+   *
+   * @param id the category ID
+   * @return the category, or empty if it does not exist
+   */
+  public Mono<CategoryResponseDto> findById(Long id) {
+    return client
+        .sql(SELECT + " WHERE c.id = :id")
+        .bind("id", id)
+        .map(ReactiveCategoryRepository::toDto)
+        .one();
+  }
+
+  private static SqlWhereClause where(String name) {
+    return new SqlWhereClause()
+        .add(
+            "LOWER(c.name) LIKE :name",
+            "name",
+            name == null ? null : "%" + name.toLowerCase() + "%");
+  }
+
+  private static CategoryResponseDto toDto(Readable row) {
+    return new CategoryResponseDto(
+        row.get("id", Long.class),
+        row.get("name", String.class),
+        row.get("description", String.class),
+        row.get("parent_id", Long.class),
+        row.get("product_count", Long.class));
+  }
+}
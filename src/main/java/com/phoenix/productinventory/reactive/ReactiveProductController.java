@@ -0,0 +1,67 @@
+package com.phoenix.productinventory.reactive;
+
+import com.phoenix.productinventory.dto.ProductResponseDto;
+import com.phoenix.productinventory.exception.ResourceNotFoundException;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PagedModel;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/** Reactive REST controller serving the product read endpoints. */
+@RestController
+@RequestMapping("/products")
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@Tag(name = "Product (reactive)", description = "Non-blocking read API for products")
+public class ReactiveProductController {
+
+  private static final String PRODUCT_NOT_FOUND = "Product not found with id %s";
+
+  private final ReactiveProductRepository repository;
+
+  @Operation(
+      summary = "Get products with optional filters, pagination, and sorting",
+      description =
+          "Same filters, paging and JSON structure as the servlet endpoint, served without"
+              + " blocking a thread per request.")
+  @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+  public Mono<PagedModel<ProductResponseDto>> getAllProducts(
+      ProductFilter filter, Pageable pageable) {
+    return repository
+        .findAll(filter, pageable)
+        .collectList()
+        .zipWith(repository.count(filter))
+        .map(page -> new PagedModel<>(new PageImpl<>(page.getT1(), pageable, page.getT2())));
+  }
+
+  @Operation(
+      summary = "Stream products with optional filters, pagination, and sorting",
+      description =
+          "Emits the matching products one by one as newline-delimited JSON or server-sent"
+              + " events, honouring the consumer's demand.")
+  @GetMapping(produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+  public Flux<ProductResponseDto> streamProducts(ProductFilter filter, Pageable pageable) {
+    return repository.findAll(filter, pageable);
+  }
+
+  @Operation(summary = "Get a product by ID", description = "Retrieves a product by its ID.")
+  @GetMapping("/{id}")
+  public Mono<ProductResponseDto> getProductById(
+      @Parameter(description = "Product ID") @PathVariable Long id) {
+    return repository
+        .findById(id)
+        .switchIfEmpty(
+            Mono.error(new ResourceNotFoundException(String.format(PRODUCT_NOT_FOUND, id))));
+  }
+}
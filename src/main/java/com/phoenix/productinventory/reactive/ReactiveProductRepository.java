@@ -0,0 +1,119 @@
+package com.phoenix.productinventory.reactive;
+
+import com.phoenix.productinventory.dto.CategoryResponseDto;
+import com.phoenix.productinventory.dto.ProductResponseDto;
+import io.r2dbc.spi.Readable;
+import java.math.BigDecimal;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.data.domain.Pageable;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/** Non-blocking read access to the {@code products} table through R2DBC. */
+@Repository
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveProductRepository {
+
+  private static final String SELECT =
+      "SELECT p.id, p.name, p.description, p.price, p.quantity, p.version, p.sku,"
+          + " c.id AS category_id, c.name AS category_name,"
+          + " c.description AS category_description, c.parent_id AS category_parent_id"
+          + " FROM products p LEFT JOIN categories c ON c.id = p.category_id";
+
+  private static final Map<String, String> SORTABLE_COLUMNS =
+      Map.of(
+          "id", "p.id",
+          "name", "p.name",
+          "description", "p.description",
+          "price", "p.price",
+          "quantity", "p.quantity",
+          "version", "p.version",
+          "sku", "p.sku");
+
+  private final DatabaseClient client;
+
+  /**
+   * Streams the products matching the filter for the requested page.
+   *
+   * @param filter optional filters
+   * @param pageable page, size and sort
+   * @return the products of the page, emitted as rows arrive
+   */
+  public Flux<ProductResponseDto> findAll(ProductFilter filter, Pageable pageable) {
+    SqlWhereClause where = where(filter);
+    String sql =
+        SELECT + where.toSql() + SqlOrderBy.of(pageable.getSort(), SORTABLE_COLUMNS, "p.id");
+    if (pageable.isPaged()) {
+      sql += " LIMIT " + pageable.getPageSize() + " OFFSET " + pageable.getOffset();
+    }
+    return where.bind(client.sql(sql)).map(ReactiveProductRepository::toDto).all();
+  }
+
+  /**
+   * Counts the products matching the filter.
+   *
+   * @param filter optional filters
+   * @return the number of matching products
+   */
+  public Mono<Long> count(ProductFilter filter) {
+    SqlWhereClause where = where(filter);
+    return where
+        .bind(client.sql("SELECT COUNT(*) FROM products p" + where.toSql()))
+        .map(row -> row.get(0, Long.class))
+        .one();
+  }
+
+  /**
+   * Finds a product by its ID.
+   *
+   * @param id the product ID
+   * @return the product, or empty if it does not exist
+   */
+  public Mono<ProductResponseDto> findById(Long id) {
+    return client
+        .sql(SELECT + " WHERE p.id = :id")
+        .bind("id", id)
+        .map(ReactiveProductRepository::toDto)
+        .one();
+  }
+
+  private static SqlWhereClause where(ProductFilter filter) {
+    return new SqlWhereClause()
+        .add(
+            "LOWER(p.name) LIKE :name",
+            "name",
+            filter.name() == null ? null : "%" + filter.name().toLowerCase() + "%")
+        .add("p.price >= :minPrice", "minPrice", filter.minPrice())
+        .add("p.price <= :maxPrice", "maxPrice", filter.maxPrice())
+        .add("p.quantity >= :minQuantity", "minQuantity", filter.minQuantity())
+        .add("p.quantity <= :maxQuantity", "maxQuantity", filter.maxQuantity());
+  }
+
+  private static ProductResponseDto toDto(Readable row) {
+    Long categoryId = row.get("category_id", Long.class);
+    Long version = row.get("version", Long.class);
+    CategoryResponseDto category =
+        categoryId == null
+            ? null
+            : new CategoryResponseDto(
+                categoryId,
+                row.get("category_name", String.class),
+                row.get("category_description", String.class),
+                row.get("category_parent_id", Long.class),
+                null);
+    return new ProductResponseDto(
+        row.get("id", Long.class),
+        row.get("name", String.class),
+        row.get("description", String.class),
+        row.get("price", BigDecimal.class),
+        row.get("quantity", Integer.class),
+        category,
+        version == null ? null : version.intValue(),
+        row.get("sku", String.class));
+  }
+}
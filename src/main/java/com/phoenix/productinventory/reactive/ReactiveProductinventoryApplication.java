@@ -0,0 +1,26 @@
+package com.phoenix.productinventory.reactive;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+
+/**
+ * Entry point of the reactive read-only stack.
+ *
+ * <p>Serves the read endpoints of the products and categories API on WebFlux (Netty) with R2DBC
+ * against the same schema as the servlet application. It only scans this package and is activated
+ * with the {@code reactive} profile, which swaps JPA for R2DBC. The servlet application ignores
+ * every bean in this package because they require a reactive web application.
+ */
+@SpringBootApplication
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveProductinventoryApplication {
+
+  public static void main(String[] args) {
+    new SpringApplicationBuilder(ReactiveProductinventoryApplication.class)
+        .web(WebApplicationType.REACTIVE)
+        .profiles("reactive")
+        .run(args);
+  }
+}
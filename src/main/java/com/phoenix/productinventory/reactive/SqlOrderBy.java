@@ -0,0 +1,39 @@
+package com.phoenix.productinventory.reactive;
+
+import java.util.Map;
+import java.util.stream.Collectors;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/** Translates a {@link Sort} into an {@code ORDER BY} clause over a whitelist of columns. */
+final class SqlOrderBy {
+
+  private SqlOrderBy() {}
+
+  /**
+   * Builds the {@code ORDER BY} clause for the given sort, always ending with the identifier so
+   * that paging is deterministic.
+   *
+   * @param sort requested sort
+   * @param columns sortable properties mapped to their qualified column
+   * @param idColumn qualified identifier column
+   * @return the {@code ORDER BY} clause
+   * @throws ResponseStatusException if a property is not sortable
+   */
+  static String of(Sort sort, Map<String, String> columns, String idColumn) {
+    String orders =
+        sort.stream()
+            .map(
+                order -> {
+                  String column = columns.get(order.getProperty());
+                  if (column == null) {
+                    throw new ResponseStatusException(
+                        HttpStatus.BAD_REQUEST, "Cannot sort by " + order.getProperty());
+                  }
+                  return column + (order.isAscending() ? " ASC" : " DESC");
+                })
+            .collect(Collectors.joining(", "));
+    return " ORDER BY " + (orders.isEmpty() ? idColumn : orders + ", " + idColumn);
+  }
+}
@@ -0,0 +1,43 @@
+package com.phoenix.productinventory.reactive;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+/** Accumulates optional SQL predicates and their named bind values. */
+class SqlWhereClause {
+
+  private final List<String> predicates = new ArrayList<>();
+  private final Map<String, Object> bindings = new LinkedHashMap<>();
+
+  /**
+   * Adds a predicate if the value is present.
+   *
+   * @param predicate SQL predicate referencing {@code :name}
+   * @param name bind parameter name
+   * @param value bind value, or {@code null} to skip the predicate
+   * @return this clause
+   */
+  SqlWhereClause add(String predicate, String name, Object value) {
+    if (value != null) {
+      predicates.add(predicate);
+      bindings.put(name, value);
+    }
+    return this;
+  }
+
+  /** Returns the {@code WHERE} clause, or an empty string if no predicate was added. */
+  String toSql() {
+    return predicates.isEmpty() ? "" : " WHERE " + String.join(" AND ", predicates);
+  }
+
+  /** Binds the collected values to the given statement. */
+  DatabaseClient.GenericExecuteSpec bind(DatabaseClient.GenericExecuteSpec spec) {
+    for (Map.Entry<String, Object> binding : bindings.entrySet()) {
+      spec = spec.bind(binding.getKey(), binding.getValue());
+    }
+    return spec;
+  }
+}
@@ -0,0 +1,106 @@
+package com.phoenix.productinventory.repository;
+
+import com.phoenix.productinventory.dto.CategoryNodeDto;
+import com.phoenix.productinventory.model.CategoryClosure;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository maintaining and querying the category closure table. Every change of the hierarchy
+ * is a constant number of set-based statements, independent of the depth of the tree.
+ */
+@Repository
+public interface CategoryClosureRepository
+    extends JpaRepository<CategoryClosure, CategoryClosure.Key> {
+
+  /**
+   * Adds the paths of a new leaf category: itself at depth 0 and every ancestor of its parent.
+   *
+   * @param id the new category
+   * @param parentId its parent, or null for a top-level category
+   * @return the number of inserted rows
+   */
+  @Modifying
+  @Query(
+      value =
+          "INSERT INTO category_closure (ancestor_id, descendant_id, depth)"
+              + " SELECT CAST(:id AS BIGINT), CAST(:id AS BIGINT), 0"
+              + " UNION ALL"
+              + " SELECT ancestor_id, CAST(:id AS BIGINT), depth + 1 FROM category_closure"
+              + " WHERE descendant_id = :parentId",
+      nativeQuery = true)
+  int insertLeaf(@Param("id") Long id, @Param("parentId") Long parentId);
+
+  /**
+   * Removes the paths that lead into a subtree from outside of it, turning the subtree into a
+   * separate tree.
+   *
+   * @param id root of the subtree
+   * @return the number of deleted rows
+   */
+  @Modifying
+  @Query(
+      value =
+          "DELETE FROM category_closure"
+              + " WHERE descendant_id IN"
+              + " (SELECT descendant_id FROM category_closure WHERE ancestor_id = :id)"
+              + " AND ancestor_id NOT IN"
+              + " (SELECT descendant_id FROM category_closure WHERE ancestor_id = :id)",
+      nativeQuery = true)
+  int detachSubtree(@Param("id") Long id);
+
+  /**
+   * Connects a detached subtree below a new parent by pairing every ancestor of the parent with
+   * every member of the subtree.
+   *
+   * @param id root of the subtree
+   * @param parentId the new parent
+   * @return the number of inserted rows
+   */
+  @Modifying
+  @Query(
+      value =
+          "INSERT INTO category_closure (ancestor_id, descendant_id, depth)"
+              + " SELECT above.ancestor_id, below.descendant_id, above.depth + below.depth + 1"
+              + " FROM category_closure above CROSS JOIN category_closure below"
+              + " WHERE above.descendant_id = :parentId AND below.ancestor_id = :id",
+      nativeQuery = true)
+  int attachSubtree(@Param("id") Long id, @Param("parentId") Long parentId);
+
+  /**
+   * Tells whether a category lies in the subtree of another one, including the root itself.
+   *
+   * @param ancestorId root of the subtree
+   * @param descendantId the category to look for
+   * @return true if {@code descendantId} is {@code ancestorId} or one of its descendants
+   */
+  @Query(
+      "select count(c) > 0 from CategoryClosure c"
+          + " where c.ancestorId = :ancestorId and c.descendantId = :descendantId")
+  boolean existsPath(
+      @Param("ancestorId") Long ancestorId, @Param("descendantId") Long descendantId);
+
+  /**
+   * Lists a subtree down to a maximum depth, with the number of products in the subtree of each
+   * listed category.
+   *
+   * @param id root of the subtree
+   * @param maxDepth deepest level to list, 0 for the root only
+   * @return the categories ordered by depth and name, starting with the root
+   */
+  @Query(
+      "select new com.phoenix.productinventory.dto.CategoryNodeDto("
+          + "c.id, c.name, c.parent.id, t.depth, count(p.id))"
+          + " from CategoryClosure t"
+          + " join Category c on c.id = t.descendantId"
+          + " join CategoryClosure s on s.ancestorId = c.id"
+          + " left join Product p on p.category.id = s.descendantId"
+          + " where t.ancestorId = :id and t.depth <= :maxDepth"
+          + " group by c.id, c.name, c.parent.id, t.depth"
+          + " order by t.depth, c.name")
+  List<CategoryNodeDto> findSubtree(@Param("id") Long id, @Param("maxDepth") int maxDepth);
+}
@@ -0,0 +1,9 @@
+package com.phoenix.productinventory.repository;
+
+/**
+ * Number of products whose primary category is the given one.
+ *
+ * @param categoryId the category
+ * @param productCount the number of products
+ */
+public record CategoryProductCount(Long categoryId, long productCount) {}
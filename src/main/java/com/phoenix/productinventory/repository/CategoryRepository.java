@@ -1,9 +1,54 @@
 package com.phoenix.productinventory.repository;
 
 import com.phoenix.productinventory.model.Category;
+import com.phoenix.productinventory.snapshot.CatalogFingerprint;
+import com.phoenix.productinventory.snapshot.CategoryState;
+import java.util.Collection;
+import java.util.List;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
 
 /** Repository interface for Category entity persistence. */
 public interface CategoryRepository
-    extends JpaRepository<Category, Long>, JpaSpecificationExecutor<Category> {}
+    extends JpaRepository<Category, Long>,
+        JpaSpecificationExecutor<Category>,
+        CategoryWriteRepository {
+
+  /**
+   * Computes the row count, highest id and version sum of the categories table in one aggregate
+   * query.
+   *
+   * @return the current fingerprint of the categories table
+   */
+  @Query(
+      "select new com.phoenix.productinventory.snapshot.CatalogFingerprint("
+          + "count(c), coalesce(max(c.id), 0L), coalesce(sum(c.version), 0L)) from Category c")
+  CatalogFingerprint findFingerprint();
+
+  /**
+   * Loads the snapshot columns of every category without materializing entities.
+   *
+   * @return the state of all categories ordered by id
+   */
+  @Query(
+      "select new com.phoenix.productinventory.snapshot.CategoryState(c.id, c.version) "
+          + "from Category c order by c.id")
+  List<CategoryState> findAllStates();
+
+  /**
+   * Tells whether a category has direct subcategories.
+   *
+   * @param parentId the category
+   * @return true if at least one category has it as parent
+   */
+  boolean existsByParentId(Long parentId);
+
+  /**
+   * Loads the direct subcategories of several categories.
+   *
+   * @param parentIds the parent categories
+   * @return the subcategories ordered by id
+   */
+  List<Category> findByParentIdInOrderById(Collection<Long> parentIds);
+}
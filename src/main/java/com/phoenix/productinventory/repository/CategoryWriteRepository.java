@@ -0,0 +1,41 @@
+package com.phoenix.productinventory.repository;
+
+import com.phoenix.productinventory.dto.CategoryRequestDto;
+import com.phoenix.productinventory.model.Category;
+import java.util.Optional;
+
+/**
+ * Category writes that each take a single statement, returning the affected row instead of loading
+ * it first. The returned categories are detached.
+ */
+public interface CategoryWriteRepository {
+
+  /**
+   * Inserts a category under an id chosen by the caller instead of a generated one, with version 0
+   * like a persisted entity.
+   *
+   * @param id the id of the new category
+   * @param category the name, description and parent of the new category
+   * @return the inserted category
+   */
+  Category insertReturning(Long id, CategoryRequestDto category);
+
+  /**
+   * Applies the non-null name and description of a request and increments the version in one
+   * statement. If the request carries a version, only a category with this version is updated.
+   *
+   * @param id the category to update
+   * @param changes the new values; null fields keep the current value
+   * @return the updated category, or empty if it does not exist or has another version
+   */
+  Optional<Category> updateReturning(Long id, CategoryRequestDto changes);
+
+  /**
+   * Deletes a category in one statement that also returns it. Its closure rows and additional
+   * memberships are removed by cascade; products must have been deleted before.
+   *
+   * @param id the category to delete
+   * @return the deleted category, or empty if it did not exist
+   */
+  Optional<Category> deleteReturning(Long id);
+}
@@ -0,0 +1,70 @@
+package com.phoenix.productinventory.repository;
+
+import com.phoenix.productinventory.dto.CategoryRequestDto;
+import com.phoenix.productinventory.model.Category;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.util.List;
+import java.util.Optional;
+
+/** H2 implementation of {@link CategoryWriteRepository} using data change delta tables. */
+class CategoryWriteRepositoryImpl implements CategoryWriteRepository {
+
+  private static final String INSERT =
+      "SELECT "
+          + ReturnedRows.CATEGORY_COLUMNS
+          + " FROM FINAL TABLE (INSERT INTO categories"
+          + " (id, name, description, parent_id, version) VALUES (?1, ?2, ?3, ?4, 0)) r";
+
+  private static final String UPDATE =
+      "SELECT "
+          + ReturnedRows.CATEGORY_COLUMNS
+          + " FROM FINAL TABLE (UPDATE categories SET"
+          + " name = COALESCE(CAST(?1 AS VARCHAR(100)), name),"
+          + " description = COALESCE(CAST(?2 AS VARCHAR(255)), description),"
+          + " version = version + 1"
+          + " WHERE id = ?3 AND version = COALESCE(CAST(?4 AS BIGINT), version)) r";
+
+  private static final String DELETE =
+      "SELECT "
+          + ReturnedRows.CATEGORY_COLUMNS
+          + " FROM OLD TABLE (DELETE FROM categories WHERE id = ?1) r";
+
+  @PersistenceContext private EntityManager entityManager;
+
+  @Override
+  public Category insertReturning(Long id, CategoryRequestDto category) {
+    Object[] row =
+        (Object[])
+            entityManager
+                .createNativeQuery(INSERT)
+                .setParameter(1, id)
+                .setParameter(2, category.getName())
+                .setParameter(3, category.getDescription())
+                .setParameter(4, category.getParentId())
+                .getSingleResult();
+    return ReturnedRows.category(row, 0);
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public Optional<Category> updateReturning(Long id, CategoryRequestDto changes) {
+    List<Object[]> rows =
+        entityManager
+            .createNativeQuery(UPDATE)
+            .setParameter(1, changes.getName())
+            .setParameter(2, changes.getDescription())
+            .setParameter(3, id)
+            .setParameter(4, changes.getVersion())
+            .getResultList();
+    return rows.stream().findFirst().map(row -> ReturnedRows.category(row, 0));
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public Optional<Category> deleteReturning(Long id) {
+    List<Object[]> rows =
+        entityManager.createNativeQuery(DELETE).setParameter(1, id).getResultList();
+    return rows.stream().findFirst().map(row -> ReturnedRows.category(row, 0));
+  }
+}
@@ -0,0 +1,311 @@
+package com.phoenix.productinventory.repository;
+
+import com.phoenix.productinventory.history.HistoryResolution;
+import com.phoenix.productinventory.history.InventoryHistoryBucket;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Native SQL access to the inventory history tables, one per {@link HistoryResolution}.
+ *
+ * <p>Every table is keyed by product and bucket start, so the history of a product over a time
+ * range is one index range; category queries use the category index. Buckets are written with
+ * one {@code MERGE} per batch that combines them with buckets already stored if the new one lies
+ * entirely after or entirely before the product versions the stored one covers.
+ */
+@Repository
+public class InventoryHistoryRepository {
+
+  private static final String COLUMNS =
+      "product_id, bucket_start, category_id, open_quantity, close_quantity, min_quantity,"
+          + " max_quantity, open_price, close_price, min_price, max_price, changes, first_version,"
+          + " last_version";
+
+  private static final String MERGE_TAIL =
+      ") AS s("
+          + COLUMNS
+          + ") ON t.product_id = s.product_id AND t.bucket_start = s.bucket_start"
+          + " WHEN MATCHED AND (t.last_version IS NULL OR s.first_version IS NULL"
+          + " OR s.first_version > t.last_version) THEN UPDATE SET t.category_id = s.category_id,"
+          + " t.close_quantity = s.close_quantity,"
+          + " t.min_quantity = LEAST(t.min_quantity, s.min_quantity),"
+          + " t.max_quantity = GREATEST(t.max_quantity, s.max_quantity),"
+          + " t.close_price = s.close_price, t.min_price = LEAST(t.min_price, s.min_price),"
+          + " t.max_price = GREATEST(t.max_price, s.max_price), t.changes = t.changes + s.changes,"
+          + " t.last_version = COALESCE(s.last_version, t.last_version)"
+          + " WHEN MATCHED AND s.last_version < t.first_version THEN UPDATE SET"
+          + " t.open_quantity = s.open_quantity,"
+          + " t.min_quantity = LEAST(t.min_quantity, s.min_quantity),"
+          + " t.max_quantity = GREATEST(t.max_quantity, s.max_quantity),"
+          + " t.open_price = s.open_price, t.min_price = LEAST(t.min_price, s.min_price),"
+          + " t.max_price = GREATEST(t.max_price, s.max_price), t.changes = t.changes + s.changes,"
+          + " t.first_version = s.first_version"
+          + " WHEN NOT MATCHED THEN INSERT ("
+          + COLUMNS
+          + ") VALUES (s.product_id, s.bucket_start, s.category_id, s.open_quantity,"
+          + " s.close_quantity, s.min_quantity, s.max_quantity, s.open_price, s.close_price,"
+          + " s.min_price, s.max_price, s.changes, s.first_version, s.last_version)";
+
+  /** Typed placeholders, so that null values in the first row do not leave a column untyped. */
+  private static final String ROW =
+      "(CAST(? AS BIGINT), CAST(? AS TIMESTAMP WITH TIME ZONE), CAST(? AS BIGINT), CAST(? AS INT),"
+          + " CAST(? AS INT), CAST(? AS INT), CAST(? AS INT), CAST(? AS DECIMAL(10, 2)),"
+          + " CAST(? AS DECIMAL(10, 2)), CAST(? AS DECIMAL(10, 2)), CAST(? AS DECIMAL(10, 2)),"
+          + " CAST(? AS INT), CAST(? AS BIGINT), CAST(? AS BIGINT))";
+
+  /** Rows per statement, which keeps the number of bind parameters bounded. */
+  private static final int MERGE_BATCH_SIZE = 500;
+
+  @PersistenceContext private EntityManager entityManager;
+
+  /**
+   * Adds buckets to a resolution, up to 500 per statement. A bucket that exists already is
+   * combined with the new one if the new one starts at a higher product version than the stored
+   * one ends, or ends at a lower version than the stored one starts, in which case the new one
+   * opens the bucket; otherwise the new one overlaps changes added before and is skipped.
+   * Concurrent writers adding the same new bucket fail with a duplicate key.
+   *
+   * @param resolution the resolution of the buckets
+   * @param buckets buckets with distinct products and starts
+   * @return the number of inserted or updated rows
+   */
+  @Transactional
+  public int merge(HistoryResolution resolution, List<InventoryHistoryBucket> buckets) {
+    int merged = 0;
+    for (int from = 0; from < buckets.size(); from += MERGE_BATCH_SIZE) {
+      merged +=
+          mergeBatch(
+              resolution,
+              buckets.subList(from, Math.min(from + MERGE_BATCH_SIZE, buckets.size())));
+    }
+    return merged;
+  }
+
+  /**
+   * Loads the buckets of a product in a time range.
+   *
+   * @param resolution the resolution to read
+   * @param productId the product
+   * @param from start of the range, inclusive
+   * @param to end of the range, exclusive
+   * @param limit maximum number of buckets
+   * @return the buckets in time order
+   */
+  @Transactional(readOnly = true)
+  public List<InventoryHistoryBucket> findByProduct(
+      HistoryResolution resolution, long productId, Instant from, Instant to, int limit) {
+    return find(
+        resolution,
+        "product_id = :id AND bucket_start >= :from AND bucket_start < :to"
+            + " ORDER BY bucket_start",
+        productId,
+        from,
+        to,
+        limit);
+  }
+
+  /**
+   * Loads the buckets of the products of a primary category in a time range. A bucket belongs to
+   * the category the product had at its last change in the bucket.
+   *
+   * @param resolution the resolution to read
+   * @param categoryId the category
+   * @param from start of the range, inclusive
+   * @param to end of the range, exclusive
+   * @param limit maximum number of buckets
+   * @return the buckets ordered by time and product
+   */
+  @Transactional(readOnly = true)
+  public List<InventoryHistoryBucket> findByCategory(
+      HistoryResolution resolution, long categoryId, Instant from, Instant to, int limit) {
+    return find(
+        resolution,
+        "category_id = :id AND bucket_start >= :from AND bucket_start < :to"
+            + " ORDER BY bucket_start, product_id",
+        categoryId,
+        from,
+        to,
+        limit);
+  }
+
+  /**
+   * Selects products that have buckets older than a cutoff.
+   *
+   * @param resolution the resolution to read
+   * @param cutoff only buckets starting before it count
+   * @param afterProductId only products with a greater id
+   * @param limit maximum number of products
+   * @return product ids in ascending order
+   */
+  @Transactional(readOnly = true)
+  @SuppressWarnings("unchecked")
+  public List<Long> findProductsBefore(
+      HistoryResolution resolution, Instant cutoff, long afterProductId, int limit) {
+    List<Number> ids =
+        entityManager
+            .createNativeQuery(
+                "SELECT DISTINCT product_id FROM "
+                    + resolution.table()
+                    + " WHERE bucket_start < :cutoff AND product_id > :after ORDER BY product_id")
+            .setParameter("cutoff", cutoff)
+            .setParameter("after", afterProductId)
+            .setMaxResults(limit)
+            .getResultList();
+    return ids.stream().map(Number::longValue).toList();
+  }
+
+  /**
+   * Loads the buckets of some products that start before a cutoff.
+   *
+   * @param resolution the resolution to read
+   * @param productIds the products
+   * @param cutoff only buckets starting before it are loaded
+   * @return the buckets ordered by product and time
+   */
+  @Transactional(readOnly = true)
+  @SuppressWarnings("unchecked")
+  public List<InventoryHistoryBucket> findBefore(
+      HistoryResolution resolution, Collection<Long> productIds, Instant cutoff) {
+    List<Object[]> rows =
+        entityManager
+            .createNativeQuery(
+                "SELECT "
+                    + COLUMNS
+                    + " FROM "
+                    + resolution.table()
+                    + " WHERE product_id IN (:ids) AND bucket_start < :cutoff"
+                    + " ORDER BY product_id, bucket_start")
+            .setParameter("ids", productIds)
+            .setParameter("cutoff", cutoff)
+            .getResultList();
+    return rows.stream().map(InventoryHistoryRepository::toBucket).toList();
+  }
+
+  /**
+   * Loads the buckets of some products that start at or after a given time.
+   *
+   * @param resolution the resolution to read
+   * @param productIds the products
+   * @param from only buckets starting at or after it are loaded
+   * @return the buckets ordered by product and time
+   */
+  @Transactional(readOnly = true)
+  @SuppressWarnings("unchecked")
+  public List<InventoryHistoryBucket> findSince(
+      HistoryResolution resolution, Collection<Long> productIds, Instant from) {
+    List<Object[]> rows =
+        entityManager
+            .createNativeQuery(
+                "SELECT "
+                    + COLUMNS
+                    + " FROM "
+                    + resolution.table()
+                    + " WHERE product_id IN (:ids) AND bucket_start >= :from"
+                    + " ORDER BY product_id, bucket_start")
+            .setParameter("ids", productIds)
+            .setParameter("from", from)
+            .getResultList();
+    return rows.stream().map(InventoryHistoryRepository::toBucket).toList();
+  }
+
+  /**
+   * Deletes the buckets of some products that start before a cutoff.
+   *
+   * @param resolution the resolution to delete from
+   * @param productIds the products
+   * @param cutoff only buckets starting before it are deleted
+   * @return the number of deleted buckets
+   */
+  @Transactional
+  public int deleteBefore(
+      HistoryResolution resolution, Collection<Long> productIds, Instant cutoff) {
+    return entityManager
+        .createNativeQuery(
+            "DELETE FROM "
+                + resolution.table()
+                + " WHERE product_id IN (:ids) AND bucket_start < :cutoff")
+        .setParameter("ids", productIds)
+        .setParameter("cutoff", cutoff)
+        .executeUpdate();
+  }
+
+  private int mergeBatch(HistoryResolution resolution, List<InventoryHistoryBucket> buckets) {
+    StringBuilder sql =
+        new StringBuilder("MERGE INTO ").append(resolution.table()).append(" t USING (VALUES ");
+    for (int i = 0; i < buckets.size(); i++) {
+      sql.append(i == 0 ? "" : ", ").append(ROW);
+    }
+    sql.append(MERGE_TAIL);
+
+    Query query = entityManager.createNativeQuery(sql.toString());
+    int position = 1;
+    for (InventoryHistoryBucket bucket : buckets) {
+      query.setParameter(position++, bucket.productId());
+      query.setParameter(position++, bucket.bucketStart());
+      query.setParameter(position++, bucket.categoryId());
+      query.setParameter(position++, bucket.openQuantity());
+      query.setParameter(position++, bucket.closeQuantity());
+      query.setParameter(position++, bucket.minQuantity());
+      query.setParameter(position++, bucket.maxQuantity());
+      query.setParameter(position++, bucket.openPrice());
+      query.setParameter(position++, bucket.closePrice());
+      query.setParameter(position++, bucket.minPrice());
+      query.setParameter(position++, bucket.maxPrice());
+      query.setParameter(position++, bucket.changes());
+      query.setParameter(position++, bucket.firstVersion());
+      query.setParameter(position++, bucket.lastVersion());
+    }
+    return query.executeUpdate();
+  }
+
+  @SuppressWarnings("unchecked")
+  private List<InventoryHistoryBucket> find(
+      HistoryResolution resolution, String where, long id, Instant from, Instant to, int limit) {
+    List<Object[]> rows =
+        entityManager
+            .createNativeQuery(
+                "SELECT " + COLUMNS + " FROM " + resolution.table() + " WHERE " + where)
+            .setParameter("id", id)
+            .setParameter("from", from)
+            .setParameter("to", to)
+            .setMaxResults(limit)
+            .getResultList();
+    return rows.stream().map(InventoryHistoryRepository::toBucket).toList();
+  }
+
+  private static InventoryHistoryBucket toBucket(Object[] row) {
+    return new InventoryHistoryBucket(
+        ((Number) row[0]).longValue(),
+        toInstant(row[1]),
+        row[2] == null ? null : ((Number) row[2]).longValue(),
+        ((Number) row[3]).intValue(),
+        ((Number) row[4]).intValue(),
+        ((Number) row[5]).intValue(),
+        ((Number) row[6]).intValue(),
+        (BigDecimal) row[7],
+        (BigDecimal) row[8],
+        (BigDecimal) row[9],
+        (BigDecimal) row[10],
+        ((Number) row[11]).intValue(),
+        row[12] == null ? null : ((Number) row[12]).longValue(),
+        row[13] == null ? null : ((Number) row[13]).longValue());
+  }
+
+  private static Instant toInstant(Object value) {
+    return switch (value) {
+      case Instant instant -> instant;
+      case OffsetDateTime dateTime -> dateTime.toInstant();
+      case Timestamp timestamp -> timestamp.toInstant();
+      default -> throw new IllegalStateException("Unexpected timestamp " + value.getClass());
+    };
+  }
+}
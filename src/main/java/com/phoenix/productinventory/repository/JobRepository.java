@@ -0,0 +1,212 @@
+package com.phoenix.productinventory.repository;
+
+import com.phoenix.productinventory.job.JobStatus;
+import com.phoenix.productinventory.model.Job;
+import java.time.Instant;
+import java.util.List;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Repository interface for background jobs.
+ *
+ * <p>Status and progress only change through conditional update statements, each in its own
+ * transaction unless the caller has one.
+ */
+@Repository
+public interface JobRepository extends JpaRepository<Job, Long> {
+
+  /**
+   * Loads the ids of the oldest jobs in a status.
+   *
+   * @param status the status
+   * @param pageable the maximum number of ids to load
+   * @return job ids in ascending order
+   */
+  @Query("select j.id from Job j where j.status = :status order by j.id")
+  List<Long> findIdsByStatus(@Param("status") JobStatus status, Pageable pageable);
+
+  /**
+   * Tells whether cancellation of a job was requested.
+   *
+   * @param id the job
+   * @return true if the job should stop before its next chunk
+   */
+  @Query("select j.cancelRequested from Job j where j.id = :id")
+  boolean isCancelRequested(@Param("id") Long id);
+
+  /**
+   * Starts a queued job and leases it to a runner, unless another runner or a cancellation was
+   * first.
+   *
+   * @param id the job
+   * @param queued {@link JobStatus#QUEUED}
+   * @param running {@link JobStatus#RUNNING}
+   * @param claimedBy the runner
+   * @param claimedUntil expiry of the lease
+   * @param now the start time, kept from the first start of a resumed job
+   * @return 1 if the job was started, 0 otherwise
+   */
+  @Transactional
+  @Modifying(clearAutomatically = true)
+  @Query(
+      "update Job j set j.status = :running, j.startedAt = coalesce(j.startedAt, :now),"
+          + " j.claimedBy = :claimedBy, j.claimedUntil = :claimedUntil"
+          + " where j.id = :id and j.status = :queued")
+  int start(
+      @Param("id") Long id,
+      @Param("queued") JobStatus queued,
+      @Param("running") JobStatus running,
+      @Param("claimedBy") String claimedBy,
+      @Param("claimedUntil") Instant claimedUntil,
+      @Param("now") Instant now);
+
+  /**
+   * Extends the lease of a running job; must run in the transaction of the chunk, so the job row
+   * stays locked until the chunk commits.
+   *
+   * @param id the job
+   * @param running {@link JobStatus#RUNNING}
+   * @param claimedBy the runner holding the lease
+   * @param claimedUntil new expiry of the lease
+   * @return 1 if the runner still holds the lease, 0 if the job was taken over or has ended
+   */
+  @Modifying(clearAutomatically = true)
+  @Query(
+      "update Job j set j.claimedUntil = :claimedUntil"
+          + " where j.id = :id and j.status = :running and j.claimedBy = :claimedBy")
+  int renew(
+      @Param("id") Long id,
+      @Param("running") JobStatus running,
+      @Param("claimedBy") String claimedBy,
+      @Param("claimedUntil") Instant claimedUntil);
+
+  /**
+   * Requeues running jobs whose lease has expired, e.g. because their runner stopped.
+   *
+   * @param running {@link JobStatus#RUNNING}
+   * @param queued {@link JobStatus#QUEUED}
+   * @param now leases that expire before this time count as expired
+   * @return the number of requeued jobs
+   */
+  @Transactional
+  @Modifying(clearAutomatically = true)
+  @Query(
+      "update Job j set j.status = :queued, j.claimedBy = null, j.claimedUntil = null"
+          + " where j.status = :running and (j.claimedUntil is null or j.claimedUntil < :now)")
+  int requeueExpired(
+      @Param("running") JobStatus running,
+      @Param("queued") JobStatus queued,
+      @Param("now") Instant now);
+
+  /**
+   * Requeues a running job that its runner gives up, e.g. when shutting down.
+   *
+   * @param id the job
+   * @param running {@link JobStatus#RUNNING}
+   * @param queued {@link JobStatus#QUEUED}
+   * @param claimedBy the runner holding the lease
+   * @return 1 if the job was requeued, 0 if the runner no longer held it
+   */
+  @Transactional
+  @Modifying(clearAutomatically = true)
+  @Query(
+      "update Job j set j.status = :queued, j.claimedBy = null, j.claimedUntil = null"
+          + " where j.id = :id and j.status = :running and j.claimedBy = :claimedBy")
+  int release(
+      @Param("id") Long id,
+      @Param("running") JobStatus running,
+      @Param("queued") JobStatus queued,
+      @Param("claimedBy") String claimedBy);
+
+  /**
+   * Records the total number of items of a started job.
+   *
+   * @param id the job
+   * @param total processed and remaining items
+   * @return the number of updated jobs
+   */
+  @Transactional
+  @Modifying(clearAutomatically = true)
+  @Query("update Job j set j.total = :total where j.id = :id")
+  int updateTotal(@Param("id") Long id, @Param("total") long total);
+
+  /**
+   * Records a committed chunk; must run in the transaction of the chunk.
+   *
+   * @param id the job
+   * @param cursor position after the chunk
+   * @param processed number of items of the chunk
+   * @return the number of updated jobs
+   */
+  @Modifying(clearAutomatically = true)
+  @Query(
+      "update Job j set j.cursor = :cursor, j.processed = j.processed + :processed"
+          + " where j.id = :id")
+  int advance(
+      @Param("id") Long id, @Param("cursor") long cursor, @Param("processed") long processed);
+
+  /**
+   * Ends a job that is in one of the given statuses.
+   *
+   * @param id the job
+   * @param from the statuses the job may be in
+   * @param to the final status
+   * @param error the reason of a failure, or null
+   * @param now the end time
+   * @return 1 if the job was ended, 0 if it was in another status
+   */
+  @Transactional
+  @Modifying(clearAutomatically = true)
+  @Query(
+      "update Job j set j.status = :to, j.error = :error, j.finishedAt = :now"
+          + " where j.id = :id and j.status in :from")
+  int finish(
+      @Param("id") Long id,
+      @Param("from") List<JobStatus> from,
+      @Param("to") JobStatus to,
+      @Param("error") String error,
+      @Param("now") Instant now);
+
+  /**
+   * Ends a running job that a runner holds the lease of.
+   *
+   * @param id the job
+   * @param running {@link JobStatus#RUNNING}
+   * @param claimedBy the runner holding the lease
+   * @param to the final status
+   * @param error the reason of a failure, or null
+   * @param now the end time
+   * @return 1 if the job was ended, 0 if the runner no longer held it
+   */
+  @Transactional
+  @Modifying(clearAutomatically = true)
+  @Query(
+      "update Job j set j.status = :to, j.error = :error, j.finishedAt = :now,"
+          + " j.claimedUntil = null"
+          + " where j.id = :id and j.status = :running and j.claimedBy = :claimedBy")
+  int finishClaimed(
+      @Param("id") Long id,
+      @Param("running") JobStatus running,
+      @Param("claimedBy") String claimedBy,
+      @Param("to") JobStatus to,
+      @Param("error") String error,
+      @Param("now") Instant now);
+
+  /**
+   * Asks a running job to stop before its next chunk.
+   *
+   * @param id the job
+   * @param running {@link JobStatus#RUNNING}
+   * @return 1 if the job is running, 0 otherwise
+   */
+  @Transactional
+  @Modifying(clearAutomatically = true)
+  @Query("update Job j set j.cancelRequested = true where j.id = :id and j.status = :running")
+  int requestCancel(@Param("id") Long id, @Param("running") JobStatus running);
+}
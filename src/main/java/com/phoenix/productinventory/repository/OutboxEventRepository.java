@@ -0,0 +1,140 @@
+package com.phoenix.productinventory.repository;
+
+import com.phoenix.productinventory.model.OutboxEvent;
+import com.phoenix.productinventory.outbox.AggregateType;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/** Repository interface for the transactional outbox. */
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+  /**
+   * Selects the oldest events that are neither published nor claimed by a running relay.
+   *
+   * @param now claims that expire before this time no longer count
+   * @param pageable the maximum number of events to select
+   * @return identifiers of claimable events in ascending order
+   */
+  @Query(
+      "select e.id from OutboxEvent e where e.publishedAt is null"
+          + " and (e.claimedUntil is null or e.claimedUntil < :now) order by e.id")
+  List<Long> findClaimable(@Param("now") Instant now, Pageable pageable);
+
+  /**
+   * Claims events for one relay run. The condition is checked again under the row lock, so of two
+   * concurrent runs only one claims an event.
+   *
+   * @param ids identifiers of the events to claim
+   * @param claimedBy token of the relay run
+   * @param claimedUntil expiry of the claim
+   * @param now claims that expire before this time are taken over
+   * @return the number of claimed events
+   */
+  @Modifying
+  @Query(
+      "update OutboxEvent e set e.claimedBy = :claimedBy, e.claimedUntil = :claimedUntil"
+          + " where e.id in :ids and e.publishedAt is null"
+          + " and (e.claimedUntil is null or e.claimedUntil < :now)")
+  int claim(
+      @Param("ids") Collection<Long> ids,
+      @Param("claimedBy") String claimedBy,
+      @Param("claimedUntil") Instant claimedUntil,
+      @Param("now") Instant now);
+
+  /**
+   * Loads the unpublished events claimed by one relay run.
+   *
+   * @param claimedBy token of the relay run
+   * @return the claimed events ordered by id
+   */
+  @Query(
+      "select e from OutboxEvent e where e.claimedBy = :claimedBy and e.publishedAt is null"
+          + " order by e.id")
+  List<OutboxEvent> findClaimed(@Param("claimedBy") String claimedBy);
+
+  /**
+   * Loads the events of one aggregate type that were recorded after a given event, regardless of
+   * whether they have been published yet.
+   *
+   * @param afterId only events with a greater id are returned
+   * @param aggregateType the aggregate type
+   * @param pageable the maximum number of events to load
+   * @return events ordered by id
+   */
+  @Query(
+      "select e from OutboxEvent e where e.id > :afterId and e.aggregateType = :aggregateType"
+          + " order by e.id")
+  List<OutboxEvent> findAfter(
+      @Param("afterId") Long afterId,
+      @Param("aggregateType") AggregateType aggregateType,
+      Pageable pageable);
+
+  /**
+   * Loads the events recorded after a given position in creation order, regardless of whether they
+   * have been published yet. Events of one transaction share their creation time, so the position
+   * includes the id as a tie-break.
+   *
+   * @param createdAt creation time of the position
+   * @param afterId id of the position; events created at the same time need a greater id
+   * @param pageable the maximum number of events to load
+   * @return events ordered by creation time and id
+   */
+  @Query(
+      "select e from OutboxEvent e where e.createdAt > :createdAt"
+          + " or (e.createdAt = :createdAt and e.id > :afterId) order by e.createdAt, e.id")
+  List<OutboxEvent> findCreatedAfter(
+      @Param("createdAt") Instant createdAt, @Param("afterId") Long afterId, Pageable pageable);
+
+  /**
+   * Finds the first event recorded at or after a given time.
+   *
+   * @param since the time
+   * @return the lowest id of such an event, or null if there is none
+   */
+  @Query("select min(e.id) from OutboxEvent e where e.createdAt >= :since")
+  Long findFirstIdCreatedSince(@Param("since") Instant since);
+
+  /**
+   * Releases the claim on events that some sinks failed to receive, so a later run offers them to
+   * those sinks again.
+   *
+   * @param ids identifiers of the events
+   * @param pendingSinks comma-separated names of the sinks that still have to receive them
+   * @return the number of updated events
+   */
+  @Modifying
+  @Query(
+      "update OutboxEvent e set e.claimedBy = null, e.claimedUntil = null,"
+          + " e.pendingSinks = :pendingSinks where e.id in :ids")
+  int release(@Param("ids") Collection<Long> ids, @Param("pendingSinks") String pendingSinks);
+
+  /**
+   * Marks events as published.
+   *
+   * @param ids identifiers of the published events
+   * @param publishedAt publication time
+   * @return the number of updated events
+   */
+  @Modifying
+  @Query("update OutboxEvent e set e.publishedAt = :publishedAt where e.id in :ids")
+  int markPublished(
+      @Param("ids") Collection<Long> ids, @Param("publishedAt") Instant publishedAt);
+
+  /**
+   * Deletes events that were published before the given time.
+   *
+   * @param cutoff events published before this time are deleted
+   * @return the number of deleted events
+   */
+  @Modifying
+  @Query("delete from OutboxEvent e where e.publishedAt < :cutoff")
+  int deletePublishedBefore(@Param("cutoff") Instant cutoff);
+}
@@ -0,0 +1,11 @@
+package com.phoenix.productinventory.repository;
+
+import com.phoenix.productinventory.model.Product;
+
+/**
+ * Outcome of changing the primary category of a product.
+ *
+ * @param product the product after the change
+ * @param previousCategoryId the primary category before the change, or null
+ */
+public record ProductCategoryChange(Product product, Long previousCategoryId) {}
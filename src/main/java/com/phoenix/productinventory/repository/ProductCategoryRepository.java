@@ -0,0 +1,37 @@
+package com.phoenix.productinventory.repository;
+
+import com.phoenix.productinventory.membership.CategoryMembership;
+import com.phoenix.productinventory.model.Category;
+import com.phoenix.productinventory.model.ProductCategory;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/** Repository interface for the additional category memberships of products. */
+@Repository
+public interface ProductCategoryRepository
+    extends JpaRepository<ProductCategory, ProductCategory.Key> {
+
+  /**
+   * Loads the categories a product is an additional member of.
+   *
+   * @param productId the product
+   * @return the categories ordered by name
+   */
+  @Query(
+      "select c from ProductCategory m join Category c on c.id = m.categoryId"
+          + " where m.productId = :productId order by c.name")
+  List<Category> findCategoriesOf(@Param("productId") Long productId);
+
+  /**
+   * Loads every additional membership.
+   *
+   * @return the memberships
+   */
+  @Query(
+      "select new com.phoenix.productinventory.membership.CategoryMembership("
+          + "m.productId, m.categoryId) from ProductCategory m")
+  List<CategoryMembership> findAllMemberships();
+}
@@ -0,0 +1,22 @@
+package com.phoenix.productinventory.repository;
+
+import com.phoenix.productinventory.dto.ProductFacetsDto;
+import com.phoenix.productinventory.model.Product;
+import java.math.BigDecimal;
+import java.util.List;
+import org.springframework.data.jpa.domain.Specification;
+
+/** Aggregate queries used to build catalog navigation facets. */
+public interface ProductFacetRepository {
+
+  /**
+   * Computes the category, price range and stock facets of the products matching a filter with a
+   * single grouped query.
+   *
+   * @param spec Specification for filtering products (can be null).
+   * @param priceBreaks strictly ascending bounds separating the price ranges; {@code n} breaks
+   *     produce {@code n + 1} ranges
+   * @return the facet counts
+   */
+  ProductFacetsDto findFacets(Specification<Product> spec, List<BigDecimal> priceBreaks);
+}
@@ -0,0 +1,110 @@
+package com.phoenix.productinventory.repository;
+
+import com.phoenix.productinventory.dto.CategoryFacetDto;
+import com.phoenix.productinventory.dto.PriceRangeFacetDto;
+import com.phoenix.productinventory.dto.ProductFacetsDto;
+import com.phoenix.productinventory.model.Category;
+import com.phoenix.productinventory.model.Product;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Criteria API implementation of {@link ProductFacetRepository}.
+ *
+ * <p>The query groups the matching products by category and counts the stock and price range
+ * facets with conditional sums in the same pass, so one row per category is returned. The
+ * category-independent facets are then added up from those rows.
+ */
+class ProductFacetRepositoryImpl implements ProductFacetRepository {
+
+  private static final String CATEGORY_ID = "categoryId";
+  private static final String CATEGORY_NAME = "categoryName";
+  private static final String COUNT = "count";
+  private static final String IN_STOCK = "inStock";
+  private static final String PRICE_RANGE = "priceRange";
+
+  @PersistenceContext private EntityManager entityManager;
+
+  @Override
+  public ProductFacetsDto findFacets(Specification<Product> spec, List<BigDecimal> priceBreaks) {
+    CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+    CriteriaQuery<Tuple> query = cb.createTupleQuery();
+    Root<Product> root = query.from(Product.class);
+    Join<Product, Category> category = root.join("category", JoinType.LEFT);
+    Expression<BigDecimal> price = root.get("price");
+
+    List<Selection<?>> selections = new ArrayList<>();
+    selections.add(category.get("id").alias(CATEGORY_ID));
+    selections.add(category.get("name").alias(CATEGORY_NAME));
+    selections.add(cb.count(root).alias(COUNT));
+    selections.add(countIf(cb, cb.greaterThan(root.get("quantity"), 0)).alias(IN_STOCK));
+    for (int range = 0; range <= priceBreaks.size(); range++) {
+      List<Predicate> bounds = new ArrayList<>();
+      if (range > 0) {
+        bounds.add(cb.greaterThanOrEqualTo(price, priceBreaks.get(range - 1)));
+      }
+      if (range < priceBreaks.size()) {
+        bounds.add(cb.lessThan(price, priceBreaks.get(range)));
+      }
+      selections.add(
+          countIf(cb, cb.and(bounds.toArray(Predicate[]::new))).alias(PRICE_RANGE + range));
+    }
+    query.multiselect(selections);
+
+    Predicate predicate = spec == null ? null : spec.toPredicate(root, query, cb);
+    if (predicate != null) {
+      query.where(predicate);
+    }
+    query.groupBy(category.get("id"), category.get("name"));
+    query.orderBy(
+        cb.asc(cb.selectCase().when(cb.isNull(category.get("id")), 1).otherwise(0)),
+        cb.asc(category.get("name")));
+
+    return toFacets(entityManager.createQuery(query).getResultList(), priceBreaks);
+  }
+
+  private static Expression<Long> countIf(CriteriaBuilder cb, Predicate condition) {
+    return cb.sum(cb.<Long>selectCase().when(condition, 1L).otherwise(0L));
+  }
+
+  private static ProductFacetsDto toFacets(List<Tuple> rows, List<BigDecimal> priceBreaks) {
+    long total = 0;
+    long inStock = 0;
+    long[] priceRangeCounts = new long[priceBreaks.size() + 1];
+    List<CategoryFacetDto> categories = new ArrayList<>(rows.size());
+    for (Tuple row : rows) {
+      long count = row.get(COUNT, Long.class);
+      total += count;
+      inStock += row.get(IN_STOCK, Long.class);
+      for (int range = 0; range < priceRangeCounts.length; range++) {
+        priceRangeCounts[range] += row.get(PRICE_RANGE + range, Long.class);
+      }
+      categories.add(
+          new CategoryFacetDto(
+              row.get(CATEGORY_ID, Long.class), row.get(CATEGORY_NAME, String.class), count));
+    }
+
+    List<PriceRangeFacetDto> priceRanges = new ArrayList<>(priceRangeCounts.length);
+    for (int range = 0; range < priceRangeCounts.length; range++) {
+      priceRanges.add(
+          new PriceRangeFacetDto(
+              range > 0 ? priceBreaks.get(range - 1) : null,
+              range < priceBreaks.size() ? priceBreaks.get(range) : null,
+              priceRangeCounts[range]));
+    }
+    return new ProductFacetsDto(total, categories, priceRanges, inStock, total - inStock);
+  }
+}
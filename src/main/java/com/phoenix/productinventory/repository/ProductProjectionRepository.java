@@ -0,0 +1,46 @@
+package com.phoenix.productinventory.repository;
+
+import com.phoenix.productinventory.dto.ProductField;
+import com.phoenix.productinventory.dto.ProductResponseDto;
+import com.phoenix.productinventory.model.Product;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+/** Queries that only select and join the product fields requested by the caller. */
+public interface ProductProjectionRepository {
+
+  /**
+   * Retrieves a page of products selecting only the given fields. The category is only joined if
+   * {@link ProductField#CATEGORY} is requested.
+   *
+   * @param spec Specification for filtering products (can be null).
+   * @param pageable Pagination and sorting information.
+   * @param fields the fields to select; other properties of the returned DTOs are left null
+   * @return a page of partially populated products
+   */
+  Page<ProductResponseDto> findAllProjected(
+      Specification<Product> spec, Pageable pageable, Set<ProductField> fields);
+
+  /**
+   * Retrieves a product by its ID selecting only the given fields.
+   *
+   * @param id the product ID
+   * @param fields the fields to select; other properties of the returned DTO are left null
+   * @return the partially populated product, or empty if it does not exist
+   */
+  Optional<ProductResponseDto> findProjectedById(Long id, Set<ProductField> fields);
+
+  /**
+   * Selects only the ids of the products matching a filter that follow a given id, in id order.
+   *
+   * @param spec Specification for filtering products (can be null).
+   * @param afterId only greater ids are returned
+   * @param limit maximum number of ids
+   * @return the matching ids in ascending order
+   */
+  List<Long> findIdsAfter(Specification<Product> spec, long afterId, int limit);
+}
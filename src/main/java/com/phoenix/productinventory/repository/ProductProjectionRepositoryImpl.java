@@ -0,0 +1,147 @@
+package com.phoenix.productinventory.repository;
+
+import com.phoenix.productinventory.dto.CategoryResponseDto;
+import com.phoenix.productinventory.dto.ProductField;
+import com.phoenix.productinventory.dto.ProductResponseDto;
+import com.phoenix.productinventory.model.Category;
+import com.phoenix.productinventory.model.Product;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+/** Criteria API implementation of {@link ProductProjectionRepository}. */
+class ProductProjectionRepositoryImpl implements ProductProjectionRepository {
+
+  private static final String CATEGORY_ID = "category.id";
+  private static final String CATEGORY_NAME = "category.name";
+  private static final String CATEGORY_DESCRIPTION = "category.description";
+  private static final String CATEGORY_PARENT_ID = "category.parentId";
+
+  @PersistenceContext private EntityManager entityManager;
+
+  @Override
+  public Page<ProductResponseDto> findAllProjected(
+      Specification<Product> spec, Pageable pageable, Set<ProductField> fields) {
+    CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+    CriteriaQuery<Tuple> query = cb.createTupleQuery();
+    Root<Product> root = query.from(Product.class);
+    query.multiselect(selections(root, fields));
+    Predicate predicate = spec == null ? null : spec.toPredicate(root, query, cb);
+    if (predicate != null) {
+      query.where(predicate);
+    }
+    if (pageable.getSort().isSorted()) {
+      query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+    }
+
+    TypedQuery<Tuple> typedQuery = entityManager.createQuery(query);
+    if (pageable.isPaged()) {
+      typedQuery.setFirstResult((int) pageable.getOffset());
+      typedQuery.setMaxResults(pageable.getPageSize());
+    }
+    List<ProductResponseDto> content =
+        typedQuery.getResultList().stream().map(tuple -> toDto(tuple, fields)).toList();
+    return PageableExecutionUtils.getPage(content, pageable, () -> count(spec));
+  }
+
+  @Override
+  public Optional<ProductResponseDto> findProjectedById(Long id, Set<ProductField> fields) {
+    CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+    CriteriaQuery<Tuple> query = cb.createTupleQuery();
+    Root<Product> root = query.from(Product.class);
+    query.multiselect(selections(root, fields)).where(cb.equal(root.get("id"), id));
+    return entityManager
+        .createQuery(query)
+        .getResultStream()
+        .findFirst()
+        .map(tuple -> toDto(tuple, fields));
+  }
+
+  @Override
+  public List<Long> findIdsAfter(Specification<Product> spec, long afterId, int limit) {
+    CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+    CriteriaQuery<Long> query = cb.createQuery(Long.class);
+    Root<Product> root = query.from(Product.class);
+    Predicate after = cb.greaterThan(root.get("id"), afterId);
+    Predicate predicate = spec == null ? null : spec.toPredicate(root, query, cb);
+    query
+        .select(root.get("id"))
+        .where(predicate == null ? after : cb.and(after, predicate))
+        .orderBy(cb.asc(root.get("id")));
+    return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+  }
+
+  private long count(Specification<Product> spec) {
+    CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+    CriteriaQuery<Long> query = cb.createQuery(Long.class);
+    Root<Product> root = query.from(Product.class);
+    query.select(cb.count(root));
+    Predicate predicate = spec == null ? null : spec.toPredicate(root, query, cb);
+    if (predicate != null) {
+      query.where(predicate);
+    }
+    return entityManager.createQuery(query).getSingleResult();
+  }
+
+  private static List<Selection<?>> selections(Root<Product> root, Set<ProductField> fields) {
+    List<Selection<?>> selections = new ArrayList<>();
+    for (ProductField field : fields) {
+      if (field == ProductField.CATEGORY) {
+        Join<Product, Category> category = root.join("category", JoinType.LEFT);
+        selections.add(category.get("id").alias(CATEGORY_ID));
+        selections.add(category.get("name").alias(CATEGORY_NAME));
+        selections.add(category.get("description").alias(CATEGORY_DESCRIPTION));
+        selections.add(category.get("parent").get("id").alias(CATEGORY_PARENT_ID));
+      } else {
+        selections.add(root.get(field.getProperty()).alias(field.getProperty()));
+      }
+    }
+    return selections;
+  }
+
+  private static ProductResponseDto toDto(Tuple tuple, Set<ProductField> fields) {
+    ProductResponseDto dto = new ProductResponseDto();
+    for (ProductField field : fields) {
+      switch (field) {
+        case ID -> dto.setId(tuple.get(field.getProperty(), Long.class));
+        case NAME -> dto.setName(tuple.get(field.getProperty(), String.class));
+        case DESCRIPTION -> dto.setDescription(tuple.get(field.getProperty(), String.class));
+        case PRICE -> dto.setPrice(tuple.get(field.getProperty(), BigDecimal.class));
+        case QUANTITY -> dto.setQuantity(tuple.get(field.getProperty(), Integer.class));
+        case VERSION -> dto.setVersion(tuple.get(field.getProperty(), Integer.class));
+        case SKU -> dto.setSku(tuple.get(field.getProperty(), String.class));
+        case CATEGORY -> {
+          Long categoryId = tuple.get(CATEGORY_ID, Long.class);
+          if (categoryId != null) {
+            dto.setCategory(
+                new CategoryResponseDto(
+                    categoryId,
+                    tuple.get(CATEGORY_NAME, String.class),
+                    tuple.get(CATEGORY_DESCRIPTION, String.class),
+                    tuple.get(CATEGORY_PARENT_ID, Long.class),
+                    null));
+          }
+        }
+      }
+    }
+    return dto;
+  }
+}
@@ -1,11 +1,129 @@
 package com.phoenix.productinventory.repository;
 
+import com.phoenix.productinventory.membership.CategoryMembership;
 import com.phoenix.productinventory.model.Product;
+import com.phoenix.productinventory.snapshot.CatalogFingerprint;
+import com.phoenix.productinventory.snapshot.ProductState;
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /** Repository interface for Product entity persistence. */
 @Repository
 public interface ProductRepository
-    extends JpaRepository<Product, Long>, JpaSpecificationExecutor<Product> {}
+    extends JpaRepository<Product, Long>,
+        JpaSpecificationExecutor<Product>,
+        ProductProjectionRepository,
+        ProductFacetRepository,
+        ProductSearchRepository,
+        ProductUpsertRepository,
+        ProductWriteRepository {
+
+  /**
+   * Computes the row count, highest id and version sum of the products table in one aggregate
+   * query.
+   *
+   * @return the current fingerprint of the products table
+   */
+  @Query(
+      "select new com.phoenix.productinventory.snapshot.CatalogFingerprint("
+          + "count(p), coalesce(max(p.id), 0L), coalesce(sum(p.version), 0L)) from Product p")
+  CatalogFingerprint findFingerprint();
+
+  /**
+   * Loads the snapshot columns of every product without materializing entities.
+   *
+   * @return the state of all products ordered by id
+   */
+  @Query(
+      "select new com.phoenix.productinventory.snapshot.ProductState("
+          + "p.id, p.version, p.price, p.quantity, p.category.id) from Product p order by p.id")
+  List<ProductState> findAllStates();
+
+  /**
+   * Loads the primary category of every product.
+   *
+   * @return one membership per product, with a null category for uncategorized products
+   */
+  @Query(
+      "select new com.phoenix.productinventory.membership.CategoryMembership("
+          + "p.id, p.category.id) from Product p")
+  List<CategoryMembership> findAllMemberships();
+
+  /**
+   * Loads the products holding the given SKUs together with their categories in one query.
+   *
+   * @param skus the SKUs
+   * @return the products; SKUs without a product are missing
+   */
+  @Query("select p from Product p left join fetch p.category where p.sku in :skus")
+  List<Product> findAllBySkuIn(@Param("skus") Collection<String> skus);
+
+  /**
+   * Selects which of the given SKUs are held by a product, without loading the products.
+   *
+   * @param skus the SKUs
+   * @return the SKUs that exist
+   */
+  @Query("select p.sku from Product p where p.sku in :skus")
+  List<String> findExistingSkus(@Param("skus") Collection<String> skus);
+
+  /**
+   * Counts the products of one category through the category index, without loading them.
+   *
+   * @param categoryId the category
+   * @return the number of products whose primary category it is
+   */
+  long countByCategoryId(Long categoryId);
+
+  /**
+   * Counts the products of several categories in one grouped query.
+   *
+   * @param categoryIds the categories
+   * @return one count per category that has products; categories without products are missing
+   */
+  @Query(
+      "select new com.phoenix.productinventory.repository.CategoryProductCount("
+          + "p.category.id, count(p)) from Product p"
+          + " where p.category.id in :categoryIds group by p.category.id")
+  List<CategoryProductCount> countByCategoryIds(
+      @Param("categoryIds") Collection<Long> categoryIds);
+
+  /**
+   * Multiplies the prices of the given products by a factor, adds an amount and rounds to cents in
+   * one statement, incrementing their versions.
+   *
+   * @param ids the products to change
+   * @param factor the factor applied first
+   * @param amount the amount added afterwards
+   * @return the number of changed products
+   */
+  @Modifying
+  @Query(
+      "update Product p set p.price = round(p.price * :factor + :amount, 2),"
+          + " p.version = p.version + 1 where p.id in :ids")
+  int adjustPrices(
+      @Param("ids") Collection<Long> ids,
+      @Param("factor") BigDecimal factor,
+      @Param("amount") BigDecimal amount);
+
+  /**
+   * Adds a delta to the quantities of the given products in one statement, incrementing their
+   * versions.
+   *
+   * @param ids the products to change
+   * @param delta the quantity to add, negative to remove stock
+   * @return the number of changed products
+   */
+  @Modifying
+  @Query(
+      "update Product p set p.quantity = p.quantity + :delta,"
+          + " p.version = p.version + 1 where p.id in :ids")
+  int adjustQuantities(@Param("ids") Collection<Long> ids, @Param("delta") int delta);
+}
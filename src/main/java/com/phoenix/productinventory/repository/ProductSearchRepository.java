@@ -0,0 +1,46 @@
+package com.phoenix.productinventory.repository;
+
+import com.phoenix.productinventory.model.Product;
+import com.phoenix.productinventory.search.SearchCondition;
+import java.util.List;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+/** Product searches compiled from the search DSL. */
+public interface ProductSearchRepository {
+
+  /**
+   * Loads a page of the products matching a search filter together with their categories.
+   *
+   * @param filter the normalized filter, or null to match all products
+   * @param pageable the page; sorting is limited to the sortable search fields
+   * @return the page of products; the total is only counted if the page does not reveal it
+   */
+  Page<Product> search(SearchCondition filter, Pageable pageable);
+
+  /**
+   * Selects the next ids of the products matching a search filter in id order.
+   *
+   * @param filter the normalized filter, or null to match all products
+   * @param afterId only products with a greater id are selected
+   * @param limit maximum number of ids
+   * @return the ids in ascending order
+   */
+  List<Long> findIdsAfter(SearchCondition filter, long afterId, int limit);
+
+  /**
+   * Checks whether any product matches a search filter.
+   *
+   * @param filter the normalized filter, or null to match all products
+   * @return true if at least one product matches
+   */
+  boolean exists(SearchCondition filter);
+
+  /**
+   * Counts the products matching a search filter.
+   *
+   * @param filter the normalized filter, or null to match all products
+   * @return the number of matching products
+   */
+  long countMatching(SearchCondition filter);
+}
@@ -0,0 +1,82 @@
+package com.phoenix.productinventory.repository;
+
+import com.phoenix.productinventory.model.Product;
+import com.phoenix.productinventory.search.ProductSearchPlan;
+import com.phoenix.productinventory.search.ProductSearchPlanCache;
+import com.phoenix.productinventory.search.SearchCondition;
+import com.phoenix.productinventory.search.SearchField;
+import com.phoenix.productinventory.search.SearchOperator;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import jakarta.persistence.TypedQuery;
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.support.PageableExecutionUtils;
+
+/** JPQL implementation of {@link ProductSearchRepository} on top of the search plan cache. */
+class ProductSearchRepositoryImpl implements ProductSearchRepository {
+
+  private static final Sort ID_ORDER = Sort.by(SearchField.ID.getName());
+
+  private final ProductSearchPlanCache plans;
+
+  @PersistenceContext private EntityManager entityManager;
+
+  ProductSearchRepositoryImpl(ProductSearchPlanCache plans) {
+    this.plans = plans;
+  }
+
+  @Override
+  public Page<Product> search(SearchCondition filter, Pageable pageable) {
+    List<Object> parameters = new ArrayList<>();
+    ProductSearchPlan plan = plans.plan(filter, pageable.getSort(), parameters);
+    TypedQuery<Product> select =
+        bind(entityManager.createQuery(plan.select(), Product.class), parameters);
+    if (pageable.isPaged()) {
+      select.setFirstResult(Math.toIntExact(pageable.getOffset()));
+      select.setMaxResults(pageable.getPageSize());
+    }
+    return PageableExecutionUtils.getPage(
+        select.getResultList(),
+        pageable,
+        () -> (Long) bind(entityManager.createQuery(plan.count()), parameters).getSingleResult());
+  }
+
+  @Override
+  public List<Long> findIdsAfter(SearchCondition filter, long afterId, int limit) {
+    SearchCondition after =
+        new SearchCondition.Comparison(SearchField.ID, SearchOperator.GT, afterId);
+    return ids(filter == null ? after : new SearchCondition.And(List.of(filter, after)), limit);
+  }
+
+  @Override
+  public boolean exists(SearchCondition filter) {
+    return !ids(filter, 1).isEmpty();
+  }
+
+  @Override
+  public long countMatching(SearchCondition filter) {
+    List<Object> parameters = new ArrayList<>();
+    ProductSearchPlan plan = plans.plan(filter, ID_ORDER, parameters);
+    return bind(entityManager.createQuery(plan.count(), Long.class), parameters).getSingleResult();
+  }
+
+  private List<Long> ids(SearchCondition filter, int limit) {
+    List<Object> parameters = new ArrayList<>();
+    ProductSearchPlan plan = plans.plan(filter, ID_ORDER, parameters);
+    return bind(entityManager.createQuery(plan.ids(), Long.class), parameters)
+        .setMaxResults(limit)
+        .getResultList();
+  }
+
+  private static <Q extends Query> Q bind(Q query, List<Object> parameters) {
+    for (int i = 0; i < parameters.size(); i++) {
+      query.setParameter(i + 1, parameters.get(i));
+    }
+    return query;
+  }
+}
@@ -0,0 +1,11 @@
+package com.phoenix.productinventory.repository;
+
+/**
+ * Identity, version and primary category of the product holding a SKU.
+ *
+ * @param sku the stock keeping unit
+ * @param id the product id
+ * @param version the current version of the product
+ * @param categoryId the primary category, or null
+ */
+public record ProductSkuKey(String sku, Long id, Integer version, Long categoryId) {}
@@ -0,0 +1,28 @@
+package com.phoenix.productinventory.repository;
+
+import com.phoenix.productinventory.dto.ProductUpsertDto;
+import java.util.Collection;
+import java.util.List;
+
+/** Inserts or updates products by their SKU with set-based statements. */
+public interface ProductUpsertRepository {
+
+  /**
+   * Selects and write-locks the products holding any of the given SKUs until the end of the
+   * current transaction.
+   *
+   * @param skus the SKUs to look up
+   * @return the keys of the existing products; SKUs without a product are missing
+   */
+  List<ProductSkuKey> lockBySkus(Collection<String> skus);
+
+  /**
+   * Inserts the products whose SKU does not exist yet and updates the others in one {@code MERGE}
+   * statement. Updated products get a new version; a missing description or category keeps the
+   * current one. The persistence context is flushed before and cleared after the statement.
+   *
+   * @param products the products to write, with distinct SKUs
+   * @return the number of inserted or updated rows
+   */
+  int mergeBySku(List<ProductUpsertDto> products);
+}
@@ -0,0 +1,82 @@
+package com.phoenix.productinventory.repository;
+
+import com.phoenix.productinventory.dto.ProductUpsertDto;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import java.util.Collection;
+import java.util.List;
+
+/** Native SQL implementation of {@link ProductUpsertRepository}. */
+class ProductUpsertRepositoryImpl implements ProductUpsertRepository {
+
+  private static final String MERGE_HEAD = "MERGE INTO products t USING (VALUES ";
+
+  private static final String MERGE_TAIL =
+      ") AS s(sku, name, description, price, quantity, category_id) ON t.sku = s.sku"
+          + " WHEN MATCHED THEN UPDATE SET t.name = s.name,"
+          + " t.description = COALESCE(s.description, t.description), t.price = s.price,"
+          + " t.quantity = s.quantity, t.category_id = COALESCE(s.category_id, t.category_id),"
+          + " t.version = t.version + 1"
+          + " WHEN NOT MATCHED THEN INSERT"
+          + " (sku, name, description, price, quantity, category_id, version)"
+          + " VALUES (s.sku, s.name, s.description, s.price, s.quantity, s.category_id, 0)";
+
+  /** Typed placeholders, so that null values in the first row do not leave a column untyped. */
+  private static final String ROW =
+      "(CAST(?%d AS VARCHAR(64)), CAST(?%d AS VARCHAR(100)), CAST(?%d AS VARCHAR(255)),"
+          + " CAST(?%d AS DECIMAL(10, 2)), CAST(?%d AS INT), CAST(?%d AS BIGINT))";
+
+  private static final int COLUMNS = 6;
+
+  @PersistenceContext private EntityManager entityManager;
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public List<ProductSkuKey> lockBySkus(Collection<String> skus) {
+    List<Object[]> rows =
+        entityManager
+            .createNativeQuery(
+                "SELECT sku, id, version, category_id FROM products"
+                    + " WHERE sku IN (:skus) FOR UPDATE")
+            .setParameter("skus", skus)
+            .getResultList();
+    return rows.stream()
+        .map(
+            row ->
+                new ProductSkuKey(
+                    (String) row[0],
+                    ((Number) row[1]).longValue(),
+                    ((Number) row[2]).intValue(),
+                    row[3] == null ? null : ((Number) row[3]).longValue()))
+        .toList();
+  }
+
+  @Override
+  public int mergeBySku(List<ProductUpsertDto> products) {
+    StringBuilder sql = new StringBuilder(MERGE_HEAD);
+    for (int i = 0; i < products.size(); i++) {
+      int first = i * COLUMNS + 1;
+      sql.append(i == 0 ? "" : ", ")
+          .append(
+              ROW.formatted(first, first + 1, first + 2, first + 3, first + 4, first + 5));
+    }
+    sql.append(MERGE_TAIL);
+
+    entityManager.flush();
+    Query query = entityManager.createNativeQuery(sql.toString());
+    int position = 1;
+    for (ProductUpsertDto product : products) {
+      query.setParameter(position++, product.getSku());
+      query.setParameter(position++, product.getName());
+      query.setParameter(position++, product.getDescription());
+      query.setParameter(position++, product.getPrice());
+      query.setParameter(position++, product.getQuantity());
+      query.setParameter(position++, product.getCategoryId());
+    }
+    int merged = query.executeUpdate();
+    // Products loaded before the statement would otherwise keep their old state
+    entityManager.clear();
+    return merged;
+  }
+}
@@ -0,0 +1,50 @@
+package com.phoenix.productinventory.repository;
+
+import com.phoenix.productinventory.dto.ProductRequestDto;
+import com.phoenix.productinventory.model.Product;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Product writes that each take a single statement, returning the affected rows instead of loading
+ * them first. The returned products are detached; none of these methods touch the persistence
+ * context.
+ */
+public interface ProductWriteRepository {
+
+  /**
+   * Applies the non-null fields of a request and increments the version in one statement. If the
+   * request carries a version, only a product with this version is updated.
+   *
+   * @param id the product to update
+   * @param changes the new values; null fields keep the current value
+   * @return the updated product, or empty if it does not exist or has another version
+   */
+  Optional<Product> updateReturning(Long id, ProductRequestDto changes);
+
+  /**
+   * Sets the primary category of a product and increments its version in one statement, without
+   * loading the category. A category that does not exist fails the foreign key.
+   *
+   * @param id the product to update
+   * @param categoryId the new primary category, or null to remove it
+   * @return the updated product and its previous category, or empty if the product does not exist
+   */
+  Optional<ProductCategoryChange> updateCategoryReturning(Long id, Long categoryId);
+
+  /**
+   * Deletes a product in one statement that also returns it.
+   *
+   * @param id the product to delete
+   * @return the deleted product, or empty if it did not exist
+   */
+  Optional<Product> deleteReturning(Long id);
+
+  /**
+   * Deletes the products of a category in one statement that also returns them.
+   *
+   * @param categoryId the primary category of the products to delete
+   * @return the deleted products
+   */
+  List<Product> deleteByCategoryReturning(Long categoryId);
+}
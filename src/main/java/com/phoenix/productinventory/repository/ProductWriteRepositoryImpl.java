@@ -0,0 +1,100 @@
+package com.phoenix.productinventory.repository;
+
+import com.phoenix.productinventory.dto.ProductRequestDto;
+import com.phoenix.productinventory.model.Product;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * H2 implementation of {@link ProductWriteRepository}. Each write is wrapped in a data change delta
+ * table and joined with the categories, so the statement returns the complete rows it changed.
+ */
+class ProductWriteRepositoryImpl implements ProductWriteRepository {
+
+  private static final String UPDATE =
+      "SELECT "
+          + ReturnedRows.PRODUCT_COLUMNS
+          + " FROM FINAL TABLE (UPDATE products SET"
+          + " name = COALESCE(CAST(?1 AS VARCHAR(100)), name),"
+          + " description = COALESCE(CAST(?2 AS VARCHAR(255)), description),"
+          + " price = COALESCE(CAST(?3 AS DECIMAL(10, 2)), price),"
+          + " quantity = COALESCE(CAST(?4 AS INT), quantity),"
+          + " sku = COALESCE(CAST(?5 AS VARCHAR(64)), sku),"
+          + " version = version + 1"
+          + " WHERE id = ?6 AND version = COALESCE(CAST(?7 AS BIGINT), version)) r"
+          + " LEFT JOIN categories c ON c.id = r.category_id";
+
+  /** The old row gives the previous category; the new one is joined by the parameter. */
+  private static final String UPDATE_CATEGORY =
+      "SELECT "
+          + ReturnedRows.PRODUCT_COLUMNS
+          + ", r.category_id FROM OLD TABLE (UPDATE products"
+          + " SET category_id = CAST(?1 AS BIGINT), version = version + 1 WHERE id = ?2) r"
+          + " LEFT JOIN categories c ON c.id = CAST(?1 AS BIGINT)";
+
+  private static final String DELETE =
+      "SELECT "
+          + ReturnedRows.PRODUCT_COLUMNS
+          + " FROM OLD TABLE (DELETE FROM products WHERE id = ?1) r"
+          + " LEFT JOIN categories c ON c.id = r.category_id";
+
+  private static final String DELETE_BY_CATEGORY =
+      "SELECT "
+          + ReturnedRows.PRODUCT_COLUMNS
+          + " FROM OLD TABLE (DELETE FROM products WHERE category_id = ?1) r"
+          + " LEFT JOIN categories c ON c.id = r.category_id";
+
+  @PersistenceContext private EntityManager entityManager;
+
+  @Override
+  public Optional<Product> updateReturning(Long id, ProductRequestDto changes) {
+    return rows(
+            UPDATE,
+            changes.getName(),
+            changes.getDescription(),
+            changes.getPrice(),
+            changes.getQuantity(),
+            changes.getSku(),
+            id,
+            changes.getVersion())
+        .stream()
+        .findFirst()
+        .map(ReturnedRows::product);
+  }
+
+  @Override
+  public Optional<ProductCategoryChange> updateCategoryReturning(Long id, Long categoryId) {
+    return rows(UPDATE_CATEGORY, categoryId, id).stream()
+        .findFirst()
+        .map(
+            row -> {
+              // The old row carries the version before the increment
+              Product product = ReturnedRows.product(row);
+              product.setVersion(product.getVersion() + 1);
+              return new ProductCategoryChange(
+                  product, ReturnedRows.toLong(row[ReturnedRows.PRODUCT_COLUMN_COUNT]));
+            });
+  }
+
+  @Override
+  public Optional<Product> deleteReturning(Long id) {
+    return rows(DELETE, id).stream().findFirst().map(ReturnedRows::product);
+  }
+
+  @Override
+  public List<Product> deleteByCategoryReturning(Long categoryId) {
+    return rows(DELETE_BY_CATEGORY, categoryId).stream().map(ReturnedRows::product).toList();
+  }
+
+  @SuppressWarnings("unchecked")
+  private List<Object[]> rows(String sql, Object... parameters) {
+    Query query = entityManager.createNativeQuery(sql);
+    for (int i = 0; i < parameters.length; i++) {
+      query.setParameter(i + 1, parameters[i]);
+    }
+    return query.getResultList();
+  }
+}
@@ -0,0 +1,65 @@
+package com.phoenix.productinventory.repository;
+
+import com.phoenix.productinventory.model.ReorderThreshold;
+import java.util.Collection;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+/** Repository interface for the reorder thresholds of products and categories. */
+@Repository
+public interface ReorderThresholdRepository extends JpaRepository<ReorderThreshold, Long> {
+
+  /**
+   * Loads the threshold of a product.
+   *
+   * @param productId the product
+   * @return the threshold, or empty if the product has none of its own
+   */
+  Optional<ReorderThreshold> findByProductId(Long productId);
+
+  /**
+   * Loads the threshold of a category.
+   *
+   * @param categoryId the category
+   * @return the threshold, or empty if the category has none
+   */
+  Optional<ReorderThreshold> findByCategoryId(Long categoryId);
+
+  /**
+   * Removes the threshold of a product.
+   *
+   * @param productId the product
+   * @return the number of removed thresholds
+   */
+  @Transactional
+  @Modifying
+  @Query("delete from ReorderThreshold t where t.productId = :productId")
+  int deleteByProductId(@Param("productId") Long productId);
+
+  /**
+   * Removes the thresholds of several products.
+   *
+   * @param productIds the products
+   * @return the number of removed thresholds
+   */
+  @Transactional
+  @Modifying
+  @Query("delete from ReorderThreshold t where t.productId in :productIds")
+  int deleteByProductIdIn(@Param("productIds") Collection<Long> productIds);
+
+  /**
+   * Removes the threshold of a category.
+   *
+   * @param categoryId the category
+   * @return the number of removed thresholds
+   */
+  @Transactional
+  @Modifying
+  @Query("delete from ReorderThreshold t where t.categoryId = :categoryId")
+  int deleteByCategoryId(@Param("categoryId") Long categoryId);
+}
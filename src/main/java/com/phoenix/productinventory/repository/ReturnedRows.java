@@ -0,0 +1,69 @@
+package com.phoenix.productinventory.repository;
+
+import com.phoenix.productinventory.model.Category;
+import com.phoenix.productinventory.model.Product;
+import java.math.BigDecimal;
+
+/**
+ * Builds detached entities from the rows returned by the data change delta tables ({@code FINAL
+ * TABLE (UPDATE ...)}, {@code OLD TABLE (DELETE ...)}) of the single-statement writes.
+ */
+final class ReturnedRows {
+
+  /** Category columns of a row aliased {@code r}, as read by {@link #category}. */
+  static final String CATEGORY_COLUMNS = "r.id, r.name, r.description, r.parent_id, r.version";
+
+  /**
+   * Product columns of a row aliased {@code r} joined with its category aliased {@code c}, as read
+   * by {@link #product}.
+   */
+  static final String PRODUCT_COLUMNS =
+      "r.id, r.name, r.description, r.price, r.quantity, r.version, r.sku,"
+          + " c.id, c.name, c.description, c.parent_id, c.version";
+
+  /** Number of columns in {@link #PRODUCT_COLUMNS}. */
+  static final int PRODUCT_COLUMN_COUNT = 12;
+
+  private ReturnedRows() {}
+
+  /**
+   * Reads a product and its category.
+   *
+   * @param row the columns of {@link #PRODUCT_COLUMNS}
+   * @return the product, with a null category if the category columns are null
+   */
+  static Product product(Object[] row) {
+    return Product.builder()
+        .id(toLong(row[0]))
+        .name((String) row[1])
+        .description((String) row[2])
+        .price((BigDecimal) row[3])
+        .quantity(((Number) row[4]).intValue())
+        .version(((Number) row[5]).intValue())
+        .sku((String) row[6])
+        .category(row[7] == null ? null : category(row, 7))
+        .build();
+  }
+
+  /**
+   * Reads a category.
+   *
+   * @param row the columns of {@link #CATEGORY_COLUMNS}, starting at {@code offset}
+   * @param offset the index of the id column
+   * @return the category; its parent only carries the id
+   */
+  static Category category(Object[] row, int offset) {
+    Long parentId = toLong(row[offset + 3]);
+    return Category.builder()
+        .id(toLong(row[offset]))
+        .name((String) row[offset + 1])
+        .description((String) row[offset + 2])
+        .parent(parentId == null ? null : Category.builder().id(parentId).build())
+        .version(toLong(row[offset + 4]))
+        .build();
+  }
+
+  static Long toLong(Object value) {
+    return value == null ? null : ((Number) value).longValue();
+  }
+}
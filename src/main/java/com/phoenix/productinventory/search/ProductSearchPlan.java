@@ -0,0 +1,10 @@
+package com.phoenix.productinventory.search;
+
+/**
+ * Compiled product search: the JPQL of one filter shape and sort order, with numbered parameters.
+ *
+ * @param select the query loading a page of products with their categories
+ * @param count the query counting all matching products
+ * @param ids the query selecting the ids of the matching products in the sort order
+ */
+public record ProductSearchPlan(String select, String count, String ids) {}
@@ -0,0 +1,112 @@
+package com.phoenix.productinventory.search;
+
+import com.phoenix.productinventory.cache.LruCache;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+/**
+ * Compiles product searches to JPQL once per filter shape and sort order.
+ *
+ * <p>A search only renders the shape of its filter and collects its values; the JPQL of the page
+ * and count queries is built on the first search of a shape and reused afterwards. Because the
+ * query text of a shape never changes, Hibernate also finds its translation to SQL in its own
+ * query plan cache, and the database sees the same prepared statement, instead of a new criteria
+ * tree being built and translated for every request.
+ *
+ * <p>At most {@code search.plan-cache-size} shapes are kept; the least recently used ones are
+ * dropped first.
+ *
+ * <p>Hits, misses and the number of cached shapes are published as {@code
+ * product.search.plan.cache.hits}, {@code product.search.plan.cache.misses} and {@code
+ * product.search.plan.cache.size}.
+ */
+@Component
+@EnableConfigurationProperties(ProductSearchProperties.class)
+public class ProductSearchPlanCache implements MeterBinder {
+
+  private static final String FROM = " from Product p";
+
+  private final LruCache<String, ProductSearchPlan> plans;
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+
+  public ProductSearchPlanCache(ProductSearchProperties properties) {
+    this.plans = new LruCache<>(properties.planCacheSize());
+  }
+
+  /**
+   * Returns the compiled queries of a search and collects the values to bind.
+   *
+   * @param filter the normalized filter, or null to match all products
+   * @param sort the sort order; only sortable {@link SearchField} names are allowed
+   * @param parameters the list receiving the values for the numbered parameters, starting at 1
+   * @return the compiled queries
+   * @throws IllegalArgumentException if the sort uses a property that is not sortable
+   */
+  public ProductSearchPlan plan(SearchCondition filter, Sort sort, List<Object> parameters) {
+    StringBuilder shape = new StringBuilder();
+    if (filter != null) {
+      filter.appendTo(shape, parameters);
+    }
+    String where = shape.toString();
+    String key = shape.append(" | ").append(sort).toString();
+    ProductSearchPlan plan = plans.get(key);
+    if (plan != null) {
+      hits.increment();
+      return plan;
+    }
+    misses.increment();
+    plan = compile(where, sort);
+    plans.put(key, plan);
+    return plan;
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    FunctionCounter.builder("product.search.plan.cache.hits", hits, LongAdder::sum)
+        .description("Product searches whose shape was already compiled")
+        .register(registry);
+    FunctionCounter.builder("product.search.plan.cache.misses", misses, LongAdder::sum)
+        .description("Product searches that compiled a new shape")
+        .register(registry);
+    Gauge.builder("product.search.plan.cache.size", plans, LruCache::size)
+        .description("Compiled product search shapes")
+        .register(registry);
+  }
+
+  private static ProductSearchPlan compile(String shape, Sort sort) {
+    StringBuilder where = new StringBuilder();
+    int parameter = 0;
+    for (int i = 0; i < shape.length(); i++) {
+      char c = shape.charAt(i);
+      where.append(c);
+      if (c == '?') {
+        where.append(++parameter);
+      }
+    }
+    if (!where.isEmpty()) {
+      where.insert(0, " where ");
+    }
+    StringBuilder orderBy = new StringBuilder();
+    for (Sort.Order order : sort) {
+      SearchField field =
+          SearchField.byName(order.getProperty())
+              .filter(SearchField::isSortable)
+              .orElseThrow(
+                  () -> new IllegalArgumentException("Cannot sort by " + order.getProperty()));
+      orderBy.append(orderBy.isEmpty() ? " order by " : ", ").append(field.getPath());
+      orderBy.append(order.isAscending() ? " asc" : " desc");
+    }
+    return new ProductSearchPlan(
+        "select p" + FROM + " left join fetch p.category" + where + orderBy,
+        "select count(p)" + FROM + where,
+        "select p.id" + FROM + where + orderBy);
+  }
+}
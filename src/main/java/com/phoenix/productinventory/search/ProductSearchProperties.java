@@ -0,0 +1,13 @@
+package com.phoenix.productinventory.search;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Configuration of product searches ({@code POST /products/search}).
+ *
+ * @param planCacheSize number of compiled query shapes kept; beyond it the least recently used are
+ *     dropped
+ */
+@ConfigurationProperties(prefix = "search")
+public record ProductSearchProperties(@DefaultValue("500") int planCacheSize) {}
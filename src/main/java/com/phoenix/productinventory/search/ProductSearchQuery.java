@@ -0,0 +1,274 @@
+package com.phoenix.productinventory.search;
+
+import com.phoenix.productinventory.dto.ProductSearchDto;
+import com.phoenix.productinventory.dto.SearchConditionDto;
+import com.phoenix.productinventory.dto.SearchSortDto;
+import com.phoenix.productinventory.exception.BadRequestException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Stream;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+/**
+ * Product search parsed from the search DSL: a normalized filter and the requested page.
+ *
+ * <p>Normalization makes equivalent filters share a shape: nested {@code and}s and {@code or}s are
+ * flattened, double negations removed, single-element combinations and {@code in} lists unwrapped,
+ * and the operands of {@code and} and {@code or} ordered by their shape.
+ *
+ * @param filter the normalized filter, or null to match all products
+ * @param pageable the page, sorted as requested and then by id
+ */
+public record ProductSearchQuery(SearchCondition filter, Pageable pageable) {
+
+  static final int DEFAULT_PAGE_SIZE = 20;
+  static final int MAX_PAGE_SIZE = 2000;
+  static final int MAX_CONDITIONS = 100;
+  static final int MAX_VALUES = 1000;
+
+  /**
+   * Validates and normalizes a search.
+   *
+   * @param search the search as sent by the client
+   * @return the query to run
+   * @throws BadRequestException if the search is malformed, uses an unknown field or an operator
+   *     the field does not support, has a value of the wrong type or exceeds the size limits
+   */
+  public static ProductSearchQuery of(ProductSearchDto search) {
+    if (search == null) {
+      throw new BadRequestException("A search is required");
+    }
+    int page = search.getPage() == null ? 0 : search.getPage();
+    int size = search.getSize() == null ? DEFAULT_PAGE_SIZE : search.getSize();
+    if (page < 0 || size < 1 || size > MAX_PAGE_SIZE) {
+      throw new BadRequestException(
+          "Page must not be negative and size must be between 1 and " + MAX_PAGE_SIZE);
+    }
+    return new ProductSearchQuery(
+        filter(search.getFilter()), PageRequest.of(page, size, sort(search.getSort())));
+  }
+
+  /**
+   * Validates and normalizes a filter on its own, e.g. the filter of a bulk update job.
+   *
+   * @param filter the filter as sent by the client, or null
+   * @return the normalized filter, or null to match all products
+   * @throws BadRequestException if the filter is malformed
+   */
+  public static SearchCondition filter(SearchConditionDto filter) {
+    return filter == null ? null : normalize(parse(filter, new int[1]));
+  }
+
+  private static Sort sort(List<SearchSortDto> keys) {
+    List<Sort.Order> orders = new ArrayList<>();
+    Set<SearchField> seen = new HashSet<>();
+    for (SearchSortDto key : keys == null ? List.<SearchSortDto>of() : keys) {
+      SearchField field =
+          SearchField.byName(key.getField())
+              .filter(SearchField::isSortable)
+              .orElseThrow(() -> new BadRequestException("Cannot sort by " + key.getField()));
+      if (!seen.add(field)) {
+        throw new BadRequestException("Sorted by " + key.getField() + " more than once");
+      }
+      String direction =
+          key.getDirection() == null ? "asc" : key.getDirection().toLowerCase(Locale.ROOT);
+      switch (direction) {
+        case "asc" -> orders.add(Sort.Order.asc(field.getName()));
+        case "desc" -> orders.add(Sort.Order.desc(field.getName()));
+        default -> throw new BadRequestException("Unknown sort direction: " + key.getDirection());
+      }
+    }
+    if (!seen.contains(SearchField.ID)) {
+      orders.add(Sort.Order.asc(SearchField.ID.getName()));
+    }
+    return Sort.by(orders);
+  }
+
+  private static SearchCondition parse(SearchConditionDto node, int[] count) {
+    if (node == null) {
+      throw new BadRequestException("Search conditions must not be null");
+    }
+    if (++count[0] > MAX_CONDITIONS) {
+      throw new BadRequestException("A search has at most " + MAX_CONDITIONS + " conditions");
+    }
+    long kinds =
+        Stream.of(node.getAnd(), node.getOr(), node.getNot(), node.getField())
+            .filter(Objects::nonNull)
+            .count();
+    if (kinds != 1 || (node.getField() == null && hasOperator(node))) {
+      throw new BadRequestException(
+          "A search condition needs exactly one of and, or, not and field, "
+              + "and operators only go with a field");
+    }
+    if (node.getAnd() != null) {
+      return new SearchCondition.And(parseAll(node.getAnd(), "and", count));
+    }
+    if (node.getOr() != null) {
+      return new SearchCondition.Or(parseAll(node.getOr(), "or", count));
+    }
+    if (node.getNot() != null) {
+      return new SearchCondition.Not(parse(node.getNot(), count));
+    }
+
+    SearchField field =
+        SearchField.byName(node.getField())
+            .orElseThrow(() -> new BadRequestException("Unknown search field: " + node.getField()));
+    List<SearchCondition> tests = new ArrayList<>();
+    addTest(tests, field, SearchOperator.EQ, node.getEq());
+    addTest(tests, field, SearchOperator.IN, node.getIn());
+    addTest(tests, field, SearchOperator.GT, node.getGt());
+    addTest(tests, field, SearchOperator.GTE, node.getGte());
+    addTest(tests, field, SearchOperator.LT, node.getLt());
+    addTest(tests, field, SearchOperator.LTE, node.getLte());
+    addTest(tests, field, SearchOperator.CONTAINS, node.getContains());
+    addTest(tests, field, SearchOperator.IS_NULL, node.getIsNull());
+    if (tests.isEmpty()) {
+      throw new BadRequestException("The condition on " + field.getName() + " has no operator");
+    }
+    return tests.size() == 1 ? tests.get(0) : new SearchCondition.And(tests);
+  }
+
+  private static List<SearchCondition> parseAll(
+      List<SearchConditionDto> nodes, String operator, int[] count) {
+    if (nodes.isEmpty()) {
+      throw new BadRequestException("'" + operator + "' needs at least one condition");
+    }
+    List<SearchCondition> conditions = new ArrayList<>(nodes.size());
+    for (SearchConditionDto node : nodes) {
+      conditions.add(parse(node, count));
+    }
+    return conditions;
+  }
+
+  private static boolean hasOperator(SearchConditionDto node) {
+    return Stream.of(
+            node.getEq(),
+            node.getIn(),
+            node.getGt(),
+            node.getGte(),
+            node.getLt(),
+            node.getLte(),
+            node.getContains(),
+            node.getIsNull())
+        .anyMatch(Objects::nonNull);
+  }
+
+  private static void addTest(
+      List<SearchCondition> tests, SearchField field, SearchOperator operator, Object operand) {
+    if (operand == null) {
+      return;
+    }
+    if (!field.supports(operator)) {
+      throw new BadRequestException(
+          "Field " + field.getName() + " does not support " + operator.getName());
+    }
+    Object value =
+        switch (operator) {
+          case IN -> values(field, (List<?>) operand);
+          case CONTAINS -> containsPattern(field, (String) operand);
+          case IS_NULL -> operand;
+          default -> convert(field, operand);
+        };
+    if (value instanceof List<?> list && list.size() == 1) {
+      tests.add(new SearchCondition.Comparison(field, SearchOperator.EQ, list.get(0)));
+    } else {
+      tests.add(new SearchCondition.Comparison(field, operator, value));
+    }
+  }
+
+  private static List<Object> values(SearchField field, List<?> operands) {
+    if (operands.isEmpty() || operands.size() > MAX_VALUES) {
+      throw new BadRequestException(
+          "'in' on " + field.getName() + " needs between 1 and " + MAX_VALUES + " values");
+    }
+    List<Object> values = new ArrayList<>(operands.size());
+    for (Object operand : operands) {
+      values.add(convert(field, operand));
+    }
+    return values;
+  }
+
+  private static String containsPattern(SearchField field, String text) {
+    if (text.isEmpty()) {
+      throw new BadRequestException("'contains' on " + field.getName() + " needs a text");
+    }
+    String escaped =
+        text.toLowerCase(Locale.ROOT)
+            .replace("\\", "\\\\")
+            .replace("%", "\\%")
+            .replace("_", "\\_");
+    return "%" + escaped + "%";
+  }
+
+  private static Object convert(SearchField field, Object operand) {
+    if (field.getType() == String.class && operand instanceof String text) {
+      return text;
+    }
+    if (field.getType() != String.class && operand instanceof Number number) {
+      try {
+        BigDecimal decimal = new BigDecimal(number.toString());
+        if (field.getType() == BigDecimal.class) {
+          return decimal;
+        }
+        BigInteger integer = decimal.toBigIntegerExact();
+        if (field.getType() == Integer.class) {
+          return integer.intValueExact();
+        }
+        return integer.longValueExact();
+      } catch (ArithmeticException | NumberFormatException e) {
+        // Not a number of the field's type, reported below
+      }
+    }
+    throw new BadRequestException("Invalid value for " + field.getName() + ": " + operand);
+  }
+
+  private static SearchCondition normalize(SearchCondition condition) {
+    return switch (condition) {
+      case SearchCondition.And and -> {
+        List<SearchCondition> operands = new ArrayList<>();
+        for (SearchCondition operand : and.conditions()) {
+          SearchCondition normalized = normalize(operand);
+          if (normalized instanceof SearchCondition.And nested) {
+            operands.addAll(nested.conditions());
+          } else {
+            operands.add(normalized);
+          }
+        }
+        yield operands.size() == 1 ? operands.get(0) : new SearchCondition.And(ordered(operands));
+      }
+      case SearchCondition.Or or -> {
+        List<SearchCondition> operands = new ArrayList<>();
+        for (SearchCondition operand : or.conditions()) {
+          SearchCondition normalized = normalize(operand);
+          if (normalized instanceof SearchCondition.Or nested) {
+            operands.addAll(nested.conditions());
+          } else {
+            operands.add(normalized);
+          }
+        }
+        yield operands.size() == 1 ? operands.get(0) : new SearchCondition.Or(ordered(operands));
+      }
+      case SearchCondition.Not not -> {
+        SearchCondition operand = normalize(not.condition());
+        yield operand instanceof SearchCondition.Not inner
+            ? inner.condition()
+            : new SearchCondition.Not(operand);
+      }
+      case SearchCondition.Comparison comparison -> comparison;
+    };
+  }
+
+  /** Orders the operands of a commutative combination by shape, so their order does not matter. */
+  private static List<SearchCondition> ordered(List<SearchCondition> operands) {
+    return operands.stream().sorted(Comparator.comparing(SearchCondition::shape)).toList();
+  }
+}
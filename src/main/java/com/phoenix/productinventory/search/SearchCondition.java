@@ -0,0 +1,131 @@
+package com.phoenix.productinventory.search;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Validated, normalized filter of a product search.
+ *
+ * <p>A condition renders to a JPQL predicate on the product alias {@code p} with a {@code ?} in
+ * place of every value. That text is the shape of the condition: conditions differing only in
+ * their values have the same shape and share one compiled query.
+ */
+public sealed interface SearchCondition {
+
+  /**
+   * Appends the shape of the condition to a JPQL buffer and its values, in the order of their
+   * placeholders, to a parameter list.
+   *
+   * @param jpql the buffer receiving the predicate
+   * @param parameters the list receiving the values
+   */
+  void appendTo(StringBuilder jpql, List<Object> parameters);
+
+  /**
+   * Renders the shape of the condition on its own.
+   *
+   * @return the predicate with placeholders
+   */
+  default String shape() {
+    StringBuilder jpql = new StringBuilder();
+    appendTo(jpql, new ArrayList<>());
+    return jpql.toString();
+  }
+
+  /**
+   * Conditions that must all hold.
+   *
+   * @param conditions at least two conditions
+   */
+  record And(List<SearchCondition> conditions) implements SearchCondition {
+
+    @Override
+    public void appendTo(StringBuilder jpql, List<Object> parameters) {
+      appendJoined(conditions, " and ", jpql, parameters);
+    }
+  }
+
+  /**
+   * Conditions of which at least one must hold.
+   *
+   * @param conditions at least two conditions
+   */
+  record Or(List<SearchCondition> conditions) implements SearchCondition {
+
+    @Override
+    public void appendTo(StringBuilder jpql, List<Object> parameters) {
+      appendJoined(conditions, " or ", jpql, parameters);
+    }
+  }
+
+  /**
+   * Condition that must not hold. As in SQL, a test of a null property holds neither way.
+   *
+   * @param condition the negated condition
+   */
+  record Not(SearchCondition condition) implements SearchCondition {
+
+    @Override
+    public void appendTo(StringBuilder jpql, List<Object> parameters) {
+      jpql.append("not (");
+      condition.appendTo(jpql, parameters);
+      jpql.append(')');
+    }
+  }
+
+  /**
+   * Test of one field.
+   *
+   * @param field the tested field
+   * @param operator the test
+   * @param value the operand, converted to the type of the field; a list for {@link
+   *     SearchOperator#IN}, a {@code like} pattern for {@link SearchOperator#CONTAINS} and a
+   *     boolean for {@link SearchOperator#IS_NULL}
+   */
+  record Comparison(SearchField field, SearchOperator operator, Object value)
+      implements SearchCondition {
+
+    @Override
+    public void appendTo(StringBuilder jpql, List<Object> parameters) {
+      if (operator == SearchOperator.IS_NULL) {
+        jpql.append(field.getPath())
+            .append(Boolean.TRUE.equals(value) ? " is null" : " is not null");
+        return;
+      }
+      parameters.add(value);
+      if (field == SearchField.UNDER_CATEGORY_ID) {
+        jpql.append(field.getPath())
+            .append(" in (select c.descendantId from CategoryClosure c where c.ancestorId ")
+            .append(operator == SearchOperator.IN ? "in ?" : "= ?")
+            .append(')');
+        return;
+      }
+      switch (operator) {
+        case EQ -> jpql.append(field.getPath()).append(" = ?");
+        case IN -> jpql.append(field.getPath()).append(" in ?");
+        case GT -> jpql.append(field.getPath()).append(" > ?");
+        case GTE -> jpql.append(field.getPath()).append(" >= ?");
+        case LT -> jpql.append(field.getPath()).append(" < ?");
+        case LTE -> jpql.append(field.getPath()).append(" <= ?");
+        case CONTAINS ->
+            jpql.append("lower(").append(field.getPath()).append(") like ? escape '\\'");
+        default -> throw new IllegalStateException("Unexpected operator " + operator);
+      }
+    }
+  }
+
+  private static void appendJoined(
+      List<SearchCondition> conditions,
+      String operator,
+      StringBuilder jpql,
+      List<Object> parameters) {
+    jpql.append('(');
+    for (int i = 0; i < conditions.size(); i++) {
+      if (i > 0) {
+        jpql.append(operator);
+      }
+      conditions.get(i).appendTo(jpql, parameters);
+    }
+    jpql.append(')');
+  }
+}
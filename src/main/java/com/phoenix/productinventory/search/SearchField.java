@@ -0,0 +1,79 @@
+package com.phoenix.productinventory.search;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * Product property that can be tested in a product search, with the operators it supports.
+ *
+ * <p>Sortable fields use their name as the sort property, which is also the property of the
+ * product entity and of its response document.
+ */
+public enum SearchField {
+  ID("id", "p.id", Long.class),
+  NAME("name", "p.name", String.class),
+  DESCRIPTION("description", "p.description", String.class),
+  PRICE("price", "p.price", BigDecimal.class),
+  QUANTITY("quantity", "p.quantity", Integer.class),
+  SKU("sku", "p.sku", String.class),
+  /** Primary category of the product. */
+  CATEGORY_ID("categoryId", "p.category.id", Long.class),
+  /** Primary category of the product or any of its ancestors, through the closure table. */
+  UNDER_CATEGORY_ID("underCategoryId", "p.category.id", Long.class);
+
+  private final String name;
+  private final String path;
+  private final Class<?> type;
+
+  SearchField(String name, String path, Class<?> type) {
+    this.name = name;
+    this.path = path;
+    this.type = type;
+  }
+
+  /**
+   * Looks a field up by its name in the search DSL.
+   *
+   * @param name the field name, e.g. {@code price}
+   * @return the field, or empty if there is none with that name
+   */
+  public static Optional<SearchField> byName(String name) {
+    return Arrays.stream(values()).filter(field -> field.name.equals(name)).findFirst();
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * Returns the JPQL path of the property, relative to the product alias {@code p}.
+   *
+   * @return the path, e.g. {@code p.category.id}
+   */
+  public String getPath() {
+    return path;
+  }
+
+  /**
+   * Returns the Java type values of the field are converted to before they are bound.
+   *
+   * @return one of {@link Long}, {@link Integer}, {@link BigDecimal} and {@link String}
+   */
+  public Class<?> getType() {
+    return type;
+  }
+
+  public boolean isSortable() {
+    return this == ID || this == NAME || this == PRICE || this == QUANTITY || this == SKU;
+  }
+
+  public boolean supports(SearchOperator operator) {
+    return switch (operator) {
+      case EQ, IN -> true;
+      case GT, GTE, LT, LTE -> this == ID || this == PRICE || this == QUANTITY;
+      case CONTAINS -> type == String.class;
+      case IS_NULL -> this == DESCRIPTION || this == SKU || this == CATEGORY_ID;
+    };
+  }
+}
@@ -0,0 +1,28 @@
+package com.phoenix.productinventory.search;
+
+/** Test applied to a {@link SearchField} by a product search condition. */
+public enum SearchOperator {
+  EQ("eq"),
+  IN("in"),
+  GT("gt"),
+  GTE("gte"),
+  LT("lt"),
+  LTE("lte"),
+  CONTAINS("contains"),
+  IS_NULL("isNull");
+
+  private final String name;
+
+  SearchOperator(String name) {
+    this.name = name;
+  }
+
+  /**
+   * Returns the name of the operator in the search DSL.
+   *
+   * @return the property name used in search conditions
+   */
+  public String getName() {
+    return name;
+  }
+}
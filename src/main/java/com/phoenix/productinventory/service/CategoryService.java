@@ -1,9 +1,14 @@
 package com.phoenix.productinventory.service;
 
+import com.phoenix.productinventory.dto.CategoryNodeDto;
 import com.phoenix.productinventory.dto.CategoryRequestDto;
 import com.phoenix.productinventory.dto.CategoryResponseDto;
+import com.phoenix.productinventory.exception.BadRequestException;
 import com.phoenix.productinventory.exception.ResourceNotFoundException;
 import com.phoenix.productinventory.model.Category;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -12,15 +17,17 @@ import org.springframework.data.jpa.domain.Specification;
 /** Service interface for managing categories. */
 public interface CategoryService {
   /**
-   * Creates a new category.
+   * Creates a new category, below the requested parent if any.
    *
    * @param requestDto The category details
    * @return The created category
+   * @throws ResourceNotFoundException If the requested parent does not exist.
    */
   CategoryResponseDto createCategory(CategoryRequestDto requestDto);
 
   /**
-   * Retrieves a paginated list of categories matching the given filters.
+   * Retrieves a paginated list of categories matching the given filters, with the product count
+   * of every category on the page computed by one grouped query.
    *
    * @param spec Specification for filtering categories (can be null).
    * @param pageable Pagination and sorting information.
@@ -29,7 +36,7 @@ public interface CategoryService {
   Page<CategoryResponseDto> getAllCategories(Specification<Category> spec, Pageable pageable);
 
   /**
-   * Retrieves a category by its ID.
+   * Retrieves a category by its ID together with its product count.
    *
    * @param id The category ID.
    * @return The category if found.
@@ -44,7 +51,8 @@ public interface CategoryService {
    * @param requestDto The new details for the category.
    * @return The updated category.
    * @throws ResourceNotFoundException If no category with the given ID exists.
-   * @throws OptimisticLockingFailureException If concurrent modification is detected.
+   * @throws OptimisticLockingFailureException If the request carries a version and the category
+   *     has another one.
    */
   CategoryResponseDto updateCategory(Long id, CategoryRequestDto requestDto);
 
@@ -53,9 +61,57 @@ public interface CategoryService {
    *
    * @param id The category ID.
    * @throws ResourceNotFoundException If no category with the given ID exists.
+   * @throws BadRequestException If the category has subcategories.
    */
   void deleteCategory(Long id);
 
+  /**
+   * Moves a category together with all of its descendants.
+   *
+   * @param id The category to move.
+   * @param parentId The new parent, or null to make the category top-level.
+   * @return The moved category.
+   * @throws ResourceNotFoundException If either category does not exist.
+   * @throws BadRequestException If the new parent lies in the subtree of the moved category.
+   */
+  CategoryResponseDto moveCategory(Long id, Long parentId);
+
+  /**
+   * Lists a category and its descendants with the number of products in each of their subtrees.
+   *
+   * @param id The root of the subtree.
+   * @param maxDepth The deepest level to list relative to the root, or null for the whole subtree.
+   * @return The categories ordered by depth and name, starting with the root.
+   * @throws ResourceNotFoundException If no category with the given ID exists.
+   * @throws BadRequestException If the maximum depth is negative.
+   */
+  List<CategoryNodeDto> getSubtree(Long id, Integer maxDepth);
+
+  /**
+   * Retrieves several categories with one query, without their product counts.
+   *
+   * @param ids the IDs of the categories
+   * @return the existing categories in no particular order; unknown IDs are skipped
+   */
+  List<CategoryResponseDto> getCategoriesByIds(Collection<Long> ids);
+
+  /**
+   * Retrieves the direct subcategories of several categories with one query, without their
+   * product counts.
+   *
+   * @param parentIds the IDs of the parent categories
+   * @return the subcategories ordered by ID
+   */
+  List<CategoryResponseDto> getSubcategories(Collection<Long> parentIds);
+
+  /**
+   * Counts the products of several categories with one query.
+   *
+   * @param ids the IDs of the categories
+   * @return the number of products whose primary category it is, for each of the given IDs
+   */
+  Map<Long, Long> countProducts(Collection<Long> ids);
+
   /**
    * Retrieves a category entity by its ID.
    *
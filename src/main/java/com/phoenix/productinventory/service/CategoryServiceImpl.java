@@ -1,11 +1,28 @@
 package com.phoenix.productinventory.service;
 
+import com.phoenix.productinventory.dto.CategoryNodeDto;
 import com.phoenix.productinventory.dto.CategoryRequestDto;
 import com.phoenix.productinventory.dto.CategoryResponseDto;
+import com.phoenix.productinventory.exception.BadRequestException;
 import com.phoenix.productinventory.exception.ResourceNotFoundException;
 import com.phoenix.productinventory.mapper.CategoryMapper;
+import com.phoenix.productinventory.membership.CategoryMembershipIndex;
 import com.phoenix.productinventory.model.Category;
+import com.phoenix.productinventory.model.Product;
+import com.phoenix.productinventory.outbox.ChangeType;
+import com.phoenix.productinventory.outbox.OutboxService;
+import com.phoenix.productinventory.repository.CategoryClosureRepository;
+import com.phoenix.productinventory.repository.CategoryProductCount;
 import com.phoenix.productinventory.repository.CategoryRepository;
+import com.phoenix.productinventory.repository.ProductRepository;
+import com.phoenix.productinventory.repository.ReorderThresholdRepository;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
@@ -22,21 +39,62 @@ public class CategoryServiceImpl implements CategoryService {
   private static final String CATEGORY_NOT_FOUND = "Category not found with id %s";
 
   private final CategoryRepository repository;
+  private final CategoryClosureRepository closureRepository;
   private final CategoryMapper mapper;
+  private final OutboxService outbox;
+  private final CategoryMembershipIndex membershipIndex;
+  private final ProductRepository productRepository;
+  private final ReorderThresholdRepository thresholdRepository;
 
   @Override
   @Transactional
   public CategoryResponseDto createCategory(CategoryRequestDto categoryDto) {
     Category category = mapper.toEntity(categoryDto);
+    if (categoryDto.getParentId() != null) {
+      category.setParent(getCategoryEntityById(categoryDto.getParentId()));
+    }
     Category saved = repository.save(category);
+    closureRepository.insertLeaf(saved.getId(), categoryDto.getParentId());
+    outbox.record(ChangeType.CREATED, saved);
     return mapper.toDto(saved);
   }
 
+  /**
+   * Creates a category under the id it already got in another database. Used to copy categories to
+   * every shard of the sharded catalog, so it is not part of {@link CategoryService}.
+   *
+   * @param id the id of the category
+   * @param categoryDto the category to create
+   * @return the created category
+   */
+  @Transactional
+  public CategoryResponseDto createCategory(Long id, CategoryRequestDto categoryDto) {
+    if (categoryDto.getParentId() != null) {
+      getCategoryEntityById(categoryDto.getParentId());
+    }
+    Category created = repository.insertReturning(id, categoryDto);
+    closureRepository.insertLeaf(id, categoryDto.getParentId());
+    outbox.record(ChangeType.CREATED, created);
+    return mapper.toDto(created);
+  }
+
   @Override
   @Transactional(readOnly = true)
   public Page<CategoryResponseDto> getAllCategories(
       Specification<Category> spec, Pageable pageable) {
-    return repository.findAll(spec, pageable).map(mapper::toDto);
+    Page<CategoryResponseDto> page = repository.findAll(spec, pageable).map(mapper::toDto);
+    if (page.hasContent()) {
+      Map<Long, Long> productCounts =
+          productRepository
+              .countByCategoryIds(page.map(CategoryResponseDto::getId).getContent())
+              .stream()
+              .collect(
+                  Collectors.toMap(
+                      CategoryProductCount::categoryId, CategoryProductCount::productCount));
+      page.forEach(
+          category -> category.setProductCount(productCounts.getOrDefault(category.getId(), 0L)));
+    }
+    return page;
   }
 
   @Override
@@ -47,36 +105,118 @@ public class CategoryServiceImpl implements CategoryService {
             .findById(id)
             .orElseThrow(
                 () -> new ResourceNotFoundException(String.format(CATEGORY_NOT_FOUND, id)));
-    return mapper.toDto(category);
+    CategoryResponseDto dto = mapper.toDto(category);
+    dto.setProductCount(productRepository.countByCategoryId(id));
+    return dto;
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public List<CategoryResponseDto> getCategoriesByIds(Collection<Long> ids) {
+    return mapper.toDtoList(repository.findAllById(ids));
   }
 
+  @Override
+  @Transactional(readOnly = true)
+  public List<CategoryResponseDto> getSubcategories(Collection<Long> parentIds) {
+    return mapper.toDtoList(repository.findByParentIdInOrderById(parentIds));
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public Map<Long, Long> countProducts(Collection<Long> ids) {
+    Map<Long, Long> productCounts = new HashMap<>();
+    ids.forEach(id -> productCounts.put(id, 0L));
+    productRepository
+        .countByCategoryIds(ids)
+        .forEach(count -> productCounts.put(count.categoryId(), count.productCount()));
+    return productCounts;
+  }
+
+  /**
+   * One statement updates the category and returns its new state; only a failed update of a
+   * category with an expected version costs a second one to tell a conflict from a missing
+   * category.
+   */
   @Override
   @Transactional
   public CategoryResponseDto updateCategory(Long id, CategoryRequestDto categoryDto) {
-    Category existingCategory =
-        repository
-            .findById(id)
-            .orElseThrow(
-                () -> new ResourceNotFoundException(String.format(CATEGORY_NOT_FOUND, id)));
-
-    try {
-      mapper.updateEntityFromDto(categoryDto, existingCategory);
-      Category updatedCategory = repository.save(existingCategory);
-      return mapper.toDto(updatedCategory);
-    } catch (OptimisticLockingFailureException e) {
-      throw new OptimisticLockingFailureException("Category was updated by another transaction.");
+    Optional<Category> updated = repository.updateReturning(id, categoryDto);
+    if (updated.isEmpty()) {
+      if (categoryDto.getVersion() != null && repository.existsById(id)) {
+        throw new OptimisticLockingFailureException("Category was updated by another transaction.");
+      }
+      throw new ResourceNotFoundException(String.format(CATEGORY_NOT_FOUND, id));
     }
+    Category updatedCategory = updated.get();
+    outbox.record(ChangeType.UPDATED, updatedCategory);
+    return mapper.toDto(updatedCategory);
   }
 
+  /**
+   * At most five statements regardless of the number of products: the subcategory check, one
+   * delete of the products returning them, one delete of the category returning it and one delete
+   * each of the reorder thresholds of the products and of the category.
+   */
   @Override
   @Transactional
   public void deleteCategory(Long id) {
+    if (repository.existsByParentId(id)) {
+      throw new BadRequestException(
+          "Category " + id + " has subcategories; move or delete them first");
+    }
+    // Products of the category are deleted with it; downstream consumers must learn about them.
+    List<Product> products = productRepository.deleteByCategoryReturning(id);
     Category category =
         repository
-            .findById(id)
+            .deleteReturning(id)
             .orElseThrow(
                 () -> new ResourceNotFoundException(String.format(CATEGORY_NOT_FOUND, id)));
-    repository.delete(category);
+    if (!products.isEmpty()) {
+      thresholdRepository.deleteByProductIdIn(products.stream().map(Product::getId).toList());
+    }
+    thresholdRepository.deleteByCategoryId(id);
+    products.forEach(product -> outbox.record(ChangeType.DELETED, product));
+    products.forEach(product -> membershipIndex.removeProduct(product.getId()));
+    outbox.record(ChangeType.DELETED, category);
+    membershipIndex.removeCategory(id);
+  }
+
+  @Override
+  @Transactional
+  public CategoryResponseDto moveCategory(Long id, Long parentId) {
+    Category category = getCategoryEntityById(id);
+    Category parent = parentId == null ? null : getCategoryEntityById(parentId);
+    Long currentParentId = category.getParent() == null ? null : category.getParent().getId();
+    if (Objects.equals(currentParentId, parentId)) {
+      return mapper.toDto(category);
+    }
+    if (parent != null && closureRepository.existsPath(id, parentId)) {
+      throw new BadRequestException(
+          "Category " + id + " cannot be moved below its own subcategory " + parentId);
+    }
+    closureRepository.detachSubtree(id);
+    if (parent != null) {
+      closureRepository.attachSubtree(id, parentId);
+    }
+    category.setParent(parent);
+    Category moved = repository.save(category);
+    outbox.record(ChangeType.UPDATED, moved);
+    return mapper.toDto(moved);
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public List<CategoryNodeDto> getSubtree(Long id, Integer maxDepth) {
+    if (maxDepth != null && maxDepth < 0) {
+      throw new BadRequestException("Maximum depth must not be negative: " + maxDepth);
+    }
+    List<CategoryNodeDto> subtree =
+        closureRepository.findSubtree(id, maxDepth == null ? Integer.MAX_VALUE : maxDepth);
+    if (subtree.isEmpty()) {
+      throw new ResourceNotFoundException(String.format(CATEGORY_NOT_FOUND, id));
+    }
+    return subtree;
   }
 
   @Override
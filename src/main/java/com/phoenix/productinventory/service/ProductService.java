@@ -1,14 +1,27 @@
 package com.phoenix.productinventory.service;
 
+import com.phoenix.productinventory.dto.BulkProductUpdateDto;
+import com.phoenix.productinventory.dto.BulkUpdateResultDto;
+import com.phoenix.productinventory.dto.CategoryResponseDto;
+import com.phoenix.productinventory.dto.ProductFacetsDto;
+import com.phoenix.productinventory.dto.ProductField;
 import com.phoenix.productinventory.dto.ProductRequestDto;
 import com.phoenix.productinventory.dto.ProductResponseDto;
+import com.phoenix.productinventory.dto.ProductUpsertDto;
+import com.phoenix.productinventory.dto.ProductUpsertResultDto;
+import com.phoenix.productinventory.exception.BadRequestException;
 import com.phoenix.productinventory.exception.ResourceNotFoundException;
 import com.phoenix.productinventory.model.Product;
+import com.phoenix.productinventory.search.SearchCondition;
 import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
+
 /** Service interface for managing products. */
 public interface ProductService {
 
@@ -29,6 +42,50 @@ public interface ProductService {
    */
   Page<ProductResponseDto> getAllProducts(Specification<Product> spec, Pageable pageable);
 
+  /**
+   * Retrieves the products matching the given filters that follow a product id, in id order.
+   * Unlike an offset page, the cost does not grow with the position in the result, and no total
+   * is counted.
+   *
+   * @param spec Specification for filtering products (can be null).
+   * @param afterId Only products with a greater id are returned (null to start at the beginning).
+   * @param limit Maximum number of products to return.
+   * @return The matching products ordered by id.
+   */
+  List<ProductResponseDto> getProductsAfter(
+      Specification<Product> spec, Long afterId, int limit);
+
+  /**
+   * Retrieves a paginated list of products matching the given filters, selecting only the
+   * requested fields from the database.
+   *
+   * @param spec Specification for filtering products (can be null).
+   * @param pageable Pagination and sorting information.
+   * @param fields The fields to load; all other properties are left null.
+   * @return A paginated list of partially populated products.
+   */
+  Page<ProductResponseDto> getAllProducts(
+      Specification<Product> spec, Pageable pageable, Set<ProductField> fields);
+
+  /**
+   * Computes the category, price range and stock facets of the products matching the given filters.
+   *
+   * @param spec Specification for filtering products (can be null).
+   * @param priceBreaks Strictly ascending bounds separating the price ranges.
+   * @return The facet counts.
+   * @throws BadRequestException If the price breaks are not strictly ascending.
+   */
+  ProductFacetsDto getFacets(Specification<Product> spec, List<BigDecimal> priceBreaks);
+
+  /**
+   * Retrieves a paginated list of the products matching a search filter.
+   *
+   * @param filter The normalized search filter (can be null).
+   * @param pageable Pagination and sorting information; only sortable search fields can be used.
+   * @return A paginated list of matching products.
+   */
+  Page<ProductResponseDto> searchProducts(SearchCondition filter, Pageable pageable);
+
   /**
    * Retrieves a product by its ID.
    *
@@ -38,6 +95,16 @@ public interface ProductService {
    */
   ProductResponseDto getProductById(Long id);
 
+  /**
+   * Retrieves a product by its ID, selecting only the requested fields from the database.
+   *
+   * @param id The product ID.
+   * @param fields The fields to load; all other properties are left null.
+   * @return The partially populated product if found.
+   * @throws ResourceNotFoundException If no product with the given ID exists.
+   */
+  ProductResponseDto getProductById(Long id, Set<ProductField> fields);
+
   /**
    * Updates an existing product.
    *
@@ -45,7 +112,8 @@ public interface ProductService {
    * @param requestDto The new details for the product.
    * @return The updated product.
    * @throws ResourceNotFoundException If no product with the given ID exists.
-   * @throws OptimisticLockingFailureException If concurrent modification is detected.
+   * @throws OptimisticLockingFailureException If the request carries a version and the product has
+   *     another one.
    */
   ProductResponseDto updateProduct(Long id, ProductRequestDto requestDto);
 
@@ -76,4 +144,60 @@ public interface ProductService {
    * @throws ResourceNotFoundException if the product is not found
    */
   ProductResponseDto removeCategory(Long productId);
+
+  /**
+   * Applies a price change or a quantity adjustment to every product matching the given filters
+   * with chunked set-based updates. Each changed product gets a new version and a change event.
+   *
+   * @param spec Specification for filtering products (can be null for all products).
+   * @param update The change to apply.
+   * @return The number of changed products.
+   * @throws BadRequestException if the update is empty, combines a price and a quantity change,
+   *     lowers prices by 100% or more, or would make a price non-positive or a quantity negative
+   */
+  BulkUpdateResultDto bulkUpdate(Specification<Product> spec, BulkProductUpdateDto update);
+
+  /**
+   * Creates or updates products identified by their SKU, as sent by a supplier feed. Products whose
+   * SKU exists are updated and get a new version; the others are created. All products are written
+   * in one transaction with one statement per batch.
+   *
+   * @param products The products to write, with distinct SKUs.
+   * @return The number of created and updated products and their new state.
+   * @throws BadRequestException if the list is empty, a SKU repeats or a product is invalid
+   * @throws ResourceNotFoundException if a referenced category does not exist
+   * @throws OptimisticLockingFailureException if a product does not have its expected version
+   */
+  ProductUpsertResultDto upsertProducts(List<ProductUpsertDto> products);
+
+  /**
+   * Lists every category a product belongs to: its primary category followed by its additional
+   * memberships.
+   *
+   * @param productId the ID of the product
+   * @return the categories of the product
+   * @throws ResourceNotFoundException if the product is not found
+   */
+  List<CategoryResponseDto> getCategories(Long productId);
+
+  /**
+   * Adds the product to a category without changing its primary category. Adding an existing
+   * membership has no effect.
+   *
+   * @param productId the ID of the product
+   * @param categoryId the ID of the category
+   * @return the categories of the product
+   * @throws ResourceNotFoundException if the product or the category is not found
+   */
+  List<CategoryResponseDto> addCategoryMembership(Long productId, Long categoryId);
+
+  /**
+   * Removes an additional membership of the product. Removing a missing membership has no effect.
+   *
+   * @param productId the ID of the product
+   * @param categoryId the ID of the category
+   * @return the categories of the product
+   * @throws ResourceNotFoundException if the product is not found
+   */
+  List<CategoryResponseDto> removeCategoryMembership(Long productId, Long categoryId);
 }
@@ -1,16 +1,46 @@
 package com.phoenix.productinventory.service;
 
+import com.phoenix.productinventory.bulk.ProductBulkUpdater;
+import com.phoenix.productinventory.bulk.ProductUpserter;
+import com.phoenix.productinventory.dto.BulkProductUpdateDto;
+import com.phoenix.productinventory.dto.BulkUpdateResultDto;
+import com.phoenix.productinventory.dto.CategoryResponseDto;
+import com.phoenix.productinventory.dto.ProductFacetsDto;
+import com.phoenix.productinventory.dto.ProductField;
 import com.phoenix.productinventory.dto.ProductRequestDto;
 import com.phoenix.productinventory.dto.ProductResponseDto;
+import com.phoenix.productinventory.dto.ProductUpsertDto;
+import com.phoenix.productinventory.dto.ProductUpsertResultDto;
+import com.phoenix.productinventory.exception.BadRequestException;
 import com.phoenix.productinventory.exception.ResourceNotFoundException;
+import com.phoenix.productinventory.mapper.CategoryMapper;
 import com.phoenix.productinventory.mapper.ProductMapper;
+import com.phoenix.productinventory.membership.CategoryMembershipIndex;
 import com.phoenix.productinventory.model.Category;
 import com.phoenix.productinventory.model.Product;
+import com.phoenix.productinventory.model.ProductCategory;
+import com.phoenix.productinventory.outbox.ChangeType;
+import com.phoenix.productinventory.outbox.OutboxService;
+import com.phoenix.productinventory.repository.ProductCategoryChange;
+import com.phoenix.productinventory.repository.ProductCategoryRepository;
 import com.phoenix.productinventory.repository.ProductRepository;
+import com.phoenix.productinventory.repository.ReorderThresholdRepository;
+import com.phoenix.productinventory.search.SearchCondition;
+import com.phoenix.productinventory.spcification.ProductSpecification;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -20,17 +50,28 @@ import org.springframework.transaction.annotation.Transactional;
 @RequiredArgsConstructor
 public class ProductServiceImpl implements ProductService {
 
+  private static final BigDecimal MIN_PERCENT = BigDecimal.valueOf(-100);
+  private static final int MAX_SKU_LENGTH = 64;
   private static final String PRODUCT_NOT_FOUND = "Product not found with id %s";
 
   private final ProductRepository repository;
   private final ProductMapper mapper;
   private final CategoryService categoryService;
+  private final OutboxService outbox;
+  private final ProductCategoryRepository membershipRepository;
+  private final CategoryMapper categoryMapper;
+  private final CategoryMembershipIndex membershipIndex;
+  private final ProductBulkUpdater bulkUpdater;
+  private final ProductUpserter upserter;
+  private final ReorderThresholdRepository thresholdRepository;
 
   @Override
   @Transactional
   public ProductResponseDto createProduct(ProductRequestDto productDto) {
     Product product = mapper.toEntity(productDto);
     Product saved = repository.save(product);
+    outbox.record(ChangeType.CREATED, saved);
+    membershipIndex.addProduct(saved.getId(), categoryIdOf(saved), saved.getVersion());
     return mapper.toDto(saved);
   }
 
@@ -40,6 +81,51 @@ public class ProductServiceImpl implements ProductService {
     return repository.findAll(spec, pageable).map(mapper::toDto);
   }
 
+  @Override
+  @Transactional(readOnly = true)
+  public List<ProductResponseDto> getProductsAfter(
+      Specification<Product> spec, Long afterId, int limit) {
+    return repository
+        .findBy(
+            Specification.where(spec).and(ProductSpecification.hasIdGreaterThan(afterId)),
+            query -> query.sortBy(Sort.by("id")).limit(limit).all())
+        .stream()
+        .map(mapper::toDto)
+        .toList();
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public Page<ProductResponseDto> getAllProducts(
+      Specification<Product> spec, Pageable pageable, Set<ProductField> fields) {
+    return repository.findAllProjected(spec, pageable, fields);
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public ProductResponseDto getProductById(Long id, Set<ProductField> fields) {
+    return repository
+        .findProjectedById(id, fields)
+        .orElseThrow(() -> new ResourceNotFoundException(String.format(PRODUCT_NOT_FOUND, id)));
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public Page<ProductResponseDto> searchProducts(SearchCondition filter, Pageable pageable) {
+    return repository.search(filter, pageable).map(mapper::toDto);
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public ProductFacetsDto getFacets(Specification<Product> spec, List<BigDecimal> priceBreaks) {
+    for (int i = 1; i < priceBreaks.size(); i++) {
+      if (priceBreaks.get(i - 1).compareTo(priceBreaks.get(i)) >= 0) {
+        throw new BadRequestException("Price breaks must be strictly ascending: " + priceBreaks);
+      }
+    }
+    return repository.findFacets(spec, priceBreaks);
+  }
+
   @Override
   @Transactional(readOnly = true)
   public ProductResponseDto getProductById(Long id) {
@@ -50,55 +136,231 @@ public class ProductServiceImpl implements ProductService {
     return mapper.toDto(product);
   }
 
+  /**
+   * One statement updates the product and returns its new state; only a failed update of a product
+   * with an expected version costs a second one to tell a conflict from a missing product.
+   */
   @Override
   @Transactional
   public ProductResponseDto updateProduct(Long id, ProductRequestDto productDto) {
-    Product existingProduct =
+    Optional<Product> updated = repository.updateReturning(id, productDto);
+    if (updated.isEmpty()) {
+      if (productDto.getVersion() != null && repository.existsById(id)) {
+        throw new OptimisticLockingFailureException("Product was updated by another transaction.");
+      }
+      throw new ResourceNotFoundException(String.format(PRODUCT_NOT_FOUND, id));
+    }
+    Product updatedProduct = updated.get();
+    outbox.record(ChangeType.UPDATED, updatedProduct);
+    return mapper.toDto(updatedProduct);
+  }
+
+  /**
+   * One statement deletes the product and returns it for the change event; its reorder threshold
+   * is deleted with it.
+   */
+  @Override
+  @Transactional
+  public void deleteProduct(Long id) {
+    Product product =
         repository
-            .findById(id)
+            .deleteReturning(id)
             .orElseThrow(() -> new ResourceNotFoundException(String.format(PRODUCT_NOT_FOUND, id)));
+    thresholdRepository.deleteByProductId(id);
+    outbox.record(ChangeType.DELETED, product);
+    membershipIndex.removeProduct(id);
+  }
 
+  /**
+   * One statement sets the category reference and returns the product together with its new and
+   * previous category; a missing category is detected by the foreign key instead of being loaded.
+   */
+  @Override
+  @Transactional
+  public ProductResponseDto assignCategory(Long productId, Long categoryId) {
+    ProductCategoryChange change;
     try {
-      mapper.updateEntityFromDto(productDto, existingProduct);
-      Product updatedProduct = repository.save(existingProduct);
-      return mapper.toDto(updatedProduct);
-    } catch (OptimisticLockingFailureException e) {
-      throw new OptimisticLockingFailureException("Product was updated by another transaction.");
+      change =
+          repository
+              .updateCategoryReturning(productId, categoryId)
+              .orElseThrow(
+                  () ->
+                      new ResourceNotFoundException(String.format(PRODUCT_NOT_FOUND, productId)));
+    } catch (DataIntegrityViolationException e) {
+      throw new ResourceNotFoundException("Category not found with id " + categoryId);
     }
+    outbox.record(ChangeType.CATEGORY_ASSIGNED, change.product());
+    membershipIndex.changePrimaryCategory(
+        productId, change.previousCategoryId(), categoryId, change.product().getVersion());
+    return mapper.toDto(change.product());
   }
 
+  /** One statement clears the category reference and returns the product. */
   @Override
   @Transactional
-  public void deleteProduct(Long id) {
+  public ProductResponseDto removeCategory(Long productId) {
+    ProductCategoryChange change =
+        repository
+            .updateCategoryReturning(productId, null)
+            .orElseThrow(
+                () -> new ResourceNotFoundException(String.format(PRODUCT_NOT_FOUND, productId)));
+    outbox.record(ChangeType.CATEGORY_REMOVED, change.product());
+    membershipIndex.changePrimaryCategory(
+        productId, change.previousCategoryId(), null, change.product().getVersion());
+    return mapper.toDto(change.product());
+  }
+
+  /** Not transactional: every chunk of the update commits on its own. */
+  @Override
+  public BulkUpdateResultDto bulkUpdate(
+      Specification<Product> spec, BulkProductUpdateDto update) {
+    validateBulkUpdate(update);
+    long updated =
+        update.getQuantityDelta() == null
+            ? bulkUpdater.adjustPrices(spec, update.getPricePercent(), update.getPriceAmount())
+            : bulkUpdater.adjustQuantities(spec, update.getQuantityDelta());
+    return new BulkUpdateResultDto(updated);
+  }
+
+  /**
+   * Checks a bulk update without touching the database, so that a bulk update job can reject it
+   * before it is queued.
+   *
+   * @param update the change of the bulk update
+   * @throws BadRequestException if the update changes neither or both the price and the quantity,
+   *     or lowers prices by 100 percent or more
+   */
+  public void validateBulkUpdate(BulkProductUpdateDto update) {
+    if (update == null) {
+      throw new BadRequestException("A bulk update must change either the price or the quantity");
+    }
+    boolean priceChange = update.getPricePercent() != null || update.getPriceAmount() != null;
+    boolean quantityChange = update.getQuantityDelta() != null;
+    if (priceChange == quantityChange) {
+      throw new BadRequestException(
+          "A bulk update must change either the price or the quantity");
+    }
+    if (update.getPricePercent() != null && update.getPricePercent().compareTo(MIN_PERCENT) <= 0) {
+      throw new BadRequestException("Price percent must be above " + MIN_PERCENT);
+    }
+  }
+
+  @Override
+  @Transactional
+  public ProductUpsertResultDto upsertProducts(List<ProductUpsertDto> products) {
+    validateUpserts(products);
+    products.stream()
+        .map(ProductUpsertDto::getCategoryId)
+        .filter(Objects::nonNull)
+        .distinct()
+        .forEach(categoryService::getCategoryEntityById);
+    return upserter.upsert(products);
+  }
+
+  /**
+   * Selects which of the given SKUs are held by a product, so that a sharded upsert can route
+   * existing products to their shard.
+   *
+   * @param skus the SKUs
+   * @return the SKUs that exist
+   */
+  @Transactional(readOnly = true)
+  public Set<String> getExistingSkus(Collection<String> skus) {
+    return new HashSet<>(repository.findExistingSkus(skus));
+  }
+
+  /**
+   * Checks a SKU upsert without touching the database, so that a sharded upsert can reject it
+   * before writing to any shard.
+   *
+   * @param products the products of the upsert
+   * @throws BadRequestException if the list is empty, a SKU repeats or a product is invalid
+   */
+  public void validateUpserts(List<ProductUpsertDto> products) {
+    if (products == null || products.isEmpty()) {
+      throw new BadRequestException("An upsert must contain at least one product");
+    }
+    Set<String> skus = new HashSet<>();
+    for (ProductUpsertDto product : products) {
+      String sku = product.getSku();
+      if (sku == null || sku.isBlank() || sku.length() > MAX_SKU_LENGTH) {
+        throw new BadRequestException(
+            "Every product needs a SKU of at most " + MAX_SKU_LENGTH + " characters");
+      }
+      if (!skus.add(sku)) {
+        throw new BadRequestException("Duplicate SKU " + sku);
+      }
+      if (product.getName() == null || product.getName().isBlank()) {
+        throw new BadRequestException("Product name is required for SKU " + sku);
+      }
+      if (product.getPrice() == null || product.getPrice().signum() <= 0) {
+        throw new BadRequestException("Price must be greater than 0 for SKU " + sku);
+      }
+      if (product.getQuantity() == null || product.getQuantity() < 0) {
+        throw new BadRequestException("Quantity must be zero or positive for SKU " + sku);
+      }
+    }
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public List<CategoryResponseDto> getCategories(Long productId) {
     Product product =
         repository
-            .findById(id)
-            .orElseThrow(() -> new ResourceNotFoundException(String.format(PRODUCT_NOT_FOUND, id)));
-    repository.delete(product);
+            .findById(productId)
+            .orElseThrow(
+                () -> new ResourceNotFoundException(String.format(PRODUCT_NOT_FOUND, productId)));
+    return categoriesOf(product);
   }
 
   @Override
   @Transactional
-  public ProductResponseDto assignCategory(Long productId, Long categoryId) {
+  public List<CategoryResponseDto> addCategoryMembership(Long productId, Long categoryId) {
     Product product =
         repository
             .findById(productId)
             .orElseThrow(
                 () -> new ResourceNotFoundException(String.format(PRODUCT_NOT_FOUND, productId)));
-    Category category = categoryService.getCategoryEntityById(categoryId);
-    product.setCategory(category);
-    Product updatedProduct = repository.save(product);
-    return mapper.toDto(updatedProduct);
+    categoryService.getCategoryEntityById(categoryId);
+    ProductCategory.Key key = new ProductCategory.Key(productId, categoryId);
+    if (!membershipRepository.existsById(key)) {
+      ProductCategory membership =
+          membershipRepository.save(new ProductCategory(productId, categoryId));
+      outbox.record(ChangeType.CREATED, membership);
+      membershipIndex.addMembership(productId, categoryId);
+    }
+    return categoriesOf(product);
   }
 
-  public ProductResponseDto removeCategory(Long productId) {
+  @Override
+  @Transactional
+  public List<CategoryResponseDto> removeCategoryMembership(Long productId, Long categoryId) {
     Product product =
         repository
             .findById(productId)
             .orElseThrow(
-                () -> new ResourceNotFoundException("Product not found with id " + productId));
-    product.setCategory(null);
-    Product updatedProduct = repository.save(product);
-    return mapper.toDto(updatedProduct);
+                () -> new ResourceNotFoundException(String.format(PRODUCT_NOT_FOUND, productId)));
+    ProductCategory.Key key = new ProductCategory.Key(productId, categoryId);
+    if (membershipRepository.existsById(key)) {
+      membershipRepository.deleteById(key);
+      outbox.record(ChangeType.DELETED, new ProductCategory(productId, categoryId));
+      membershipIndex.removeMembership(productId, categoryId);
+    }
+    return categoriesOf(product);
+  }
+
+  private List<CategoryResponseDto> categoriesOf(Product product) {
+    List<Category> categories = new ArrayList<>();
+    if (product.getCategory() != null) {
+      categories.add(product.getCategory());
+    }
+    membershipRepository.findCategoriesOf(product.getId()).stream()
+        .filter(category -> !category.getId().equals(categoryIdOf(product)))
+        .forEach(categories::add);
+    return categoryMapper.toDtoList(categories);
+  }
+
+  private static Long categoryIdOf(Product product) {
+    return product.getCategory() == null ? null : product.getCategory().getId();
   }
 }
@@ -0,0 +1,57 @@
+package com.phoenix.productinventory.sharding;
+
+import com.phoenix.productinventory.dto.ProductResponseDto;
+import java.util.Comparator;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.NullValueInNestedPathException;
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.data.domain.Sort;
+
+/** In-memory equivalent of a {@link Sort} on products, used to merge pages of several shards. */
+final class ProductOrdering {
+
+  private ProductOrdering() {}
+
+  /**
+   * Appends the id to a sort so that every shard returns a total order that can be merged.
+   *
+   * @param sort the requested sort
+   * @return the sort, ending with the id
+   */
+  static Sort withIdTieBreak(Sort sort) {
+    return sort.getOrderFor("id") == null ? sort.and(Sort.by("id")) : sort;
+  }
+
+  /**
+   * Builds a comparator that orders products like the database orders rows for {@code sort}.
+   * Nulls come first in ascending order, as in H2.
+   *
+   * @param sort the sort, typically the result of {@link #withIdTieBreak(Sort)}
+   * @return the comparator
+   */
+  static Comparator<ProductResponseDto> comparator(Sort sort) {
+    Comparator<ProductResponseDto> comparator = (left, right) -> 0;
+    for (Sort.Order order : sort) {
+      Comparator<ProductResponseDto> property =
+          Comparator.comparing(
+              product -> value(product, order.getProperty()),
+              Comparator.nullsFirst(ProductOrdering::compare));
+      comparator = comparator.thenComparing(order.isAscending() ? property : property.reversed());
+    }
+    return comparator;
+  }
+
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  private static int compare(Object left, Object right) {
+    return ((Comparable) left).compareTo(right);
+  }
+
+  private static Object value(ProductResponseDto product, String property) {
+    BeanWrapper wrapper = PropertyAccessorFactory.forBeanPropertyAccess(product);
+    try {
+      return wrapper.getPropertyValue(property);
+    } catch (NullValueInNestedPathException e) {
+      return null;
+    }
+  }
+}
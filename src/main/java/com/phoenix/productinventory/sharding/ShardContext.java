@@ -0,0 +1,51 @@
+package com.phoenix.productinventory.sharding;
+
+/**
+ * Thread-bound shard selection read by the {@link ShardRoutingDataSource}.
+ *
+ * <p>The shard must be selected before a transaction starts: the connection of a transaction, and
+ * therefore its shard, is fixed by its first statement. Threads without a selection use shard 0,
+ * which also holds the authoritative copy of the categories.
+ */
+public final class ShardContext {
+
+  private static final ThreadLocal<Integer> CURRENT = new ThreadLocal<>();
+
+  private ShardContext() {}
+
+  /**
+   * Selects a shard for the current thread until the returned scope is closed.
+   *
+   * @param shard the shard index
+   * @return the scope restoring the previous selection when closed
+   */
+  public static Scope on(int shard) {
+    Integer previous = CURRENT.get();
+    CURRENT.set(shard);
+    return () -> {
+      if (previous == null) {
+        CURRENT.remove();
+      } else {
+        CURRENT.set(previous);
+      }
+    };
+  }
+
+  /**
+   * Returns the shard selected for the current thread.
+   *
+   * @return the shard index, 0 if none was selected
+   */
+  public static int current() {
+    Integer shard = CURRENT.get();
+    return shard == null ? 0 : shard;
+  }
+
+  /** A shard selection that is undone when closed. */
+  @FunctionalInterface
+  public interface Scope extends AutoCloseable {
+
+    @Override
+    void close();
+  }
+}
@@ -0,0 +1,29 @@
+package com.phoenix.productinventory.sharding;
+
+import com.phoenix.productinventory.history.InventoryHistoryDownsampler;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Downsamples the inventory history of shards 1 to n-1; the {@link InventoryHistoryDownsampler}'s
+ * own schedule covers shard 0.
+ */
+@Component
+@Profile("sharding")
+@RequiredArgsConstructor
+public class ShardHistoryDownsampler {
+
+  private final InventoryHistoryDownsampler downsampler;
+  private final ShardRoutingDataSource shards;
+
+  @Scheduled(fixedDelayString = "${history.downsample-interval:5m}")
+  public void downsample() {
+    for (int shard = 1; shard < shards.shardCount(); shard++) {
+      try (ShardContext.Scope ignored = ShardContext.on(shard)) {
+        downsampler.downsample();
+      }
+    }
+  }
+}
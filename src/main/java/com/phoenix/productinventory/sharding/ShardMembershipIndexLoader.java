@@ -0,0 +1,30 @@
+package com.phoenix.productinventory.sharding;
+
+import com.phoenix.productinventory.membership.CategoryMembershipIndex;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+/**
+ * Loads the category memberships of shards 1 to n-1 into the {@link CategoryMembershipIndex},
+ * which loads shard 0 itself. Product ids are unique across shards, so one index serves all of
+ * them.
+ */
+@Component
+@Profile("sharding")
+@RequiredArgsConstructor
+public class ShardMembershipIndexLoader implements SmartInitializingSingleton {
+
+  private final CategoryMembershipIndex index;
+  private final ShardRoutingDataSource shards;
+
+  @Override
+  public void afterSingletonsInstantiated() {
+    for (int shard = 1; shard < shards.shardCount(); shard++) {
+      try (ShardContext.Scope ignored = ShardContext.on(shard)) {
+        index.load();
+      }
+    }
+  }
+}
@@ -0,0 +1,41 @@
+package com.phoenix.productinventory.sharding;
+
+import com.phoenix.productinventory.outbox.OutboxRelay;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Relays and purges the outboxes of shards 1 to n-1; the {@link OutboxRelay}'s own schedule
+ * covers shard 0.
+ *
+ * <p>Event ids are interleaved like product ids, so they are unique across shards but only
+ * ordered within one shard.
+ */
+@Component
+@Profile("sharding")
+@RequiredArgsConstructor
+public class ShardOutboxRelay {
+
+  private final OutboxRelay relay;
+  private final ShardRoutingDataSource shards;
+
+  @Scheduled(fixedDelayString = "${outbox.relay-interval:500ms}")
+  public void relay() {
+    for (int shard = 1; shard < shards.shardCount(); shard++) {
+      try (ShardContext.Scope ignored = ShardContext.on(shard)) {
+        relay.relay();
+      }
+    }
+  }
+
+  @Scheduled(fixedDelayString = "${outbox.purge-interval:1h}")
+  public void purge() {
+    for (int shard = 1; shard < shards.shardCount(); shard++) {
+      try (ShardContext.Scope ignored = ShardContext.on(shard)) {
+        relay.purge();
+      }
+    }
+  }
+}
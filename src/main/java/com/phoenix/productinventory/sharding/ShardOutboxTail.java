@@ -0,0 +1,29 @@
+package com.phoenix.productinventory.sharding;
+
+import com.phoenix.productinventory.outbox.OutboxTail;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reads the outboxes of shards 1 to n-1 for the {@link OutboxTail}, whose own schedule covers
+ * shard 0. Each shard keeps its own position in the tail.
+ */
+@Component
+@Profile("sharding")
+@RequiredArgsConstructor
+public class ShardOutboxTail {
+
+  private final OutboxTail tail;
+  private final ShardRoutingDataSource shards;
+
+  @Scheduled(fixedDelayString = "${inventory.stream.poll-interval:500ms}")
+  public void tail() {
+    for (int shard = 1; shard < shards.shardCount(); shard++) {
+      try (ShardContext.Scope ignored = ShardContext.on(shard)) {
+        tail.tail(shard);
+      }
+    }
+  }
+}
@@ -0,0 +1,103 @@
+package com.phoenix.productinventory.sharding;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Moves products to the shard that owns them and keeps generated ids unique across shards.
+ *
+ * <p>Products are copied before they are deleted from the wrong shard, so an interrupted
+ * rebalance leaves duplicates rather than gaps, and the next run removes them. Additional category
+ * memberships move with their product. Categories are not touched: every shard holds the full
+ * category table.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class ShardRebalancer {
+
+  /** Tables whose generated ids are interleaved so that shard {@code k} only produces k mod n. */
+  private static final List<String> INTERLEAVED_TABLES = List.of("products", "outbox_events");
+
+  private final ShardRoutingDataSource shards;
+
+  /**
+   * Moves every product that is not on shard {@code id mod n} to that shard. A product that
+   * already exists on its owning shard, such as seed data migrated into every shard, is only
+   * deleted from the wrong one.
+   *
+   * @return the number of products copied to another shard
+   */
+  public int rebalance() {
+    int shardCount = shards.shardCount();
+    int moved = 0;
+    int dropped = 0;
+    for (int source = 0; source < shardCount; source++) {
+      JdbcTemplate from = jdbc(source);
+      List<Map<String, Object>> misplaced =
+          from.queryForList("SELECT * FROM products WHERE MOD(id, ?) <> ?", shardCount, source);
+      for (Map<String, Object> row : misplaced) {
+        long id = ((Number) row.get("id")).longValue();
+        JdbcTemplate to = jdbc(shards.shardOf(id));
+        Integer existing =
+            to.queryForObject("SELECT COUNT(*) FROM products WHERE id = ?", Integer.class, id);
+        if (existing == null || existing == 0) {
+          insert(to, "products", row);
+          for (Map<String, Object> membership :
+              from.queryForList("SELECT * FROM product_categories WHERE product_id = ?", id)) {
+            insert(to, "product_categories", membership);
+          }
+          moved++;
+        } else {
+          dropped++;
+        }
+        from.update("DELETE FROM products WHERE id = ?", id);
+      }
+    }
+    log.info(
+        "Rebalanced {} shards: moved {} products, dropped {} duplicates",
+        shardCount,
+        moved,
+        dropped);
+    return moved;
+  }
+
+  /**
+   * Restarts the id generators so that shard {@code k} continues above the largest id of any
+   * shard with values congruent to {@code k} modulo the number of shards. Uses H2 identity
+   * column syntax.
+   */
+  public void alignIdentities() {
+    int shardCount = shards.shardCount();
+    for (String table : INTERLEAVED_TABLES) {
+      long max = 0;
+      for (int shard = 0; shard < shardCount; shard++) {
+        Long shardMax =
+            jdbc(shard).queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + table, Long.class);
+        max = Math.max(max, shardMax == null ? 0 : shardMax);
+      }
+      for (int shard = 0; shard < shardCount; shard++) {
+        long next = max + 1 + Math.floorMod(shard - (max + 1), shardCount);
+        JdbcTemplate jdbc = jdbc(shard);
+        jdbc.execute("ALTER TABLE " + table + " ALTER COLUMN id RESTART WITH " + next);
+        jdbc.execute("ALTER TABLE " + table + " ALTER COLUMN id SET INCREMENT BY " + shardCount);
+      }
+    }
+  }
+
+  private JdbcTemplate jdbc(int shard) {
+    return new JdbcTemplate(shards.shard(shard));
+  }
+
+  private static void insert(JdbcTemplate to, String table, Map<String, Object> row) {
+    String columns = String.join(", ", row.keySet());
+    String placeholders =
+        row.keySet().stream().map(column -> "?").collect(Collectors.joining(", "));
+    to.update(
+        "INSERT INTO " + table + " (" + columns + ") VALUES (" + placeholders + ")",
+        row.values().toArray());
+  }
+}
@@ -0,0 +1,71 @@
+package com.phoenix.productinventory.sharding;
+
+import com.zaxxer.hikari.HikariDataSource;
+import java.io.Closeable;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javax.sql.DataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+/** Hands out connections to the shard selected through {@link ShardContext}. */
+public class ShardRoutingDataSource extends AbstractRoutingDataSource implements Closeable {
+
+  private final List<HikariDataSource> shards;
+
+  /**
+   * Creates a routing data source over the given shards.
+   *
+   * @param shards the shard pools, in shard order
+   */
+  public ShardRoutingDataSource(List<HikariDataSource> shards) {
+    this.shards = List.copyOf(shards);
+    Map<Object, Object> targets = new HashMap<>();
+    for (int i = 0; i < shards.size(); i++) {
+      targets.put(i, shards.get(i));
+    }
+    setTargetDataSources(targets);
+    setDefaultTargetDataSource(shards.get(0));
+    setLenientFallback(false);
+    afterPropertiesSet();
+  }
+
+  /**
+   * Returns the number of shards.
+   *
+   * @return the number of shards
+   */
+  public int shardCount() {
+    return shards.size();
+  }
+
+  /**
+   * Returns the shard that owns a product.
+   *
+   * @param productId the product id
+   * @return the shard index
+   */
+  public int shardOf(long productId) {
+    return Math.floorMod(productId, shards.size());
+  }
+
+  /**
+   * Returns the pool of one shard, bypassing the routing.
+   *
+   * @param shard the shard index
+   * @return the shard's data source
+   */
+  public DataSource shard(int shard) {
+    return shards.get(shard);
+  }
+
+  @Override
+  protected Object determineCurrentLookupKey() {
+    return ShardContext.current();
+  }
+
+  @Override
+  public void close() {
+    shards.forEach(HikariDataSource::close);
+  }
+}
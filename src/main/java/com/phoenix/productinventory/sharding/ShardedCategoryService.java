@@ -0,0 +1,234 @@
+package com.phoenix.productinventory.sharding;
+
+import com.phoenix.productinventory.dto.CategoryNodeDto;
+import com.phoenix.productinventory.dto.CategoryRequestDto;
+import com.phoenix.productinventory.dto.CategoryResponseDto;
+import com.phoenix.productinventory.model.Category;
+import com.phoenix.productinventory.repository.ReorderThresholdRepository;
+import com.phoenix.productinventory.service.CategoryService;
+import com.phoenix.productinventory.service.CategoryServiceImpl;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * {@link CategoryService} that keeps a full copy of the categories on every shard, so products can
+ * reference them locally.
+ *
+ * <p>Writes of {@link CategoryServiceImpl} are applied to every shard in shard order, one local
+ * transaction per shard. The transactions stay open until the write has succeeded on the last
+ * shard and then commit from the last shard back to shard 0, so a write rejected by any shard is
+ * rolled back on all of them; only a failure while committing can still leave shards apart.
+ * Shard 0 holds a lock row for the whole write, so concurrent writes, also from other instances,
+ * reach all shards in the same order. New categories get their id on shard 0 and are copied to the
+ * other shards under that id.
+ *
+ * <p>Each shard records its own change event, so consumers receive category events once per shard
+ * with the same aggregate version. Reads are served by shard 0, except for product counts, which
+ * are summed over all shards.
+ */
+@Service
+@Primary
+@Profile("sharding")
+public class ShardedCategoryService implements CategoryService {
+
+  private static final String LOCK =
+      "SELECT name FROM shard_locks WHERE name = 'categories' FOR UPDATE";
+  private static final String PRODUCTS_OF_CATEGORY =
+      "SELECT id FROM products WHERE category_id = ?";
+
+  private final CategoryServiceImpl delegate;
+  private final ShardRoutingDataSource shards;
+  private final JdbcTemplate jdbc;
+  private final TransactionTemplate transactionTemplate;
+  private final ReorderThresholdRepository thresholdRepository;
+
+  public ShardedCategoryService(
+      CategoryServiceImpl delegate,
+      ShardRoutingDataSource shards,
+      PlatformTransactionManager transactionManager,
+      ReorderThresholdRepository thresholdRepository) {
+    this.delegate = delegate;
+    this.shards = shards;
+    this.thresholdRepository = thresholdRepository;
+    this.jdbc = new JdbcTemplate(shards);
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+  }
+
+  @Override
+  public CategoryResponseDto createCategory(CategoryRequestDto requestDto) {
+    return writeAll(
+        () -> delegate.createCategory(requestDto),
+        created -> delegate.createCategory(created.getId(), requestDto));
+  }
+
+  @Override
+  public Page<CategoryResponseDto> getAllCategories(
+      Specification<Category> spec, Pageable pageable) {
+    List<Page<CategoryResponseDto>> pages =
+        broadcast(() -> delegate.getAllCategories(spec, pageable));
+    sumProductCounts(pages.stream().map(Page::getContent).toList());
+    return pages.get(0);
+  }
+
+  @Override
+  public CategoryResponseDto getCategoryById(Long id) {
+    List<CategoryResponseDto> categories = broadcast(() -> delegate.getCategoryById(id));
+    sumProductCounts(List.of(categories));
+    return categories.get(0);
+  }
+
+  @Override
+  public CategoryResponseDto updateCategory(Long id, CategoryRequestDto requestDto) {
+    Supplier<CategoryResponseDto> update = () -> delegate.updateCategory(id, requestDto);
+    return writeAll(update, updated -> update.get());
+  }
+
+  /**
+   * Deletes the category and its products on every shard. Reorder thresholds are kept on shard 0,
+   * so the thresholds of the products deleted on the other shards are deleted there once all
+   * shards have committed.
+   */
+  @Override
+  public void deleteCategory(Long id) {
+    List<Long> productIds = new ArrayList<>();
+    writeAll(
+        () -> {
+          delegate.deleteCategory(id);
+          return null;
+        },
+        deleted -> {
+          productIds.addAll(jdbc.queryForList(PRODUCTS_OF_CATEGORY, Long.class, id));
+          delegate.deleteCategory(id);
+          return null;
+        });
+    if (!productIds.isEmpty()) {
+      onShard(0, () -> thresholdRepository.deleteByProductIdIn(productIds));
+    }
+  }
+
+  @Override
+  public CategoryResponseDto moveCategory(Long id, Long parentId) {
+    Supplier<CategoryResponseDto> move = () -> delegate.moveCategory(id, parentId);
+    return writeAll(move, moved -> move.get());
+  }
+
+  /** Takes the tree from shard 0 and sums the product counts of all shards. */
+  @Override
+  public List<CategoryNodeDto> getSubtree(Long id, Integer maxDepth) {
+    List<List<CategoryNodeDto>> subtrees = broadcast(() -> delegate.getSubtree(id, maxDepth));
+    Map<Long, Long> productCounts = new HashMap<>();
+    subtrees.forEach(
+        subtree ->
+            subtree.forEach(
+                node -> productCounts.merge(node.getId(), node.getProductCount(), Long::sum)));
+    List<CategoryNodeDto> merged = subtrees.get(0);
+    merged.forEach(node -> node.setProductCount(productCounts.get(node.getId())));
+    return merged;
+  }
+
+  @Override
+  public List<CategoryResponseDto> getCategoriesByIds(Collection<Long> ids) {
+    return onShard(0, () -> delegate.getCategoriesByIds(ids));
+  }
+
+  @Override
+  public List<CategoryResponseDto> getSubcategories(Collection<Long> parentIds) {
+    return onShard(0, () -> delegate.getSubcategories(parentIds));
+  }
+
+  /** Sums the product counts of all shards. */
+  @Override
+  public Map<Long, Long> countProducts(Collection<Long> ids) {
+    Map<Long, Long> productCounts = new HashMap<>();
+    for (Map<Long, Long> shardCounts : broadcast(() -> delegate.countProducts(ids))) {
+      shardCounts.forEach((id, count) -> productCounts.merge(id, count, Long::sum));
+    }
+    return productCounts;
+  }
+
+  /** Resolves the category on the current shard; called inside product transactions. */
+  @Override
+  public Category getCategoryEntityById(Long id) {
+    return delegate.getCategoryEntityById(id);
+  }
+
+  /** Stores the sum over all shards in the product counts of the first shard's categories. */
+  private static void sumProductCounts(List<List<CategoryResponseDto>> shardCategories) {
+    Map<Long, Long> productCounts = new HashMap<>();
+    shardCategories.forEach(
+        categories ->
+            categories.forEach(
+                category ->
+                    productCounts.merge(category.getId(), category.getProductCount(), Long::sum)));
+    shardCategories
+        .get(0)
+        .forEach(category -> category.setProductCount(productCounts.get(category.getId())));
+  }
+
+  /**
+   * Applies a write to every shard under the lock on shard 0 and commits it once all shards
+   * succeeded.
+   *
+   * @param first the write on shard 0
+   * @param others the write on the other shards, given the result of shard 0
+   * @return the result of shard 0
+   */
+  private <T> T writeAll(Supplier<T> first, Function<T, T> others) {
+    return onShard(
+        0,
+        () ->
+            transactionTemplate.execute(
+                status -> {
+                  jdbc.queryForObject(LOCK, String.class);
+                  T result = first.get();
+                  writeFrom(1, () -> others.apply(result));
+                  return result;
+                }));
+  }
+
+  /** Runs the write on the shard and, before committing it, on all following shards. */
+  private void writeFrom(int shard, Supplier<?> operation) {
+    if (shard == shards.shardCount()) {
+      return;
+    }
+    onShard(
+        shard,
+        () ->
+            transactionTemplate.execute(
+                status -> {
+                  operation.get();
+                  writeFrom(shard + 1, operation);
+                  return null;
+                }));
+  }
+
+  private <T> List<T> broadcast(Supplier<T> operation) {
+    List<T> results = new ArrayList<>();
+    for (int shard = 0; shard < shards.shardCount(); shard++) {
+      results.add(onShard(shard, operation));
+    }
+    return results;
+  }
+
+  private static <T> T onShard(int shard, Supplier<T> operation) {
+    try (ShardContext.Scope ignored = ShardContext.on(shard)) {
+      return operation.get();
+    }
+  }
+}
@@ -0,0 +1,66 @@
+package com.phoenix.productinventory.sharding;
+
+import com.phoenix.productinventory.dto.InventoryHistoryPointDto;
+import com.phoenix.productinventory.exception.BadRequestException;
+import com.phoenix.productinventory.history.HistoryResolution;
+import com.phoenix.productinventory.history.InventoryHistoryProperties;
+import com.phoenix.productinventory.history.InventoryHistoryService;
+import com.phoenix.productinventory.history.InventoryHistoryServiceImpl;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Supplier;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+
+/**
+ * {@link InventoryHistoryService} that reads the history of every shard.
+ *
+ * <p>Each shard records the changes of the products it stored when they happened, and the
+ * rebalancer moves products without their history, so even the history of a single product is
+ * gathered from all shards. A bucket cut by a move appears once per shard.
+ */
+@Service
+@Primary
+@Profile("sharding")
+@RequiredArgsConstructor
+public class ShardedInventoryHistoryService implements InventoryHistoryService {
+
+  private final InventoryHistoryServiceImpl delegate;
+  private final InventoryHistoryProperties properties;
+  private final ShardRoutingDataSource shards;
+
+  @Override
+  public List<InventoryHistoryPointDto> getProductHistory(
+      Long productId, Instant from, Instant to, HistoryResolution resolution) {
+    return gather(() -> delegate.getProductHistory(productId, from, to, resolution));
+  }
+
+  @Override
+  public List<InventoryHistoryPointDto> getCategoryHistory(
+      Long categoryId, Instant from, Instant to, HistoryResolution resolution) {
+    return gather(() -> delegate.getCategoryHistory(categoryId, from, to, resolution));
+  }
+
+  private List<InventoryHistoryPointDto> gather(Supplier<List<InventoryHistoryPointDto>> read) {
+    List<InventoryHistoryPointDto> points = new ArrayList<>();
+    for (int shard = 0; shard < shards.shardCount(); shard++) {
+      try (ShardContext.Scope ignored = ShardContext.on(shard)) {
+        points.addAll(read.get());
+      }
+      if (points.size() > properties.maxPoints()) {
+        throw new BadRequestException(
+            "The history range holds more than "
+                + properties.maxPoints()
+                + " points; request a shorter range or a coarser resolution");
+      }
+    }
+    points.sort(
+        Comparator.comparing(InventoryHistoryPointDto::getBucketStart)
+            .thenComparing(InventoryHistoryPointDto::getProductId));
+    return points;
+  }
+}
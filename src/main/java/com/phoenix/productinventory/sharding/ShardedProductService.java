@@ -0,0 +1,345 @@
+package com.phoenix.productinventory.sharding;
+
+import com.phoenix.productinventory.dto.BulkProductUpdateDto;
+import com.phoenix.productinventory.dto.BulkUpdateResultDto;
+import com.phoenix.productinventory.dto.CategoryFacetDto;
+import com.phoenix.productinventory.dto.CategoryResponseDto;
+import com.phoenix.productinventory.dto.PriceRangeFacetDto;
+import com.phoenix.productinventory.dto.ProductFacetsDto;
+import com.phoenix.productinventory.dto.ProductField;
+import com.phoenix.productinventory.dto.ProductRequestDto;
+import com.phoenix.productinventory.dto.ProductResponseDto;
+import com.phoenix.productinventory.dto.ProductUpsertDto;
+import com.phoenix.productinventory.dto.ProductUpsertResultDto;
+import com.phoenix.productinventory.model.Product;
+import com.phoenix.productinventory.repository.ReorderThresholdRepository;
+import com.phoenix.productinventory.search.SearchCondition;
+import com.phoenix.productinventory.service.ProductService;
+import com.phoenix.productinventory.service.ProductServiceImpl;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+
+/**
+ * {@link ProductService} that runs every operation of {@link ProductServiceImpl} on the right
+ * shard.
+ *
+ * <p>Operations on one product go to shard {@code id mod n}; new products are placed round robin
+ * and receive an id from that shard's interleaved generator. Listings and facets are evaluated on
+ * every shard in parallel and merged: each shard returns its first {@code offset + size} products
+ * in the requested order (with the id as tie-break) and the pages are merge-sorted, so deep pages
+ * cost proportionally more.
+ */
+@Service
+@Primary
+@Profile("sharding")
+public class ShardedProductService implements ProductService {
+
+  private final ProductServiceImpl delegate;
+  private final ShardRoutingDataSource shards;
+  private final Executor executor;
+  private final ReorderThresholdRepository thresholdRepository;
+  private final AtomicInteger placement = new AtomicInteger();
+
+  public ShardedProductService(
+      ProductServiceImpl delegate,
+      ShardRoutingDataSource shards,
+      @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+          Executor executor,
+      ReorderThresholdRepository thresholdRepository) {
+    this.delegate = delegate;
+    this.shards = shards;
+    this.executor = executor;
+    this.thresholdRepository = thresholdRepository;
+  }
+
+  @Override
+  public ProductResponseDto createProduct(ProductRequestDto requestDto) {
+    int shard = Math.floorMod(placement.getAndIncrement(), shards.shardCount());
+    return onShard(shard, () -> delegate.createProduct(requestDto));
+  }
+
+  @Override
+  public Page<ProductResponseDto> getAllProducts(Specification<Product> spec, Pageable pageable) {
+    return gather(pageable, shardPage -> delegate.getAllProducts(spec, shardPage));
+  }
+
+  @Override
+  public Page<ProductResponseDto> getAllProducts(
+      Specification<Product> spec, Pageable pageable, Set<ProductField> fields) {
+    // The merge needs the sort properties even if the client did not ask for them
+    Set<ProductField> withSortFields = EnumSet.copyOf(fields);
+    for (Sort.Order order : pageable.getSort()) {
+      String root = order.getProperty().split("\\.")[0];
+      Arrays.stream(ProductField.values())
+          .filter(field -> field.getProperty().equals(root))
+          .forEach(withSortFields::add);
+    }
+    return gather(pageable, shardPage -> delegate.getAllProducts(spec, shardPage, withSortFields));
+  }
+
+  @Override
+  public Page<ProductResponseDto> searchProducts(SearchCondition filter, Pageable pageable) {
+    return gather(pageable, shardPage -> delegate.searchProducts(filter, shardPage));
+  }
+
+  /** Merges the first {@code limit} products after {@code afterId} of every shard. */
+  @Override
+  public List<ProductResponseDto> getProductsAfter(
+      Specification<Product> spec, Long afterId, int limit) {
+    return scatter(() -> delegate.getProductsAfter(spec, afterId, limit)).stream()
+        .flatMap(List::stream)
+        .sorted(Comparator.comparing(ProductResponseDto::getId))
+        .limit(limit)
+        .toList();
+  }
+
+  @Override
+  public ProductFacetsDto getFacets(Specification<Product> spec, List<BigDecimal> priceBreaks) {
+    List<ProductFacetsDto> facets = scatter(() -> delegate.getFacets(spec, priceBreaks));
+    Map<Long, CategoryFacetDto> categories = new LinkedHashMap<>();
+    List<PriceRangeFacetDto> priceRanges = new ArrayList<>();
+    long total = 0;
+    long inStock = 0;
+    long outOfStock = 0;
+    for (ProductFacetsDto shard : facets) {
+      total += shard.getTotal();
+      inStock += shard.getInStock();
+      outOfStock += shard.getOutOfStock();
+      for (CategoryFacetDto category : shard.getCategories()) {
+        CategoryFacetDto sum =
+            categories.computeIfAbsent(
+                category.getCategoryId(), id -> new CategoryFacetDto(id, category.getName(), 0));
+        sum.setCount(sum.getCount() + category.getCount());
+      }
+      for (int i = 0; i < shard.getPriceRanges().size(); i++) {
+        PriceRangeFacetDto range = shard.getPriceRanges().get(i);
+        if (priceRanges.size() <= i) {
+          priceRanges.add(new PriceRangeFacetDto(range.getFrom(), range.getTo(), 0));
+        }
+        priceRanges.get(i).setCount(priceRanges.get(i).getCount() + range.getCount());
+      }
+    }
+    List<CategoryFacetDto> merged = new ArrayList<>(categories.values());
+    merged.sort(
+        Comparator.comparing(
+            CategoryFacetDto::getName, Comparator.nullsLast(Comparator.naturalOrder())));
+    return new ProductFacetsDto(total, merged, priceRanges, inStock, outOfStock);
+  }
+
+  @Override
+  public ProductResponseDto getProductById(Long id) {
+    return onShard(shards.shardOf(id), () -> delegate.getProductById(id));
+  }
+
+  @Override
+  public ProductResponseDto getProductById(Long id, Set<ProductField> fields) {
+    return onShard(shards.shardOf(id), () -> delegate.getProductById(id, fields));
+  }
+
+  @Override
+  public ProductResponseDto updateProduct(Long id, ProductRequestDto requestDto) {
+    return onShard(shards.shardOf(id), () -> delegate.updateProduct(id, requestDto));
+  }
+
+  @Override
+  public void deleteProduct(Long id) {
+    int shard = shards.shardOf(id);
+    onShard(
+        shard,
+        () -> {
+          delegate.deleteProduct(id);
+          return null;
+        });
+    if (shard != 0) {
+      // Reorder thresholds are kept on shard 0, after the product's own transaction
+      onShard(0, () -> thresholdRepository.deleteByProductId(id));
+    }
+  }
+
+  @Override
+  public ProductResponseDto assignCategory(Long productId, Long categoryId) {
+    return onShard(
+        shards.shardOf(productId), () -> delegate.assignCategory(productId, categoryId));
+  }
+
+  @Override
+  public ProductResponseDto removeCategory(Long productId) {
+    return onShard(shards.shardOf(productId), () -> delegate.removeCategory(productId));
+  }
+
+  /** Updates every shard in parallel; each walks its own products in chunks. */
+  @Override
+  public BulkUpdateResultDto bulkUpdate(
+      Specification<Product> spec, BulkProductUpdateDto update) {
+    return new BulkUpdateResultDto(
+        scatter(() -> delegate.bulkUpdate(spec, update)).stream()
+            .mapToLong(BulkUpdateResultDto::getUpdated)
+            .sum());
+  }
+
+  /**
+   * Sends every product to the shard holding its SKU and places new SKUs round robin, then upserts
+   * the parts of all shards in parallel. Each shard commits on its own. SKUs are unique within a
+   * shard by constraint and across shards only through this routing.
+   */
+  @Override
+  public ProductUpsertResultDto upsertProducts(List<ProductUpsertDto> products) {
+    delegate.validateUpserts(products);
+    List<String> skus = products.stream().map(ProductUpsertDto::getSku).toList();
+    List<Set<String>> existing = scatter(() -> delegate.getExistingSkus(skus));
+    Map<Integer, List<ProductUpsertDto>> parts = new TreeMap<>();
+    for (ProductUpsertDto product : products) {
+      int shard = ownerOf(existing, product.getSku());
+      if (shard < 0) {
+        if (product.getVersion() != null) {
+          throw new OptimisticLockingFailureException(
+              "Product with SKU " + product.getSku() + " was expected to exist but does not.");
+        }
+        shard = Math.floorMod(placement.getAndIncrement(), shards.shardCount());
+      }
+      parts.computeIfAbsent(shard, key -> new ArrayList<>()).add(product);
+    }
+
+    List<CompletableFuture<ProductUpsertResultDto>> futures = new ArrayList<>();
+    parts.forEach(
+        (shard, part) ->
+            futures.add(
+                CompletableFuture.supplyAsync(
+                    () -> onShard(shard, () -> delegate.upsertProducts(part)), executor)));
+    Map<String, ProductResponseDto> written = new LinkedHashMap<>();
+    long created = 0;
+    for (ProductUpsertResultDto result : join(futures)) {
+      created += result.getCreated();
+      result.getProducts().forEach(product -> written.put(product.getSku(), product));
+    }
+    return new ProductUpsertResultDto(
+        created, products.size() - created, skus.stream().map(written::get).toList());
+  }
+
+  @Override
+  public List<CategoryResponseDto> getCategories(Long productId) {
+    return onShard(shards.shardOf(productId), () -> delegate.getCategories(productId));
+  }
+
+  @Override
+  public List<CategoryResponseDto> addCategoryMembership(Long productId, Long categoryId) {
+    return onShard(
+        shards.shardOf(productId), () -> delegate.addCategoryMembership(productId, categoryId));
+  }
+
+  @Override
+  public List<CategoryResponseDto> removeCategoryMembership(Long productId, Long categoryId) {
+    return onShard(
+        shards.shardOf(productId),
+        () -> delegate.removeCategoryMembership(productId, categoryId));
+  }
+
+  /** Returns the index of the set containing the SKU, or -1 if no shard holds it. */
+  private static int ownerOf(List<Set<String>> existingPerShard, String sku) {
+    for (int shard = 0; shard < existingPerShard.size(); shard++) {
+      if (existingPerShard.get(shard).contains(sku)) {
+        return shard;
+      }
+    }
+    return -1;
+  }
+
+  private Page<ProductResponseDto> gather(
+      Pageable pageable, Function<Pageable, Page<ProductResponseDto>> query) {
+    Sort sort = ProductOrdering.withIdTieBreak(pageable.getSort());
+    Pageable shardPage =
+        pageable.isPaged()
+            ? PageRequest.of(
+                0, Math.toIntExact(pageable.getOffset() + pageable.getPageSize()), sort)
+            : Pageable.unpaged(sort);
+    List<Page<ProductResponseDto>> pages = scatter(() -> query.apply(shardPage));
+
+    long total = pages.stream().mapToLong(Page::getTotalElements).sum();
+    List<ProductResponseDto> merged = merge(pages, ProductOrdering.comparator(sort));
+    if (pageable.isUnpaged()) {
+      return new PageImpl<>(merged, pageable, total);
+    }
+    int from = (int) Math.min(pageable.getOffset(), merged.size());
+    int to = Math.min(from + pageable.getPageSize(), merged.size());
+    return new PageImpl<>(merged.subList(from, to), pageable, total);
+  }
+
+  /** K-way merge of pages that are each sorted by {@code comparator}. */
+  private static List<ProductResponseDto> merge(
+      List<Page<ProductResponseDto>> pages, Comparator<ProductResponseDto> comparator) {
+    record Head(ProductResponseDto product, Iterator<ProductResponseDto> rest) {}
+    PriorityQueue<Head> heads =
+        new PriorityQueue<>(
+            Math.max(1, pages.size()), Comparator.comparing(Head::product, comparator));
+    for (Page<ProductResponseDto> page : pages) {
+      Iterator<ProductResponseDto> iterator = page.iterator();
+      if (iterator.hasNext()) {
+        heads.add(new Head(iterator.next(), iterator));
+      }
+    }
+    List<ProductResponseDto> merged = new ArrayList<>();
+    while (!heads.isEmpty()) {
+      Head head = heads.poll();
+      merged.add(head.product());
+      if (head.rest().hasNext()) {
+        heads.add(new Head(head.rest().next(), head.rest()));
+      }
+    }
+    return merged;
+  }
+
+  /** Runs a query on every shard in parallel and returns the results in shard order. */
+  private <T> List<T> scatter(Supplier<T> query) {
+    List<CompletableFuture<T>> futures = new ArrayList<>();
+    for (int shard = 0; shard < shards.shardCount(); shard++) {
+      int target = shard;
+      futures.add(CompletableFuture.supplyAsync(() -> onShard(target, query), executor));
+    }
+    return join(futures);
+  }
+
+  private static <T> List<T> join(List<CompletableFuture<T>> futures) {
+    try {
+      return futures.stream().map(CompletableFuture::join).toList();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw e;
+    }
+  }
+
+  private static <T> T onShard(int shard, Supplier<T> operation) {
+    try (ShardContext.Scope ignored = ShardContext.on(shard)) {
+      return operation.get();
+    }
+  }
+}
@@ -0,0 +1,64 @@
+package com.phoenix.productinventory.sharding;
+
+import com.zaxxer.hikari.HikariDataSource;
+import java.util.ArrayList;
+import java.util.List;
+import org.flywaydb.core.Flyway;
+import org.springframework.boot.autoconfigure.flyway.FlywayProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.util.Assert;
+
+/**
+ * Partitions products across the databases configured by {@code sharding.shards} in the {@code
+ * sharding} profile.
+ *
+ * <p>Every shard is migrated with the full schema, rebalanced and given interleaved id generators
+ * before JPA starts. The routing data source replaces {@code spring.datasource.*}; JPA, Flyway and
+ * everything else that is not shard-aware work on shard 0.
+ */
+@Configuration
+@Profile("sharding")
+@EnableConfigurationProperties({ShardingProperties.class, FlywayProperties.class})
+public class ShardingDataSourceConfig {
+
+  @Bean
+  @Primary
+  public ShardRoutingDataSource dataSource(
+      ShardingProperties properties, FlywayProperties flywayProperties) {
+    Assert.notEmpty(properties.shards(), "sharding.shards must list at least one database");
+    List<HikariDataSource> pools = new ArrayList<>();
+    for (ShardingProperties.Shard shard : properties.shards()) {
+      HikariDataSource pool =
+          DataSourceBuilder.create()
+              .type(HikariDataSource.class)
+              .url(shard.url())
+              .username(shard.username())
+              .password(shard.password())
+              .build();
+      pool.setPoolName("shard-" + pools.size());
+      pools.add(pool);
+      Flyway.configure()
+          .dataSource(pool)
+          .locations(flywayProperties.getLocations().toArray(String[]::new))
+          .load()
+          .migrate();
+    }
+    ShardRoutingDataSource dataSource = new ShardRoutingDataSource(pools);
+    ShardRebalancer rebalancer = new ShardRebalancer(dataSource);
+    if (properties.rebalanceOnStartup()) {
+      rebalancer.rebalance();
+    }
+    rebalancer.alignIdentities();
+    return dataSource;
+  }
+
+  @Bean
+  public ShardRebalancer shardRebalancer(ShardRoutingDataSource dataSource) {
+    return new ShardRebalancer(dataSource);
+  }
+}
@@ -0,0 +1,30 @@
+package com.phoenix.productinventory.sharding;
+
+import java.util.List;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Databases of the {@code sharding} profile.
+ *
+ * <p>A product lives on shard {@code id mod shards.size()}. Changing the number of shards
+ * requires a rebalance, which {@code rebalance-on-startup} performs before the application uses
+ * the shards.
+ *
+ * @param shards connection settings of every shard, in shard order
+ * @param rebalanceOnStartup whether products on the wrong shard are moved when the application
+ *     starts
+ */
+@ConfigurationProperties(prefix = "sharding")
+public record ShardingProperties(
+    List<Shard> shards, @DefaultValue("true") boolean rebalanceOnStartup) {
+
+  /**
+   * Connection settings of one shard.
+   *
+   * @param url JDBC URL
+   * @param username database user
+   * @param password database password
+   */
+  public record Shard(String url, String username, String password) {}
+}
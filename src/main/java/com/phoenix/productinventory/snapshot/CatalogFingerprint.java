@@ -0,0 +1,39 @@
+package com.phoenix.productinventory.snapshot;
+
+import java.util.Collection;
+import java.util.function.ToLongFunction;
+
+/**
+ * Cheap summary of a table used to decide whether a snapshot still matches the database.
+ *
+ * <p>Every insert changes the row count or the highest id, every delete changes the row count and
+ * every update increments a version, so any committed write changes at least one component.
+ *
+ * @param rowCount number of rows in the table
+ * @param maxId highest identifier, or {@code 0} for an empty table
+ * @param versionSum sum of all optimistic locking versions
+ */
+public record CatalogFingerprint(Long rowCount, Long maxId, Long versionSum) {
+
+  /** Fingerprint of an empty table. */
+  public static final CatalogFingerprint EMPTY = new CatalogFingerprint(0L, 0L, 0L);
+
+  /**
+   * Computes the fingerprint of rows that are already in memory.
+   *
+   * @param rows the rows to summarize
+   * @param id extracts the identifier of a row
+   * @param version extracts the version of a row
+   * @return the fingerprint of the given rows
+   */
+  public static <T> CatalogFingerprint of(
+      Collection<T> rows, ToLongFunction<T> id, ToLongFunction<T> version) {
+    long maxId = 0;
+    long versionSum = 0;
+    for (T row : rows) {
+      maxId = Math.max(maxId, id.applyAsLong(row));
+      versionSum += version.applyAsLong(row);
+    }
+    return new CatalogFingerprint((long) rows.size(), maxId, versionSum);
+  }
+}
@@ -0,0 +1,35 @@
+package com.phoenix.productinventory.snapshot;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Immutable point-in-time copy of the product and category state needed to rebuild in-memory
+ * indexes without scanning the database.
+ *
+ * @param createdAt when the snapshot was taken
+ * @param products product rows ordered by id
+ * @param categories category rows ordered by id
+ */
+public record CatalogSnapshot(
+    Instant createdAt, List<ProductState> products, List<CategoryState> categories) {
+
+  public CatalogSnapshot {
+    products = List.copyOf(products);
+    categories = List.copyOf(categories);
+  }
+
+  /** Fingerprint of the product rows held by this snapshot. */
+  public CatalogFingerprint productFingerprint() {
+    return CatalogFingerprint.of(products, ProductState::id, p -> versionOf(p.version()));
+  }
+
+  /** Fingerprint of the category rows held by this snapshot. */
+  public CatalogFingerprint categoryFingerprint() {
+    return CatalogFingerprint.of(categories, CategoryState::id, c -> versionOf(c.version()));
+  }
+
+  private static long versionOf(Number version) {
+    return version == null ? 0 : version.longValue();
+  }
+}
@@ -0,0 +1,157 @@
+package com.phoenix.productinventory.snapshot;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.zip.CRC32;
+
+/**
+ * Reads and writes {@link CatalogSnapshot}s as fixed-width binary records in a memory-mapped file.
+ *
+ * <p>Layout (big-endian): a header with magic, format version, creation time and record counts,
+ * followed by one 16-byte record per category ({@code id, version}), one 32-byte record per
+ * product ({@code id, version, price in cents, quantity, categoryId}) and a trailing CRC32 of
+ * everything before it. Files are written to a sibling temporary file and atomically moved into
+ * place, so readers never observe a partially written snapshot.
+ */
+public final class CatalogSnapshotFile {
+
+  private static final int MAGIC = 0x50494353; // "PICS"
+  private static final int FORMAT_VERSION = 1;
+  private static final int HEADER_BYTES = 4 + 4 + 8 + 4 + 4;
+  private static final int CATEGORY_BYTES = 8 + 8;
+  private static final int PRODUCT_BYTES = 8 + 4 + 8 + 4 + 8;
+  private static final int CHECKSUM_BYTES = 8;
+  private static final int PRICE_SCALE = 2;
+  private static final long NO_CATEGORY = -1L;
+
+  private CatalogSnapshotFile() {}
+
+  /**
+   * Writes the snapshot to the given path, replacing any previous snapshot.
+   *
+   * @param path target file
+   * @param snapshot the snapshot to write
+   * @throws IOException if the file cannot be written
+   */
+  public static void write(Path path, CatalogSnapshot snapshot) throws IOException {
+    Path parent = path.toAbsolutePath().getParent();
+    Files.createDirectories(parent);
+    Path tmp = Files.createTempFile(parent, path.getFileName().toString(), ".tmp");
+    long size =
+        (long) HEADER_BYTES
+            + (long) CATEGORY_BYTES * snapshot.categories().size()
+            + (long) PRODUCT_BYTES * snapshot.products().size()
+            + CHECKSUM_BYTES;
+    try {
+      try (FileChannel channel =
+          FileChannel.open(
+              tmp,
+              StandardOpenOption.READ,
+              StandardOpenOption.WRITE,
+              StandardOpenOption.TRUNCATE_EXISTING)) {
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        buffer.putInt(MAGIC);
+        buffer.putInt(FORMAT_VERSION);
+        buffer.putLong(snapshot.createdAt().toEpochMilli());
+        buffer.putInt(snapshot.categories().size());
+        buffer.putInt(snapshot.products().size());
+        for (CategoryState category : snapshot.categories()) {
+          buffer.putLong(category.id());
+          buffer.putLong(category.version() == null ? 0 : category.version());
+        }
+        for (ProductState product : snapshot.products()) {
+          buffer.putLong(product.id());
+          buffer.putInt(product.version() == null ? 0 : product.version());
+          buffer.putLong(
+              product
+                  .price()
+                  .setScale(PRICE_SCALE, RoundingMode.HALF_UP)
+                  .unscaledValue()
+                  .longValueExact());
+          buffer.putInt(product.quantity());
+          buffer.putLong(product.categoryId() == null ? NO_CATEGORY : product.categoryId());
+        }
+        buffer.putLong(checksum(buffer, buffer.position()));
+        buffer.force();
+      }
+      Files.move(
+          tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } finally {
+      Files.deleteIfExists(tmp);
+    }
+  }
+
+  /**
+   * Maps and decodes the snapshot stored at the given path.
+   *
+   * @param path snapshot file
+   * @return the snapshot, or empty if the file is missing, truncated, corrupted or written with an
+   *     unsupported format version
+   * @throws IOException if the file exists but cannot be read
+   */
+  public static Optional<CatalogSnapshot> read(Path path) throws IOException {
+    if (!Files.isRegularFile(path)) {
+      return Optional.empty();
+    }
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      long size = channel.size();
+      if (size < HEADER_BYTES + CHECKSUM_BYTES) {
+        return Optional.empty();
+      }
+      MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+      if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT_VERSION) {
+        return Optional.empty();
+      }
+      Instant createdAt = Instant.ofEpochMilli(buffer.getLong());
+      int categoryCount = buffer.getInt();
+      int productCount = buffer.getInt();
+      long expectedSize =
+          (long) HEADER_BYTES
+              + (long) CATEGORY_BYTES * categoryCount
+              + (long) PRODUCT_BYTES * productCount
+              + CHECKSUM_BYTES;
+      if (categoryCount < 0
+          || productCount < 0
+          || size != expectedSize
+          || checksum(buffer, (int) (size - CHECKSUM_BYTES))
+              != buffer.getLong((int) (size - CHECKSUM_BYTES))) {
+        return Optional.empty();
+      }
+
+      List<CategoryState> categories = new ArrayList<>(categoryCount);
+      for (int i = 0; i < categoryCount; i++) {
+        categories.add(new CategoryState(buffer.getLong(), buffer.getLong()));
+      }
+      List<ProductState> products = new ArrayList<>(productCount);
+      for (int i = 0; i < productCount; i++) {
+        long id = buffer.getLong();
+        int version = buffer.getInt();
+        BigDecimal price = BigDecimal.valueOf(buffer.getLong(), PRICE_SCALE);
+        int quantity = buffer.getInt();
+        long categoryId = buffer.getLong();
+        products.add(
+            new ProductState(
+                id, version, price, quantity, categoryId == NO_CATEGORY ? null : categoryId));
+      }
+      return Optional.of(new CatalogSnapshot(createdAt, products, categories));
+    }
+  }
+
+  private static long checksum(ByteBuffer buffer, int length) {
+    CRC32 crc = new CRC32();
+    crc.update(buffer.duplicate().position(0).limit(length));
+    return crc.getValue();
+  }
+}
@@ -0,0 +1,19 @@
+package com.phoenix.productinventory.snapshot;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Configuration of the catalog snapshot written for warm restarts.
+ *
+ * @param enabled whether snapshots are restored on startup and written periodically
+ * @param path location of the snapshot file
+ * @param refreshInterval how often the snapshot is rewritten while the application runs
+ */
+@ConfigurationProperties(prefix = "catalog.snapshot")
+public record CatalogSnapshotProperties(
+    @DefaultValue("true") boolean enabled,
+    Path path,
+    @DefaultValue("5m") Duration refreshInterval) {}
@@ -0,0 +1,142 @@
+package com.phoenix.productinventory.snapshot;
+
+import com.phoenix.productinventory.repository.CategoryRepository;
+import com.phoenix.productinventory.repository.ProductRepository;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.Optional;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Keeps a memory-mapped snapshot of the catalog so that restarts can skip the full table scan.
+ *
+ * <p>On startup the snapshot file is mapped and compared against the database using one aggregate
+ * query per table (row count, highest id and version sum). Only if the fingerprints differ, or no
+ * usable snapshot exists, is the catalog reloaded from the database. The in-memory indexes build
+ * from {@link #verifiedSnapshot()} instead of scanning the products themselves, so a warm restart
+ * reads no product rows at all. The snapshot is rewritten periodically and on shutdown whenever
+ * the database has changed since the last write.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(
+    prefix = "catalog.snapshot",
+    name = "enabled",
+    havingValue = "true",
+    matchIfMissing = true)
+public class CatalogSnapshotService {
+
+  private final ProductRepository productRepository;
+  private final CategoryRepository categoryRepository;
+  private final CatalogSnapshotProperties properties;
+
+  private volatile CatalogSnapshot current;
+
+  /**
+   * Returns the most recently restored or written snapshot.
+   *
+   * @return the current snapshot, or empty before it has been restored
+   */
+  public Optional<CatalogSnapshot> current() {
+    return Optional.ofNullable(current);
+  }
+
+  /**
+   * Returns a snapshot that matches the database, restoring it from the file or reloading it on
+   * first use.
+   *
+   * @return the snapshot
+   */
+  @Transactional(readOnly = true)
+  public synchronized CatalogSnapshot verifiedSnapshot() {
+    if (current == null) {
+      restoreOrReload();
+    } else if (!matchesDatabase(current)) {
+      reloadAndWrite();
+    }
+    return current;
+  }
+
+  /**
+   * Restores the snapshot on startup, falling back to a full reload if it is stale. Does nothing
+   * if an index restored it already.
+   */
+  @EventListener(ApplicationReadyEvent.class)
+  @Transactional(readOnly = true)
+  public synchronized void restore() {
+    if (current == null) {
+      restoreOrReload();
+    }
+  }
+
+  /** Rewrites the snapshot if the database changed since it was taken. */
+  @Scheduled(
+      initialDelayString = "${catalog.snapshot.refresh-interval:5m}",
+      fixedDelayString = "${catalog.snapshot.refresh-interval:5m}")
+  @Transactional(readOnly = true)
+  public synchronized void refresh() {
+    if (current == null || !matchesDatabase(current)) {
+      reloadAndWrite();
+    }
+  }
+
+  /**
+   * Writes a final snapshot before the context shuts down. Annotated itself, since the call to
+   * {@link #refresh()} does not pass through the transactional proxy.
+   */
+  @EventListener(ContextClosedEvent.class)
+  @Transactional(readOnly = true)
+  public void persistOnShutdown() {
+    refresh();
+  }
+
+  private void restoreOrReload() {
+    Optional<CatalogSnapshot> stored = readFile();
+    if (stored.isPresent() && matchesDatabase(stored.get())) {
+      current = stored.get();
+      log.info(
+          "Restored catalog snapshot from {} ({} products, {} categories)",
+          properties.path(),
+          current.products().size(),
+          current.categories().size());
+      return;
+    }
+    log.info("Catalog snapshot missing or stale, reloading from the database");
+    reloadAndWrite();
+  }
+
+  private boolean matchesDatabase(CatalogSnapshot snapshot) {
+    return snapshot.productFingerprint().equals(productRepository.findFingerprint())
+        && snapshot.categoryFingerprint().equals(categoryRepository.findFingerprint());
+  }
+
+  private void reloadAndWrite() {
+    current =
+        new CatalogSnapshot(
+            Instant.now(), productRepository.findAllStates(), categoryRepository.findAllStates());
+    try {
+      CatalogSnapshotFile.write(properties.path(), current);
+    } catch (IOException e) {
+      log.warn("Could not write catalog snapshot to {}", properties.path(), e);
+    }
+  }
+
+  private Optional<CatalogSnapshot> readFile() {
+    try {
+      return CatalogSnapshotFile.read(properties.path());
+    } catch (IOException | UncheckedIOException e) {
+      log.warn("Could not read catalog snapshot from {}", properties.path(), e);
+      return Optional.empty();
+    }
+  }
+}
@@ -0,0 +1,9 @@
+package com.phoenix.productinventory.snapshot;
+
+/**
+ * Compact view of the category columns kept in a catalog snapshot.
+ *
+ * @param id category identifier
+ * @param version optimistic locking version
+ */
+public record CategoryState(Long id, Long version) {}
@@ -0,0 +1,15 @@
+package com.phoenix.productinventory.snapshot;
+
+import java.math.BigDecimal;
+
+/**
+ * Compact view of the product columns kept in a catalog snapshot.
+ *
+ * @param id product identifier
+ * @param version optimistic locking version
+ * @param price product price
+ * @param quantity quantity in stock
+ * @param categoryId identifier of the assigned category, or {@code null} if none
+ */
+public record ProductState(
+    Long id, Integer version, BigDecimal price, Integer quantity, Long categoryId) {}
@@ -9,4 +9,8 @@ public class CategorySpecification {
     return (root, query, cb) ->
         name == null ? null : cb.like(cb.lower(root.get("name")), "%" + name.toLowerCase() + "%");
   }
+
+  public static Specification<Category> isTopLevel() {
+    return (root, query, cb) -> cb.isNull(root.get("parent"));
+  }
 }
@@ -1,8 +1,14 @@
 package com.phoenix.productinventory.spcification;
 
+import com.phoenix.productinventory.model.CategoryClosure;
 import com.phoenix.productinventory.model.Product;
+import com.phoenix.productinventory.model.ProductCategory;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
 import org.springframework.data.jpa.domain.Specification;
 import java.math.BigDecimal;
+import java.util.Collection;
 
 public class ProductSpecification {
 
@@ -30,4 +36,54 @@ public class ProductSpecification {
     return (root, query, cb) ->
         maxQuantity == null ? null : cb.lessThanOrEqualTo(root.get("quantity"), maxQuantity);
   }
+
+  public static Specification<Product> hasCategoryId(Long categoryId) {
+    return (root, query, cb) ->
+        categoryId == null ? null : cb.equal(root.get("category").get("id"), categoryId);
+  }
+
+  public static Specification<Product> hasIdGreaterThan(Long id) {
+    return (root, query, cb) -> id == null ? null : cb.greaterThan(root.get("id"), id);
+  }
+
+  /** Matches products whose id is in the given collection; no product for an empty collection. */
+  public static Specification<Product> hasIdIn(Collection<Long> ids) {
+    return (root, query, cb) -> ids.isEmpty() ? cb.disjunction() : root.get("id").in(ids);
+  }
+
+  /**
+   * Matches products whose primary category is the given one or that were assigned to it
+   * additionally, through a subquery of the membership table.
+   */
+  public static Specification<Product> isMemberOf(Long categoryId) {
+    return (root, query, cb) -> {
+      Subquery<Long> members = query.subquery(Long.class);
+      Root<ProductCategory> membership = members.from(ProductCategory.class);
+      members
+          .select(membership.get("productId"))
+          .where(cb.equal(membership.get("categoryId"), categoryId));
+      // Without the null check a product without category would be neither a member nor not one
+      Path<Long> primary = root.get("category").get("id");
+      return cb.or(
+          cb.and(cb.isNotNull(primary), cb.equal(primary, categoryId)), root.get("id").in(members));
+    };
+  }
+
+  /**
+   * Matches products of a category or of any of its descendants, through one join of the category
+   * closure table.
+   */
+  public static Specification<Product> inCategorySubtree(Long categoryId) {
+    return (root, query, cb) -> {
+      if (categoryId == null) {
+        return null;
+      }
+      Subquery<Long> subtree = query.subquery(Long.class);
+      Root<CategoryClosure> closure = subtree.from(CategoryClosure.class);
+      subtree
+          .select(closure.get("descendantId"))
+          .where(cb.equal(closure.get("ancestorId"), categoryId));
+      return root.get("category").get("id").in(subtree);
+    };
+  }
 }
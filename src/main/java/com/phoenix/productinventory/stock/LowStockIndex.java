@@ -0,0 +1,490 @@
+package com.phoenix.productinventory.stock;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.phoenix.productinventory.cache.LruCache;
+import com.phoenix.productinventory.datasource.DataSourceRouting;
+import com.phoenix.productinventory.dto.KeysetPageDto;
+import com.phoenix.productinventory.dto.LowStockProductDto;
+import com.phoenix.productinventory.dto.ProductResponseDto;
+import com.phoenix.productinventory.dto.ReorderThresholdDto;
+import com.phoenix.productinventory.exception.BadRequestException;
+import com.phoenix.productinventory.exception.ResourceNotFoundException;
+import com.phoenix.productinventory.model.Product;
+import com.phoenix.productinventory.model.ReorderThreshold;
+import com.phoenix.productinventory.outbox.AggregateType;
+import com.phoenix.productinventory.outbox.ChangeEvent;
+import com.phoenix.productinventory.outbox.ChangeType;
+import com.phoenix.productinventory.repository.ReorderThresholdRepository;
+import com.phoenix.productinventory.service.ProductService;
+import com.phoenix.productinventory.snapshot.CatalogSnapshot;
+import com.phoenix.productinventory.snapshot.CatalogSnapshotService;
+import com.phoenix.productinventory.snapshot.ProductState;
+import com.phoenix.productinventory.spcification.ProductSpecification;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-memory set of the products whose quantity is at or below their reorder threshold.
+ *
+ * <p>The set is loaded once before the application accepts requests: with the verified catalog
+ * snapshot, only the products it shows at or below their threshold are read; without one, the
+ * products at or below the highest configured threshold. From then on it follows the committed
+ * product and reorder threshold changes recorded in the outbox, so it covers single updates, bulk
+ * updates, upserts and every shard alike, and keeping it current costs work per change rather than
+ * per catalog. A change that moves a product across its threshold is published as a {@link
+ * StockThresholdCrossedEvent}.
+ *
+ * <p>Every instance reads the changes from the outbox through the {@link
+ * com.phoenix.productinventory.outbox.OutboxTail}, which hands each event over once. Changes carry
+ * the product version they wrote, and a state older than the one applied last is dropped. Product
+ * ids are never reused, so the recently deleted products are remembered and any state of them
+ * applied after the delete is dropped as well. Threshold changes are applied by reading the
+ * threshold that is current in the database, so their order does not matter. The set lags behind
+ * the database by the tail's poll interval.
+ */
+@Slf4j
+@Component
+@EnableConfigurationProperties(LowStockProperties.class)
+public class LowStockIndex implements SmartInitializingSingleton, MeterBinder {
+
+  private final ProductService productService;
+  private final ReorderThresholdRepository thresholdRepository;
+  private final ObjectMapper objectMapper;
+  private final ApplicationEventPublisher publisher;
+  private final LowStockProperties properties;
+  private final ObjectProvider<CatalogSnapshotService> snapshots;
+
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+  private final NavigableMap<Long, LowStockItem> lowStock = new TreeMap<>();
+  private final Map<Long, Integer> versions = new HashMap<>();
+  private final Map<Long, Integer> productThresholds = new HashMap<>();
+  private final Map<Long, Integer> categoryThresholds = new HashMap<>();
+  private final LruCache<Long, Boolean> deletedProducts;
+  private final LongAdder fellLow = new LongAdder();
+  private final LongAdder restocked = new LongAdder();
+
+  public LowStockIndex(
+      ProductService productService,
+      ReorderThresholdRepository thresholdRepository,
+      ObjectMapper objectMapper,
+      ApplicationEventPublisher publisher,
+      LowStockProperties properties,
+      ObjectProvider<CatalogSnapshotService> snapshots) {
+    this.productService = productService;
+    this.thresholdRepository = thresholdRepository;
+    this.objectMapper = objectMapper;
+    this.publisher = publisher;
+    this.properties = properties;
+    this.snapshots = snapshots;
+    this.deletedProducts = new LruCache<>(properties.deletedProducts());
+  }
+
+  @Override
+  public void afterSingletonsInstantiated() {
+    load();
+  }
+
+  /** Loads the thresholds and the products that are low on stock. */
+  public void load() {
+    List<ReorderThreshold> thresholds = thresholdRepository.findAll();
+    int highest = properties.defaultThreshold();
+    lock.writeLock().lock();
+    try {
+      for (ReorderThreshold threshold : thresholds) {
+        if (threshold.getProductId() != null) {
+          productThresholds.put(threshold.getProductId(), threshold.getThreshold());
+        } else {
+          categoryThresholds.put(threshold.getCategoryId(), threshold.getThreshold());
+        }
+        highest = Math.max(highest, threshold.getThreshold());
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+    // The state as loaded is the baseline: no crossing events for it
+    CatalogSnapshotService snapshotService = snapshots.getIfAvailable();
+    if (snapshotService != null) {
+      loadFrom(snapshotService.verifiedSnapshot());
+    } else if (highest >= 0) {
+      scan(ProductSpecification.hasMaxQuantity(highest), Instant.now(), false);
+    }
+    log.info(
+        "Loaded low-stock index with {} products and {} thresholds", size(), thresholds.size());
+  }
+
+  /**
+   * Applies a committed product, category or reorder threshold change. Events whose payload cannot
+   * be read are logged and skipped.
+   *
+   * @param event the change event read from the outbox
+   */
+  @EventListener
+  public void onChange(ChangeEvent event) {
+    try {
+      switch (event.aggregateType()) {
+        case PRODUCT -> applyProductChange(event);
+        case CATEGORY -> applyCategoryChange(event);
+        case REORDER_THRESHOLD ->
+            refresh(objectMapper.readValue(event.payload(), ReorderThresholdDto.class));
+        case CATEGORY_MEMBERSHIP -> {
+          // Thresholds only follow the primary category
+        }
+      }
+    } catch (JsonProcessingException e) {
+      log.warn("Skipping undecodable change {}", event.id(), e);
+    }
+  }
+
+  /**
+   * Lists the products that are low on stock in id order.
+   *
+   * @param categoryId only products of this primary category, or null for all
+   * @param afterId only products with a greater id, or null to start with the first
+   * @param limit maximum number of products
+   * @return the page of products
+   * @throws BadRequestException if the limit is not between 1 and {@code stock.low.max-page-size}
+   */
+  public KeysetPageDto<LowStockProductDto> getLowStock(Long categoryId, Long afterId, int limit) {
+    if (limit < 1 || limit > properties.maxPageSize()) {
+      throw new BadRequestException("Size must be between 1 and " + properties.maxPageSize());
+    }
+    List<LowStockProductDto> content = new ArrayList<>();
+    boolean more = false;
+    lock.readLock().lock();
+    try {
+      for (LowStockItem item :
+          (afterId == null ? lowStock : lowStock.tailMap(afterId, false)).values()) {
+        if (categoryId != null && !categoryId.equals(item.categoryId())) {
+          continue;
+        }
+        if (content.size() == limit) {
+          more = true;
+          break;
+        }
+        content.add(item.toDto(thresholdOf(item.productId(), item.categoryId())));
+      }
+    } finally {
+      lock.readLock().unlock();
+    }
+    Long nextAfterId = more ? content.get(content.size() - 1).getProductId() : null;
+    return new KeysetPageDto<>(content, limit, nextAfterId);
+  }
+
+  /**
+   * Returns the number of products that are low on stock.
+   *
+   * @return the size of the set
+   */
+  public int size() {
+    lock.readLock().lock();
+    try {
+      return lowStock.size();
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Changes the threshold of a product and re-evaluates it.
+   *
+   * @param product the current state of the product
+   * @param threshold the new threshold, or null to fall back to the one of its category
+   */
+  public void changeProductThreshold(ProductResponseDto product, Integer threshold) {
+    lock.writeLock().lock();
+    try {
+      if (threshold == null) {
+        productThresholds.remove(product.getId());
+      } else {
+        productThresholds.put(product.getId(), threshold);
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+    apply(List.of(product), Instant.now(), true);
+  }
+
+  /**
+   * Changes the threshold of a category and re-evaluates its products: the ones in the set from
+   * their last known state, the others by reading those at or below the new threshold.
+   *
+   * @param categoryId the category
+   * @param threshold the new threshold, or null to fall back to the default threshold
+   */
+  public void changeCategoryThreshold(long categoryId, Integer threshold) {
+    Instant now = Instant.now();
+    List<StockThresholdCrossedEvent> crossings = new ArrayList<>();
+    lock.writeLock().lock();
+    try {
+      if (threshold == null) {
+        categoryThresholds.remove(categoryId);
+      } else {
+        categoryThresholds.put(categoryId, threshold);
+      }
+      List<LowStockItem> members =
+          lowStock.values().stream()
+              .filter(item -> Long.valueOf(categoryId).equals(item.categoryId()))
+              .toList();
+      for (LowStockItem item : members) {
+        int applicable = thresholdOf(item.productId(), item.categoryId());
+        if (item.quantity() > applicable) {
+          lowStock.remove(item.productId());
+          crossings.add(item.crossing(applicable, false, now));
+        }
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+    crossings.forEach(this::publish);
+    int applicable = threshold != null ? threshold : properties.defaultThreshold();
+    if (applicable >= 0) {
+      scan(
+          Specification.where(ProductSpecification.hasCategoryId(categoryId))
+              .and(ProductSpecification.hasMaxQuantity(applicable)),
+          now,
+          true);
+    }
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    Gauge.builder("stock.low.products", this, LowStockIndex::size)
+        .description("Products at or below their reorder threshold")
+        .register(registry);
+    FunctionCounter.builder("stock.low.crossings", fellLow, LongAdder::sum)
+        .description("Products that fell to or below their reorder threshold")
+        .tag("direction", "low")
+        .register(registry);
+    FunctionCounter.builder("stock.low.crossings", restocked, LongAdder::sum)
+        .description("Products that rose above their reorder threshold again")
+        .tag("direction", "restocked")
+        .register(registry);
+  }
+
+  private void applyProductChange(ChangeEvent event) throws JsonProcessingException {
+    if (event.type() == ChangeType.DELETED) {
+      remove(event.aggregateId());
+      return;
+    }
+    ProductResponseDto product = objectMapper.readValue(event.payload(), ProductResponseDto.class);
+    apply(List.of(product), event.occurredAt(), true);
+  }
+
+  /** Forgets the threshold of a deleted category; its products are deleted with it. */
+  private void applyCategoryChange(ChangeEvent event) {
+    if (event.type() != ChangeType.DELETED) {
+      return;
+    }
+    lock.writeLock().lock();
+    try {
+      categoryThresholds.remove(event.aggregateId());
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Applies the threshold that is current in the database for the product or category of a
+   * threshold change, if it differs from the one applied.
+   */
+  private void refresh(ReorderThresholdDto changed) {
+    try (DataSourceRouting.Scope ignored = DataSourceRouting.forcePrimary()) {
+      if (changed.getProductId() != null) {
+        long productId = changed.getProductId();
+        Integer threshold =
+            thresholdRepository
+                .findByProductId(productId)
+                .map(ReorderThreshold::getThreshold)
+                .orElse(null);
+        if (!Objects.equals(threshold, appliedThreshold(productThresholds, productId))) {
+          refreshProductThreshold(productId, threshold);
+        }
+      } else {
+        long categoryId = changed.getCategoryId();
+        Integer threshold =
+            thresholdRepository
+                .findByCategoryId(categoryId)
+                .map(ReorderThreshold::getThreshold)
+                .orElse(null);
+        if (!Objects.equals(threshold, appliedThreshold(categoryThresholds, categoryId))) {
+          changeCategoryThreshold(categoryId, threshold);
+        }
+      }
+    }
+  }
+
+  private void refreshProductThreshold(long productId, Integer threshold) {
+    ProductResponseDto product;
+    try {
+      product = productService.getProductById(productId);
+    } catch (ResourceNotFoundException e) {
+      remove(productId);
+      return;
+    }
+    changeProductThreshold(product, threshold);
+  }
+
+  private Integer appliedThreshold(Map<Long, Integer> thresholds, long id) {
+    lock.readLock().lock();
+    try {
+      return thresholds.get(id);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /** Reads the products that the snapshot shows at or below their threshold, in batches. */
+  private void loadFrom(CatalogSnapshot snapshot) {
+    List<Long> candidates = new ArrayList<>();
+    lock.readLock().lock();
+    try {
+      for (ProductState product : snapshot.products()) {
+        if (product.quantity() <= thresholdOf(product.id(), product.categoryId())) {
+          candidates.add(product.id());
+        }
+      }
+    } finally {
+      lock.readLock().unlock();
+    }
+    Instant now = Instant.now();
+    for (int from = 0; from < candidates.size(); from += properties.loadBatchSize()) {
+      List<Long> batch =
+          candidates.subList(from, Math.min(from + properties.loadBatchSize(), candidates.size()));
+      apply(
+          productService.getProductsAfter(
+              ProductSpecification.hasIdIn(batch), null, properties.loadBatchSize()),
+          now,
+          false);
+    }
+  }
+
+  /** Applies the products matching a filter, reading them in batches in id order. */
+  private void scan(Specification<Product> spec, Instant at, boolean announce) {
+    Long afterId = null;
+    List<ProductResponseDto> batch;
+    do {
+      batch = productService.getProductsAfter(spec, afterId, properties.loadBatchSize());
+      apply(batch, at, announce);
+      if (!batch.isEmpty()) {
+        afterId = batch.get(batch.size() - 1).getId();
+      }
+    } while (batch.size() == properties.loadBatchSize());
+  }
+
+  /**
+   * Applies product states and, if asked to, publishes the crossings they cause. Products that
+   * are low on stock keep the time they became so.
+   */
+  private void apply(List<ProductResponseDto> products, Instant at, boolean announce) {
+    List<StockThresholdCrossedEvent> crossings = new ArrayList<>();
+    lock.writeLock().lock();
+    try {
+      for (ProductResponseDto product : products) {
+        // Read or relayed before the delete, but applied after it
+        if (deletedProducts.get(product.getId()) != null) {
+          continue;
+        }
+        Integer applied = versions.get(product.getId());
+        if (applied != null && product.getVersion() != null && product.getVersion() < applied) {
+          continue;
+        }
+        if (product.getVersion() != null) {
+          versions.put(product.getId(), product.getVersion());
+        }
+        LowStockItem item = LowStockItem.of(product, at);
+        int threshold = thresholdOf(item.productId(), item.categoryId());
+        LowStockItem previous = lowStock.get(item.productId());
+        if (item.quantity() <= threshold) {
+          lowStock.put(item.productId(), previous == null ? item : item.since(previous.since()));
+          if (previous == null) {
+            crossings.add(item.crossing(threshold, true, at));
+          }
+        } else if (previous != null) {
+          lowStock.remove(item.productId());
+          crossings.add(item.crossing(threshold, false, at));
+        }
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+    if (announce) {
+      crossings.forEach(this::publish);
+    }
+  }
+
+  private void publish(StockThresholdCrossedEvent crossing) {
+    (crossing.lowStock() ? fellLow : restocked).increment();
+    publisher.publishEvent(crossing);
+  }
+
+  private void remove(long productId) {
+    lock.writeLock().lock();
+    try {
+      lowStock.remove(productId);
+      versions.remove(productId);
+      productThresholds.remove(productId);
+      deletedProducts.put(productId, Boolean.TRUE);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /** The threshold of a product; must be called with the lock held. */
+  private int thresholdOf(long productId, Long categoryId) {
+    Integer threshold = productThresholds.get(productId);
+    if (threshold == null && categoryId != null) {
+      threshold = categoryThresholds.get(categoryId);
+    }
+    return threshold != null ? threshold : properties.defaultThreshold();
+  }
+
+  /** The state of a product as far as the index needs it. */
+  private record LowStockItem(
+      long productId, String name, String sku, Long categoryId, int quantity, Instant since) {
+
+    static LowStockItem of(ProductResponseDto product, Instant since) {
+      return new LowStockItem(
+          product.getId(),
+          product.getName(),
+          product.getSku(),
+          product.getCategory() == null ? null : product.getCategory().getId(),
+          product.getQuantity(),
+          since);
+    }
+
+    LowStockItem since(Instant since) {
+      return new LowStockItem(productId, name, sku, categoryId, quantity, since);
+    }
+
+    StockThresholdCrossedEvent crossing(int threshold, boolean lowStock, Instant at) {
+      return new StockThresholdCrossedEvent(
+          productId, categoryId, quantity, threshold, lowStock, at);
+    }
+
+    LowStockProductDto toDto(int threshold) {
+      return new LowStockProductDto(productId, name, sku, categoryId, quantity, threshold, since);
+    }
+  }
+}
@@ -0,0 +1,21 @@
+package com.phoenix.productinventory.stock;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Configuration of the low-stock index ({@code GET /products/low-stock}).
+ *
+ * @param defaultThreshold threshold of products without one of their own or of their category; a
+ *     negative value means such products are never low on stock
+ * @param loadBatchSize number of products read per query while loading or re-evaluating
+ * @param maxPageSize largest page of low-stock products returned at once
+ * @param deletedProducts number of recently deleted products remembered, so that a change of such a
+ *     product applied after its deletion does not bring it back
+ */
+@ConfigurationProperties(prefix = "stock.low")
+public record LowStockProperties(
+    @DefaultValue("0") int defaultThreshold,
+    @DefaultValue("1000") int loadBatchSize,
+    @DefaultValue("1000") int maxPageSize,
+    @DefaultValue("10000") int deletedProducts) {}
@@ -0,0 +1,137 @@
+package com.phoenix.productinventory.stock;
+
+import com.phoenix.productinventory.dto.ProductResponseDto;
+import com.phoenix.productinventory.dto.ReorderThresholdDto;
+import com.phoenix.productinventory.exception.BadRequestException;
+import com.phoenix.productinventory.exception.ResourceNotFoundException;
+import com.phoenix.productinventory.model.ReorderThreshold;
+import com.phoenix.productinventory.outbox.ChangeType;
+import com.phoenix.productinventory.outbox.OutboxService;
+import com.phoenix.productinventory.repository.ReorderThresholdRepository;
+import com.phoenix.productinventory.service.CategoryService;
+import com.phoenix.productinventory.service.ProductService;
+import java.util.Optional;
+import java.util.function.Supplier;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Sets and removes the reorder thresholds of products and categories.
+ *
+ * <p>Every change is committed together with its change event before the {@link LowStockIndex}
+ * re-evaluates the affected products, so the index never applies a threshold that was rolled
+ * back. The index of this instance applies the change right away; the indexes of the other
+ * instances apply it when they read the event from the outbox. Thresholds are kept in the default
+ * database, which is shard 0 when the catalog is sharded.
+ */
+@Service
+@RequiredArgsConstructor
+public class ReorderThresholdService {
+
+  private final ReorderThresholdRepository repository;
+  private final ProductService productService;
+  private final CategoryService categoryService;
+  private final LowStockIndex index;
+  private final OutboxService outbox;
+  private final TransactionTemplate transactionTemplate;
+
+  /**
+   * Sets the threshold of a product, overriding the one of its category.
+   *
+   * @param productId the product
+   * @param threshold the threshold
+   * @return the stored threshold
+   * @throws BadRequestException if the threshold is missing or negative
+   * @throws ResourceNotFoundException if the product does not exist
+   */
+  public ReorderThresholdDto setProductThreshold(Long productId, Integer threshold) {
+    validate(threshold);
+    ProductResponseDto product = productService.getProductById(productId);
+    ReorderThreshold stored =
+        transactionTemplate.execute(
+            status ->
+                save(
+                    repository.findByProductId(productId),
+                    () -> ReorderThreshold.builder().productId(productId).build(),
+                    threshold));
+    index.changeProductThreshold(product, threshold);
+    return toDto(stored);
+  }
+
+  /**
+   * Removes the threshold of a product, so the one of its category applies again.
+   *
+   * @param productId the product
+   * @throws ResourceNotFoundException if the product does not exist
+   */
+  public void removeProductThreshold(Long productId) {
+    ProductResponseDto product = productService.getProductById(productId);
+    transactionTemplate.executeWithoutResult(
+        status -> repository.findByProductId(productId).ifPresent(this::delete));
+    index.changeProductThreshold(product, null);
+  }
+
+  /**
+   * Sets the threshold of the products whose primary category is the given one.
+   *
+   * @param categoryId the category
+   * @param threshold the threshold
+   * @return the stored threshold
+   * @throws BadRequestException if the threshold is missing or negative
+   * @throws ResourceNotFoundException if the category does not exist
+   */
+  public ReorderThresholdDto setCategoryThreshold(Long categoryId, Integer threshold) {
+    validate(threshold);
+    categoryService.getCategoryById(categoryId);
+    ReorderThreshold stored =
+        transactionTemplate.execute(
+            status ->
+                save(
+                    repository.findByCategoryId(categoryId),
+                    () -> ReorderThreshold.builder().categoryId(categoryId).build(),
+                    threshold));
+    index.changeCategoryThreshold(categoryId, threshold);
+    return toDto(stored);
+  }
+
+  /**
+   * Removes the threshold of a category, so the default threshold applies to its products again.
+   *
+   * @param categoryId the category
+   * @throws ResourceNotFoundException if the category does not exist
+   */
+  public void removeCategoryThreshold(Long categoryId) {
+    categoryService.getCategoryById(categoryId);
+    transactionTemplate.executeWithoutResult(
+        status -> repository.findByCategoryId(categoryId).ifPresent(this::delete));
+    index.changeCategoryThreshold(categoryId, null);
+  }
+
+  /** Stores the threshold, creating it if there is none yet, and records the change. */
+  private ReorderThreshold save(
+      Optional<ReorderThreshold> existing, Supplier<ReorderThreshold> creator, int threshold) {
+    ReorderThreshold stored = existing.orElseGet(creator);
+    ChangeType type = stored.getId() == null ? ChangeType.CREATED : ChangeType.UPDATED;
+    stored.setThreshold(threshold);
+    stored = repository.save(stored);
+    outbox.record(type, stored);
+    return stored;
+  }
+
+  private void delete(ReorderThreshold threshold) {
+    repository.delete(threshold);
+    outbox.record(ChangeType.DELETED, threshold);
+  }
+
+  private static void validate(Integer threshold) {
+    if (threshold == null || threshold < 0) {
+      throw new BadRequestException("Reorder threshold must be zero or positive");
+    }
+  }
+
+  private static ReorderThresholdDto toDto(ReorderThreshold threshold) {
+    return new ReorderThresholdDto(
+        threshold.getProductId(), threshold.getCategoryId(), threshold.getThreshold());
+  }
+}
@@ -0,0 +1,24 @@
+package com.phoenix.productinventory.stock;
+
+import java.time.Instant;
+
+/**
+ * Published as a Spring application event when a product falls to or below its reorder threshold,
+ * or rises above it again. In-process consumers subscribe with
+ * {@code @EventListener(StockThresholdCrossedEvent.class)}.
+ *
+ * @param productId the product
+ * @param categoryId the primary category of the product, or null if it has none
+ * @param quantity the quantity after the change
+ * @param threshold the threshold that applies to the product
+ * @param lowStock true if the product became low on stock, false if it was restocked
+ * @param occurredAt commit time of the change, or the time of the threshold change that caused
+ *     the crossing
+ */
+public record StockThresholdCrossedEvent(
+    long productId,
+    Long categoryId,
+    int quantity,
+    int threshold,
+    boolean lowStock,
+    Instant occurredAt) {}
@@ -0,0 +1,41 @@
+package com.phoenix.productinventory.warmup;
+
+import io.micrometer.observation.ObservationPredicate;
+import jakarta.servlet.http.HttpServletRequest;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+
+/**
+ * Keeps the requests replayed by the {@link WarmupRunner} out of the {@code http.server.requests}
+ * metrics, so the slow first rounds and the repeated reads do not show up as real traffic.
+ *
+ * <p>Warm-up requests carry the {@link WarmupRunner#HEADER} header and come from the loopback
+ * address; the header alone is not trusted, so clients cannot hide their requests from the
+ * metrics.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "warmup", name = "enabled", havingValue = "true")
+public class WarmupObservationConfig {
+
+  @Bean
+  public ObservationPredicate warmupRequestsExcluded() {
+    return (name, context) ->
+        !(context instanceof ServerRequestObservationContext server
+            && isWarmup(server.getCarrier()));
+  }
+
+  private static boolean isWarmup(HttpServletRequest request) {
+    if (request.getHeader(WarmupRunner.HEADER) == null) {
+      return false;
+    }
+    try {
+      return InetAddress.getByName(request.getRemoteAddr()).isLoopbackAddress();
+    } catch (UnknownHostException e) {
+      return false;
+    }
+  }
+}
@@ -0,0 +1,38 @@
+package com.phoenix.productinventory.warmup;
+
+import java.time.Duration;
+import java.util.List;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Configuration of the warm-up run before the application reports itself ready.
+ *
+ * @param enabled whether requests are replayed on startup; off unless configured, so embedded
+ *     servers started by tests do not replay anything
+ * @param requests the representative requests replayed in every round
+ * @param products number of products whose {@code GET /products/{id}} is replayed as well
+ * @param categories number of categories whose detail and product list are replayed as well
+ * @param rounds how often the requests are replayed
+ * @param concurrency number of requests sent at the same time
+ * @param timeout longest time the warm-up may delay readiness; remaining rounds are skipped
+ */
+@ConfigurationProperties(prefix = "warmup")
+public record WarmupProperties(
+    @DefaultValue("false") boolean enabled,
+    @DefaultValue List<WarmupRequest> requests,
+    @DefaultValue("100") int products,
+    @DefaultValue("20") int categories,
+    @DefaultValue("10") int rounds,
+    @DefaultValue("4") int concurrency,
+    @DefaultValue("30s") Duration timeout) {
+
+  /**
+   * One replayed request.
+   *
+   * @param method the HTTP method
+   * @param path the path and query string
+   * @param body the JSON request body, or null
+   */
+  public record WarmupRequest(@DefaultValue("GET") String method, String path, String body) {}
+}
@@ -0,0 +1,200 @@
+package com.phoenix.productinventory.warmup;
+
+import com.phoenix.productinventory.dto.CategoryResponseDto;
+import com.phoenix.productinventory.dto.ProductResponseDto;
+import com.phoenix.productinventory.service.CategoryService;
+import com.phoenix.productinventory.service.ProductService;
+import com.phoenix.productinventory.warmup.WarmupProperties.WarmupRequest;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientException;
+
+/**
+ * Replays representative requests against the application's own HTTP port before it reports
+ * itself ready.
+ *
+ * <p>Spring Boot only switches the readiness state to {@code ACCEPTING_TRAFFIC} once all
+ * application runners have returned, so while the warm-up runs, {@code /actuator/health/readiness}
+ * answers {@code 503} and load balancers keep sending traffic to the other instances. The requests
+ * take the same path as real traffic through Tomcat, the filters, the controllers and Jackson:
+ * they get the hot code compiled, fill the Hibernate query plan cache, the search plan cache and
+ * the product fragment cache, and open the connections of the pool.
+ *
+ * <p>Besides the configured requests, every round reads the first {@code warmup.products} products
+ * and the detail and product list of the first {@code warmup.categories} categories. Failed
+ * requests are counted and logged at debug level but never fail the startup, and the warm-up stops
+ * after {@code warmup.timeout} whatever the number of rounds left. The requests carry the {@link
+ * #HEADER} header and are left out of the HTTP metrics (see {@link WarmupObservationConfig}).
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@EnableConfigurationProperties(WarmupProperties.class)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(
+    prefix = "warmup",
+    name = "enabled",
+    havingValue = "true")
+public class WarmupRunner implements ApplicationRunner {
+
+  /** Header marking the requests replayed by the warm-up. */
+  public static final String HEADER = "X-Warmup";
+
+  private final ApplicationContext context;
+  private final ProductService productService;
+  private final CategoryService categoryService;
+  private final RestClient.Builder restClientBuilder;
+  private final WarmupProperties properties;
+
+  private volatile Result lastResult;
+
+  /**
+   * Outcome of a warm-up.
+   *
+   * @param rounds the rounds started
+   * @param requests the requests that completed, successfully or not
+   * @param failures the requests that failed or answered with an error status
+   * @param elapsed the time the warm-up delayed readiness
+   */
+  public record Result(int rounds, long requests, long failures, Duration elapsed) {}
+
+  /**
+   * Returns the outcome of the warm-up of this instance.
+   *
+   * @return the result, or empty if no warm-up has run
+   */
+  public Optional<Result> lastResult() {
+    return Optional.ofNullable(lastResult);
+  }
+
+  @Override
+  public void run(ApplicationArguments args) throws InterruptedException {
+    if (!(context instanceof WebServerApplicationContext webContext)
+        || webContext.getWebServer() == null
+        || webContext.getWebServer().getPort() <= 0) {
+      log.debug("No web server is listening, skipping the warm-up");
+      return;
+    }
+    RestClient client =
+        restClientBuilder
+            .clone()
+            .baseUrl("http://localhost:" + webContext.getWebServer().getPort())
+            .build();
+    List<Callable<Boolean>> tasks = new ArrayList<>();
+    for (WarmupRequest request : requests()) {
+      tasks.add(() -> send(client, request));
+    }
+
+    ExecutorService executor =
+        Executors.newFixedThreadPool(
+            properties.concurrency(), Thread.ofPlatform().name("warmup-", 1).factory());
+    long start = System.nanoTime();
+    long deadline = start + properties.timeout().toNanos();
+    int rounds = 0;
+    long requests = 0;
+    long failures = 0;
+    List<Long> roundMillis = new ArrayList<>();
+    try {
+      while (rounds < properties.rounds() && System.nanoTime() < deadline) {
+        rounds++;
+        long roundStart = System.nanoTime();
+        for (Future<Boolean> future :
+            executor.invokeAll(tasks, deadline - roundStart, TimeUnit.NANOSECONDS)) {
+          if (future.isCancelled()) {
+            // Cut off by the timeout
+            continue;
+          }
+          requests++;
+          try {
+            if (!future.get()) {
+              failures++;
+            }
+          } catch (ExecutionException e) {
+            failures++;
+          }
+        }
+        roundMillis.add(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - roundStart));
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+
+    lastResult =
+        new Result(rounds, requests, failures, Duration.ofNanos(System.nanoTime() - start));
+    log.info(
+        "Warm-up replayed {} requests in {} rounds in {} ms ({} failed); "
+            + "first round took {} ms, last round {} ms",
+        requests,
+        rounds,
+        lastResult.elapsed().toMillis(),
+        failures,
+        roundMillis.isEmpty() ? 0 : roundMillis.get(0),
+        roundMillis.isEmpty() ? 0 : roundMillis.get(roundMillis.size() - 1));
+  }
+
+  /** The configured requests followed by the reads of the sampled products and categories. */
+  private List<WarmupRequest> requests() {
+    List<WarmupRequest> requests = new ArrayList<>(properties.requests());
+    if (properties.products() > 0) {
+      for (ProductResponseDto product :
+          productService.getProductsAfter(null, null, properties.products())) {
+        requests.add(get("/products/" + product.getId()));
+      }
+    }
+    if (properties.categories() > 0) {
+      for (CategoryResponseDto category :
+          categoryService.getAllCategories(
+              null, PageRequest.of(0, properties.categories(), Sort.by("id")))) {
+        requests.add(get("/categories/" + category.getId()));
+        requests.add(get("/categories/" + category.getId() + "/products"));
+      }
+    }
+    return requests;
+  }
+
+  private static WarmupRequest get(String path) {
+    return new WarmupRequest(HttpMethod.GET.name(), path, null);
+  }
+
+  private static boolean send(RestClient client, WarmupRequest request) {
+    try {
+      RestClient.RequestBodySpec spec =
+          client
+              .method(HttpMethod.valueOf(request.method()))
+              .uri(request.path())
+              .header(HEADER, "true");
+      if (request.body() != null) {
+        spec.contentType(MediaType.APPLICATION_JSON).body(request.body());
+      }
+      spec.retrieve().toBodilessEntity();
+      return true;
+    } catch (RestClientException e) {
+      log.debug(
+          "Warm-up request {} {} failed: {}", request.method(), request.path(), e.getMessage());
+      return false;
+    }
+  }
+}
@@ -0,0 +1,7 @@
+-- Relays claim a batch with a conditional update before publishing it, so concurrent relays of one
+-- database never publish the same event; an expired claim is taken over by the next relay.
+-- pending_sinks lists the sinks that still have to receive an event after one of them failed; null
+-- stands for every sink.
+ALTER TABLE outbox_events ADD COLUMN claimed_by VARCHAR(36);
+ALTER TABLE outbox_events ADD COLUMN claimed_until TIMESTAMP WITH TIME ZONE;
+ALTER TABLE outbox_events ADD COLUMN pending_sinks VARCHAR(1000);
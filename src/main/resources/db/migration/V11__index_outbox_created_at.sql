@@ -0,0 +1,3 @@
+-- A stream replay starts at the first event recorded within the replay window before the last
+-- event the client saw, since events with lower ids can commit after it
+CREATE INDEX idx_outbox_events_created_at ON outbox_events (created_at);
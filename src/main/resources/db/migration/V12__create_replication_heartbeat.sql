@@ -0,0 +1,9 @@
+-- Position advanced on the primary at a fixed interval. The replica's copy of the row tells how far
+-- replication has got, so a client's reads can wait on the replica until it has applied their writes.
+CREATE TABLE replication_heartbeat
+(
+    id       INT PRIMARY KEY,
+    position BIGINT NOT NULL
+);
+
+INSERT INTO replication_heartbeat (id, position) VALUES (1, 0);
@@ -0,0 +1,8 @@
+-- Rows locked on the first shard for the duration of a write that is applied to every shard, so
+-- such writes reach all shards in the same order
+CREATE TABLE shard_locks
+(
+    name VARCHAR(64) PRIMARY KEY
+);
+
+INSERT INTO shard_locks (name) VALUES ('categories');
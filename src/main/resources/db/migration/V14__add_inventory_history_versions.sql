@@ -0,0 +1,8 @@
+-- Product versions of the first and last change in each bucket. A stored bucket is only extended by changes with a
+-- higher version, so outbox events delivered twice are not counted twice. Buckets written before have none.
+ALTER TABLE inventory_history_minute ADD COLUMN first_version BIGINT;
+ALTER TABLE inventory_history_minute ADD COLUMN last_version BIGINT;
+ALTER TABLE inventory_history_hour ADD COLUMN first_version BIGINT;
+ALTER TABLE inventory_history_hour ADD COLUMN last_version BIGINT;
+ALTER TABLE inventory_history_day ADD COLUMN first_version BIGINT;
+ALTER TABLE inventory_history_day ADD COLUMN last_version BIGINT;
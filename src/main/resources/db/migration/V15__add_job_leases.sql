@@ -0,0 +1,4 @@
+-- A running job is leased by the runner executing it; the runner renews the lease with every chunk,
+-- and only jobs whose lease expired are requeued, so a job never runs on two instances at once.
+ALTER TABLE jobs ADD COLUMN claimed_by VARCHAR(36);
+ALTER TABLE jobs ADD COLUMN claimed_until TIMESTAMP WITH TIME ZONE;
@@ -0,0 +1,10 @@
+-- Seed rows were inserted without a version, which makes Hibernate treat them as new entities
+-- (deletes are skipped and updates fail the optimistic lock check). Initialize them and make the
+-- column mandatory so every row takes part in optimistic locking and snapshot fingerprints.
+UPDATE categories SET version = 0 WHERE version IS NULL;
+UPDATE products SET version = 0 WHERE version IS NULL;
+
+ALTER TABLE categories ALTER COLUMN version SET DEFAULT 0;
+ALTER TABLE categories ALTER COLUMN version SET NOT NULL;
+ALTER TABLE products ALTER COLUMN version SET DEFAULT 0;
+ALTER TABLE products ALTER COLUMN version SET NOT NULL;
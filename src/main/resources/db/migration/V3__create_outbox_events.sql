@@ -0,0 +1,15 @@
+-- Change events written in the same transaction as the change itself and relayed to the event sinks
+CREATE TABLE outbox_events
+(
+    id                BIGINT AUTO_INCREMENT PRIMARY KEY,
+    aggregate_type    VARCHAR(32)              NOT NULL,
+    aggregate_id      BIGINT                   NOT NULL,
+    aggregate_version BIGINT,
+    event_type        VARCHAR(32)              NOT NULL,
+    payload           CLOB,
+    created_at        TIMESTAMP WITH TIME ZONE NOT NULL,
+    published_at      TIMESTAMP WITH TIME ZONE
+);
+
+-- The relay scans unpublished events in id order; the retention purge scans by publication time
+CREATE INDEX idx_outbox_events_published_at ON outbox_events (published_at, id);
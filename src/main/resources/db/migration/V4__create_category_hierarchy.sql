@@ -0,0 +1,24 @@
+-- Categories form a forest: parent_id points to the parent category, NULL for top-level categories
+ALTER TABLE categories ADD COLUMN parent_id BIGINT;
+ALTER TABLE categories ADD CONSTRAINT fk_category_parent FOREIGN KEY (parent_id) REFERENCES categories (id);
+
+-- Closure table: one row per (ancestor, descendant) pair including each category with itself at
+-- depth 0, so subtree queries are a single join instead of a recursive walk over parent_id
+CREATE TABLE category_closure
+(
+    ancestor_id   BIGINT NOT NULL,
+    descendant_id BIGINT NOT NULL,
+    depth         INT    NOT NULL,
+    PRIMARY KEY (ancestor_id, descendant_id),
+    CONSTRAINT fk_closure_ancestor FOREIGN KEY (ancestor_id) REFERENCES categories (id) ON DELETE CASCADE,
+    CONSTRAINT fk_closure_descendant FOREIGN KEY (descendant_id) REFERENCES categories (id) ON DELETE CASCADE
+);
+
+-- Ancestor lookups (moves, breadcrumbs) scan by descendant
+CREATE INDEX idx_category_closure_descendant ON category_closure (descendant_id, ancestor_id);
+
+-- Subtree product listings join the closure table to products by category
+CREATE INDEX idx_products_category_id ON products (category_id);
+
+INSERT INTO category_closure (ancestor_id, descendant_id, depth)
+SELECT id, id, 0 FROM categories;
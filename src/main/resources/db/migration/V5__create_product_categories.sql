@@ -0,0 +1,12 @@
+-- Additional category memberships of a product, next to its primary category (products.category_id)
+CREATE TABLE product_categories
+(
+    product_id  BIGINT NOT NULL,
+    category_id BIGINT NOT NULL,
+    PRIMARY KEY (product_id, category_id),
+    CONSTRAINT fk_product_categories_product FOREIGN KEY (product_id) REFERENCES products (id) ON DELETE CASCADE,
+    CONSTRAINT fk_product_categories_category FOREIGN KEY (category_id) REFERENCES categories (id) ON DELETE CASCADE
+);
+
+-- Loading the membership index and removing a category scan by category
+CREATE INDEX idx_product_categories_category ON product_categories (category_id, product_id);
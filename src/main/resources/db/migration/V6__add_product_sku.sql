@@ -0,0 +1,4 @@
+-- Natural key of products, e.g. the supplier's stock keeping unit; optional for existing rows
+ALTER TABLE products ADD COLUMN sku VARCHAR(64);
+
+CREATE UNIQUE INDEX uk_products_sku ON products (sku);
@@ -0,0 +1,19 @@
+-- Long-running bulk operations executed in the background, one committed chunk at a time
+CREATE TABLE jobs
+(
+    id               BIGINT AUTO_INCREMENT PRIMARY KEY,
+    type             VARCHAR(32)              NOT NULL,
+    status           VARCHAR(16)              NOT NULL,
+    payload          CLOB                     NOT NULL,
+    cursor_position  BIGINT                   NOT NULL DEFAULT 0,
+    processed        BIGINT                   NOT NULL DEFAULT 0,
+    total            BIGINT,
+    cancel_requested BOOLEAN                  NOT NULL DEFAULT FALSE,
+    error            VARCHAR(1000),
+    created_at       TIMESTAMP WITH TIME ZONE NOT NULL,
+    started_at       TIMESTAMP WITH TIME ZONE,
+    finished_at      TIMESTAMP WITH TIME ZONE
+);
+
+-- The runner claims queued jobs in id order and requeues running ones after a restart
+CREATE INDEX idx_jobs_status ON jobs (status, id);
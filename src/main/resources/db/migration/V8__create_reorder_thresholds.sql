@@ -0,0 +1,17 @@
+-- Reorder thresholds of single products and of whole categories. A product is low on stock when its
+-- quantity is at or below its own threshold, else the one of its primary category. There are no
+-- foreign keys, so that a sharded catalog can keep all thresholds on shard 0.
+CREATE TABLE reorder_thresholds
+(
+    id          BIGINT AUTO_INCREMENT PRIMARY KEY,
+    product_id  BIGINT,
+    category_id BIGINT,
+    threshold   INT NOT NULL,
+    CONSTRAINT uk_reorder_thresholds_product UNIQUE (product_id),
+    CONSTRAINT uk_reorder_thresholds_category UNIQUE (category_id),
+    CONSTRAINT ck_reorder_thresholds_target CHECK ((product_id IS NULL) <> (category_id IS NULL)),
+    CONSTRAINT ck_reorder_thresholds_threshold CHECK (threshold >= 0)
+);
+
+-- Loading the low-stock index reads the products at or below the highest threshold
+CREATE INDEX idx_products_quantity ON products (quantity, id);
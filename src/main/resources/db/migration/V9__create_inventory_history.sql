@@ -0,0 +1,67 @@
+-- Inventory history in three resolutions. Each row aggregates the quantity and price changes of one product in
+-- one time bucket; rows move to the next coarser table as they age (see InventoryHistoryDownsampler).
+
+-- Changes of the last days, one row per product and minute with at least one change
+CREATE TABLE inventory_history_minute
+(
+    product_id     BIGINT                   NOT NULL,
+    bucket_start   TIMESTAMP WITH TIME ZONE NOT NULL,
+    category_id    BIGINT,
+    open_quantity  INT                      NOT NULL,
+    close_quantity INT                      NOT NULL,
+    min_quantity   INT                      NOT NULL,
+    max_quantity   INT                      NOT NULL,
+    open_price     DECIMAL(10, 2)           NOT NULL,
+    close_price    DECIMAL(10, 2)           NOT NULL,
+    min_price      DECIMAL(10, 2)           NOT NULL,
+    max_price      DECIMAL(10, 2)           NOT NULL,
+    changes        INT                      NOT NULL,
+    PRIMARY KEY (product_id, bucket_start)
+);
+
+-- Category range queries, and the downsampler selecting rows past the retention
+CREATE INDEX idx_inventory_history_minute_category ON inventory_history_minute (category_id, bucket_start);
+CREATE INDEX idx_inventory_history_minute_bucket ON inventory_history_minute (bucket_start, product_id);
+
+-- Minutes past history.minute-retention, rolled up per hour
+CREATE TABLE inventory_history_hour
+(
+    product_id     BIGINT                   NOT NULL,
+    bucket_start   TIMESTAMP WITH TIME ZONE NOT NULL,
+    category_id    BIGINT,
+    open_quantity  INT                      NOT NULL,
+    close_quantity INT                      NOT NULL,
+    min_quantity   INT                      NOT NULL,
+    max_quantity   INT                      NOT NULL,
+    open_price     DECIMAL(10, 2)           NOT NULL,
+    close_price    DECIMAL(10, 2)           NOT NULL,
+    min_price      DECIMAL(10, 2)           NOT NULL,
+    max_price      DECIMAL(10, 2)           NOT NULL,
+    changes        INT                      NOT NULL,
+    PRIMARY KEY (product_id, bucket_start)
+);
+
+-- Category range queries, and the downsampler selecting rows past the retention
+CREATE INDEX idx_inventory_history_hour_category ON inventory_history_hour (category_id, bucket_start);
+CREATE INDEX idx_inventory_history_hour_bucket ON inventory_history_hour (bucket_start, product_id);
+
+-- Hours past history.hour-retention, rolled up per day and kept indefinitely
+CREATE TABLE inventory_history_day
+(
+    product_id     BIGINT                   NOT NULL,
+    bucket_start   TIMESTAMP WITH TIME ZONE NOT NULL,
+    category_id    BIGINT,
+    open_quantity  INT                      NOT NULL,
+    close_quantity INT                      NOT NULL,
+    min_quantity   INT                      NOT NULL,
+    max_quantity   INT                      NOT NULL,
+    open_price     DECIMAL(10, 2)           NOT NULL,
+    close_price    DECIMAL(10, 2)           NOT NULL,
+    min_price      DECIMAL(10, 2)           NOT NULL,
+    max_price      DECIMAL(10, 2)           NOT NULL,
+    changes        INT                      NOT NULL,
+    PRIMARY KEY (product_id, bucket_start)
+);
+
+-- Category range queries
+CREATE INDEX idx_inventory_history_day_category ON inventory_history_day (category_id, bucket_start);
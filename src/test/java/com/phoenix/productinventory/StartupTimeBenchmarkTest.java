@@ -0,0 +1,68 @@
+package com.phoenix.productinventory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.metrics.StartupStep;
+
+/**
+ * Measures how long the application context takes to start with the {@code fast} profile and
+ * prints the slowest startup steps.
+ *
+ * <p>The budget is deliberately loose because the test JVM is neither AOT-processed nor backed by a
+ * CDS archive; tighten it in CI with {@code -Dstartup.budget.seconds}.
+ */
+class StartupTimeBenchmarkTest {
+
+  private static final String BUDGET_PROPERTY = "startup.budget.seconds";
+  private static final int SLOWEST_STEPS = 10;
+
+  @Test
+  @DisplayName("When application starts then startup time stays within budget")
+  void whenApplicationStarts_thenStartupTimeWithinBudget() {
+    BufferingApplicationStartup startup = new BufferingApplicationStartup(10_000);
+    SpringApplication application = new SpringApplication(ProductinventoryApplication.class);
+    application.setApplicationStartup(startup);
+
+    long start = System.nanoTime();
+    try (ConfigurableApplicationContext context =
+        application.run(
+            "--spring.profiles.active=fast",
+            "--server.port=0",
+            "--spring.datasource.url=jdbc:h2:mem:startup;DB_CLOSE_DELAY=-1",
+            "--catalog.snapshot.enabled=false",
+            "--warmup.enabled=false")) {
+      Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+      System.out.printf("startup: %d ms%n", elapsed.toMillis());
+      startup.getBufferedTimeline().getEvents().stream()
+          .sorted(Comparator.comparing(StartupTimeline.TimelineEvent::getDuration).reversed())
+          .limit(SLOWEST_STEPS)
+          .forEach(
+              event ->
+                  System.out.printf(
+                      "  %6d ms  %s %s%n",
+                      event.getDuration().toMillis(),
+                      event.getStartupStep().getName(),
+                      tags(event.getStartupStep())));
+
+      assertThat(context.isRunning()).isTrue();
+      assertThat(elapsed).isLessThan(Duration.ofSeconds(Long.getLong(BUDGET_PROPERTY, 60)));
+    }
+  }
+
+  private static String tags(StartupStep step) {
+    return StreamSupport.stream(step.getTags().spliterator(), false)
+        .map(tag -> tag.getKey() + "=" + tag.getValue())
+        .collect(Collectors.joining(", "));
+  }
+}
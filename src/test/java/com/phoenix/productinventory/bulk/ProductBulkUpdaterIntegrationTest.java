@@ -0,0 +1,105 @@
+package com.phoenix.productinventory.bulk;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.phoenix.productinventory.dto.BulkProductUpdateDto;
+import com.phoenix.productinventory.dto.ProductRequestDto;
+import com.phoenix.productinventory.exception.BadRequestException;
+import com.phoenix.productinventory.model.OutboxEvent;
+import com.phoenix.productinventory.model.Product;
+import com.phoenix.productinventory.outbox.ChangeType;
+import com.phoenix.productinventory.repository.OutboxEventRepository;
+import com.phoenix.productinventory.repository.ProductRepository;
+import com.phoenix.productinventory.service.ProductService;
+import com.phoenix.productinventory.spcification.ProductSpecification;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+/** Runs bulk updates against the database with chunks smaller than the number of products. */
+@SpringBootTest(properties = "bulk.chunk-size=2")
+class ProductBulkUpdaterIntegrationTest {
+
+  @Autowired private ProductService productService;
+  @Autowired private ProductRepository productRepository;
+  @Autowired private OutboxEventRepository outboxEventRepository;
+
+  @Test
+  @DisplayName("Given matching products when bulk repricing then all chunks are updated")
+  void givenMatchingProducts_whenBulkRepricing_thenAllChunksUpdated() {
+    Specification<Product> spec = createProducts("Bulk Kettle", 5);
+
+    long updated =
+        productService
+            .bulkUpdate(spec, new BulkProductUpdateDto(new BigDecimal("-10"), BigDecimal.ONE, null))
+            .getUpdated();
+
+    List<Product> products = productRepository.findAll(spec, Sort.by("id"));
+    assertThat(updated).isEqualTo(5);
+    assertThat(products)
+        .extracting(Product::getPrice)
+        .containsExactly(
+            new BigDecimal("10.00"),
+            new BigDecimal("19.00"),
+            new BigDecimal("28.00"),
+            new BigDecimal("37.00"),
+            new BigDecimal("46.00"));
+    assertThat(products).extracting(Product::getVersion).containsOnly(1);
+    assertThat(updateEventsOf(products)).hasSize(5);
+  }
+
+  @Test
+  @DisplayName("Given restock when bulk updating quantities then quantities are increased")
+  void givenRestock_whenBulkUpdatingQuantities_thenQuantitiesIncreased() {
+    Specification<Product> spec = createProducts("Bulk Toaster", 3);
+
+    productService.bulkUpdate(spec, new BulkProductUpdateDto(null, null, 7));
+
+    assertThat(productRepository.findAll(spec, Sort.by("id")))
+        .extracting(Product::getQuantity)
+        .containsExactly(8, 9, 10);
+  }
+
+  @Test
+  @DisplayName("Given change that makes a price negative when bulk repricing then nothing changes")
+  void givenNegativePrice_whenBulkRepricing_thenRejectedWithoutChanges() {
+    Specification<Product> spec = createProducts("Bulk Mixer", 3);
+
+    assertThatThrownBy(
+            () ->
+                productService.bulkUpdate(
+                    spec, new BulkProductUpdateDto(null, new BigDecimal("-15"), null)))
+        .isInstanceOf(BadRequestException.class);
+    assertThatThrownBy(
+            () -> productService.bulkUpdate(spec, new BulkProductUpdateDto(null, null, -2)))
+        .isInstanceOf(BadRequestException.class);
+
+    assertThat(productRepository.findAll(spec)).extracting(Product::getVersion).containsOnly(0);
+  }
+
+  /** Creates products priced 10, 20, 30... with quantities 1, 2, 3... */
+  private Specification<Product> createProducts(String name, int count) {
+    IntStream.rangeClosed(1, count)
+        .forEach(
+            i ->
+                productService.createProduct(
+                    new ProductRequestDto(name, null, BigDecimal.valueOf(10L * i), i, null, null)));
+    return ProductSpecification.hasName(name);
+  }
+
+  private List<OutboxEvent> updateEventsOf(List<Product> products) {
+    List<Long> ids = products.stream().map(Product::getId).toList();
+    return outboxEventRepository.findAll().stream()
+        .filter(event -> event.getType() == ChangeType.UPDATED)
+        .filter(event -> ids.contains(event.getAggregateId()))
+        .filter(event -> event.getAggregateVersion() == 1L)
+        .toList();
+  }
+}
@@ -0,0 +1,119 @@
+package com.phoenix.productinventory.bulk;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.phoenix.productinventory.dto.ProductRequestDto;
+import com.phoenix.productinventory.dto.ProductResponseDto;
+import com.phoenix.productinventory.dto.ProductUpsertDto;
+import com.phoenix.productinventory.dto.ProductUpsertResultDto;
+import com.phoenix.productinventory.model.Product;
+import com.phoenix.productinventory.outbox.ChangeType;
+import com.phoenix.productinventory.repository.OutboxEventRepository;
+import com.phoenix.productinventory.repository.ProductRepository;
+import com.phoenix.productinventory.service.ProductService;
+import java.math.BigDecimal;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+/** Runs SKU upserts against the database with batches smaller than the feed. */
+@SpringBootTest(properties = "bulk.upsert-batch-size=2")
+class ProductUpserterIntegrationTest {
+
+  @Autowired private ProductService productService;
+  @Autowired private ProductRepository productRepository;
+  @Autowired private OutboxEventRepository outboxEventRepository;
+
+  @Test
+  @DisplayName("Given new and existing SKUs when upserting then products are created or updated")
+  void givenNewAndExistingSkus_whenUpserting_thenCreatedOrUpdated() {
+    ProductResponseDto existing =
+        productService.createProduct(
+            new ProductRequestDto("Feed Drill", "Cordless", BigDecimal.TEN, 1, "FEED-1", null));
+
+    ProductUpsertResultDto result =
+        productService.upsertProducts(
+            List.of(
+                item("FEED-2", "Feed Saw", 20, 2L, null),
+                item("FEED-1", "Feed Drill Pro", 15, null, null),
+                item("FEED-3", "Feed Sander", 30, null, null)));
+
+    assertThat(result.getCreated()).isEqualTo(2);
+    assertThat(result.getUpdated()).isEqualTo(1);
+    assertThat(result.getProducts())
+        .extracting(ProductResponseDto::getSku)
+        .containsExactly("FEED-2", "FEED-1", "FEED-3");
+    Product updated = productRepository.findById(existing.getId()).orElseThrow();
+    assertThat(updated.getName()).isEqualTo("Feed Drill Pro");
+    assertThat(updated.getDescription()).isEqualTo("Cordless");
+    assertThat(updated.getPrice()).isEqualByComparingTo("15");
+    assertThat(updated.getVersion()).isEqualTo(1);
+    assertThat(result.getProducts().get(0).getCategory().getId()).isEqualTo(2L);
+    assertThat(result.getProducts().get(2).getVersion()).isZero();
+    assertThat(outboxEventRepository.findAll())
+        .filteredOn(event -> event.getAggregateId().equals(existing.getId()))
+        .extracting(event -> event.getType())
+        .containsExactly(ChangeType.CREATED, ChangeType.UPDATED);
+  }
+
+  @Test
+  @DisplayName("Given stale expected version when upserting then the whole feed is rolled back")
+  void givenStaleVersion_whenUpserting_thenNothingWritten() {
+    productService.createProduct(
+        new ProductRequestDto("Feed Lamp", null, BigDecimal.TEN, 1, "FEED-LAMP", null));
+
+    assertThatThrownBy(
+            () ->
+                productService.upsertProducts(
+                    List.of(
+                        item("FEED-CHAIR", "Feed Chair", 50, null, null),
+                        item("FEED-DESK", "Feed Desk", 90, null, null),
+                        item("FEED-LAMP", "Feed Lamp", 12, null, 3))))
+        .isInstanceOf(OptimisticLockingFailureException.class);
+
+    assertThat(productRepository.findExistingSkus(List.of("FEED-CHAIR", "FEED-DESK"))).isEmpty();
+    assertThat(productRepository.findAllBySkuIn(List.of("FEED-LAMP")))
+        .singleElement()
+        .extracting(Product::getVersion)
+        .isEqualTo(0);
+  }
+
+  @Test
+  @DisplayName("Given product loaded before an upsert when saving it then the update conflicts")
+  void givenProductLoadedBeforeUpsert_whenSaving_thenOptimisticLockFails() {
+    ProductResponseDto created =
+        productService.createProduct(
+            new ProductRequestDto("Feed Fan", null, BigDecimal.TEN, 1, "FEED-FAN", null));
+    Product stale = productRepository.findById(created.getId()).orElseThrow();
+
+    productService.upsertProducts(List.of(item("FEED-FAN", "Feed Fan", 11, null, 0)));
+    stale.setQuantity(5);
+
+    assertThatThrownBy(() -> productRepository.save(stale))
+        .isInstanceOf(OptimisticLockingFailureException.class);
+  }
+
+  @Test
+  @DisplayName("Given taken SKU when creating a product then the unique constraint rejects it")
+  void givenTakenSku_whenCreatingProduct_thenRejected() {
+    productService.createProduct(
+        new ProductRequestDto("Feed Mug", null, BigDecimal.ONE, 1, "FEED-MUG", null));
+
+    assertThatThrownBy(
+            () ->
+                productService.createProduct(
+                    new ProductRequestDto("Other Mug", null, BigDecimal.ONE, 1, "FEED-MUG", null)))
+        .isInstanceOf(DataIntegrityViolationException.class);
+  }
+
+  private static ProductUpsertDto item(
+      String sku, String name, long price, Long categoryId, Integer version) {
+    return new ProductUpsertDto(
+        sku, name, null, BigDecimal.valueOf(price), 4, categoryId, version);
+  }
+}
@@ -0,0 +1,39 @@
+package com.phoenix.productinventory.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class LruCacheTest {
+
+  @Test
+  @DisplayName("Given a full cache when a key is added then the least recently used is dropped")
+  void givenFullCache_whenKeyAdded_thenLeastRecentlyUsedDropped() {
+    LruCache<String, Integer> cache = new LruCache<>(2);
+    cache.put("a", 1);
+    cache.put("b", 2);
+    cache.get("a");
+
+    cache.put("c", 3);
+
+    assertThat(cache.size()).isEqualTo(2);
+    assertThat(cache.get("b")).isNull();
+    assertThat(cache.get("a")).isEqualTo(1);
+    assertThat(cache.get("c")).isEqualTo(3);
+  }
+
+  @Test
+  @DisplayName("Given a cached key when it is replaced then nothing is dropped")
+  void givenCachedKey_whenReplaced_thenNothingDropped() {
+    LruCache<String, Integer> cache = new LruCache<>(2);
+    cache.put("a", 1);
+    cache.put("b", 2);
+
+    cache.put("a", 3);
+
+    assertThat(cache.size()).isEqualTo(2);
+    assertThat(cache.get("a")).isEqualTo(3);
+    assertThat(cache.get("b")).isEqualTo(2);
+  }
+}
@@ -0,0 +1,109 @@
+package com.phoenix.productinventory.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.phoenix.productinventory.dto.CategoryNodeDto;
+import com.phoenix.productinventory.dto.CategoryResponseDto;
+import com.phoenix.productinventory.dto.JobRequestDto;
+import com.phoenix.productinventory.dto.ProductFacetsDto;
+import com.phoenix.productinventory.dto.ProductResponseDto;
+import com.phoenix.productinventory.membership.CategoryMembership;
+import com.phoenix.productinventory.model.CategoryClosure;
+import com.phoenix.productinventory.model.Job;
+import com.phoenix.productinventory.model.OutboxEvent;
+import com.phoenix.productinventory.model.Product;
+import com.phoenix.productinventory.model.ProductCategory;
+import com.phoenix.productinventory.model.ReorderThreshold;
+import com.phoenix.productinventory.outbox.ChangeEvent;
+import com.phoenix.productinventory.repository.CategoryProductCount;
+import com.phoenix.productinventory.snapshot.CatalogFingerprint;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+class CatalogRuntimeHintsTest {
+
+  private final RuntimeHints hints = new RuntimeHints();
+
+  CatalogRuntimeHintsTest() {
+    new CatalogRuntimeHints().registerHints(hints, getClass().getClassLoader());
+  }
+
+  @Test
+  @DisplayName("When hints are registered then DTOs can be bound by Jackson")
+  void whenRegistered_thenDtosHaveBindingHints() throws Exception {
+    assertThat(RuntimeHintsPredicates.reflection().onType(ProductFacetsDto.class)).accepts(hints);
+    assertThat(
+            RuntimeHintsPredicates.reflection()
+                .onMethod(ProductResponseDto.class.getMethod("getCategory")))
+        .accepts(hints);
+    assertThat(
+            RuntimeHintsPredicates.reflection()
+                .onMethod(CategoryResponseDto.class.getMethod("setName", String.class)))
+        .accepts(hints);
+  }
+
+  @Test
+  @DisplayName("When hints are registered then entities and query results can be instantiated")
+  void whenRegistered_thenEntitiesAndQueryResultsAreConstructible() {
+    assertThat(
+            RuntimeHintsPredicates.reflection()
+                .onType(Product.class)
+                .withMemberCategories(
+                    MemberCategory.DECLARED_FIELDS, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS))
+        .accepts(hints);
+    assertThat(
+            RuntimeHintsPredicates.reflection()
+                .onType(CatalogFingerprint.class)
+                .withMemberCategory(MemberCategory.INVOKE_DECLARED_CONSTRUCTORS))
+        .accepts(hints);
+  }
+
+  @Test
+  @DisplayName("When hints are registered then every entity and its id class is covered")
+  void whenRegistered_thenEveryEntityIsCovered() {
+    List.of(
+            CategoryClosure.class,
+            CategoryClosure.Key.class,
+            ProductCategory.class,
+            ProductCategory.Key.class,
+            OutboxEvent.class,
+            Job.class,
+            ReorderThreshold.class)
+        .forEach(
+            entity ->
+                assertThat(
+                        RuntimeHintsPredicates.reflection()
+                            .onType(entity)
+                            .withMemberCategories(
+                                MemberCategory.DECLARED_FIELDS,
+                                MemberCategory.INVOKE_DECLARED_CONSTRUCTORS))
+                    .accepts(hints));
+  }
+
+  @Test
+  @DisplayName("When hints are registered then every constructor expression target is covered")
+  void whenRegistered_thenConstructorExpressionTargetsAreCovered() {
+    List.of(CategoryNodeDto.class, CategoryMembership.class, CategoryProductCount.class)
+        .forEach(
+            type ->
+                assertThat(
+                        RuntimeHintsPredicates.reflection()
+                            .onType(type)
+                            .withMemberCategory(MemberCategory.INVOKE_DECLARED_CONSTRUCTORS))
+                    .accepts(hints));
+  }
+
+  @Test
+  @DisplayName("When hints are registered then payloads read with the object mapper are bindable")
+  void whenRegistered_thenPayloadsHaveBindingHints() throws Exception {
+    assertThat(RuntimeHintsPredicates.reflection().onType(JobRequestDto.class)).accepts(hints);
+    assertThat(
+            RuntimeHintsPredicates.reflection()
+                .onMethod(ChangeEvent.class.getMethod("payload")))
+        .accepts(hints);
+  }
+}
@@ -0,0 +1,106 @@
+package com.phoenix.productinventory.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.phoenix.productinventory.dto.CategoryResponseDto;
+import com.phoenix.productinventory.dto.ProductResponseDto;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.web.PagedModel;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Compares serialization time and payload size of product pages encoded as JSON, CBOR and Smile.
+ *
+ * <p>Results are printed to the test output; the assertions only guard the properties the binary
+ * encodings are used for (smaller payloads that decode to the same document).
+ */
+class SerializationFormatBenchmarkTest {
+
+  private static final int WARMUP_ITERATIONS = 200;
+  private static final int MEASURED_ITERATIONS = 500;
+
+  @ParameterizedTest(name = "page size {0}")
+  @ValueSource(ints = {20, 100, 500})
+  @DisplayName("Given realistic product page when serialized then binary formats are smaller")
+  void givenProductPage_whenSerialized_thenBinaryFormatsAreSmaller(int pageSize) throws Exception {
+    PagedModel<ProductResponseDto> page = productPage(pageSize);
+    Map<String, ObjectMapper> mappers = new LinkedHashMap<>();
+    mappers.put("json", mapper(new JsonFactory()));
+    mappers.put("cbor", mapper(new CBORFactory()));
+    mappers.put("smile", mapper(new SmileFactory()));
+
+    Map<String, byte[]> payloads = new LinkedHashMap<>();
+    for (Map.Entry<String, ObjectMapper> entry : mappers.entrySet()) {
+      ObjectMapper mapper = entry.getValue();
+      for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+        mapper.writeValueAsBytes(page);
+      }
+      long start = System.nanoTime();
+      byte[] bytes = null;
+      for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+        bytes = mapper.writeValueAsBytes(page);
+      }
+      long micros = (System.nanoTime() - start) / MEASURED_ITERATIONS / 1_000;
+      payloads.put(entry.getKey(), bytes);
+      System.out.printf(
+          "page size %4d  %-5s  %8d bytes  %6d us/page%n",
+          pageSize, entry.getKey(), bytes.length, micros);
+    }
+
+    for (String format : List.of("cbor", "smile")) {
+      assertThat(payloads.get(format)).hasSizeLessThan(payloads.get("json").length);
+      assertThat(content(mappers.get(format), payloads.get(format)))
+          .usingRecursiveComparison()
+          .withComparatorForType(BigDecimal::compareTo, BigDecimal.class)
+          .isEqualTo(page.getContent());
+    }
+  }
+
+  private static List<ProductResponseDto> content(ObjectMapper mapper, byte[] payload)
+      throws IOException {
+    JsonNode content = mapper.readTree(payload).get("content");
+    return mapper.convertValue(content, new TypeReference<>() {});
+  }
+
+  private static ObjectMapper mapper(JsonFactory factory) {
+    return Jackson2ObjectMapperBuilder.json().factory(factory).build();
+  }
+
+  private static PagedModel<ProductResponseDto> productPage(int size) {
+    List<CategoryResponseDto> categories =
+        List.of(
+            new CategoryResponseDto(1L, "Electronics", "Devices and gadgets", null, null),
+            new CategoryResponseDto(2L, "Books", "Fiction and non-fiction", null, null),
+            new CategoryResponseDto(3L, "Home & Kitchen", "Appliances and decor", null, null));
+    List<ProductResponseDto> products = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      products.add(
+          new ProductResponseDto(
+              (long) i + 1,
+              "Product " + i,
+              "Description of product number " + i + " with a few more words",
+              BigDecimal.valueOf(1999 + i * 7L, 2),
+              i % 250,
+              categories.get(i % categories.size()),
+              i % 5,
+              "SKU-" + i));
+    }
+    return new PagedModel<>(new PageImpl<>(products, PageRequest.of(0, size), 10_000));
+  }
+}
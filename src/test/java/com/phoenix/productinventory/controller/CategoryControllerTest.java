@@ -1,6 +1,7 @@
 package com.phoenix.productinventory.controller;
 
 import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.nullValue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
@@ -12,14 +13,21 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.phoenix.productinventory.dto.CategoryNodeDto;
 import com.phoenix.productinventory.dto.CategoryRequestDto;
 import com.phoenix.productinventory.dto.CategoryResponseDto;
+import com.phoenix.productinventory.dto.ProductResponseDto;
+import com.phoenix.productinventory.exception.ResourceNotFoundException;
+import com.phoenix.productinventory.fragment.ProductFragmentCache;
 import com.phoenix.productinventory.service.CategoryService;
+import com.phoenix.productinventory.service.ProductService;
+import java.math.BigDecimal;
 import java.util.List;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
@@ -28,17 +36,20 @@ import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
 @WebMvcTest(CategoryController.class)
+@Import(ProductFragmentCache.class)
 public class CategoryControllerTest {
 
-  private final CategoryResponseDto responseDto = new CategoryResponseDto(1L, "Test", "Desc");
+  private final CategoryResponseDto responseDto =
+      new CategoryResponseDto(1L, "Test", "Desc", null, null);
   @Autowired private MockMvc mockMvc;
   @MockitoBean private CategoryService categoryService;
+  @MockitoBean private ProductService productService;
   @Autowired private ObjectMapper objectMapper;
 
   @Test
   @DisplayName("When createCategory then returns created category with 201 status")
   void whenCreateCategory_thenReturnsCreatedCategory() throws Exception {
-    CategoryRequestDto requestDto = new CategoryRequestDto("Test", "Desc");
+    CategoryRequestDto requestDto = new CategoryRequestDto("Test", "Desc", null, null);
     when(categoryService.createCategory(any())).thenReturn(responseDto);
 
     mockMvc
@@ -76,7 +87,7 @@ public class CategoryControllerTest {
   @Test
   @DisplayName("When updateCategory then returns updated category with 200 status")
   void whenUpdateCategory_thenReturnsUpdatedCategory() throws Exception {
-    CategoryRequestDto requestDto = new CategoryRequestDto("Updated", "Desc");
+    CategoryRequestDto requestDto = new CategoryRequestDto("Updated", "Desc", null, null);
     when(categoryService.updateCategory(eq(1L), any())).thenReturn(responseDto);
 
     mockMvc
@@ -93,4 +104,101 @@ public class CategoryControllerTest {
   void whenDeleteCategory_thenReturnsNoContent() throws Exception {
     mockMvc.perform(delete("/categories/1")).andExpect(status().isNoContent());
   }
+
+  @Test
+  @DisplayName("When getSubtree then returns the categories with subtree product counts")
+  void whenGetSubtree_thenReturnsNodes() throws Exception {
+    when(categoryService.getSubtree(1L, 1))
+        .thenReturn(
+            List.of(
+                new CategoryNodeDto(1L, "Electronics", null, 0, 5),
+                new CategoryNodeDto(6L, "Phones", 1L, 1, 3)));
+
+    mockMvc
+        .perform(get("/categories/1/subtree").param("maxDepth", "1"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$", hasSize(2)))
+        .andExpect(jsonPath("$[1].parentId").value(1))
+        .andExpect(jsonPath("$[1].productCount").value(3));
+  }
+
+  @Test
+  @DisplayName("When moveCategory then returns the category with its new parent")
+  void whenMoveCategory_thenReturnsMovedCategory() throws Exception {
+    when(categoryService.moveCategory(6L, 1L))
+        .thenReturn(new CategoryResponseDto(6L, "Phones", null, 1L, null));
+
+    mockMvc
+        .perform(put("/categories/6/parent/1"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.parentId").value(1));
+  }
+
+  @Test
+  @DisplayName("When removeParent then moves the category to the top level")
+  void whenRemoveParent_thenMovesToTopLevel() throws Exception {
+    when(categoryService.moveCategory(6L, null))
+        .thenReturn(new CategoryResponseDto(6L, "Phones", null, null, null));
+
+    mockMvc
+        .perform(delete("/categories/6/parent"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.parentId").doesNotExist());
+  }
+
+  @Test
+  @DisplayName("When getCategoryProducts then returns an offset page of the category's products")
+  void whenGetCategoryProducts_thenReturnsPage() throws Exception {
+    when(categoryService.getCategoryById(1L)).thenReturn(responseDto);
+    when(productService.getAllProducts(any(Specification.class), any(Pageable.class)))
+        .thenReturn(new PageImpl<>(List.of(product(5L))));
+
+    mockMvc
+        .perform(get("/categories/1/products").param("minPrice", "5"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.content", hasSize(1)))
+        .andExpect(jsonPath("$.page.totalElements").value(1));
+  }
+
+  @Test
+  @DisplayName("Given afterId when getCategoryProducts then returns a keyset page")
+  void givenAfterId_whenGetCategoryProducts_thenReturnsKeysetPage() throws Exception {
+    when(categoryService.getCategoryById(1L)).thenReturn(responseDto);
+    when(productService.getProductsAfter(any(Specification.class), eq(4L), eq(3)))
+        .thenReturn(List.of(product(5L), product(7L), product(9L)));
+
+    mockMvc
+        .perform(get("/categories/1/products").param("afterId", "4").param("size", "2"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.content", hasSize(2)))
+        .andExpect(jsonPath("$.size").value(2))
+        .andExpect(jsonPath("$.nextAfterId").value(7));
+  }
+
+  @Test
+  @DisplayName("Given last keyset page when getCategoryProducts then returns no next key")
+  void givenLastKeysetPage_whenGetCategoryProducts_thenReturnsNoNextKey() throws Exception {
+    when(categoryService.getCategoryById(1L)).thenReturn(responseDto);
+    when(productService.getProductsAfter(any(Specification.class), eq(7L), eq(3)))
+        .thenReturn(List.of(product(9L)));
+
+    mockMvc
+        .perform(get("/categories/1/products").param("afterId", "7").param("size", "2"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.content", hasSize(1)))
+        .andExpect(jsonPath("$.nextAfterId").value(nullValue()));
+  }
+
+  @Test
+  @DisplayName("Given unknown category when getCategoryProducts then returns 404")
+  void givenUnknownCategory_whenGetCategoryProducts_thenReturns404() throws Exception {
+    when(categoryService.getCategoryById(9L))
+        .thenThrow(new ResourceNotFoundException("Category not found with id 9"));
+
+    mockMvc.perform(get("/categories/9/products")).andExpect(status().isNotFound());
+  }
+
+  private static ProductResponseDto product(Long id) {
+    return new ProductResponseDto(id, "Product " + id, null, BigDecimal.TEN, 1, null, 0, null);
+  }
 }
@@ -0,0 +1,102 @@
+package com.phoenix.productinventory.controller;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.phoenix.productinventory.dto.JobDto;
+import com.phoenix.productinventory.exception.BadRequestException;
+import com.phoenix.productinventory.exception.ResourceNotFoundException;
+import com.phoenix.productinventory.job.JobService;
+import com.phoenix.productinventory.job.JobStatus;
+import com.phoenix.productinventory.job.JobType;
+import java.time.Instant;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+@WebMvcTest(JobController.class)
+class JobControllerTest {
+
+  @Autowired private MockMvc mockMvc;
+  @MockitoBean private JobService jobService;
+
+  @Test
+  @DisplayName("Given valid job when submitJob then returns queued job with 202 status")
+  void givenValidJob_whenSubmitJob_thenReturnsAccepted() throws Exception {
+    when(jobService.submit(any())).thenReturn(job(JobStatus.QUEUED));
+
+    mockMvc
+        .perform(
+            post("/jobs")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(
+                    "{\"type\":\"PRODUCT_BULK_UPDATE\",\"filter\":{\"field\":\"price\",\"lt\":10},"
+                        + "\"update\":{\"quantityDelta\":5}}"))
+        .andExpect(status().isAccepted())
+        .andExpect(header().string("Location", "/jobs/7"))
+        .andExpect(jsonPath("$.status").value("QUEUED"));
+  }
+
+  @Test
+  @DisplayName("Given invalid job when submitJob then returns 400 status")
+  void givenInvalidJob_whenSubmitJob_thenReturns400() throws Exception {
+    when(jobService.submit(any())).thenThrow(new BadRequestException("A job needs a type"));
+
+    mockMvc
+        .perform(post("/jobs").contentType(MediaType.APPLICATION_JSON).content("{}"))
+        .andExpect(status().isBadRequest());
+  }
+
+  @Test
+  @DisplayName("Given running job when getJob then returns its progress")
+  void givenRunningJob_whenGetJob_thenReturnsProgress() throws Exception {
+    when(jobService.getJob(7L)).thenReturn(job(JobStatus.RUNNING));
+
+    mockMvc
+        .perform(get("/jobs/7"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.processed").value(40))
+        .andExpect(jsonPath("$.total").value(100));
+  }
+
+  @Test
+  @DisplayName("Given unknown job when getJob then returns 404 status")
+  void givenUnknownJob_whenGetJob_thenReturns404() throws Exception {
+    when(jobService.getJob(8L)).thenThrow(new ResourceNotFoundException("Job not found"));
+
+    mockMvc.perform(get("/jobs/8")).andExpect(status().isNotFound());
+  }
+
+  @Test
+  @DisplayName("Given running job when cancelJob then returns job with cancellation requested")
+  void givenRunningJob_whenCancelJob_thenReturnsCancellationRequested() throws Exception {
+    JobDto job = job(JobStatus.RUNNING);
+    job.setCancelRequested(true);
+    when(jobService.cancel(7L)).thenReturn(job);
+
+    mockMvc
+        .perform(post("/jobs/7/cancel"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.cancelRequested").value(true));
+  }
+
+  private static JobDto job(JobStatus status) {
+    return JobDto.builder()
+        .id(7L)
+        .type(JobType.PRODUCT_BULK_UPDATE)
+        .status(status)
+        .processed(40)
+        .total(100L)
+        .createdAt(Instant.now())
+        .build();
+  }
+}
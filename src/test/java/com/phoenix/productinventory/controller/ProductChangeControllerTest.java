@@ -0,0 +1,161 @@
+package com.phoenix.productinventory.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+import com.phoenix.productinventory.model.OutboxEvent;
+import com.phoenix.productinventory.outbox.AggregateType;
+import com.phoenix.productinventory.outbox.ChangeEvent;
+import com.phoenix.productinventory.outbox.ChangeType;
+import com.phoenix.productinventory.outbox.InventoryChangeStream;
+import com.phoenix.productinventory.repository.OutboxEventRepository;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Pageable;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+@WebMvcTest(ProductChangeController.class)
+@Import({InventoryChangeStream.class, ProductChangeControllerTest.SynchronousReplay.class})
+class ProductChangeControllerTest {
+
+  @Autowired private MockMvc mockMvc;
+  @Autowired private InventoryChangeStream inventoryChangeStream;
+  @MockitoBean private OutboxEventRepository outboxEventRepository;
+
+  @Test
+  @DisplayName("Given filters when products change then only matching changes are streamed")
+  void givenFilters_whenProductsChange_thenStreamsMatchingChanges() throws Exception {
+    MockHttpServletResponse response =
+        mockMvc
+            .perform(get("/products/changes").param("categoryId", "1").param("maxQuantity", "5"))
+            .andExpect(request().asyncStarted())
+            .andReturn()
+            .getResponse();
+
+    inventoryChangeStream.onChange(productChange(1, 10L, 3, 1L));
+    inventoryChangeStream.onChange(productChange(2, 11L, 3, 2L));
+    inventoryChangeStream.onChange(productChange(3, 10L, 50, 1L));
+
+    String body = response.getContentAsString();
+    assertThat(body).contains("id:1\nevent:inventory\ndata:{\"productId\":10,");
+    assertThat(body).doesNotContain("id:2").doesNotContain("id:3");
+  }
+
+  @Test
+  @DisplayName("Given Last-Event-ID when subscribing then missed changes are replayed once")
+  void givenLastEventId_whenSubscribing_thenReplaysMissedChangesOnce() throws Exception {
+    when(outboxEventRepository.findAfter(eq(5L), eq(AggregateType.PRODUCT), any(Pageable.class)))
+        .thenReturn(List.of(outboxRow(6, 10L), outboxRow(7, 11L)));
+
+    MockHttpServletResponse response =
+        mockMvc
+            .perform(get("/products/changes").header("Last-Event-ID", "5"))
+            .andExpect(request().asyncStarted())
+            .andReturn()
+            .getResponse();
+
+    inventoryChangeStream.onChange(productChange(7, 11L, 3, null));
+    inventoryChangeStream.onChange(productChange(8, 12L, 3, null));
+
+    String body = response.getContentAsString();
+    assertThat(body).containsSubsequence("id:6", "id:7", "id:8");
+    assertThat(body.split("id:7", -1)).hasSize(2);
+  }
+
+  @Test
+  @DisplayName("Given changes relayed out of id order when streamed then none is dropped")
+  void givenChangesOutOfIdOrder_whenStreamed_thenNoneDropped() throws Exception {
+    MockHttpServletResponse response =
+        mockMvc
+            .perform(get("/products/changes"))
+            .andExpect(request().asyncStarted())
+            .andReturn()
+            .getResponse();
+
+    inventoryChangeStream.onChange(productChange(12, 20L, 3, null));
+    inventoryChangeStream.onChange(productChange(11, 21L, 3, null));
+    // Redelivered by the relay with the same version
+    inventoryChangeStream.onChange(productChange(12, 20L, 3, null));
+
+    String body = response.getContentAsString();
+    assertThat(body).containsSubsequence("id:12", "id:11");
+    assertThat(body.split("id:12", -1)).hasSize(2);
+  }
+
+  @Test
+  @DisplayName("Given Last-Event-ID when subscribing then replay starts before it by the window")
+  void givenLastEventId_whenSubscribing_thenReplayStartsWithinWindow() throws Exception {
+    OutboxEvent last = outboxRow(9, 10L);
+    last.setCreatedAt(Instant.parse("2025-01-01T00:00:10Z"));
+    when(outboxEventRepository.findById(9L)).thenReturn(Optional.of(last));
+    when(outboxEventRepository.findFirstIdCreatedSince(Instant.parse("2025-01-01T00:00:05Z")))
+        .thenReturn(8L);
+    when(outboxEventRepository.findAfter(eq(7L), eq(AggregateType.PRODUCT), any(Pageable.class)))
+        .thenReturn(List.of(outboxRow(8, 11L), last));
+
+    MockHttpServletResponse response =
+        mockMvc
+            .perform(get("/products/changes").header("Last-Event-ID", "9"))
+            .andExpect(request().asyncStarted())
+            .andReturn()
+            .getResponse();
+
+    assertThat(response.getContentAsString()).containsSubsequence("id:8", "id:9");
+  }
+
+  private static ChangeEvent productChange(
+      long id, Long productId, int quantity, Long categoryId) {
+    return new ChangeEvent(
+        id,
+        AggregateType.PRODUCT,
+        productId,
+        1L,
+        ChangeType.UPDATED,
+        payload(productId, quantity, categoryId),
+        Instant.EPOCH);
+  }
+
+  private static OutboxEvent outboxRow(long id, Long productId) {
+    return OutboxEvent.builder()
+        .id(id)
+        .aggregateType(AggregateType.PRODUCT)
+        .aggregateId(productId)
+        .aggregateVersion(1L)
+        .type(ChangeType.UPDATED)
+        .payload(payload(productId, 3, null))
+        .createdAt(Instant.EPOCH)
+        .build();
+  }
+
+  private static String payload(Long productId, int quantity, Long categoryId) {
+    String category = categoryId == null ? "null" : "{\"id\":" + categoryId + "}";
+    return "{\"id\":%d,\"name\":\"P\",\"price\":9.99,\"quantity\":%d,\"category\":%s,\"version\":1}"
+        .formatted(productId, quantity, category);
+  }
+
+  /** Replays on the request thread so the test does not depend on timing. */
+  @TestConfiguration
+  static class SynchronousReplay {
+
+    @Bean(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+    Executor applicationTaskExecutor() {
+      return Runnable::run;
+    }
+  }
+}
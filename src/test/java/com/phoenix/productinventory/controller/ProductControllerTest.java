@@ -1,48 +1,72 @@
 package com.phoenix.productinventory.controller;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.hasSize;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.phoenix.productinventory.dto.BulkProductUpdateDto;
+import com.phoenix.productinventory.dto.BulkUpdateResultDto;
+import com.phoenix.productinventory.dto.CategoryFacetDto;
+import com.phoenix.productinventory.dto.CategoryResponseDto;
+import com.phoenix.productinventory.dto.PriceRangeFacetDto;
+import com.phoenix.productinventory.dto.ProductFacetsDto;
+import com.phoenix.productinventory.dto.ProductField;
 import com.phoenix.productinventory.dto.ProductRequestDto;
 import com.phoenix.productinventory.dto.ProductResponseDto;
+import com.phoenix.productinventory.dto.ProductUpsertResultDto;
 import com.phoenix.productinventory.exception.ResourceNotFoundException;
+import com.phoenix.productinventory.fragment.ProductFragmentCache;
+import com.phoenix.productinventory.membership.CategoryExpression;
+import com.phoenix.productinventory.membership.CategoryMembershipIndex;
+import com.phoenix.productinventory.search.SearchCondition;
 import com.phoenix.productinventory.service.ProductService;
+import java.io.ByteArrayInputStream;
 import java.math.BigDecimal;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.zip.GZIPInputStream;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
 @WebMvcTest(ProductController.class)
+@Import(ProductFragmentCache.class)
 class ProductControllerTest {
 
   private final ProductResponseDto responseDto =
-      new ProductResponseDto(1L, "Test", "Desc", BigDecimal.valueOf(10), 5, null, 0);
+      new ProductResponseDto(1L, "Test", "Desc", BigDecimal.valueOf(10), 5, null, 0, null);
   @Autowired private MockMvc mockMvc;
   @MockitoBean private ProductService productService;
+  @MockitoBean private CategoryMembershipIndex membershipIndex;
   @Autowired private ObjectMapper objectMapper;
 
   @Test
   @DisplayName(
       "Given valid request when createProduct then returns created product with 201 status")
   void givenValidRequest_whenCreateProduct_thenReturnsCreatedProduct() throws Exception {
-    ProductRequestDto request = new ProductRequestDto("Test", "Desc", BigDecimal.valueOf(10), 5);
+    ProductRequestDto request =
+        new ProductRequestDto("Test", "Desc", BigDecimal.valueOf(10), 5, null, null);
     when(productService.createProduct(any())).thenReturn(responseDto);
 
     mockMvc
@@ -66,6 +90,86 @@ class ProductControllerTest {
         .andExpect(jsonPath("$.content", hasSize(1)));
   }
 
+  @Test
+  @DisplayName("Given fields when getAllProducts then returns only the selected properties")
+  void givenFields_whenGetAllProducts_thenReturnsSparseDocuments() throws Exception {
+    when(productService.getAllProducts(
+            any(Specification.class),
+            any(Pageable.class),
+            eq(EnumSet.of(ProductField.ID, ProductField.NAME, ProductField.PRICE))))
+        .thenReturn(new PageImpl<>(List.of(responseDto)));
+
+    mockMvc
+        .perform(get("/products").param("fields", "name,price"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.content[0].*", hasSize(3)))
+        .andExpect(jsonPath("$.content[0].id").value(1L))
+        .andExpect(jsonPath("$.content[0].name").value("Test"))
+        .andExpect(jsonPath("$.content[0].price").value(10));
+  }
+
+  @Test
+  @DisplayName("Given search filter when searchProducts then returns matching products page")
+  void givenSearchFilter_whenSearchProducts_thenReturnsPage() throws Exception {
+    when(productService.searchProducts(any(SearchCondition.class), any(Pageable.class)))
+        .thenReturn(new PageImpl<>(List.of(responseDto)));
+
+    mockMvc
+        .perform(
+            post("/products/search")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(
+                    "{\"filter\":{\"or\":[{\"field\":\"price\",\"lt\":20},"
+                        + "{\"field\":\"categoryId\",\"in\":[1,2]}]},"
+                        + "\"sort\":[{\"field\":\"price\",\"direction\":\"desc\"}]}"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.content[0].id").value(1L));
+  }
+
+  @Test
+  @DisplayName("Given unknown search field when searchProducts then returns 400 status")
+  void givenUnknownSearchField_whenSearchProducts_thenReturns400() throws Exception {
+    mockMvc
+        .perform(
+            post("/products/search")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"filter\":{\"field\":\"secret\",\"eq\":1}}"))
+        .andExpect(status().isBadRequest());
+  }
+
+  @Test
+  @DisplayName("Given unknown field when getProductById then returns 400 status")
+  void givenUnknownField_whenGetProductById_thenReturns400() throws Exception {
+    mockMvc
+        .perform(get("/products/1").param("fields", "name,secret"))
+        .andExpect(status().isBadRequest());
+  }
+
+  @Test
+  @DisplayName("Given price breaks when getFacets then returns facet counts with 200 status")
+  void givenPriceBreaks_whenGetFacets_thenReturnsFacets() throws Exception {
+    ProductFacetsDto facets =
+        new ProductFacetsDto(
+            5,
+            List.of(new CategoryFacetDto(1L, "Electronics", 5)),
+            List.of(
+                new PriceRangeFacetDto(null, BigDecimal.TEN, 2),
+                new PriceRangeFacetDto(BigDecimal.TEN, null, 3)),
+            4,
+            1);
+    when(productService.getFacets(any(Specification.class), eq(List.of(BigDecimal.TEN))))
+        .thenReturn(facets);
+
+    mockMvc
+        .perform(get("/products/facets").param("priceBreaks", "10").param("minQuantity", "0"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.total").value(5))
+        .andExpect(jsonPath("$.categories[0].name").value("Electronics"))
+        .andExpect(jsonPath("$.priceRanges", hasSize(2)))
+        .andExpect(jsonPath("$.priceRanges[1].from").value(10))
+        .andExpect(jsonPath("$.outOfStock").value(1));
+  }
+
   @Test
   @DisplayName("Given valid ID when getProductById then returns product with 200 status")
   void givenValidId_whenGetProductById_thenReturnsProduct() throws Exception {
@@ -77,6 +181,65 @@ class ProductControllerTest {
         .andExpect(jsonPath("$.id").value(1L));
   }
 
+  @Test
+  @DisplayName("Given CBOR accept header when getProductById then returns CBOR document")
+  void givenCborAccept_whenGetProductById_thenReturnsCbor() throws Exception {
+    when(productService.getProductById(1L)).thenReturn(responseDto);
+
+    mockMvc
+        .perform(get("/products/1").accept(MediaType.APPLICATION_CBOR))
+        .andExpect(status().isOk())
+        .andExpect(content().contentType(MediaType.APPLICATION_CBOR));
+  }
+
+  @Test
+  @DisplayName("Given no accept header when getProductById then returns JSON document")
+  void givenNoAccept_whenGetProductById_thenReturnsJson() throws Exception {
+    when(productService.getProductById(1L)).thenReturn(responseDto);
+
+    mockMvc
+        .perform(get("/products/1"))
+        .andExpect(status().isOk())
+        .andExpect(content().contentType(MediaType.APPLICATION_JSON));
+  }
+
+  @Test
+  @DisplayName("Given hot product and gzip accepted when getProductById then returns it compressed")
+  void givenHotProductAndGzip_whenGetProductById_thenReturnsPrecompressedJson() throws Exception {
+    ProductResponseDto hot =
+        new ProductResponseDto(42L, "Hot", "Desc", BigDecimal.valueOf(10), 5, null, 0, null);
+    when(productService.getProductById(42L)).thenReturn(hot);
+
+    mockMvc
+        .perform(get("/products/42").header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+        .andExpect(status().isOk())
+        .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+        .andExpect(jsonPath("$.name").value("Hot"));
+    mockMvc.perform(get("/products/42").header(HttpHeaders.ACCEPT_ENCODING, "gzip"));
+    byte[] body =
+        mockMvc
+            .perform(get("/products/42").header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+            .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+            .andExpect(header().string(HttpHeaders.VARY, "Accept, Accept-Encoding"))
+            .andReturn()
+            .getResponse()
+            .getContentAsByteArray();
+
+    try (GZIPInputStream json = new GZIPInputStream(new ByteArrayInputStream(body))) {
+      assertThat(objectMapper.readValue(json, ProductResponseDto.class)).isEqualTo(hot);
+    }
+    mockMvc
+        .perform(
+            get("/products/42")
+                .accept(MediaType.APPLICATION_CBOR)
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+        .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+        .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+        .andExpect(header().string(HttpHeaders.VARY, "Accept, Accept-Encoding"));
+  }
+
   @Test
   @DisplayName("Given invalid ID when getProductById then returns 404 status")
   void givenInvalidId_whenGetProductById_thenReturns404() throws Exception {
@@ -90,7 +253,7 @@ class ProductControllerTest {
       "Given valid ID and request when updateProduct then returns updated product with 200 status")
   void givenValidIdAndRequest_whenUpdateProduct_thenReturnsUpdatedProduct() throws Exception {
     ProductRequestDto request =
-        new ProductRequestDto("Updated", "Desc", BigDecimal.valueOf(20), 10);
+        new ProductRequestDto("Updated", "Desc", BigDecimal.valueOf(20), 10, null, null);
     when(productService.updateProduct(eq(1L), any())).thenReturn(responseDto);
 
     mockMvc
@@ -129,4 +292,69 @@ class ProductControllerTest {
         .andExpect(status().isOk())
         .andExpect(jsonPath("$.name").value(responseDto.getName()));
   }
+
+  @Test
+  @DisplayName("Given category expression when getAllProducts then filters through the index")
+  void givenCategoryExpression_whenGetAllProducts_thenFiltersThroughIndex() throws Exception {
+    when(productService.getAllProducts(any(Specification.class), any(Pageable.class)))
+        .thenReturn(new PageImpl<>(List.of(responseDto)));
+
+    mockMvc
+        .perform(
+            get("/products")
+                .param("allCategories", "1,2")
+                .param("anyCategories", "3")
+                .param("noneCategories", "4,5"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.content", hasSize(1)));
+
+    verify(membershipIndex)
+        .toSpecification(new CategoryExpression(List.of(1L, 2L), List.of(3L), List.of(4L, 5L)));
+  }
+
+  @Test
+  @DisplayName("When addProductCategory then returns the categories of the product")
+  void whenAddProductCategory_thenReturnsCategories() throws Exception {
+    when(productService.addCategoryMembership(eq(1L), eq(2L)))
+        .thenReturn(List.of(new CategoryResponseDto(2L, "Books", "Desc", null, null)));
+
+    mockMvc
+        .perform(put("/products/1/categories/2"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$[0].name").value("Books"));
+  }
+
+  @Test
+  @DisplayName("Given filters and change when bulkUpdateProducts then returns updated count")
+  void givenFiltersAndChange_whenBulkUpdateProducts_thenReturnsUpdatedCount() throws Exception {
+    when(productService.bulkUpdate(any(Specification.class), any(BulkProductUpdateDto.class)))
+        .thenReturn(new BulkUpdateResultDto(12));
+
+    mockMvc
+        .perform(
+            post("/products/bulk-update")
+                .param("underCategoryId", "1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"pricePercent\": -15}"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.updated").value(12));
+  }
+
+  @Test
+  @DisplayName("Given supplier feed when upsertProducts then returns created and updated counts")
+  void givenSupplierFeed_whenUpsertProducts_thenReturnsCounts() throws Exception {
+    when(productService.upsertProducts(any()))
+        .thenReturn(new ProductUpsertResultDto(1, 0, List.of(responseDto)));
+
+    mockMvc
+        .perform(
+            post("/products/upsert")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(
+                    "[{\"sku\": \"A-1\", \"name\": \"Test\", \"price\": 10, \"quantity\": 5}]"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.created").value(1))
+        .andExpect(jsonPath("$.updated").value(0))
+        .andExpect(jsonPath("$.products[0].id").value(1));
+  }
 }
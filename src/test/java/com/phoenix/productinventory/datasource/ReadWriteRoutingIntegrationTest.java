@@ -0,0 +1,137 @@
+package com.phoenix.productinventory.datasource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.cookie;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Runs the {@code replica} profile against two unconnected H2 databases, so a row written to the
+ * primary is only visible to reads that were routed to the primary.
+ */
+@SpringBootTest(
+    properties = {
+      "spring.datasource.url=jdbc:h2:mem:routing-primary;DB_CLOSE_DELAY=-1",
+      "replica.url=" + ReadWriteRoutingIntegrationTest.REPLICA_URL,
+      "catalog.snapshot.enabled=false"
+    })
+@ActiveProfiles("replica")
+@AutoConfigureMockMvc
+class ReadWriteRoutingIntegrationTest {
+
+  static final String REPLICA_URL = "jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1";
+  private static final String PRODUCT =
+      "{\"name\":\"Routed Desk\",\"price\":120.00,\"quantity\":4}";
+
+  @Autowired private MockMvc mockMvc;
+  @Autowired private ObjectMapper objectMapper;
+  @Autowired private TransactionTemplate transactionTemplate;
+  @Autowired private ReplicationMonitor replicationMonitor;
+
+  @Test
+  @DisplayName("Given a write when the client reads it back then the read is served by the primary")
+  void givenWrite_whenSameClientReads_thenPrimaryServesRead() throws Exception {
+    MvcResult created =
+        mockMvc
+            .perform(post("/products").contentType(MediaType.APPLICATION_JSON).content(PRODUCT))
+            .andExpect(status().isCreated())
+            .andExpect(cookie().exists(ReadYourWritesFilter.COOKIE_NAME))
+            .andExpect(cookie().httpOnly(ReadYourWritesFilter.COOKIE_NAME, true))
+            .andReturn();
+    Cookie pin = created.getResponse().getCookie(ReadYourWritesFilter.COOKIE_NAME);
+
+    mockMvc.perform(get("/products/{id}", idOf(created)).cookie(pin)).andExpect(status().isOk());
+  }
+
+  @Test
+  @DisplayName("Given a write when another client reads it then the read is served by the replica")
+  void givenWrite_whenOtherClientReads_thenReplicaServesRead() throws Exception {
+    MvcResult created =
+        mockMvc
+            .perform(post("/products").contentType(MediaType.APPLICATION_JSON).content(PRODUCT))
+            .andExpect(status().isCreated())
+            .andReturn();
+
+    // The stand-in replica never receives the row
+    mockMvc.perform(get("/products/{id}", idOf(created))).andExpect(status().isNotFound());
+  }
+
+  @Test
+  @DisplayName("Given a forged position when the client reads then the replica serves the read")
+  void givenForgedPosition_whenClientReads_thenReplicaServesRead() throws Exception {
+    MvcResult created = create();
+    Cookie forged = new Cookie(ReadYourWritesFilter.COOKIE_NAME, "1000000.forged");
+
+    mockMvc
+        .perform(get("/products/{id}", idOf(created)).cookie(forged))
+        .andExpect(status().isNotFound());
+  }
+
+  @Test
+  @DisplayName("Given a caught-up replica when the client reads then the read is served by it")
+  void givenReplicaCaughtUp_whenClientReads_thenReplicaServesRead() throws Exception {
+    MvcResult created = create();
+    Cookie pin = created.getResponse().getCookie(ReadYourWritesFilter.COOKIE_NAME);
+    JdbcTemplate replica =
+        new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", "securepassword"));
+
+    // Stands in for replication reaching a heartbeat written after the product
+    replica.update("UPDATE replication_heartbeat SET position = 1000000 WHERE id = 1");
+    try {
+      replicationMonitor.beat();
+      mockMvc
+          .perform(get("/products/{id}", idOf(created)).cookie(pin))
+          .andExpect(status().isNotFound());
+    } finally {
+      replica.update("UPDATE replication_heartbeat SET position = 0 WHERE id = 1");
+      replicationMonitor.beat();
+    }
+  }
+
+  @Test
+  @DisplayName("Given read-only and read-write transactions when routed then each takes its route")
+  void givenTransactions_whenRouted_thenReadOnlyGoesToReplica() {
+    TransactionTemplate readOnly =
+        new TransactionTemplate(transactionTemplate.getTransactionManager());
+    readOnly.setReadOnly(true);
+    TransactionCallback<DataSourceRoute> route =
+        status -> ReadWriteRoutingDataSource.currentRoute();
+
+    assertThat(readOnly.execute(route)).isEqualTo(DataSourceRoute.REPLICA);
+    assertThat(transactionTemplate.execute(route)).isEqualTo(DataSourceRoute.PRIMARY);
+    try (DataSourceRouting.Scope ignored = DataSourceRouting.forcePrimary()) {
+      assertThat(readOnly.execute(route)).isEqualTo(DataSourceRoute.PRIMARY);
+    }
+    assertThat(DataSourceRouting.isPrimaryForced()).isFalse();
+  }
+
+  private MvcResult create() throws Exception {
+    return mockMvc
+        .perform(post("/products").contentType(MediaType.APPLICATION_JSON).content(PRODUCT))
+        .andExpect(status().isCreated())
+        .andReturn();
+  }
+
+  private long idOf(MvcResult result) throws Exception {
+    JsonNode body = objectMapper.readTree(result.getResponse().getContentAsString());
+    return body.get("id").asLong();
+  }
+}
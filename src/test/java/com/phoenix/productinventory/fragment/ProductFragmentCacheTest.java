@@ -0,0 +1,132 @@
+package com.phoenix.productinventory.fragment;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.phoenix.productinventory.dto.CategoryResponseDto;
+import com.phoenix.productinventory.dto.ProductResponseDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.web.PagedModel;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+class ProductFragmentCacheTest {
+
+  private static final int WARMUP_ITERATIONS = 200;
+  private static final int MEASURED_ITERATIONS = 500;
+
+  private final ObjectMapper mapper = Jackson2ObjectMapperBuilder.json().build();
+  private final ProductFragmentCache cache =
+      new ProductFragmentCache(mapper, new ProductFragmentCacheProperties(true, 1000, 3));
+
+  @Test
+  @DisplayName("Given product page when written from the cache then JSON matches and is faster")
+  void givenProductPage_whenWrittenFromCache_thenSameJsonInLessTime() throws Exception {
+    List<ProductResponseDto> products = products(100);
+    PagedModel<ProductResponseDto> plain = page(products);
+    PagedModel<CachedProductJson> cached = page(cache.wrap(products));
+
+    String expected = mapper.writeValueAsString(plain);
+    assertThat(mapper.writeValueAsString(cached)).isEqualTo(expected);
+
+    long plainMicros = measure(plain);
+    long cachedMicros = measure(cached);
+    System.out.printf(
+        "page size 100  serialized %6d us/page  from cache %6d us/page%n",
+        plainMicros, cachedMicros);
+    assertThat(mapper.writeValueAsString(cached)).isEqualTo(expected);
+  }
+
+  @Test
+  @DisplayName("Given renamed category when written again then the product is rendered again")
+  void givenRenamedCategory_whenWrittenAgain_thenNotStale() throws Exception {
+    ProductResponseDto product = products(1).get(0);
+    mapper.writeValueAsString(cache.wrap(product));
+
+    ProductResponseDto renamed = products(1).get(0);
+    renamed.getCategory().setName("Renamed");
+
+    assertThat(mapper.writeValueAsString(cache.wrap(renamed))).contains("\"Renamed\"");
+    assertThat(mapper.writeValueAsString(cache.wrap(product))).doesNotContain("Renamed");
+  }
+
+  @Test
+  @DisplayName("Given binary encoding when writing a cached product then it is serialized as usual")
+  void givenCbor_whenWritingCachedProduct_thenSameDocument() throws Exception {
+    ObjectMapper cbor = new ObjectMapper(new CBORFactory());
+    ProductResponseDto product = products(1).get(0);
+    mapper.writeValueAsString(cache.wrap(product));
+
+    byte[] document = cbor.writeValueAsBytes(cache.wrap(product));
+
+    assertThat(document).isEqualTo(cbor.writeValueAsBytes(product));
+  }
+
+  @Test
+  @DisplayName("Given product served often when asking for gzip then a compressed copy is kept")
+  void givenHotProduct_whenAskingForGzip_thenCompressedCopyKept() {
+    ProductResponseDto product = products(1).get(0);
+
+    assertThat(cache.gzip(product)).isEmpty();
+    assertThat(cache.gzip(product)).isEmpty();
+    byte[] gzip = cache.gzip(product).orElseThrow();
+
+    assertThat(cache.gzip(product)).containsSame(gzip);
+  }
+
+  @Test
+  @DisplayName("Given more products than entries when writing them then the cache stays bounded")
+  void givenMoreProductsThanEntries_whenWriting_thenBounded() throws Exception {
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    cache.bindTo(registry);
+
+    mapper.writeValueAsString(cache.wrap(products(1500)));
+    mapper.writeValueAsString(cache.wrap(products(10)));
+
+    assertThat(registry.get("product.fragment.cache.size").gauge().value())
+        .isBetween(900.0, 1000.0);
+    assertThat(registry.get("product.fragment.cache.misses").functionCounter().count())
+        .isGreaterThanOrEqualTo(1500);
+  }
+
+  private long measure(Object page) throws Exception {
+    for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+      mapper.writeValueAsBytes(page);
+    }
+    long start = System.nanoTime();
+    for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+      mapper.writeValueAsBytes(page);
+    }
+    return (System.nanoTime() - start) / MEASURED_ITERATIONS / 1_000;
+  }
+
+  private static <T> PagedModel<T> page(List<T> content) {
+    return new PagedModel<>(new PageImpl<>(content, PageRequest.of(0, content.size()), 5_000));
+  }
+
+  private static List<ProductResponseDto> products(int count) {
+    List<ProductResponseDto> products = new ArrayList<>(count);
+    for (int i = 1; i <= count; i++) {
+      CategoryResponseDto category =
+          new CategoryResponseDto((long) i % 12, "Category " + i % 12, "Shelf items", null, null);
+      products.add(
+          new ProductResponseDto(
+              (long) i,
+              "Product " + i,
+              "A product with a moderately long description, number " + i,
+              BigDecimal.valueOf(1999 + i, 2),
+              i % 50,
+              category,
+              i % 3,
+              "SKU-" + i));
+    }
+    return products;
+  }
+}
@@ -0,0 +1,149 @@
+package com.phoenix.productinventory.graphql;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.phoenix.productinventory.dto.CategoryRequestDto;
+import com.phoenix.productinventory.dto.ProductRequestDto;
+import com.phoenix.productinventory.service.CategoryService;
+import com.phoenix.productinventory.service.ProductService;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.graphql.tester.AutoConfigureGraphQlTester;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.graphql.execution.ErrorType;
+import org.springframework.graphql.test.tester.GraphQlTester;
+
+/** Runs GraphQL queries against the seeded catalog and counts the SQL statements they take. */
+@SpringBootTest(
+    properties =
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+            + "com.phoenix.productinventory.graphql.CatalogGraphQlIntegrationTest$Counter")
+@AutoConfigureGraphQlTester
+class CatalogGraphQlIntegrationTest {
+
+  @Autowired private GraphQlTester graphQlTester;
+  @Autowired private ProductService productService;
+  @Autowired private CategoryService categoryService;
+
+  /** Records the statements prepared on the current thread, ignoring background jobs. */
+  public static class Counter implements StatementInspector {
+
+    private static final ThreadLocal<List<String>> STATEMENTS =
+        ThreadLocal.withInitial(ArrayList::new);
+
+    @Override
+    public String inspect(String sql) {
+      STATEMENTS.get().add(sql);
+      return sql;
+    }
+
+    static List<String> during(Runnable operation) {
+      STATEMENTS.get().clear();
+      operation.run();
+      return List.copyOf(STATEMENTS.get());
+    }
+  }
+
+  @Test
+  @DisplayName("Given products of several categories when querying relations then one query each")
+  void givenProductsOfSeveralCategories_whenQueryingRelations_thenBatched() {
+    Long parent = createCategory("GraphQL Lighting", null);
+    for (int category = 0; category < 3; category++) {
+      Long child = createCategory("GraphQL Lamps " + category, parent);
+      for (int product = 0; product < 4; product++) {
+        Long id =
+            productService
+                .createProduct(
+                    new ProductRequestDto(
+                        "GraphQL Lamp " + category + product, null, BigDecimal.TEN, 1, null, null))
+                .getId();
+        productService.assignCategory(id, child);
+      }
+    }
+    String query =
+        """
+        {
+          products(filter: {name: "graphql lamp"}, size: 20) {
+            content { name category { name productCount parent { name children { name } } } }
+          }
+        }
+        """;
+
+    List<String> statements =
+        Counter.during(
+            () ->
+                graphQlTester
+                    .document(query)
+                    .execute()
+                    .path("products.content[*].category.parent.name")
+                    .entityList(String.class)
+                    .hasSize(12)
+                    .contains("GraphQL Lighting")
+                    .path("products.content[0].category.productCount")
+                    .entity(Integer.class)
+                    .isEqualTo(4)
+                    .path("products.content[0].category.parent.children[*].name")
+                    .entityList(String.class)
+                    .containsExactly("GraphQL Lamps 0", "GraphQL Lamps 1", "GraphQL Lamps 2"));
+
+    // The page with its categories, then one query per relation: counts, parents, children
+    assertThat(statements).hasSize(4);
+    assertThat(statements.get(0)).doesNotContainIgnoringCase("price");
+  }
+
+  @Test
+  @DisplayName("Given a product query when selecting some fields then only their columns are read")
+  void givenFieldSelection_whenQueryingProduct_thenProjected() {
+    List<String> statements =
+        Counter.during(
+            () ->
+                graphQlTester
+                    .document("{ product(id: 1) { name price } }")
+                    .execute()
+                    .path("product.name")
+                    .entity(String.class)
+                    .isEqualTo("Laptop"));
+
+    assertThat(statements).hasSize(1);
+    assertThat(statements.get(0))
+        .containsIgnoringCase("price")
+        .doesNotContainIgnoringCase("description")
+        .doesNotContainIgnoringCase("categories");
+  }
+
+  @Test
+  @DisplayName("Given unknown ids and too deep queries when querying then errors are classified")
+  void givenInvalidQueries_whenQuerying_thenClassifiedErrors() {
+    graphQlTester
+        .document("{ product(id: 999999) { name } }")
+        .execute()
+        .errors()
+        .expect(error -> error.getErrorType() == ErrorType.NOT_FOUND)
+        .verify()
+        .path("product")
+        .valueIsNull();
+    graphQlTester
+        .document("{ products(size: 0) { totalElements } }")
+        .execute()
+        .errors()
+        .expect(error -> error.getErrorType() == ErrorType.BAD_REQUEST)
+        .verify();
+    graphQlTester
+        .document("{ category(id: 1) " + "{ children ".repeat(8) + "{ id }" + " }".repeat(9))
+        .execute()
+        .errors()
+        .expect(error -> error.getMessage().contains("depth"))
+        .verify();
+  }
+
+  private Long createCategory(String name, Long parentId) {
+    return categoryService
+        .createCategory(new CategoryRequestDto(name, null, parentId, null))
+        .getId();
+  }
+}
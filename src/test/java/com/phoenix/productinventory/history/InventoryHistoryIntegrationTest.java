@@ -0,0 +1,205 @@
+package com.phoenix.productinventory.history;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.phoenix.productinventory.dto.CategoryRequestDto;
+import com.phoenix.productinventory.dto.InventoryHistoryPointDto;
+import com.phoenix.productinventory.dto.ProductRequestDto;
+import com.phoenix.productinventory.exception.BadRequestException;
+import com.phoenix.productinventory.outbox.AggregateType;
+import com.phoenix.productinventory.outbox.ChangeEvent;
+import com.phoenix.productinventory.outbox.ChangeType;
+import com.phoenix.productinventory.outbox.OutboxRelay;
+import com.phoenix.productinventory.repository.OutboxEventRepository;
+import com.phoenix.productinventory.service.CategoryService;
+import com.phoenix.productinventory.service.ProductService;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+
+/**
+ * Records product changes through the outbox relay and reads them back at each resolution. Points
+ * are read per day, so a test only sees two points when it runs across midnight UTC.
+ */
+@SpringBootTest
+class InventoryHistoryIntegrationTest {
+
+  @Autowired private InventoryHistoryService historyService;
+  @Autowired private InventoryHistoryDownsampler downsampler;
+  @Autowired private ProductService productService;
+  @Autowired private CategoryService categoryService;
+  @Autowired private OutboxRelay outboxRelay;
+  @Autowired private InventoryHistorySink historySink;
+  @Autowired private OutboxEventRepository outboxRepository;
+
+  @Test
+  @DisplayName("Given product changes when relayed then one point summarizes them")
+  void givenProductChanges_whenRelayed_thenPointSummarizesThem() {
+    Long categoryId = createCategory("History Paint");
+    Long id = createChangedProduct("History Primer", categoryId);
+    outboxRelay.relay();
+
+    Instant from = Instant.now().minus(Duration.ofDays(1));
+    Instant to = Instant.now().plusSeconds(60);
+    List<InventoryHistoryPointDto> points =
+        historyService.getProductHistory(id, from, to, HistoryResolution.DAY);
+    assertThat(points).hasSize(1);
+    assertSummarizesChanges(points.get(0), categoryId);
+
+    List<InventoryHistoryPointDto> minutes =
+        historyService.getProductHistory(id, from, to, HistoryResolution.MINUTE);
+    assertThat(minutes)
+        .isNotEmpty()
+        .allSatisfy(point -> assertThat(point.getResolution()).isEqualTo(HistoryResolution.MINUTE));
+    assertThat(minutes.stream().mapToInt(InventoryHistoryPointDto::getChanges).sum()).isEqualTo(5);
+
+    assertThat(historyService.getCategoryHistory(categoryId, from, to, HistoryResolution.DAY))
+        .extracting(InventoryHistoryPointDto::getProductId)
+        .containsExactly(id);
+  }
+
+  @Test
+  @DisplayName("Given relayed changes when delivered again in reverse then nothing is added")
+  void givenRelayedChanges_whenDeliveredAgain_thenNothingAdded() {
+    Instant start = Instant.now();
+    Long categoryId = createCategory("History Bath");
+    Long id = createChangedProduct("History Towel", categoryId);
+    outboxRelay.relay();
+
+    List<ChangeEvent> delivered =
+        outboxRepository
+            .findAfter(
+                outboxRepository.findFirstIdCreatedSince(start) - 1,
+                AggregateType.PRODUCT,
+                PageRequest.ofSize(1000))
+            .stream()
+            .filter(event -> event.getAggregateId().equals(id))
+            .map(ChangeEvent::of)
+            .toList();
+    assertThat(delivered).hasSize(5);
+    historySink.publish(delivered.reversed());
+    historySink.publish(delivered.subList(3, 5));
+
+    Instant to = Instant.now().plusSeconds(60);
+    List<InventoryHistoryPointDto> points =
+        historyService.getProductHistory(
+            id, to.minus(Duration.ofDays(1)), to, HistoryResolution.DAY);
+    assertThat(points).hasSize(1);
+    assertSummarizesChanges(points.get(0), categoryId);
+  }
+
+  @Test
+  @DisplayName("Given older changes delivered after newer ones when merged then they open the bucket")
+  void givenOlderChangesDeliveredLate_whenMerged_thenTheyOpenBucket() {
+    // Not a stored product, so no relay delivers these changes
+    long id = 9_000_001L;
+    Instant at = HistoryResolution.MINUTE.truncate(Instant.now()).plusSeconds(1);
+    List<ChangeEvent> changes =
+        List.of(
+            productChange(id, 1, 10, "10", at),
+            productChange(id, 2, 4, "10", at),
+            productChange(id, 3, 4, "12", at),
+            productChange(id, 4, 7, "12", at));
+
+    historySink.publish(changes.subList(2, 4));
+    historySink.publish(changes.subList(0, 2));
+    historySink.publish(changes);
+
+    List<InventoryHistoryPointDto> points =
+        historyService.getProductHistory(
+            id, at.minus(Duration.ofMinutes(1)), at.plusSeconds(60), HistoryResolution.MINUTE);
+    assertThat(points).hasSize(1);
+    InventoryHistoryPointDto point = points.get(0);
+    assertThat(point.getOpenQuantity()).isEqualTo(10);
+    assertThat(point.getCloseQuantity()).isEqualTo(7);
+    assertThat(point.getMinQuantity()).isEqualTo(4);
+    assertThat(point.getOpenPrice()).isEqualByComparingTo("10");
+    assertThat(point.getClosePrice()).isEqualByComparingTo("12");
+    assertThat(point.getChanges()).isEqualTo(4);
+  }
+
+  @Test
+  @DisplayName("Given aged minute buckets when downsampled then they are read from the day table")
+  void givenAgedBuckets_whenDownsampled_thenReadFromDayTable() {
+    Long categoryId = createCategory("History Garden");
+    Long id = createChangedProduct("History Hose", categoryId);
+    outboxRelay.relay();
+
+    assertThat(downsampler.downsample(Instant.now().plus(Duration.ofDays(40)))).isPositive();
+
+    Instant to = Instant.now().plusSeconds(60);
+    assertThat(
+            historyService.getProductHistory(
+                id, to.minus(Duration.ofDays(1)), to, HistoryResolution.MINUTE))
+        .isEmpty();
+
+    List<InventoryHistoryPointDto> points =
+        historyService.getProductHistory(
+            id, to.minus(Duration.ofDays(60)), to, HistoryResolution.MINUTE);
+    assertThat(points).hasSize(1);
+    assertThat(points.get(0).getResolution()).isEqualTo(HistoryResolution.DAY);
+    assertSummarizesChanges(points.get(0), categoryId);
+  }
+
+  @Test
+  @DisplayName("Given an empty or missing range when requested then it is rejected")
+  void givenInvalidRange_whenRequested_thenRejected() {
+    Instant now = Instant.now();
+    assertThatThrownBy(
+            () -> historyService.getProductHistory(1L, now, now, HistoryResolution.MINUTE))
+        .isInstanceOf(BadRequestException.class);
+    assertThatThrownBy(
+            () -> historyService.getCategoryHistory(1L, null, now, HistoryResolution.HOUR))
+        .isInstanceOf(BadRequestException.class);
+  }
+
+  /** Created with 10 items at 10, assigned, then changed to 4 items, a price of 12 and 7 items. */
+  private static void assertSummarizesChanges(InventoryHistoryPointDto point, Long categoryId) {
+    assertThat(point.getCategoryId()).isEqualTo(categoryId);
+    assertThat(point.getOpenQuantity()).isEqualTo(10);
+    assertThat(point.getCloseQuantity()).isEqualTo(7);
+    assertThat(point.getMinQuantity()).isEqualTo(4);
+    assertThat(point.getMaxQuantity()).isEqualTo(10);
+    assertThat(point.getOpenPrice()).isEqualByComparingTo("10");
+    assertThat(point.getClosePrice()).isEqualByComparingTo("12");
+    assertThat(point.getMinPrice()).isEqualByComparingTo("10");
+    assertThat(point.getMaxPrice()).isEqualByComparingTo("12");
+    assertThat(point.getChanges()).isEqualTo(5);
+  }
+
+  private static ChangeEvent productChange(
+      long id, long version, int quantity, String price, Instant at) {
+    return new ChangeEvent(
+        -version,
+        AggregateType.PRODUCT,
+        id,
+        version,
+        ChangeType.UPDATED,
+        "{\"id\":" + id + ",\"quantity\":" + quantity + ",\"price\":" + price + "}",
+        at);
+  }
+
+  private Long createChangedProduct(String name, Long categoryId) {
+    Long id =
+        productService
+            .createProduct(new ProductRequestDto(name, null, BigDecimal.TEN, 10, null, null))
+            .getId();
+    productService.assignCategory(id, categoryId);
+    productService.updateProduct(id, new ProductRequestDto(null, null, null, 4, null, null));
+    productService.updateProduct(
+        id, new ProductRequestDto(null, null, new BigDecimal("12.00"), null, null, null));
+    productService.updateProduct(id, new ProductRequestDto(null, null, null, 7, null, null));
+    return id;
+  }
+
+  private Long createCategory(String name) {
+    return categoryService.createCategory(new CategoryRequestDto(name, null, null, null)).getId();
+  }
+}
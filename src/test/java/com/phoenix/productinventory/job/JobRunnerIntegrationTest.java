@@ -0,0 +1,206 @@
+package com.phoenix.productinventory.job;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.phoenix.productinventory.dto.BulkProductUpdateDto;
+import com.phoenix.productinventory.dto.JobDto;
+import com.phoenix.productinventory.dto.JobRequestDto;
+import com.phoenix.productinventory.dto.ProductRequestDto;
+import com.phoenix.productinventory.dto.ProductUpsertDto;
+import com.phoenix.productinventory.dto.SearchConditionDto;
+import com.phoenix.productinventory.model.Job;
+import com.phoenix.productinventory.model.Product;
+import com.phoenix.productinventory.repository.JobRepository;
+import com.phoenix.productinventory.repository.ProductRepository;
+import com.phoenix.productinventory.service.ProductService;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+/**
+ * Runs jobs against the database with chunks smaller than the number of products. Queued jobs are
+ * only started by submissions and explicit dispatches, never by the poller.
+ */
+@SpringBootTest(
+    properties = {"bulk.chunk-size=2", "bulk.upsert-batch-size=2", "jobs.poll-interval=1h"})
+class JobRunnerIntegrationTest {
+
+  private static final long TIMEOUT_MILLIS = 10_000;
+
+  @Autowired private JobService jobService;
+  @Autowired private JobRunner jobRunner;
+  @Autowired private JobRepository jobRepository;
+  @Autowired private ProductService productService;
+  @Autowired private ProductRepository productRepository;
+  @Autowired private ObjectMapper objectMapper;
+
+  @Test
+  @DisplayName("Given bulk update job when submitted then all chunks are committed")
+  void givenBulkUpdateJob_whenSubmitted_thenAllChunksCommitted() throws Exception {
+    List<Long> ids = createProducts("Job Lamp", 5);
+
+    JobDto job =
+        awaitFinished(
+            jobService.submit(bulkUpdate("job lamp", new BulkProductUpdateDto(null, null, 5))));
+
+    assertThat(job.getStatus()).isEqualTo(JobStatus.SUCCEEDED);
+    assertThat(job.getProcessed()).isEqualTo(5);
+    assertThat(job.getTotal()).isEqualTo(5);
+    assertThat(quantities(ids)).containsExactly(6, 7, 8, 9, 10);
+  }
+
+  @Test
+  @DisplayName("Given job interrupted after two products when resumed then it continues after them")
+  void givenInterruptedJob_whenResumed_thenContinuesAfterLastChunk() throws Exception {
+    List<Long> ids = createProducts("Job Desk", 5);
+    // Its runner stopped without releasing it, so the lease has expired
+    Job interrupted =
+        running(
+            bulkUpdate("job desk", new BulkProductUpdateDto(null, null, 5)),
+            ids.get(1),
+            Instant.now().minusSeconds(1));
+
+    jobRunner.resume();
+    JobDto job = awaitFinished(jobService.getJob(interrupted.getId()));
+
+    assertThat(job.getStatus()).isEqualTo(JobStatus.SUCCEEDED);
+    assertThat(job.getProcessed()).isEqualTo(5);
+    assertThat(quantities(ids)).containsExactly(1, 2, 8, 9, 10);
+  }
+
+  @Test
+  @DisplayName("Given job leased by another runner when resumed then it is left to that runner")
+  void givenJobLeasedElsewhere_whenResumed_thenLeftToThatRunner() throws Exception {
+    List<Long> ids = createProducts("Job Lamp Shade", 3);
+    Job leased =
+        running(
+            bulkUpdate("job lamp shade", new BulkProductUpdateDto(null, null, 5)),
+            ids.get(1),
+            Instant.now().plusSeconds(3600));
+
+    jobRunner.resume();
+
+    Job job = jobRepository.findById(leased.getId()).orElseThrow();
+    assertThat(job.getStatus()).isEqualTo(JobStatus.RUNNING);
+    assertThat(job.getClaimedBy()).isEqualTo("other-runner");
+    assertThat(job.getProcessed()).isEqualTo(2);
+    assertThat(quantities(ids)).containsExactly(1, 2, 3);
+  }
+
+  @Test
+  @DisplayName("Given queued job when cancelled then it never runs")
+  void givenQueuedJob_whenCancelled_thenNeverRuns() throws Exception {
+    List<Long> ids = createProducts("Job Chair", 2);
+    Job queued = queue(bulkUpdate("job chair", new BulkProductUpdateDto(null, null, 5)), false);
+
+    JobDto cancelled = jobService.cancel(queued.getId());
+    jobRunner.dispatch();
+
+    assertThat(cancelled.getStatus()).isEqualTo(JobStatus.CANCELLED);
+    assertThat(cancelled.getFinishedAt()).isNotNull();
+    assertThat(jobService.getJob(queued.getId()).getStartedAt()).isNull();
+    assertThat(quantities(ids)).containsExactly(1, 2);
+  }
+
+  @Test
+  @DisplayName("Given cancellation requested when the job runs then it stops before the next chunk")
+  void givenCancellationRequested_whenRunning_thenStopsBeforeNextChunk() throws Exception {
+    List<Long> ids = createProducts("Job Shelf", 3);
+    Job job = queue(bulkUpdate("job shelf", new BulkProductUpdateDto(null, null, 5)), true);
+
+    jobRunner.dispatch();
+    JobDto cancelled = awaitFinished(jobService.getJob(job.getId()));
+
+    assertThat(cancelled.getStatus()).isEqualTo(JobStatus.CANCELLED);
+    assertThat(cancelled.getProcessed()).isZero();
+    assertThat(quantities(ids)).containsExactly(1, 2, 3);
+  }
+
+  @Test
+  @DisplayName("Given feed whose second chunk fails when run then the first chunk is kept")
+  void givenFailingSecondChunk_whenRun_thenFirstChunkKept() throws Exception {
+    List<ProductUpsertDto> feed =
+        List.of(
+            new ProductUpsertDto("JOB-1", "Job Rug", null, BigDecimal.TEN, 1, null, null),
+            new ProductUpsertDto("JOB-2", "Job Rug", null, BigDecimal.TEN, 1, null, null),
+            new ProductUpsertDto("JOB-3", "Job Rug", null, BigDecimal.TEN, 1, null, 4));
+
+    JobDto job =
+        awaitFinished(
+            jobService.submit(
+                JobRequestDto.builder().type(JobType.PRODUCT_UPSERT).products(feed).build()));
+
+    assertThat(job.getStatus()).isEqualTo(JobStatus.FAILED);
+    assertThat(job.getProcessed()).isEqualTo(2);
+    assertThat(job.getError()).contains("JOB-3");
+    assertThat(productRepository.findAllBySkuIn(List.of("JOB-1", "JOB-2", "JOB-3")))
+        .extracting(Product::getSku)
+        .containsExactlyInAnyOrder("JOB-1", "JOB-2");
+  }
+
+  private Job queue(JobRequestDto request, boolean cancelRequested) throws Exception {
+    return jobRepository.save(
+        Job.builder()
+            .type(request.getType())
+            .status(JobStatus.QUEUED)
+            .payload(objectMapper.writeValueAsString(request))
+            .cancelRequested(cancelRequested)
+            .createdAt(Instant.now())
+            .build());
+  }
+
+  private Job running(JobRequestDto request, long cursor, Instant claimedUntil) throws Exception {
+    return jobRepository.save(
+        Job.builder()
+            .type(request.getType())
+            .status(JobStatus.RUNNING)
+            .payload(objectMapper.writeValueAsString(request))
+            .cursor(cursor)
+            .processed(2)
+            .claimedBy("other-runner")
+            .claimedUntil(claimedUntil)
+            .createdAt(Instant.now())
+            .build());
+  }
+
+  private JobDto awaitFinished(JobDto job) throws InterruptedException {
+    long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+    JobDto current = jobService.getJob(job.getId());
+    while (!current.getStatus().isFinished() && System.currentTimeMillis() < deadline) {
+      Thread.sleep(20);
+      current = jobService.getJob(job.getId());
+    }
+    return current;
+  }
+
+  private List<Long> createProducts(String name, int count) {
+    return IntStream.rangeClosed(1, count)
+        .mapToObj(
+            i ->
+                productService
+                    .createProduct(
+                        new ProductRequestDto(name + " " + i, null, BigDecimal.TEN, i, null, null))
+                    .getId())
+        .toList();
+  }
+
+  private List<Integer> quantities(List<Long> ids) {
+    return ids.stream()
+        .map(id -> productRepository.findById(id).orElseThrow().getQuantity())
+        .toList();
+  }
+
+  private static JobRequestDto bulkUpdate(String name, BulkProductUpdateDto update) {
+    return JobRequestDto.builder()
+        .type(JobType.PRODUCT_BULK_UPDATE)
+        .filter(SearchConditionDto.builder().field("name").contains(name).build())
+        .update(update)
+        .build();
+  }
+}
@@ -0,0 +1,105 @@
+package com.phoenix.productinventory.limiter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class AdaptiveConcurrencyLimiterTest {
+
+  private static final long MILLIS = 1_000_000L;
+
+  private final AtomicLong clock = new AtomicLong();
+  private final AdaptiveConcurrencyLimiter limiter =
+      new AdaptiveConcurrencyLimiter(
+          new ConcurrencyLimitProperties(true, 10, 2, 100, 0.2, Duration.ofSeconds(1)),
+          clock::get);
+
+  @Test
+  @DisplayName("Given limit reached when tryAcquire then rejects until a permit is released")
+  void givenLimitReached_whenTryAcquire_thenRejects() {
+    List<AdaptiveConcurrencyLimiter.Permit> permits = acquire(10);
+
+    assertThat(limiter.tryAcquire()).isEmpty();
+    permits.get(0).ignore();
+    assertThat(limiter.tryAcquire()).isPresent();
+    assertThat(limiter.getInFlight()).isEqualTo(10);
+  }
+
+  @Test
+  @DisplayName("Given steady latency at full load when requests complete then limit grows")
+  void givenSteadyLatency_whenSaturated_thenLimitGrows() {
+    runRounds(20, 10);
+
+    assertThat(limiter.getLimit()).isGreaterThan(10);
+  }
+
+  @Test
+  @DisplayName("Given latency spike when requests complete then limit shrinks")
+  void givenLatencySpike_whenSaturated_thenLimitShrinks() {
+    runRounds(5, 10);
+    int healthyLimit = limiter.getLimit();
+
+    runRounds(5, 100);
+
+    assertThat(limiter.getLimit()).isLessThan(healthyLimit);
+  }
+
+  @Test
+  @DisplayName("Given low utilization when requests complete then limit does not move")
+  void givenLowUtilization_whenRequestsComplete_thenLimitUnchanged() {
+    for (int i = 0; i < 50; i++) {
+      AdaptiveConcurrencyLimiter.Permit permit = limiter.tryAcquire().orElseThrow();
+      clock.addAndGet(10 * MILLIS);
+      permit.success();
+    }
+
+    assertThat(limiter.getLimit()).isEqualTo(10);
+  }
+
+  @Test
+  @DisplayName("Given failed requests when dropped then limit backs off but not below minimum")
+  void givenFailures_whenDropped_thenLimitBacksOffToMinimum() {
+    limiter.tryAcquire().orElseThrow().dropped();
+    assertThat(limiter.getLimit()).isEqualTo(9);
+
+    for (int i = 0; i < 50; i++) {
+      limiter.tryAcquire().orElseThrow().dropped();
+    }
+    assertThat(limiter.getLimit()).isEqualTo(2);
+  }
+
+  @Test
+  @DisplayName("Given released permit when released again then in-flight count is unchanged")
+  void givenReleasedPermit_whenReleasedAgain_thenIgnored() {
+    AdaptiveConcurrencyLimiter.Permit permit = limiter.tryAcquire().orElseThrow();
+    limiter.tryAcquire().orElseThrow();
+
+    permit.success();
+    permit.dropped();
+
+    assertThat(limiter.getInFlight()).isEqualTo(1);
+    assertThat(limiter.getLimit()).isEqualTo(10);
+  }
+
+  /** Saturates the limiter and completes every request after the given latency. */
+  private void runRounds(int rounds, long latencyMillis) {
+    for (int round = 0; round < rounds; round++) {
+      List<AdaptiveConcurrencyLimiter.Permit> permits = acquire(limiter.getLimit());
+      clock.addAndGet(latencyMillis * MILLIS);
+      permits.forEach(AdaptiveConcurrencyLimiter.Permit::success);
+    }
+  }
+
+  private List<AdaptiveConcurrencyLimiter.Permit> acquire(int count) {
+    List<AdaptiveConcurrencyLimiter.Permit> permits = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      permits.add(limiter.tryAcquire().orElseThrow());
+    }
+    return permits;
+  }
+}
@@ -0,0 +1,75 @@
+package com.phoenix.productinventory.limiter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+class ConcurrencyLimitFilterTest {
+
+  private final ConcurrencyLimitFilter filter =
+      new ConcurrencyLimitFilter(
+          new ConcurrencyLimitProperties(true, 1, 1, 1, 0.2, Duration.ofMillis(1500)),
+          System::nanoTime);
+
+  @Test
+  @DisplayName("Given read in flight when another read arrives then returns 503 with Retry-After")
+  void givenReadInFlight_whenAnotherRead_thenRejected() throws Exception {
+    MockHttpServletResponse nested = whileInFlight("GET", "/products", "GET", "/products/1");
+
+    assertThat(nested.getStatus()).isEqualTo(503);
+    assertThat(nested.getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("2");
+
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    filter.bindTo(registry);
+    assertThat(
+            registry
+                .get("http.server.concurrency.rejected")
+                .tag("group", "read")
+                .functionCounter()
+                .count())
+        .isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("Given read in flight when a write arrives then write is admitted")
+  void givenReadInFlight_whenWrite_thenAdmitted() throws Exception {
+    MockHttpServletResponse nested = whileInFlight("GET", "/products", "POST", "/categories");
+
+    assertThat(nested.getStatus()).isEqualTo(200);
+  }
+
+  @Test
+  @DisplayName("Given read in flight when an unrelated path is requested then it is not limited")
+  void givenReadInFlight_whenUnrelatedPath_thenNotLimited() throws Exception {
+    MockHttpServletResponse nested = whileInFlight("GET", "/products", "GET", "/actuator/health");
+
+    assertThat(nested.getStatus()).isEqualTo(200);
+  }
+
+  /** Sends the second request from inside the filter chain of the first one. */
+  private MockHttpServletResponse whileInFlight(
+      String method, String uri, String nestedMethod, String nestedUri) throws Exception {
+    AtomicReference<MockHttpServletResponse> nested = new AtomicReference<>();
+    FilterChain outerChain =
+        (request, response) -> {
+          MockHttpServletResponse nestedResponse = new MockHttpServletResponse();
+          filter.doFilter(
+              new MockHttpServletRequest(nestedMethod, nestedUri),
+              nestedResponse,
+              new MockFilterChain());
+          nested.set(nestedResponse);
+        };
+    filter.doFilter(
+        new MockHttpServletRequest(method, uri), new MockHttpServletResponse(), outerChain);
+    return nested.get();
+  }
+}
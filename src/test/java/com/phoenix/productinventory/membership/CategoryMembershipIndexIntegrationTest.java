@@ -0,0 +1,78 @@
+package com.phoenix.productinventory.membership;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.phoenix.productinventory.dto.CategoryRequestDto;
+import com.phoenix.productinventory.dto.ProductRequestDto;
+import com.phoenix.productinventory.dto.ProductResponseDto;
+import com.phoenix.productinventory.model.Product;
+import com.phoenix.productinventory.service.CategoryService;
+import com.phoenix.productinventory.service.ProductService;
+import com.phoenix.productinventory.spcification.ProductSpecification;
+import java.math.BigDecimal;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Evaluates category expressions whose results exceed the id list limit, so they are filtered with
+ * membership subqueries in the database.
+ */
+@SpringBootTest(properties = "category.membership.max-id-list-size=1")
+class CategoryMembershipIndexIntegrationTest {
+
+  @Autowired private CategoryMembershipIndex index;
+  @Autowired private ProductService productService;
+  @Autowired private CategoryService categoryService;
+
+  @Test
+  @DisplayName("Given a large result when filtered then subqueries match the bitmap evaluation")
+  void givenLargeResult_whenFiltered_thenSubqueriesMatchBitmaps() {
+    Long lamps = createCategory("Membership Lamps");
+    Long shades = createCategory("Membership Shades");
+    Long bulbs = createCategory("Membership Bulbs");
+    Long desk = createProduct("Membership Desk Lamp", lamps);
+    Long floor = createProduct("Membership Floor Lamp", lamps);
+    Long shade = createProduct("Membership Shade", shades);
+    Long cable = createProduct("Membership Cable", null);
+    productService.addCategoryMembership(desk, shades);
+    productService.addCategoryMembership(floor, bulbs);
+
+    assertThat(filter(new CategoryExpression(List.of(lamps), null, null)))
+        .containsExactly(desk, floor);
+    assertThat(filter(new CategoryExpression(null, List.of(shades, bulbs), null)))
+        .containsExactly(desk, floor, shade);
+    assertThat(filter(new CategoryExpression(List.of(lamps), null, List.of(shades))))
+        .containsExactly(floor);
+    assertThat(filter(new CategoryExpression(null, null, List.of(lamps, shades))))
+        .containsExactly(cable);
+  }
+
+  private List<Long> filter(CategoryExpression expression) {
+    Specification<Product> spec =
+        ProductSpecification.hasName("Membership").and(index.toSpecification(expression));
+    return productService.getAllProducts(spec, Pageable.unpaged()).stream()
+        .map(ProductResponseDto::getId)
+        .sorted()
+        .toList();
+  }
+
+  private Long createProduct(String name, Long categoryId) {
+    Long id =
+        productService
+            .createProduct(new ProductRequestDto(name, null, BigDecimal.ONE, 1, null, null))
+            .getId();
+    if (categoryId != null) {
+      productService.assignCategory(id, categoryId);
+    }
+    return id;
+  }
+
+  private Long createCategory(String name) {
+    return categoryService.createCategory(new CategoryRequestDto(name, null, null, null)).getId();
+  }
+}
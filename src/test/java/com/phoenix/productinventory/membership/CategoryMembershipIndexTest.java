@@ -0,0 +1,221 @@
+package com.phoenix.productinventory.membership;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.phoenix.productinventory.model.ProductCategory;
+import com.phoenix.productinventory.outbox.AggregateType;
+import com.phoenix.productinventory.outbox.ChangeEvent;
+import com.phoenix.productinventory.outbox.ChangeType;
+import com.phoenix.productinventory.repository.ProductCategoryRepository;
+import com.phoenix.productinventory.repository.ProductRepository;
+import com.phoenix.productinventory.snapshot.CatalogSnapshot;
+import com.phoenix.productinventory.snapshot.CatalogSnapshotService;
+import com.phoenix.productinventory.snapshot.ProductState;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.beans.factory.ObjectProvider;
+
+class CategoryMembershipIndexTest {
+
+  private static final CategoryMembershipProperties PROPERTIES =
+      new CategoryMembershipProperties(1000, 100);
+
+  @Mock private ProductRepository productRepository;
+  @Mock private ProductCategoryRepository membershipRepository;
+  @Mock private ObjectProvider<CatalogSnapshotService> snapshots;
+  private CategoryMembershipIndex index;
+
+  @BeforeEach
+  void setUp() {
+    MockitoAnnotations.openMocks(this);
+    index =
+        new CategoryMembershipIndex(
+            productRepository, membershipRepository, snapshots, new ObjectMapper(), PROPERTIES);
+    // Products 1-3 are primarily in category 10, 4-5 in 20 and 6 in none
+    when(productRepository.findAllMemberships())
+        .thenReturn(
+            List.of(
+                new CategoryMembership(1L, 10L),
+                new CategoryMembership(2L, 10L),
+                new CategoryMembership(3L, 10L),
+                new CategoryMembership(4L, 20L),
+                new CategoryMembership(5L, 20L),
+                new CategoryMembership(6L, null)));
+    // Products 2 and 4 are additionally in category 30, product 3 in 20
+    when(membershipRepository.findAllMemberships())
+        .thenReturn(
+            List.of(
+                new CategoryMembership(2L, 30L),
+                new CategoryMembership(4L, 30L),
+                new CategoryMembership(3L, 20L)));
+    index.load();
+  }
+
+  @Test
+  @DisplayName("Given all categories when evaluate then returns products in every category")
+  void givenAllCategories_whenEvaluate_thenReturnsIntersection() {
+    assertThat(ids(new CategoryExpression(List.of(10L, 20L), null, null))).containsExactly(3L);
+  }
+
+  @Test
+  @DisplayName("Given any categories when evaluate then returns products in at least one category")
+  void givenAnyCategories_whenEvaluate_thenReturnsUnion() {
+    assertThat(ids(new CategoryExpression(null, List.of(20L, 30L), null)))
+        .containsExactly(2L, 3L, 4L, 5L);
+  }
+
+  @Test
+  @DisplayName("Given none categories when evaluate then excludes their products")
+  void givenNoneCategories_whenEvaluate_thenExcludesMembers() {
+    assertThat(ids(new CategoryExpression(null, null, List.of(10L))))
+        .containsExactly(4L, 5L, 6L);
+  }
+
+  @Test
+  @DisplayName("Given combined expression when evaluate then applies all three clauses")
+  void givenCombinedExpression_whenEvaluate_thenAppliesAllClauses() {
+    assertThat(ids(new CategoryExpression(List.of(10L), List.of(20L, 30L), List.of(30L))))
+        .containsExactly(3L);
+  }
+
+  @Test
+  @DisplayName("Given changes outside a transaction when evaluate then reflects them immediately")
+  void givenChanges_whenEvaluate_thenReflectsThem() {
+    index.changePrimaryCategory(1L, 10L, 20L, 1);
+    index.addMembership(6L, 10L);
+    index.removeProduct(2L);
+
+    assertThat(ids(new CategoryExpression(List.of(10L), null, null))).containsExactly(3L, 6L);
+    assertThat(ids(new CategoryExpression(List.of(20L), null, null)))
+        .containsExactly(1L, 3L, 4L, 5L);
+  }
+
+  @Test
+  @DisplayName("Given primary category changes out of order when evaluate then the latest wins")
+  void givenPrimaryChangesOutOfOrder_whenEvaluate_thenLatestVersionWins() {
+    // Version 2 moved product 1 from 20 to 30 after version 1 moved it from 10 to 20
+    index.changePrimaryCategory(1L, 20L, 30L, 2);
+    index.changePrimaryCategory(1L, 10L, 20L, 1);
+    index.addProduct(7L, 20L, 0);
+    index.changePrimaryCategory(7L, 20L, 30L, 1);
+    index.addProduct(7L, 20L, 0);
+
+    assertThat(ids(new CategoryExpression(List.of(10L), null, null))).containsExactly(2L, 3L);
+    assertThat(ids(new CategoryExpression(List.of(30L), null, null)))
+        .containsExactly(1L, 2L, 4L, 7L);
+  }
+
+  @Test
+  @DisplayName("Given product changes from the outbox when applied then only newer versions count")
+  void givenProductChangesFromOutbox_whenApplied_thenOnlyNewerVersionsCount() {
+    // Made by another instance: version 3 moved product 1 to 20, version 2 had moved it to 30
+    index.onChange(productChange(1L, ChangeType.CATEGORY_ASSIGNED, 3, 20L));
+    index.onChange(productChange(1L, ChangeType.CATEGORY_ASSIGNED, 2, 30L));
+    index.onChange(productChange(7L, ChangeType.CREATED, 0, 30L));
+
+    assertThat(ids(new CategoryExpression(List.of(10L), null, null))).containsExactly(2L, 3L);
+    assertThat(ids(new CategoryExpression(List.of(20L), null, null)))
+        .containsExactly(1L, 3L, 4L, 5L);
+    assertThat(ids(new CategoryExpression(List.of(30L), null, null))).containsExactly(2L, 4L, 7L);
+  }
+
+  @Test
+  @DisplayName("Given a deleted product when an older change arrives then it is not brought back")
+  void givenDeletedProduct_whenOlderChangeArrives_thenNotBroughtBack() {
+    when(membershipRepository.existsById(new ProductCategory.Key(4L, 30L))).thenReturn(true);
+    index.onChange(productChange(4L, ChangeType.DELETED, 2, 20L));
+    index.onChange(productChange(4L, ChangeType.UPDATED, 1, 20L));
+    index.onChange(membershipChange(4L, 30L, ChangeType.CREATED));
+
+    assertThat(ids(new CategoryExpression(null, List.of(20L, 30L), null)))
+        .containsExactly(2L, 3L, 5L);
+  }
+
+  @Test
+  @DisplayName("Given membership changes from the outbox when applied then the database decides")
+  void givenMembershipChangesFromOutbox_whenApplied_thenDatabaseDecides() {
+    // Product 6 was added to 30 and removed again; product 5 added to 10 remains
+    when(membershipRepository.existsById(new ProductCategory.Key(5L, 10L))).thenReturn(true);
+    index.onChange(membershipChange(6L, 30L, ChangeType.DELETED));
+    index.onChange(membershipChange(6L, 30L, ChangeType.CREATED));
+    index.onChange(membershipChange(5L, 10L, ChangeType.CREATED));
+    index.onChange(membershipChange(2L, 30L, ChangeType.DELETED));
+
+    assertThat(ids(new CategoryExpression(List.of(10L), null, null)))
+        .containsExactly(1L, 2L, 3L, 5L);
+    assertThat(ids(new CategoryExpression(List.of(30L), null, null))).containsExactly(4L);
+  }
+
+  @Test
+  @DisplayName("Given a verified snapshot when initialized then primary categories come from it")
+  @SuppressWarnings("unchecked")
+  void givenSnapshot_whenInitialized_thenPrimaryCategoriesFromSnapshot() {
+    ProductRepository products = mock(ProductRepository.class);
+    CatalogSnapshotService snapshotService = mock(CatalogSnapshotService.class);
+    ObjectProvider<CatalogSnapshotService> snapshots = mock(ObjectProvider.class);
+    when(snapshots.getIfAvailable()).thenReturn(snapshotService);
+    when(snapshotService.verifiedSnapshot())
+        .thenReturn(
+            new CatalogSnapshot(
+                Instant.now(),
+                List.of(
+                    new ProductState(1L, 0, BigDecimal.ONE, 1, 10L),
+                    new ProductState(2L, 0, BigDecimal.ONE, 1, null)),
+                List.of()));
+    CategoryMembershipIndex restored =
+        new CategoryMembershipIndex(
+            products, membershipRepository, snapshots, new ObjectMapper(), PROPERTIES);
+
+    restored.afterSingletonsInstantiated();
+
+    verify(products, never()).findAllMemberships();
+    List<Long> ids = new ArrayList<>();
+    restored.evaluate(new CategoryExpression(null, List.of(10L, 30L), null)).forEach(ids::add);
+    assertThat(ids).containsExactly(1L, 2L);
+  }
+
+  @Test
+  @DisplayName("Given empty expression when toSpecification then returns no restriction")
+  void givenEmptyExpression_whenToSpecification_thenReturnsNull() {
+    assertThat(index.toSpecification(new CategoryExpression(null, List.of(), null))).isNull();
+  }
+
+  private static ChangeEvent productChange(
+      long productId, ChangeType type, int version, Long categoryId) {
+    String payload =
+        "{\"id\":" + productId + ",\"version\":" + version + ",\"category\":{\"id\":"
+            + categoryId + "}}";
+    return new ChangeEvent(
+        -productId, AggregateType.PRODUCT, productId, (long) version, type, payload, Instant.now());
+  }
+
+  private static ChangeEvent membershipChange(long productId, long categoryId, ChangeType type) {
+    String payload = "{\"productId\":" + productId + ",\"categoryId\":" + categoryId + "}";
+    return new ChangeEvent(
+        -productId,
+        AggregateType.CATEGORY_MEMBERSHIP,
+        productId,
+        null,
+        type,
+        payload,
+        Instant.now());
+  }
+
+  private List<Long> ids(CategoryExpression expression) {
+    List<Long> ids = new ArrayList<>();
+    index.evaluate(expression).forEach(ids::add);
+    return ids;
+  }
+}
@@ -0,0 +1,140 @@
+package com.phoenix.productinventory.outbox;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.phoenix.productinventory.model.OutboxEvent;
+import com.phoenix.productinventory.repository.OutboxEventRepository;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.LongStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+class OutboxRelayTest {
+
+  private static final int BATCH_SIZE = 2;
+
+  private final OutboxEventRepository repository = mock(OutboxEventRepository.class);
+  private final ChangeEventSink sink = mock(ChangeEventSink.class);
+  private final ChangeEventSink otherSink = mock(ChangeEventSink.class);
+  private OutboxRelay relay;
+
+  @BeforeEach
+  void setUp() {
+    OutboxProperties properties =
+        new OutboxProperties(
+            Duration.ofMillis(500),
+            BATCH_SIZE,
+            Duration.ofDays(7),
+            Duration.ofHours(1),
+            Duration.ofMinutes(1),
+            1000,
+            new OutboxProperties.File(false, null));
+    when(sink.name()).thenReturn("Sink");
+    when(otherSink.name()).thenReturn("OtherSink");
+    when(repository.claim(anyCollection(), anyString(), any(Instant.class), any(Instant.class)))
+        .thenReturn(BATCH_SIZE);
+    relay =
+        new OutboxRelay(
+            repository,
+            List.of(sink, otherSink),
+            properties,
+            new TransactionTemplate(mock(PlatformTransactionManager.class)));
+  }
+
+  @Test
+  @DisplayName("Given pending events when relay then publishes full batches until outbox is empty")
+  void givenPendingEvents_whenRelay_thenPublishesAllBatches() {
+    when(repository.findClaimable(any(Instant.class), any(Pageable.class)))
+        .thenReturn(List.of(1L, 2L), List.of(3L), List.of());
+    when(repository.findClaimed(anyString())).thenReturn(events(1, 2), events(3));
+
+    relay.relay();
+
+    @SuppressWarnings("unchecked")
+    ArgumentCaptor<List<ChangeEvent>> published = ArgumentCaptor.forClass(List.class);
+    verify(sink, times(2)).publish(published.capture());
+    assertThat(published.getAllValues())
+        .flatMap(batch -> batch)
+        .extracting(ChangeEvent::id)
+        .containsExactly(1L, 2L, 3L);
+    verify(repository, times(2)).markPublished(anyCollection(), any(Instant.class));
+  }
+
+  @Test
+  @DisplayName("Given events claimed by another relay when relay then publishes nothing")
+  void givenEventsClaimedElsewhere_whenRelay_thenPublishesNothing() {
+    when(repository.findClaimable(any(Instant.class), any(Pageable.class)))
+        .thenReturn(List.of(1L, 2L));
+    when(repository.claim(anyCollection(), anyString(), any(Instant.class), any(Instant.class)))
+        .thenReturn(0);
+
+    relay.relay();
+
+    verify(sink, never()).publish(any());
+    verify(repository, never()).findClaimed(anyString());
+  }
+
+  @Test
+  @DisplayName("Given failing sink when relay then events stay pending for that sink only")
+  void givenFailingSink_whenRelay_thenEventsStayPendingForThatSink() {
+    when(repository.findClaimable(any(Instant.class), any(Pageable.class)))
+        .thenReturn(List.of(1L, 2L));
+    when(repository.findClaimed(anyString())).thenReturn(events(1, 2));
+    doThrow(new IllegalStateException("sink unavailable")).when(sink).publish(any());
+
+    relay.relay();
+
+    verify(otherSink).publish(any());
+    verify(repository, never()).markPublished(anyCollection(), any(Instant.class));
+    verify(repository).release(List.of(1L, 2L), "Sink");
+  }
+
+  @Test
+  @DisplayName("Given events pending for one sink when relay then only that sink receives them")
+  void givenEventsPendingForOneSink_whenRelay_thenOnlyThatSinkReceivesThem() {
+    List<OutboxEvent> events = events(1);
+    events.get(0).setPendingSinks("Sink");
+    when(repository.findClaimable(any(Instant.class), any(Pageable.class)))
+        .thenReturn(List.of(1L));
+    when(repository.findClaimed(anyString())).thenReturn(events);
+
+    relay.relay();
+
+    verify(sink).publish(any());
+    verify(otherSink, never()).publish(any());
+    verify(repository).markPublished(eq(List.of(1L)), any(Instant.class));
+  }
+
+  private static List<OutboxEvent> events(long... ids) {
+    return LongStream.of(ids)
+        .mapToObj(
+            id ->
+                OutboxEvent.builder()
+                    .id(id)
+                    .aggregateType(AggregateType.PRODUCT)
+                    .aggregateId(id)
+                    .aggregateVersion(0L)
+                    .type(ChangeType.UPDATED)
+                    .payload("{}")
+                    .createdAt(Instant.EPOCH)
+                    .build())
+        .toList();
+  }
+}
@@ -0,0 +1,154 @@
+package com.phoenix.productinventory.outbox;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+import com.phoenix.productinventory.dto.ProductRequestDto;
+import com.phoenix.productinventory.dto.ProductResponseDto;
+import com.phoenix.productinventory.model.OutboxEvent;
+import com.phoenix.productinventory.repository.OutboxEventRepository;
+import com.phoenix.productinventory.service.ProductService;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Verifies that change events are committed and rolled back together with the change, and that
+ * concurrent relay runs claim every event only once.
+ */
+@SpringBootTest
+class OutboxServiceIntegrationTest {
+
+  @Autowired private ProductService productService;
+  @Autowired private OutboxEventRepository outboxEventRepository;
+  @Autowired private TransactionTemplate transactionTemplate;
+
+  @Test
+  @DisplayName("Given committed update when outbox is read then event carries post-commit version")
+  void givenCommittedUpdate_whenOutboxRead_thenEventHasCommittedVersion() {
+    ProductResponseDto created =
+        productService.createProduct(
+            new ProductRequestDto(
+                "Outbox Lamp", "Desk lamp", BigDecimal.valueOf(30), 3, null, null));
+    productService.updateProduct(
+        created.getId(),
+        new ProductRequestDto(null, null, BigDecimal.valueOf(35), null, null, null));
+
+    List<OutboxEvent> events = eventsOf(created.getId());
+
+    assertThat(events)
+        .extracting(OutboxEvent::getType, OutboxEvent::getAggregateVersion)
+        .containsExactly(
+            tuple(ChangeType.CREATED, 0L),
+            tuple(ChangeType.UPDATED, 1L));
+    assertThat(events.get(1).getPayload()).contains("\"price\":35").contains("\"version\":1");
+  }
+
+  @Test
+  @DisplayName("Given rolled back transaction when outbox is read then no event was written")
+  void givenRolledBackTransaction_whenOutboxRead_thenNoEvent() {
+    ProductResponseDto created =
+        productService.createProduct(
+            new ProductRequestDto("Outbox Chair", null, BigDecimal.valueOf(80), 1, null, null));
+
+    assertThatThrownBy(
+            () ->
+                transactionTemplate.executeWithoutResult(
+                    status -> {
+                      productService.deleteProduct(created.getId());
+                      throw new OptimisticLockingFailureException("simulated conflict");
+                    }))
+        .isInstanceOf(OptimisticLockingFailureException.class);
+
+    assertThat(eventsOf(created.getId()))
+        .extracting(OutboxEvent::getType)
+        .containsExactly(ChangeType.CREATED);
+  }
+
+  @Test
+  @DisplayName("Given a claim in flight when another run claims the same events then it gets none")
+  void givenClaimInFlight_whenClaimedConcurrently_thenSecondClaimGetsNone() throws Exception {
+    // Held by a claim that outlives the test, so the scheduled relay leaves them alone
+    Instant now = Instant.now();
+    Instant later = now.plus(Duration.ofHours(2));
+    List<Long> ids =
+        outboxEventRepository
+            .saveAll(List.of(heldEvent(now), heldEvent(now), heldEvent(now)))
+            .stream()
+            .map(OutboxEvent::getId)
+            .toList();
+    CountDownLatch claimed = new CountDownLatch(1);
+    CountDownLatch commit = new CountDownLatch(1);
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      Future<Integer> first =
+          executor.submit(
+              () ->
+                  transactionTemplate.execute(
+                      status -> {
+                        int count = claim(ids, "first", later);
+                        claimed.countDown();
+                        await(commit);
+                        return count;
+                      }));
+      claimed.await();
+      Future<Integer> second =
+          executor.submit(() -> transactionTemplate.execute(status -> claim(ids, "second", later)));
+      // The second claim waits for the row locks of the first
+      Thread.sleep(200);
+      commit.countDown();
+
+      assertThat(first.get(10, TimeUnit.SECONDS)).isEqualTo(3);
+      assertThat(second.get(10, TimeUnit.SECONDS)).isZero();
+      assertThat(outboxEventRepository.findClaimed("first")).hasSize(3);
+    } finally {
+      executor.shutdownNow();
+      outboxEventRepository.deleteAllById(ids);
+    }
+  }
+
+  private int claim(List<Long> ids, String claimedBy, Instant now) {
+    return outboxEventRepository.claim(ids, claimedBy, now.plus(Duration.ofMinutes(1)), now);
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static OutboxEvent heldEvent(Instant now) {
+    return OutboxEvent.builder()
+        .aggregateType(AggregateType.CATEGORY)
+        .aggregateId(-1L)
+        .type(ChangeType.UPDATED)
+        .payload("{}")
+        .createdAt(now)
+        .claimedBy("held")
+        .claimedUntil(now.plus(Duration.ofHours(1)))
+        .build();
+  }
+
+  private List<OutboxEvent> eventsOf(Long productId) {
+    return outboxEventRepository.findAll().stream()
+        .filter(event -> event.getAggregateType() == AggregateType.PRODUCT)
+        .filter(event -> event.getAggregateId().equals(productId))
+        .toList();
+  }
+}
@@ -0,0 +1,93 @@
+package com.phoenix.productinventory.reactive;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+import com.phoenix.productinventory.dto.ProductResponseDto;
+import java.math.BigDecimal;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@WebFluxTest(ReactiveProductController.class)
+class ReactiveProductControllerTest {
+
+  private final ProductResponseDto responseDto =
+      new ProductResponseDto(1L, "Test", "Desc", BigDecimal.valueOf(10), 5, null, 0, null);
+  @Autowired private WebTestClient webTestClient;
+  @MockitoBean private ReactiveProductRepository repository;
+
+  @Test
+  @DisplayName("When getAllProducts then returns page with the servlet JSON structure")
+  void whenGetAllProducts_thenReturnsPage() {
+    ProductFilter filter = new ProductFilter("te", null, null, 1, null);
+    when(repository.findAll(eq(filter), eq(PageRequest.of(0, 10))))
+        .thenReturn(Flux.just(responseDto));
+    when(repository.count(filter)).thenReturn(Mono.just(11L));
+
+    webTestClient
+        .get()
+        .uri("/products?name=te&minQuantity=1&page=0&size=10")
+        .accept(MediaType.APPLICATION_JSON)
+        .exchange()
+        .expectStatus()
+        .isOk()
+        .expectBody()
+        .jsonPath("$.content.length()")
+        .isEqualTo(1)
+        .jsonPath("$.page.totalElements")
+        .isEqualTo(11)
+        .jsonPath("$.page.totalPages")
+        .isEqualTo(2);
+  }
+
+  @Test
+  @DisplayName("Given NDJSON accept header when streamProducts then streams products")
+  void givenNdjsonAccept_whenStreamProducts_thenStreamsProducts() {
+    when(repository.findAll(any(ProductFilter.class), any(Pageable.class)))
+        .thenReturn(Flux.just(responseDto, responseDto));
+
+    webTestClient
+        .get()
+        .uri("/products")
+        .accept(MediaType.APPLICATION_NDJSON)
+        .exchange()
+        .expectStatus()
+        .isOk()
+        .expectBodyList(ProductResponseDto.class)
+        .hasSize(2);
+  }
+
+  @Test
+  @DisplayName("Given valid ID when getProductById then returns product")
+  void givenValidId_whenGetProductById_thenReturnsProduct() {
+    when(repository.findById(1L)).thenReturn(Mono.just(responseDto));
+
+    webTestClient
+        .get()
+        .uri("/products/1")
+        .exchange()
+        .expectStatus()
+        .isOk()
+        .expectBody()
+        .jsonPath("$.id")
+        .isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("Given invalid ID when getProductById then returns 404 status")
+  void givenInvalidId_whenGetProductById_thenReturns404() {
+    when(repository.findById(1L)).thenReturn(Mono.empty());
+
+    webTestClient.get().uri("/products/1").exchange().expectStatus().isNotFound();
+  }
+}
@@ -0,0 +1,144 @@
+package com.phoenix.productinventory.reactive;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.phoenix.productinventory.dto.ProductResponseDto;
+import java.math.BigDecimal;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.test.StepVerifier;
+
+/**
+ * Runs the reactive product queries over R2DBC against the H2 schema, so the generated filters,
+ * orderings and pages are executed by the database rather than mocked.
+ */
+@SpringBootTest(
+    classes = ReactiveProductinventoryApplication.class,
+    properties = "spring.main.web-application-type=reactive")
+@ActiveProfiles("reactive")
+class ReactiveProductRepositoryIntegrationTest {
+
+  @Autowired private ReactiveProductRepository repository;
+  @Autowired private DatabaseClient client;
+
+  @Test
+  @DisplayName("Given filters when findAll and count then only matching rows are read")
+  void givenFilters_whenFindAllAndCount_thenOnlyMatchingRowsRead() {
+    insertProduct("R2dbc Filter Lamp", "10.00", 5);
+    insertProduct("R2dbc Filter Desk", "50.00", 5);
+    insertProduct("R2dbc Filter Chair", "30.00", 1);
+    insertProduct("R2dbc Filter Shelf", "30.00", 20);
+    ProductFilter filter =
+        new ProductFilter("r2dbc filter", new BigDecimal("20"), new BigDecimal("40"), 1, 10);
+
+    StepVerifier.create(repository.findAll(filter, PageRequest.of(0, 10)))
+        .assertNext(product -> assertThat(product.getName()).isEqualTo("R2dbc Filter Chair"))
+        .verifyComplete();
+    StepVerifier.create(repository.count(filter)).expectNext(1L).verifyComplete();
+    StepVerifier.create(repository.count(new ProductFilter("R2DBC FILTER", null, null, null, null)))
+        .expectNext(4L)
+        .verifyComplete();
+  }
+
+  @Test
+  @DisplayName("Given a sort and pages when findAll then rows come in order, ties by id")
+  void givenSortAndPages_whenFindAll_thenOrderedWithIdTieBreak() {
+    insertProduct("R2dbc Page A", "30.00", 1);
+    insertProduct("R2dbc Page B", "10.00", 1);
+    insertProduct("R2dbc Page C", "30.00", 1);
+    insertProduct("R2dbc Page D", "20.00", 1);
+    insertProduct("R2dbc Page E", "40.00", 1);
+    ProductFilter filter = new ProductFilter("r2dbc page", null, null, null, null);
+    Sort byPriceDescending = Sort.by(Sort.Order.desc("price"));
+
+    StepVerifier.create(
+            repository
+                .findAll(filter, PageRequest.of(0, 2, byPriceDescending))
+                .map(ProductResponseDto::getName))
+        .expectNext("R2dbc Page E", "R2dbc Page A")
+        .verifyComplete();
+    StepVerifier.create(
+            repository
+                .findAll(filter, PageRequest.of(1, 2, byPriceDescending))
+                .map(ProductResponseDto::getName))
+        .expectNext("R2dbc Page C", "R2dbc Page D")
+        .verifyComplete();
+    StepVerifier.create(
+            repository
+                .findAll(filter, PageRequest.of(2, 2, byPriceDescending))
+                .map(ProductResponseDto::getName))
+        .expectNext("R2dbc Page B")
+        .verifyComplete();
+  }
+
+  @Test
+  @DisplayName("Given a column that is not sortable when findAll then it is rejected")
+  void givenUnsortableColumn_whenFindAll_thenRejected() {
+    ProductFilter filter = new ProductFilter("r2dbc", null, null, null, null);
+
+    assertThatThrownBy(
+            () -> repository.findAll(filter, PageRequest.of(0, 10, Sort.by("category_id"))))
+        .isInstanceOf(ResponseStatusException.class)
+        .hasMessageContaining("Cannot sort by category_id");
+  }
+
+  @Test
+  @DisplayName("Given a product with a category when findById then both are mapped")
+  void givenProductWithCategory_whenFindById_thenMapped() {
+    client
+        .sql("INSERT INTO categories (name, description) VALUES ('R2dbc Garden', 'Outdoor')")
+        .then()
+        .block();
+    Long categoryId =
+        client
+            .sql("SELECT id FROM categories WHERE name = 'R2dbc Garden'")
+            .map(row -> row.get("id", Long.class))
+            .one()
+            .block();
+    Long id = insertProduct("R2dbc Hose", "12.50", 3);
+    client
+        .sql("UPDATE products SET category_id = :categoryId WHERE id = :id")
+        .bind("categoryId", categoryId)
+        .bind("id", id)
+        .then()
+        .block();
+
+    StepVerifier.create(repository.findById(id))
+        .assertNext(
+            product -> {
+              assertThat(product.getPrice()).isEqualByComparingTo("12.50");
+              assertThat(product.getQuantity()).isEqualTo(3);
+              assertThat(product.getVersion()).isZero();
+              assertThat(product.getCategory().getId()).isEqualTo(categoryId);
+              assertThat(product.getCategory().getName()).isEqualTo("R2dbc Garden");
+            })
+        .verifyComplete();
+    StepVerifier.create(repository.findById(-1L)).verifyComplete();
+  }
+
+  private Long insertProduct(String name, String price, int quantity) {
+    client
+        .sql(
+            "INSERT INTO products (name, price, quantity, version)"
+                + " VALUES (:name, :price, :quantity, 0)")
+        .bind("name", name)
+        .bind("price", new BigDecimal(price))
+        .bind("quantity", quantity)
+        .then()
+        .block();
+    return client
+        .sql("SELECT id FROM products WHERE name = :name")
+        .bind("name", name)
+        .map(row -> row.get("id", Long.class))
+        .one()
+        .block();
+  }
+}
@@ -0,0 +1,104 @@
+package com.phoenix.productinventory.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+import com.phoenix.productinventory.dto.CategoryNodeDto;
+import com.phoenix.productinventory.model.Category;
+import com.phoenix.productinventory.model.Product;
+import com.phoenix.productinventory.search.ProductSearchPlanCache;
+import com.phoenix.productinventory.spcification.ProductSpecification;
+import java.math.BigDecimal;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * Runs the closure table statements against the seeded H2 catalog, extended with the tree
+ * Electronics &gt; Phones &gt; Smartphones.
+ */
+@DataJpaTest
+@Import(ProductSearchPlanCache.class)
+class CategoryClosureRepositoryTest {
+
+  private static final long ELECTRONICS = 1L;
+  private static final long BOOKS = 2L;
+
+  @Autowired private CategoryRepository categoryRepository;
+  @Autowired private CategoryClosureRepository closureRepository;
+  @Autowired private ProductRepository productRepository;
+
+  private Category phones;
+  private Category smartphones;
+
+  @BeforeEach
+  void setUp() {
+    phones = create("Phones", ELECTRONICS);
+    smartphones = create("Smartphones", phones.getId());
+    productRepository.save(
+        Product.builder()
+            .name("Flagship")
+            .price(BigDecimal.valueOf(999))
+            .quantity(3)
+            .category(smartphones)
+            .build());
+  }
+
+  @Test
+  @DisplayName("Given a three-level tree when findSubtree then counts products of each subtree")
+  void givenTree_whenFindSubtree_thenCountsProductsPerSubtree() {
+    assertThat(closureRepository.findSubtree(ELECTRONICS, Integer.MAX_VALUE))
+        .extracting(
+            CategoryNodeDto::getName,
+            CategoryNodeDto::getDepth,
+            CategoryNodeDto::getProductCount)
+        .containsExactly(
+            tuple("Electronics", 0, 3L), tuple("Phones", 1, 1L), tuple("Smartphones", 2, 1L));
+    assertThat(closureRepository.findSubtree(ELECTRONICS, 1))
+        .extracting(CategoryNodeDto::getName)
+        .containsExactly("Electronics", "Phones");
+  }
+
+  @Test
+  @DisplayName("Given a subtree when moved then paths and product listings follow the new parent")
+  void givenSubtree_whenMoved_thenClosureFollowsNewParent() {
+    closureRepository.detachSubtree(phones.getId());
+    closureRepository.attachSubtree(phones.getId(), BOOKS);
+
+    assertThat(closureRepository.existsPath(BOOKS, smartphones.getId())).isTrue();
+    assertThat(closureRepository.existsPath(ELECTRONICS, smartphones.getId())).isFalse();
+    assertThat(closureRepository.findSubtree(BOOKS, Integer.MAX_VALUE))
+        .extracting(CategoryNodeDto::getName, CategoryNodeDto::getDepth)
+        .containsExactly(tuple("Books", 0), tuple("Phones", 1), tuple("Smartphones", 2));
+    assertThat(
+            productRepository.findAll(
+                ProductSpecification.inCategorySubtree(BOOKS), Pageable.unpaged()))
+        .extracting(Product::getName)
+        .containsExactlyInAnyOrder("Novel", "Flagship");
+  }
+
+  @Test
+  @DisplayName("Given a subtree when listing products under its root then descendants are included")
+  void givenSubtree_whenListingProductsUnderRoot_thenIncludesDescendants() {
+    assertThat(
+            productRepository.findAll(
+                ProductSpecification.inCategorySubtree(ELECTRONICS), Pageable.unpaged()))
+        .extracting(Product::getName)
+        .containsExactlyInAnyOrder("Laptop", "Smartphone", "Flagship");
+  }
+
+  private Category create(String name, Long parentId) {
+    Category category =
+        categoryRepository.save(
+            Category.builder()
+                .name(name)
+                .parent(categoryRepository.getReferenceById(parentId))
+                .build());
+    closureRepository.insertLeaf(category.getId(), parentId);
+    return category;
+  }
+}
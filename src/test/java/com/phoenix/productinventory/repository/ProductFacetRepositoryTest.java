@@ -0,0 +1,74 @@
+package com.phoenix.productinventory.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+import com.phoenix.productinventory.dto.CategoryFacetDto;
+import com.phoenix.productinventory.dto.PriceRangeFacetDto;
+import com.phoenix.productinventory.dto.ProductFacetsDto;
+import com.phoenix.productinventory.model.Product;
+import com.phoenix.productinventory.search.ProductSearchPlanCache;
+import com.phoenix.productinventory.spcification.ProductSpecification;
+import java.math.BigDecimal;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+/** Runs the facet query against the seeded H2 catalog. */
+@DataJpaTest
+@Import(ProductSearchPlanCache.class)
+class ProductFacetRepositoryTest {
+
+  private static final List<BigDecimal> PRICE_BREAKS =
+      List.of(BigDecimal.valueOf(50), BigDecimal.valueOf(100));
+
+  @Autowired private ProductRepository productRepository;
+
+  @BeforeEach
+  void setUp() {
+    productRepository.save(
+        Product.builder().name("Gift Card").price(BigDecimal.valueOf(50)).quantity(0).build());
+  }
+
+  @Test
+  @DisplayName("Given no filter when findFacets then counts every product once per facet")
+  void givenNoFilter_whenFindFacets_thenCountsAllProducts() {
+    ProductFacetsDto facets = productRepository.findFacets(null, PRICE_BREAKS);
+
+    assertThat(facets.getTotal()).isEqualTo(9);
+    assertThat(facets.getInStock()).isEqualTo(8);
+    assertThat(facets.getOutOfStock()).isEqualTo(1);
+    assertThat(facets.getCategories())
+        .extracting(CategoryFacetDto::getName, CategoryFacetDto::getCount)
+        .containsExactly(
+            tuple("Books", 1L),
+            tuple("Clothing", 1L),
+            tuple("Electronics", 2L),
+            tuple("Home & Kitchen", 2L),
+            tuple("Toys", 2L),
+            tuple(null, 1L));
+    assertThat(facets.getPriceRanges())
+        .extracting(PriceRangeFacetDto::getCount)
+        .containsExactly(4L, 3L, 2L);
+  }
+
+  @Test
+  @DisplayName("Given filter when findFacets then only counts matching products")
+  void givenFilter_whenFindFacets_thenCountsMatchingProducts() {
+    ProductFacetsDto facets =
+        productRepository.findFacets(
+            ProductSpecification.hasMinPrice(BigDecimal.valueOf(50)), PRICE_BREAKS);
+
+    assertThat(facets.getTotal()).isEqualTo(5);
+    assertThat(facets.getCategories())
+        .extracting(CategoryFacetDto::getName)
+        .containsExactly("Electronics", "Home & Kitchen", null);
+    assertThat(facets.getPriceRanges())
+        .extracting(PriceRangeFacetDto::getCount)
+        .containsExactly(0L, 3L, 2L);
+  }
+}
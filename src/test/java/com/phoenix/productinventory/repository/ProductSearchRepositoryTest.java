@@ -0,0 +1,122 @@
+package com.phoenix.productinventory.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.phoenix.productinventory.dto.ProductSearchDto;
+import com.phoenix.productinventory.dto.SearchConditionDto;
+import com.phoenix.productinventory.dto.SearchSortDto;
+import com.phoenix.productinventory.model.Category;
+import com.phoenix.productinventory.model.Product;
+import com.phoenix.productinventory.search.ProductSearchPlanCache;
+import com.phoenix.productinventory.search.ProductSearchQuery;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.math.BigDecimal;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+
+/** Runs compiled product searches against the seeded H2 catalog. */
+@DataJpaTest
+@Import(ProductSearchPlanCache.class)
+class ProductSearchRepositoryTest {
+
+  @Autowired private ProductRepository productRepository;
+  @Autowired private CategoryRepository categoryRepository;
+  @Autowired private CategoryClosureRepository closureRepository;
+  @Autowired private ProductSearchPlanCache planCache;
+
+  @Test
+  @DisplayName("Given and, or and not when searching then products match the whole expression")
+  void givenBooleanExpression_whenSearching_thenMatchingProducts() {
+    SearchConditionDto filter =
+        and(
+            range("price", 20, 1000),
+            or(
+                SearchConditionDto.builder().field("name").contains("LAP").build(),
+                not(SearchConditionDto.builder().field("categoryId").in(List.of(1, 4)).build())));
+
+    Page<Product> page = search(filter, new SearchSortDto("price", "desc"), 10);
+
+    assertThat(page.getContent())
+        .extracting(Product::getName)
+        .containsExactly("Blender", "Coffee Maker");
+    assertThat(page.getTotalElements()).isEqualTo(2);
+  }
+
+  @Test
+  @DisplayName("Given category subtree when searching then products of subcategories match too")
+  void givenUnderCategory_whenSearching_thenSubtreeMatches() {
+    Category phones =
+        categoryRepository.save(
+            Category.builder()
+                .name("Phones")
+                .parent(categoryRepository.getReferenceById(1L))
+                .build());
+    closureRepository.insertLeaf(phones.getId(), 1L);
+    productRepository.save(
+        Product.builder()
+            .name("Flip Phone 100%")
+            .price(BigDecimal.TEN)
+            .quantity(1)
+            .category(phones)
+            .build());
+
+    Page<Product> subtree =
+        search(SearchConditionDto.builder().field("underCategoryId").eq(1).build(), null, 10);
+    Page<Product> percent =
+        search(SearchConditionDto.builder().field("name").contains("0%").build(), null, 10);
+
+    assertThat(subtree.getContent())
+        .extracting(Product::getName)
+        .containsExactly("Laptop", "Smartphone", "Flip Phone 100%");
+    assertThat(percent.getContent())
+        .extracting(Product::getName)
+        .containsExactly("Flip Phone 100%");
+  }
+
+  @Test
+  @DisplayName("Given same shape with other values when searching then the compiled plan is reused")
+  void givenSameShape_whenSearchingAgain_thenPlanCacheHit() {
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    planCache.bindTo(registry);
+    double hits = registry.get("product.search.plan.cache.hits").functionCounter().count();
+
+    search(and(range("quantity", 10, 30), range("price", 10, 100)), null, 2);
+    Page<Product> reordered =
+        search(and(range("price", 20, 90), range("quantity", 0, 50)), null, 2);
+
+    assertThat(registry.get("product.search.plan.cache.hits").functionCounter().count())
+        .isEqualTo(hits + 1);
+    assertThat(reordered.getContent())
+        .extracting(Product::getName)
+        .containsExactly("Blender", "Action Figure");
+    assertThat(reordered.getTotalElements()).isEqualTo(4);
+  }
+
+  private Page<Product> search(SearchConditionDto filter, SearchSortDto sort, int size) {
+    ProductSearchQuery query =
+        ProductSearchQuery.of(
+            new ProductSearchDto(filter, sort == null ? null : List.of(sort), 0, size));
+    return productRepository.search(query.filter(), query.pageable());
+  }
+
+  private static SearchConditionDto range(String field, int from, int to) {
+    return SearchConditionDto.builder().field(field).gte(from).lt(to).build();
+  }
+
+  private static SearchConditionDto and(SearchConditionDto... conditions) {
+    return SearchConditionDto.builder().and(List.of(conditions)).build();
+  }
+
+  private static SearchConditionDto or(SearchConditionDto... conditions) {
+    return SearchConditionDto.builder().or(List.of(conditions)).build();
+  }
+
+  private static SearchConditionDto not(SearchConditionDto condition) {
+    return SearchConditionDto.builder().not(condition).build();
+  }
+}
@@ -0,0 +1,108 @@
+package com.phoenix.productinventory.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.phoenix.productinventory.dto.ProductSearchDto;
+import com.phoenix.productinventory.dto.SearchConditionDto;
+import com.phoenix.productinventory.dto.SearchSortDto;
+import com.phoenix.productinventory.exception.BadRequestException;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+class ProductSearchQueryTest {
+
+  @Test
+  @DisplayName("Given reordered and nested operands when parsed then the shapes are equal")
+  void givenReorderedOperands_whenParsed_thenSameShape() {
+    SearchConditionDto price = SearchConditionDto.builder().field("price").gte(10).build();
+    SearchConditionDto name = SearchConditionDto.builder().field("name").contains("a").build();
+    SearchConditionDto stock = SearchConditionDto.builder().field("quantity").lt(5).build();
+
+    SearchCondition first = filter(and(price, and(name, stock)));
+    SearchCondition second = filter(and(stock, price, name));
+
+    assertThat(first).isInstanceOf(SearchCondition.And.class);
+    assertThat(((SearchCondition.And) first).conditions()).hasSize(3);
+    assertThat(first.shape()).isEqualTo(second.shape());
+  }
+
+  @Test
+  @DisplayName("Given double negation and single-value in when parsed then both are simplified")
+  void givenDoubleNotAndSingleIn_whenParsed_thenSimplified() {
+    SearchConditionDto in = SearchConditionDto.builder().field("categoryId").in(List.of(3)).build();
+
+    SearchCondition condition = filter(not(not(in)));
+
+    assertThat(condition)
+        .isEqualTo(new SearchCondition.Comparison(SearchField.CATEGORY_ID, SearchOperator.EQ, 3L));
+  }
+
+  @Test
+  @DisplayName("Given contains with wildcards when parsed then they are escaped and lowercased")
+  void givenContainsWithWildcards_whenParsed_thenEscaped() {
+    SearchCondition condition =
+        filter(SearchConditionDto.builder().field("name").contains("50%_Off").build());
+
+    assertThat(((SearchCondition.Comparison) condition).value()).isEqualTo("%50\\%\\_off%");
+  }
+
+  @Test
+  @DisplayName("Given sort without id when parsed then id is appended as tie-break")
+  void givenSortWithoutId_whenParsed_thenIdTieBreak() {
+    ProductSearchQuery query =
+        ProductSearchQuery.of(
+            new ProductSearchDto(null, List.of(new SearchSortDto("price", "DESC")), 1, 5));
+
+    assertThat(query.filter()).isNull();
+    assertThat(query.pageable().getOffset()).isEqualTo(5);
+    assertThat(query.pageable().getSort())
+        .isEqualTo(Sort.by(Sort.Order.desc("price"), Sort.Order.asc("id")));
+  }
+
+  @Test
+  @DisplayName("Given invalid searches when parsed then BadRequestException is thrown")
+  void givenInvalidSearches_whenParsed_thenBadRequest() {
+    List<SearchConditionDto> tooMany = new ArrayList<>();
+    for (int i = 0; i < ProductSearchQuery.MAX_CONDITIONS; i++) {
+      tooMany.add(SearchConditionDto.builder().field("id").eq(i).build());
+    }
+
+    assertBadRequest(SearchConditionDto.builder().field("nope").eq(1).build(), "Unknown");
+    assertBadRequest(SearchConditionDto.builder().field("price").contains("1").build(), "support");
+    assertBadRequest(SearchConditionDto.builder().field("quantity").eq(1.5).build(), "Invalid");
+    assertBadRequest(SearchConditionDto.builder().field("name").eq(1).build(), "Invalid");
+    assertBadRequest(SearchConditionDto.builder().field("id").build(), "no operator");
+    assertBadRequest(SearchConditionDto.builder().or(List.of()).build(), "at least one");
+    assertBadRequest(
+        SearchConditionDto.builder().field("id").not(new SearchConditionDto()).build(),
+        "exactly one");
+    assertBadRequest(SearchConditionDto.builder().or(tooMany).build(), "at most");
+    List<SearchSortDto> unsortable = List.of(new SearchSortDto("description", null));
+    assertThatThrownBy(() -> ProductSearchQuery.of(new ProductSearchDto(null, unsortable, 0, 5)))
+        .isInstanceOf(BadRequestException.class);
+    assertThatThrownBy(() -> ProductSearchQuery.of(new ProductSearchDto(null, null, 0, 5000)))
+        .isInstanceOf(BadRequestException.class);
+  }
+
+  private static void assertBadRequest(SearchConditionDto filter, String message) {
+    assertThatThrownBy(() -> filter(filter))
+        .isInstanceOf(BadRequestException.class)
+        .hasMessageContaining(message);
+  }
+
+  private static SearchCondition filter(SearchConditionDto filter) {
+    return ProductSearchQuery.of(new ProductSearchDto(filter, null, null, null)).filter();
+  }
+
+  private static SearchConditionDto and(SearchConditionDto... conditions) {
+    return SearchConditionDto.builder().and(List.of(conditions)).build();
+  }
+
+  private static SearchConditionDto not(SearchConditionDto condition) {
+    return SearchConditionDto.builder().not(condition).build();
+  }
+}
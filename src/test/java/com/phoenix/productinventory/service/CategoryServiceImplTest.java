@@ -3,21 +3,33 @@ package com.phoenix.productinventory.service;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.phoenix.productinventory.dto.CategoryRequestDto;
 import com.phoenix.productinventory.dto.CategoryResponseDto;
+import com.phoenix.productinventory.exception.BadRequestException;
 import com.phoenix.productinventory.exception.ResourceNotFoundException;
 import com.phoenix.productinventory.mapper.CategoryMapper;
+import com.phoenix.productinventory.membership.CategoryMembershipIndex;
 import com.phoenix.productinventory.model.Category;
+import com.phoenix.productinventory.model.Product;
+import com.phoenix.productinventory.outbox.ChangeType;
+import com.phoenix.productinventory.outbox.OutboxService;
+import com.phoenix.productinventory.repository.CategoryClosureRepository;
+import com.phoenix.productinventory.repository.CategoryProductCount;
 import com.phoenix.productinventory.repository.CategoryRepository;
+import com.phoenix.productinventory.repository.ProductRepository;
+import com.phoenix.productinventory.repository.ReorderThresholdRepository;
+import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
@@ -31,7 +43,12 @@ import org.springframework.data.jpa.domain.Specification;
 class CategoryServiceImplTest {
 
   @Mock private CategoryRepository categoryRepository;
+  @Mock private CategoryClosureRepository closureRepository;
   @Mock private CategoryMapper categoryMapper;
+  @Mock private OutboxService outboxService;
+  @Mock private CategoryMembershipIndex membershipIndex;
+  @Mock private ProductRepository productRepository;
+  @Mock private ReorderThresholdRepository thresholdRepository;
   @InjectMocks private CategoryServiceImpl categoryService;
 
   private Category category;
@@ -41,9 +58,9 @@ class CategoryServiceImplTest {
   @BeforeEach
   void setUp() {
     MockitoAnnotations.openMocks(this);
-    category = new Category(1L, "TestCategory", "Desc", 0L, null);
-    requestDto = new CategoryRequestDto("TestCategory", "Desc");
-    responseDto = new CategoryResponseDto(1L, "TestCategory", "Desc");
+    category = new Category(1L, "TestCategory", "Desc", 0L, null, null);
+    requestDto = new CategoryRequestDto("TestCategory", "Desc", null, null);
+    responseDto = new CategoryResponseDto(1L, "TestCategory", "Desc", null, null);
   }
 
   @Test
@@ -57,6 +74,62 @@ class CategoryServiceImplTest {
 
     assertThat(result).isNotNull().extracting(CategoryResponseDto::getId).isEqualTo(1L);
     verify(categoryRepository).save(category);
+    verify(closureRepository).insertLeaf(1L, null);
+    verify(outboxService).record(ChangeType.CREATED, category);
+  }
+
+  @Test
+  @DisplayName("Given parent when createCategory then links the category below the parent")
+  void givenParent_whenCreateCategory_thenInsertsClosureBelowParent() {
+    Category parent = new Category(7L, "Parent", null, 0L, null, null);
+    CategoryRequestDto childRequest = new CategoryRequestDto("TestCategory", "Desc", 7L, null);
+    when(categoryMapper.toEntity(childRequest)).thenReturn(category);
+    when(categoryRepository.findById(7L)).thenReturn(Optional.of(parent));
+    when(categoryRepository.save(category)).thenReturn(category);
+
+    categoryService.createCategory(childRequest);
+
+    assertThat(category.getParent()).isSameAs(parent);
+    verify(closureRepository).insertLeaf(1L, 7L);
+  }
+
+  @Test
+  @DisplayName("Given new parent when moveCategory then relinks the subtree set-based")
+  void givenNewParent_whenMoveCategory_thenDetachesAndAttachesSubtree() {
+    Category parent = new Category(7L, "Parent", null, 0L, null, null);
+    when(categoryRepository.findById(1L)).thenReturn(Optional.of(category));
+    when(categoryRepository.findById(7L)).thenReturn(Optional.of(parent));
+    when(categoryRepository.save(category)).thenReturn(category);
+
+    categoryService.moveCategory(1L, 7L);
+
+    InOrder inOrder = inOrder(closureRepository);
+    inOrder.verify(closureRepository).detachSubtree(1L);
+    inOrder.verify(closureRepository).attachSubtree(1L, 7L);
+    assertThat(category.getParent()).isSameAs(parent);
+    verify(outboxService).record(ChangeType.UPDATED, category);
+  }
+
+  @Test
+  @DisplayName("Given descendant as parent when moveCategory then throws and keeps the tree")
+  void givenDescendantAsParent_whenMoveCategory_thenThrowsBadRequest() {
+    Category descendant = new Category(9L, "Child", null, 0L, null, category);
+    when(categoryRepository.findById(1L)).thenReturn(Optional.of(category));
+    when(categoryRepository.findById(9L)).thenReturn(Optional.of(descendant));
+    when(closureRepository.existsPath(1L, 9L)).thenReturn(true);
+
+    assertThatThrownBy(() -> categoryService.moveCategory(1L, 9L))
+        .isInstanceOf(BadRequestException.class);
+    verify(closureRepository, never()).detachSubtree(any());
+  }
+
+  @Test
+  @DisplayName("Given unknown category when getSubtree then throws exception")
+  void givenUnknownCategory_whenGetSubtree_thenThrowsException() {
+    when(closureRepository.findSubtree(1L, Integer.MAX_VALUE)).thenReturn(List.of());
+
+    assertThatThrownBy(() -> categoryService.getSubtree(1L, null))
+        .isInstanceOf(ResourceNotFoundException.class);
   }
 
   @Test
@@ -64,10 +137,12 @@ class CategoryServiceImplTest {
   void givenValidId_whenGetCategoryById_thenReturnsCategory() {
     when(categoryRepository.findById(1L)).thenReturn(Optional.of(category));
     when(categoryMapper.toDto(category)).thenReturn(responseDto);
+    when(productRepository.countByCategoryId(1L)).thenReturn(3L);
 
     CategoryResponseDto result = categoryService.getCategoryById(1L);
 
     assertThat(result).isNotNull().extracting(CategoryResponseDto::getId).isEqualTo(1L);
+    assertThat(result.getProductCount()).isEqualTo(3L);
   }
 
   @Test
@@ -114,23 +189,43 @@ class CategoryServiceImplTest {
     assertThat(result.getContent()).hasSize(1);
   }
 
+  @Test
+  @DisplayName("Given categories when getAllCategories then counts their products in one query")
+  void givenCategories_whenGetAllCategories_thenCountsProductsInOneQuery() {
+    Category empty = new Category(2L, "Empty", "Desc", 0L, null, null);
+    CategoryResponseDto emptyDto = new CategoryResponseDto(2L, "Empty", "Desc", null, null);
+    when(categoryRepository.findAll(any(Specification.class), any(Pageable.class)))
+        .thenReturn(new PageImpl<>(List.of(category, empty)));
+    when(categoryMapper.toDto(category)).thenReturn(responseDto);
+    when(categoryMapper.toDto(empty)).thenReturn(emptyDto);
+    when(productRepository.countByCategoryIds(List.of(1L, 2L)))
+        .thenReturn(List.of(new CategoryProductCount(1L, 4L)));
+
+    Page<CategoryResponseDto> result =
+        categoryService.getAllCategories(Specification.where(null), PageRequest.of(0, 10));
+
+    assertThat(result.getContent())
+        .extracting(CategoryResponseDto::getProductCount)
+        .containsExactly(4L, 0L);
+    verify(productRepository).countByCategoryIds(List.of(1L, 2L));
+  }
+
   @Test
   @DisplayName("Given valid ID and request when updateCategory then returns updated category")
   void givenValidIdAndRequest_whenUpdateCategory_thenReturnsUpdatedCategory() {
-    when(categoryRepository.findById(1L)).thenReturn(Optional.of(category));
-    doNothing().when(categoryMapper).updateEntityFromDto(requestDto, category);
-    when(categoryRepository.save(category)).thenReturn(category);
+    when(categoryRepository.updateReturning(1L, requestDto)).thenReturn(Optional.of(category));
     when(categoryMapper.toDto(category)).thenReturn(responseDto);
 
     CategoryResponseDto result = categoryService.updateCategory(1L, requestDto);
 
     assertThat(result).isNotNull().extracting(CategoryResponseDto::getId).isEqualTo(1L);
+    verify(outboxService).record(ChangeType.UPDATED, category);
   }
 
   @Test
   @DisplayName("Given invalid ID when updateCategory then throws exception")
   void givenInvalidId_whenUpdateCategory_thenThrowsException() {
-    when(categoryRepository.findById(1L)).thenReturn(Optional.empty());
+    when(categoryRepository.updateReturning(1L, requestDto)).thenReturn(Optional.empty());
 
     assertThatThrownBy(() -> categoryService.updateCategory(1L, requestDto))
         .isInstanceOf(ResourceNotFoundException.class);
@@ -141,32 +236,58 @@ class CategoryServiceImplTest {
       "Given valid ID and request when updateCategory but optimistic locking fails then throws OptimisticLockingFailureException")
   void
       givenValidIdAndRequest_whenUpdateCategoryButOptimisticLockingFails_thenThrowsOptimisticLockingFailureException() {
-    when(categoryRepository.findById(1L)).thenReturn(Optional.of(category));
-    doNothing().when(categoryMapper).updateEntityFromDto(requestDto, category);
-    when(categoryRepository.save(category))
-        .thenThrow(new OptimisticLockingFailureException("Any internal message"));
+    requestDto.setVersion(3L);
+    when(categoryRepository.updateReturning(1L, requestDto)).thenReturn(Optional.empty());
+    when(categoryRepository.existsById(1L)).thenReturn(true);
 
     assertThatThrownBy(() -> categoryService.updateCategory(1L, requestDto))
         .isInstanceOf(OptimisticLockingFailureException.class)
         .hasMessageContaining("Category was updated by another transaction.");
-
-    verify(categoryRepository).save(category);
   }
 
   @Test
   @DisplayName("Given valid ID when deleteCategory then deletes category")
   void givenValidId_whenDeleteCategory_thenDeletesCategory() {
-    when(categoryRepository.findById(1L)).thenReturn(Optional.of(category));
+    when(categoryRepository.deleteReturning(1L)).thenReturn(Optional.of(category));
 
     categoryService.deleteCategory(1L);
 
-    verify(categoryRepository).delete(category);
+    verify(productRepository).deleteByCategoryReturning(1L);
+    verify(thresholdRepository).deleteByCategoryId(1L);
+    verify(outboxService).record(ChangeType.DELETED, category);
+    verify(membershipIndex).removeCategory(1L);
+  }
+
+  @Test
+  @DisplayName("Given category with products when deleteCategory then records product deletions")
+  void givenCategoryWithProducts_whenDeleteCategory_thenRecordsProductDeletions() {
+    Product product = new Product(5L, "Laptop", null, BigDecimal.TEN, 1, 0, category, null);
+    when(productRepository.deleteByCategoryReturning(1L)).thenReturn(List.of(product));
+    when(categoryRepository.deleteReturning(1L)).thenReturn(Optional.of(category));
+
+    categoryService.deleteCategory(1L);
+
+    verify(thresholdRepository).deleteByProductIdIn(List.of(5L));
+    verify(outboxService).record(ChangeType.DELETED, product);
+    verify(membershipIndex).removeProduct(5L);
+    verify(outboxService).record(ChangeType.DELETED, category);
+  }
+
+  @Test
+  @DisplayName("Given category with subcategories when deleteCategory then throws exception")
+  void givenSubcategories_whenDeleteCategory_thenThrowsBadRequest() {
+    when(categoryRepository.existsByParentId(1L)).thenReturn(true);
+
+    assertThatThrownBy(() -> categoryService.deleteCategory(1L))
+        .isInstanceOf(BadRequestException.class);
+    verify(productRepository, never()).deleteByCategoryReturning(any());
+    verify(categoryRepository, never()).deleteReturning(any());
   }
 
   @Test
   @DisplayName("Given invalid ID when deleteCategory then throws exception")
   void givenInvalidId_whenDeleteCategory_thenThrowsException() {
-    when(categoryRepository.findById(1L)).thenReturn(Optional.empty());
+    when(categoryRepository.deleteReturning(1L)).thenReturn(Optional.empty());
 
     assertThatThrownBy(() -> categoryService.deleteCategory(1L))
         .isInstanceOf(ResourceNotFoundException.class);
@@ -0,0 +1,287 @@
+package com.phoenix.productinventory.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.phoenix.productinventory.dto.CategoryRequestDto;
+import com.phoenix.productinventory.dto.ProductRequestDto;
+import com.phoenix.productinventory.dto.ProductResponseDto;
+import com.phoenix.productinventory.membership.CategoryExpression;
+import com.phoenix.productinventory.membership.CategoryMembershipIndex;
+import com.phoenix.productinventory.model.Category;
+import com.phoenix.productinventory.model.Product;
+import com.phoenix.productinventory.outbox.AggregateType;
+import com.phoenix.productinventory.outbox.ChangeType;
+import com.phoenix.productinventory.repository.CategoryRepository;
+import com.phoenix.productinventory.repository.OutboxEventRepository;
+import com.phoenix.productinventory.repository.ProductRepository;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * Hammers single products and categories from many threads against the embedded database and
+ * checks that optimistic locking loses no update, oversells no stock and keeps the derived state
+ * (change events, category membership index) in line with the rows.
+ *
+ * <p>Each scenario prints its throughput and conflict rate. The load is sized to keep the build
+ * fast; run with {@code -Dstress.threads=32 -Dstress.operations=500} to evaluate a locking or
+ * batching change under heavier contention.
+ */
+@SpringBootTest
+class OptimisticLockingStressTest {
+
+  private static final int THREADS = Integer.getInteger("stress.threads", 8);
+  private static final int OPERATIONS = Integer.getInteger("stress.operations", 50);
+
+  @Autowired private ProductService productService;
+  @Autowired private CategoryService categoryService;
+  @Autowired private ProductRepository productRepository;
+  @Autowired private CategoryRepository categoryRepository;
+  @Autowired private OutboxEventRepository outboxEventRepository;
+  @Autowired private CategoryMembershipIndex membershipIndex;
+
+  private final LongAdder successes = new LongAdder();
+  private final LongAdder conflicts = new LongAdder();
+
+  @Test
+  @DisplayName("Given concurrent read-modify-write increments when retried then none is lost")
+  void givenConcurrentIncrements_whenRetriedOnConflict_thenNoLostUpdates() throws Exception {
+    ProductResponseDto product = createProduct("Stress Counter", 0);
+
+    Result result =
+        run(
+            "product increments",
+            () -> {
+              for (int i = 0; i < OPERATIONS; i++) {
+                retry(
+                    () -> {
+                      ProductResponseDto current = productService.getProductById(product.getId());
+                      productService.updateProduct(
+                          product.getId(),
+                          versioned(current.getQuantity() + 1, current.getVersion()));
+                    });
+              }
+            });
+
+    Product stored = productRepository.findById(product.getId()).orElseThrow();
+    assertThat(stored.getQuantity()).isEqualTo(THREADS * OPERATIONS);
+    assertThat(stored.getVersion()).isEqualTo(product.getVersion() + THREADS * OPERATIONS);
+    assertThat(events(AggregateType.PRODUCT, product.getId(), ChangeType.UPDATED))
+        .isEqualTo(THREADS * OPERATIONS);
+    assertThat(result.successes()).isEqualTo(THREADS * OPERATIONS);
+  }
+
+  @Test
+  @DisplayName("Given concurrent stock reservations when stock runs out then nothing is oversold")
+  void givenConcurrentReservations_whenStockRunsOut_thenNeverOversold() throws Exception {
+    int stock = THREADS * OPERATIONS / 2;
+    ProductResponseDto product = createProduct("Stress Stock", stock);
+    AtomicInteger negative = new AtomicInteger();
+
+    Result result =
+        run(
+            "stock reservations",
+            () -> {
+              boolean available = true;
+              while (available) {
+                available =
+                    retryAttempt(
+                        () -> {
+                          ProductResponseDto current =
+                              productService.getProductById(product.getId());
+                          if (current.getQuantity() == 0) {
+                            return false;
+                          }
+                          ProductResponseDto reserved =
+                              productService.updateProduct(
+                                  product.getId(),
+                                  versioned(current.getQuantity() - 1, current.getVersion()));
+                          if (reserved.getQuantity() < 0) {
+                            negative.incrementAndGet();
+                          }
+                          return true;
+                        });
+              }
+            });
+
+    assertThat(negative).hasValue(0);
+    assertThat(productRepository.findById(product.getId()).orElseThrow().getQuantity()).isZero();
+    assertThat(result.successes()).isEqualTo(stock);
+  }
+
+  @Test
+  @DisplayName("Given concurrent category assignments when done then index and events match rows")
+  void givenConcurrentAssignments_whenDone_thenDerivedStateMatchesRow() throws Exception {
+    ProductResponseDto product = createProduct("Stress Assigned", 1);
+    List<Long> categories = new ArrayList<>();
+    for (int i = 0; i < 4; i++) {
+      categories.add(
+          categoryService
+              .createCategory(new CategoryRequestDto("Stress Shelf " + i, null, null, null))
+              .getId());
+    }
+
+    Result result =
+        run(
+            "category assignments",
+            worker ->
+                () -> {
+                  for (int i = 0; i < OPERATIONS; i++) {
+                    Long category = categories.get((worker + i) % categories.size());
+                    retry(() -> productService.assignCategory(product.getId(), category));
+                  }
+                });
+
+    Product stored = productRepository.findById(product.getId()).orElseThrow();
+    Long primary = stored.getCategory().getId();
+    assertThat(stored.getVersion()).isEqualTo(product.getVersion() + THREADS * OPERATIONS);
+    assertThat(result.conflicts()).isZero();
+    assertThat(events(AggregateType.PRODUCT, product.getId(), ChangeType.CATEGORY_ASSIGNED))
+        .isEqualTo(THREADS * OPERATIONS);
+    for (Long category : categories) {
+      assertThat(
+              membershipIndex
+                  .evaluate(new CategoryExpression(List.of(category), null, null))
+                  .contains(product.getId()))
+          .as("index membership of category %s", category)
+          .isEqualTo(category.equals(primary));
+    }
+  }
+
+  @Test
+  @DisplayName("Given concurrent versioned category renames when retried then none is lost")
+  void givenConcurrentCategoryRenames_whenRetriedOnConflict_thenNoLostUpdates()
+      throws Exception {
+    Long id =
+        categoryService
+            .createCategory(new CategoryRequestDto("Stress Renamed", "0", null, null))
+            .getId();
+    long initialVersion = categoryRepository.findById(id).orElseThrow().getVersion();
+
+    run(
+        "category renames",
+        () -> {
+          for (int i = 0; i < OPERATIONS; i++) {
+            retry(
+                () -> {
+                  Category current = categoryRepository.findById(id).orElseThrow();
+                  int count = Integer.parseInt(current.getDescription()) + 1;
+                  categoryService.updateCategory(
+                      id,
+                      new CategoryRequestDto(
+                          null, String.valueOf(count), null, current.getVersion()));
+                });
+          }
+        });
+
+    Category stored = categoryRepository.findById(id).orElseThrow();
+    assertThat(stored.getDescription()).isEqualTo(String.valueOf(THREADS * OPERATIONS));
+    assertThat(stored.getVersion()).isEqualTo(initialVersion + THREADS * OPERATIONS);
+    assertThat(events(AggregateType.CATEGORY, id, ChangeType.UPDATED))
+        .isEqualTo(THREADS * OPERATIONS);
+  }
+
+  /** Outcome of a scenario. */
+  private record Result(long successes, long conflicts) {}
+
+  /** Work of one thread, given its index. */
+  private interface Worker {
+    Runnable forThread(int worker);
+  }
+
+  /** One attempt of an operation; returns whether the caller should continue. */
+  private interface Attempt {
+    boolean run();
+  }
+
+  private Result run(String scenario, Runnable work) throws Exception {
+    return run(scenario, worker -> work);
+  }
+
+  private Result run(String scenario, Worker worker) throws Exception {
+    successes.reset();
+    conflicts.reset();
+    ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+    CountDownLatch start = new CountDownLatch(1);
+    List<Future<?>> futures = new ArrayList<>();
+    try {
+      for (int i = 0; i < THREADS; i++) {
+        Runnable work = worker.forThread(i);
+        futures.add(
+            executor.submit(
+                () -> {
+                  start.await();
+                  work.run();
+                  return null;
+                }));
+      }
+      long began = System.nanoTime();
+      start.countDown();
+      for (Future<?> future : futures) {
+        future.get();
+      }
+      long elapsedNanos = System.nanoTime() - began;
+      Result result = new Result(successes.sum(), conflicts.sum());
+      System.out.printf(
+          "%-22s threads %3d  %8.0f ops/s  conflicts %5.1f%% of %d attempts%n",
+          scenario,
+          THREADS,
+          result.successes() * 1e9 / elapsedNanos,
+          100.0 * result.conflicts() / Math.max(1, result.successes() + result.conflicts()),
+          result.successes() + result.conflicts());
+      return result;
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private void retry(Runnable operation) {
+    retryAttempt(
+        () -> {
+          operation.run();
+          return true;
+        });
+  }
+
+  /** Repeats an attempt until it does not conflict, counting successes and conflicts. */
+  private boolean retryAttempt(Attempt attempt) {
+    while (true) {
+      try {
+        boolean proceed = attempt.run();
+        if (proceed) {
+          successes.increment();
+        }
+        return proceed;
+      } catch (OptimisticLockingFailureException e) {
+        conflicts.increment();
+      }
+    }
+  }
+
+  private ProductResponseDto createProduct(String name, int quantity) {
+    return productService.createProduct(
+        new ProductRequestDto(name, null, BigDecimal.TEN, quantity, null, null));
+  }
+
+  private static ProductRequestDto versioned(int quantity, Integer version) {
+    return new ProductRequestDto(null, null, null, quantity, null, version);
+  }
+
+  private long events(AggregateType type, Long id, ChangeType change) {
+    return outboxEventRepository.findAfter(0L, type, Pageable.unpaged()).stream()
+        .filter(event -> event.getAggregateId().equals(id) && event.getType() == change)
+        .count();
+  }
+}
@@ -3,26 +3,45 @@ package com.phoenix.productinventory.service;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.Mockito.doNothing;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import com.phoenix.productinventory.bulk.ProductBulkUpdater;
+import com.phoenix.productinventory.bulk.ProductUpserter;
+import com.phoenix.productinventory.dto.BulkProductUpdateDto;
+import com.phoenix.productinventory.dto.CategoryResponseDto;
+import com.phoenix.productinventory.dto.ProductField;
 import com.phoenix.productinventory.dto.ProductRequestDto;
 import com.phoenix.productinventory.dto.ProductResponseDto;
+import com.phoenix.productinventory.dto.ProductUpsertDto;
+import com.phoenix.productinventory.dto.ProductUpsertResultDto;
+import com.phoenix.productinventory.exception.BadRequestException;
 import com.phoenix.productinventory.exception.ResourceNotFoundException;
+import com.phoenix.productinventory.mapper.CategoryMapper;
 import com.phoenix.productinventory.mapper.ProductMapper;
+import com.phoenix.productinventory.membership.CategoryMembershipIndex;
 import com.phoenix.productinventory.model.Category;
 import com.phoenix.productinventory.model.Product;
+import com.phoenix.productinventory.model.ProductCategory;
+import com.phoenix.productinventory.outbox.ChangeType;
+import com.phoenix.productinventory.outbox.OutboxService;
+import com.phoenix.productinventory.repository.ProductCategoryChange;
+import com.phoenix.productinventory.repository.ProductCategoryRepository;
 import com.phoenix.productinventory.repository.ProductRepository;
+import com.phoenix.productinventory.repository.ReorderThresholdRepository;
 import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
@@ -35,6 +54,13 @@ class ProductServiceImplTest {
   @Mock private ProductRepository productRepository;
   @Mock private ProductMapper productMapper;
   @Mock private CategoryService categoryService;
+  @Mock private OutboxService outboxService;
+  @Mock private ProductCategoryRepository membershipRepository;
+  @Mock private CategoryMapper categoryMapper;
+  @Mock private CategoryMembershipIndex membershipIndex;
+  @Mock private ProductBulkUpdater bulkUpdater;
+  @Mock private ProductUpserter upserter;
+  @Mock private ReorderThresholdRepository thresholdRepository;
   @InjectMocks private ProductServiceImpl productService;
 
   private Product product;
@@ -44,9 +70,10 @@ class ProductServiceImplTest {
   @BeforeEach
   void setUp() {
     MockitoAnnotations.openMocks(this);
-    product = new Product(1L, "Test", "Desc", BigDecimal.valueOf(10), 5, 0, null);
-    requestDto = new ProductRequestDto("Test", "Desc", BigDecimal.valueOf(10), 5);
-    responseDto = new ProductResponseDto(1L, "Test", "Desc", BigDecimal.valueOf(10), 5, null, 0);
+    product = new Product(1L, "Test", "Desc", BigDecimal.valueOf(10), 5, 0, null, null);
+    requestDto = new ProductRequestDto("Test", "Desc", BigDecimal.valueOf(10), 5, null, null);
+    responseDto =
+        new ProductResponseDto(1L, "Test", "Desc", BigDecimal.valueOf(10), 5, null, 0, null);
   }
 
   @Test
@@ -60,6 +87,7 @@ class ProductServiceImplTest {
 
     assertThat(result).isNotNull().extracting(ProductResponseDto::getName).isEqualTo("Test");
     verify(productRepository).save(product);
+    verify(outboxService).record(ChangeType.CREATED, product);
   }
 
   @Test
@@ -77,6 +105,41 @@ class ProductServiceImplTest {
     assertThat(result.getContent()).hasSize(1);
   }
 
+  @Test
+  @DisplayName("Given field selection when getAllProducts then delegates to projection query")
+  void givenFields_whenGetAllProducts_thenUsesProjectionQuery() {
+    Set<ProductField> fields = ProductField.parse("name");
+    Specification<Product> spec = Specification.where(null);
+    Pageable pageable = PageRequest.of(0, 10);
+    when(productRepository.findAllProjected(spec, pageable, fields))
+        .thenReturn(new PageImpl<>(List.of(responseDto)));
+
+    Page<ProductResponseDto> result = productService.getAllProducts(spec, pageable, fields);
+
+    assertThat(result.getContent()).containsExactly(responseDto);
+    verify(productRepository, never()).findAll(any(Specification.class), any(Pageable.class));
+  }
+
+  @Test
+  @DisplayName("Given invalid ID and field selection when getProductById then throws exception")
+  void givenInvalidIdAndFields_whenGetProductById_thenThrowsResourceNotFoundException() {
+    Set<ProductField> fields = ProductField.parse("name");
+    when(productRepository.findProjectedById(1L, fields)).thenReturn(Optional.empty());
+
+    assertThatThrownBy(() -> productService.getProductById(1L, fields))
+        .isInstanceOf(ResourceNotFoundException.class);
+  }
+
+  @Test
+  @DisplayName("Given descending price breaks when getFacets then throws BadRequestException")
+  void givenDescendingPriceBreaks_whenGetFacets_thenThrowsBadRequestException() {
+    List<BigDecimal> priceBreaks = List.of(BigDecimal.valueOf(100), BigDecimal.TEN);
+
+    assertThatThrownBy(() -> productService.getFacets(null, priceBreaks))
+        .isInstanceOf(BadRequestException.class);
+    verify(productRepository, never()).findFacets(any(), any());
+  }
+
   @Test
   @DisplayName("Given valid ID when getProductById then returns product")
   void givenValidId_whenGetProductById_thenReturnsProduct() {
@@ -100,20 +163,22 @@ class ProductServiceImplTest {
   @Test
   @DisplayName("Given valid ID and request when updateProduct then returns updated product")
   void givenValidIdAndRequest_whenUpdateProduct_thenReturnsUpdatedProduct() {
-    when(productRepository.findById(1L)).thenReturn(Optional.of(product));
-    doNothing().when(productMapper).updateEntityFromDto(requestDto, product);
-    when(productRepository.save(product)).thenReturn(product);
+    when(productRepository.updateReturning(1L, requestDto)).thenReturn(Optional.of(product));
     when(productMapper.toDto(product)).thenReturn(responseDto);
 
     ProductResponseDto result = productService.updateProduct(1L, requestDto);
 
     assertThat(result).isNotNull().extracting(ProductResponseDto::getId).isEqualTo(1L);
+    verify(outboxService).record(ChangeType.UPDATED, product);
+    verify(productRepository, never()).findById(any());
   }
 
   @Test
   @DisplayName("Given invalid ID when updateProduct then throws ResourceNotFoundException")
   void givenInvalidId_whenUpdateProduct_thenThrowsResourceNotFoundException() {
-    when(productRepository.findById(1L)).thenReturn(Optional.empty());
+    requestDto.setVersion(0);
+    when(productRepository.updateReturning(1L, requestDto)).thenReturn(Optional.empty());
+    when(productRepository.existsById(1L)).thenReturn(false);
 
     assertThatThrownBy(() -> productService.updateProduct(1L, requestDto))
         .isInstanceOf(ResourceNotFoundException.class);
@@ -124,32 +189,34 @@ class ProductServiceImplTest {
       "Given valid ID and request when updateProduct but optimistic locking fails then throws OptimisticLockingFailureException")
   void
       givenValidIdAndRequest_whenUpdateProductButOptimisticLockingFails_thenThrowsOptimisticLockingFailureException() {
-    when(productRepository.findById(1L)).thenReturn(Optional.of(product));
-    doNothing().when(productMapper).updateEntityFromDto(requestDto, product);
-    when(productRepository.save(product))
-        .thenThrow(new OptimisticLockingFailureException("Any internal message"));
+    requestDto.setVersion(3);
+    when(productRepository.updateReturning(1L, requestDto)).thenReturn(Optional.empty());
+    when(productRepository.existsById(1L)).thenReturn(true);
 
     assertThatThrownBy(() -> productService.updateProduct(1L, requestDto))
         .isInstanceOf(OptimisticLockingFailureException.class)
         .hasMessageContaining("Product was updated by another transaction.");
 
-    verify(productRepository).save(product);
+    verify(outboxService, never()).record(any(ChangeType.class), any(Product.class));
   }
 
   @Test
   @DisplayName("Given valid ID when deleteProduct then deletes product")
   void givenValidId_whenDeleteProduct_thenDeletesProduct() {
-    when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+    when(productRepository.deleteReturning(1L)).thenReturn(Optional.of(product));
 
     productService.deleteProduct(1L);
 
-    verify(productRepository).delete(product);
+    verify(productRepository, never()).findById(any());
+    verify(thresholdRepository).deleteByProductId(1L);
+    verify(outboxService).record(ChangeType.DELETED, product);
+    verify(membershipIndex).removeProduct(1L);
   }
 
   @Test
   @DisplayName("Given invalid ID when deleteProduct then throws ResourceNotFoundException")
   void givenInvalidId_whenDeleteProduct_thenThrowsResourceNotFoundException() {
-    when(productRepository.findById(1L)).thenReturn(Optional.empty());
+    when(productRepository.deleteReturning(1L)).thenReturn(Optional.empty());
 
     assertThatThrownBy(() -> productService.deleteProduct(1L))
         .isInstanceOf(ResourceNotFoundException.class);
@@ -158,46 +225,173 @@ class ProductServiceImplTest {
   @Test
   @DisplayName("Given valid product and category IDs when assignCategory then assigns category")
   void givenValidProductAndCategoryIds_whenAssignCategory_thenAssignsCategory() {
-    when(productRepository.findById(1L)).thenReturn(Optional.of(product));
-    Category category = new Category(2L, "TestCategory", "Desc", 0L, null);
-    when(categoryService.getCategoryEntityById(2L)).thenReturn(category);
-    when(productRepository.save(any(Product.class))).thenReturn(product);
+    product.setCategory(new Category(2L, "TestCategory", "Desc", 1L, null, null));
+    when(productRepository.updateCategoryReturning(1L, 2L))
+        .thenReturn(Optional.of(new ProductCategoryChange(product, 3L)));
     when(productMapper.toDto(any(Product.class))).thenReturn(responseDto);
 
     ProductResponseDto result = productService.assignCategory(1L, 2L);
 
     assertThat(result).isNotNull();
-    verify(productRepository).save(product);
+    verify(categoryService, never()).getCategoryEntityById(any());
+    verify(outboxService).record(ChangeType.CATEGORY_ASSIGNED, product);
+    verify(membershipIndex).changePrimaryCategory(1L, 3L, 2L, 0);
   }
 
   @Test
   @DisplayName("Given invalid product ID when assignCategory then throws ResourceNotFoundException")
   void givenInvalidProductId_whenAssignCategory_thenThrowsException() {
-    when(productRepository.findById(1L)).thenReturn(Optional.empty());
+    when(productRepository.updateCategoryReturning(1L, 2L)).thenReturn(Optional.empty());
 
     assertThatThrownBy(() -> productService.assignCategory(1L, 2L))
         .isInstanceOf(ResourceNotFoundException.class);
   }
 
+  @Test
+  @DisplayName("Given unknown category when assignCategory then throws ResourceNotFoundException")
+  void givenInvalidCategoryId_whenAssignCategory_thenThrowsException() {
+    when(productRepository.updateCategoryReturning(1L, 2L))
+        .thenThrow(new DataIntegrityViolationException("fk_category"));
+
+    assertThatThrownBy(() -> productService.assignCategory(1L, 2L))
+        .isInstanceOf(ResourceNotFoundException.class)
+        .hasMessageContaining("Category not found with id 2");
+    verify(membershipIndex, never())
+        .changePrimaryCategory(any(Long.class), any(), any(), anyInt());
+  }
+
   @Test
   @DisplayName("Given valid product ID when removeCategory then removes category")
   void givenValidProductId_whenRemoveCategory_thenRemovesCategory() {
-    when(productRepository.findById(1L)).thenReturn(Optional.of(product));
-    when(productRepository.save(any(Product.class))).thenReturn(product);
+    when(productRepository.updateCategoryReturning(1L, null))
+        .thenReturn(Optional.of(new ProductCategoryChange(product, 2L)));
     when(productMapper.toDto(any(Product.class))).thenReturn(responseDto);
 
     ProductResponseDto result = productService.removeCategory(1L);
 
     assertThat(result).isNotNull();
-    verify(productRepository).save(product);
+    verify(outboxService).record(ChangeType.CATEGORY_REMOVED, product);
+    verify(membershipIndex).changePrimaryCategory(1L, 2L, null, 0);
   }
 
   @Test
   @DisplayName("Given invalid product ID when removeCategory then throws ResourceNotFoundException")
   void givenInvalidProductId_whenRemoveCategory_thenThrowsException() {
-    when(productRepository.findById(1L)).thenReturn(Optional.empty());
+    when(productRepository.updateCategoryReturning(1L, null)).thenReturn(Optional.empty());
 
     assertThatThrownBy(() -> productService.removeCategory(1L))
         .isInstanceOf(ResourceNotFoundException.class);
   }
+
+  @Test
+  @DisplayName("Given new membership when addCategoryMembership then saves and indexes it")
+  void givenNewMembership_whenAddCategoryMembership_thenSavesAndIndexesIt() {
+    Category category = new Category(2L, "TestCategory", "Desc", 0L, null, null);
+    when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+    when(categoryService.getCategoryEntityById(2L)).thenReturn(category);
+    when(membershipRepository.existsById(new ProductCategory.Key(1L, 2L))).thenReturn(false);
+    when(membershipRepository.findCategoriesOf(1L)).thenReturn(List.of(category));
+    CategoryResponseDto categoryDto =
+        new CategoryResponseDto(2L, "TestCategory", "Desc", null, null);
+    when(categoryMapper.toDtoList(List.of(category))).thenReturn(List.of(categoryDto));
+
+    List<CategoryResponseDto> result = productService.addCategoryMembership(1L, 2L);
+
+    assertThat(result).containsExactly(categoryDto);
+    verify(membershipRepository).save(any(ProductCategory.class));
+    verify(membershipIndex).addMembership(1L, 2L);
+  }
+
+  @Test
+  @DisplayName("Given existing membership when addCategoryMembership then does not save it again")
+  void givenExistingMembership_whenAddCategoryMembership_thenDoesNotSaveAgain() {
+    when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+    when(categoryService.getCategoryEntityById(2L))
+        .thenReturn(new Category(2L, "TestCategory", "Desc", 0L, null, null));
+    when(membershipRepository.existsById(new ProductCategory.Key(1L, 2L))).thenReturn(true);
+
+    productService.addCategoryMembership(1L, 2L);
+
+    verify(membershipRepository, never()).save(any(ProductCategory.class));
+    verify(membershipIndex, never()).addMembership(1L, 2L);
+  }
+
+  @Test
+  @DisplayName(
+      "Given invalid category ID when addCategoryMembership then throws ResourceNotFoundException")
+  void givenInvalidCategoryId_whenAddCategoryMembership_thenThrowsException() {
+    when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+    when(categoryService.getCategoryEntityById(2L))
+        .thenThrow(new ResourceNotFoundException("Category not found"));
+
+    assertThatThrownBy(() -> productService.addCategoryMembership(1L, 2L))
+        .isInstanceOf(ResourceNotFoundException.class);
+    verify(membershipRepository, never()).save(any(ProductCategory.class));
+  }
+
+  @Test
+  @DisplayName("Given price change when bulkUpdate then adjusts prices of matching products")
+  void givenPriceChange_whenBulkUpdate_thenAdjustsPrices() {
+    Specification<Product> spec = Specification.where(null);
+    when(bulkUpdater.adjustPrices(spec, BigDecimal.TEN, null)).thenReturn(42L);
+
+    long updated =
+        productService
+            .bulkUpdate(spec, new BulkProductUpdateDto(BigDecimal.TEN, null, null))
+            .getUpdated();
+
+    assertThat(updated).isEqualTo(42L);
+  }
+
+  @Test
+  @DisplayName("Given invalid change when bulkUpdate then throws BadRequestException")
+  void givenInvalidChange_whenBulkUpdate_thenThrowsBadRequestException() {
+    BulkProductUpdateDto update = new BulkProductUpdateDto(BigDecimal.TEN, null, 5);
+
+    assertThatThrownBy(() -> productService.bulkUpdate(null, update))
+        .isInstanceOf(BadRequestException.class);
+    assertThatThrownBy(() -> productService.bulkUpdate(null, new BulkProductUpdateDto()))
+        .isInstanceOf(BadRequestException.class);
+    assertThatThrownBy(
+            () ->
+                productService.bulkUpdate(
+                    null, new BulkProductUpdateDto(BigDecimal.valueOf(-100), null, null)))
+        .isInstanceOf(BadRequestException.class);
+    verify(bulkUpdater, never()).adjustQuantities(any(), any(Integer.class));
+    verify(bulkUpdater, never()).adjustPrices(any(), any(), any());
+  }
+
+  @Test
+  @DisplayName("Given valid feed when upsertProducts then checks categories and upserts")
+  void givenValidFeed_whenUpsertProducts_thenChecksCategoriesAndUpserts() {
+    List<ProductUpsertDto> feed =
+        List.of(
+            new ProductUpsertDto("A-1", "Drill", null, BigDecimal.TEN, 3, 2L, null),
+            new ProductUpsertDto("A-2", "Saw", null, BigDecimal.ONE, 0, 2L, 4));
+    ProductUpsertResultDto result = new ProductUpsertResultDto(1, 1, List.of());
+    when(upserter.upsert(feed)).thenReturn(result);
+
+    assertThat(productService.upsertProducts(feed)).isSameAs(result);
+    verify(categoryService).getCategoryEntityById(2L);
+  }
+
+  @Test
+  @DisplayName("Given invalid feed when upsertProducts then throws BadRequestException")
+  void givenInvalidFeed_whenUpsertProducts_thenThrowsBadRequestException() {
+    ProductUpsertDto valid =
+        new ProductUpsertDto("A-1", "Drill", null, BigDecimal.TEN, 3, null, null);
+    ProductUpsertDto noSku =
+        new ProductUpsertDto(" ", "Drill", null, BigDecimal.TEN, 3, null, null);
+    ProductUpsertDto noPrice = new ProductUpsertDto("A-2", "Saw", null, null, 3, null, null);
+
+    assertThatThrownBy(() -> productService.upsertProducts(List.of()))
+        .isInstanceOf(BadRequestException.class);
+    assertThatThrownBy(() -> productService.upsertProducts(List.of(valid, valid)))
+        .isInstanceOf(BadRequestException.class);
+    assertThatThrownBy(() -> productService.upsertProducts(List.of(noSku)))
+        .isInstanceOf(BadRequestException.class);
+    assertThatThrownBy(() -> productService.upsertProducts(List.of(valid, noPrice)))
+        .isInstanceOf(BadRequestException.class);
+    verify(upserter, never()).upsert(any());
+  }
 }
@@ -0,0 +1,157 @@
+package com.phoenix.productinventory.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.phoenix.productinventory.dto.CategoryRequestDto;
+import com.phoenix.productinventory.dto.CategoryResponseDto;
+import com.phoenix.productinventory.dto.ProductRequestDto;
+import com.phoenix.productinventory.dto.ProductResponseDto;
+import com.phoenix.productinventory.exception.ResourceNotFoundException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+/**
+ * Counts the SQL statements of each write. Every write takes one statement for the change itself
+ * and one insert per recorded change event.
+ */
+@SpringBootTest(
+    properties =
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+            + "com.phoenix.productinventory.service.WriteStatementCountIntegrationTest$Counter")
+class WriteStatementCountIntegrationTest {
+
+  @Autowired private ProductService productService;
+  @Autowired private CategoryService categoryService;
+
+  private Long categoryId;
+  private Long productId;
+
+  /** Records the statements prepared on the current thread, ignoring background jobs. */
+  public static class Counter implements StatementInspector {
+
+    private static final ThreadLocal<List<String>> STATEMENTS =
+        ThreadLocal.withInitial(ArrayList::new);
+
+    @Override
+    public String inspect(String sql) {
+      STATEMENTS.get().add(sql);
+      return sql;
+    }
+
+    static List<String> during(Runnable operation) {
+      STATEMENTS.get().clear();
+      operation.run();
+      return List.copyOf(STATEMENTS.get());
+    }
+  }
+
+  @BeforeEach
+  void setUp() {
+    categoryId =
+        categoryService.createCategory(new CategoryRequestDto("Counted", null, null, null)).getId();
+    productId = createProduct("Counted Lamp").getId();
+  }
+
+  @Test
+  @DisplayName("Given product when updating it then one update and one event insert are issued")
+  void givenProduct_whenUpdating_thenTwoStatements() {
+    List<String> statements =
+        Counter.during(
+            () ->
+                productService.updateProduct(
+                    productId, new ProductRequestDto(null, null, null, 7, null, 0)));
+
+    assertThat(statements).hasSize(2);
+    assertThat(statements.get(0)).containsIgnoringCase("final table (update products");
+    assertThat(productService.getProductById(productId).getVersion()).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("Given stale version when updating then a conflict costs one extra statement")
+  void givenStaleVersion_whenUpdating_thenConflictAfterTwoStatements() {
+    List<String> statements =
+        Counter.during(
+            () ->
+                assertThatThrownBy(
+                        () ->
+                            productService.updateProduct(
+                                productId, new ProductRequestDto(null, null, null, 7, null, 3)))
+                    .isInstanceOf(OptimisticLockingFailureException.class));
+
+    assertThat(statements).hasSize(2);
+  }
+
+  @Test
+  @DisplayName("Given product when assigning and removing a category then each takes two")
+  void givenProduct_whenAssigningAndRemovingCategory_thenTwoStatementsEach() {
+    ProductResponseDto[] assigned = new ProductResponseDto[1];
+
+    List<String> assigning =
+        Counter.during(() -> assigned[0] = productService.assignCategory(productId, categoryId));
+
+    assertThat(assigning).hasSize(2);
+    assertThat(Counter.during(() -> productService.removeCategory(productId))).hasSize(2);
+
+    assertThat(assigned[0].getCategory().getName()).isEqualTo("Counted");
+    assertThat(assigned[0].getVersion()).isEqualTo(1);
+    assertThat(productService.getProductById(productId).getVersion()).isEqualTo(2);
+  }
+
+  @Test
+  @DisplayName("Given unknown category when assigning it then the foreign key reports it")
+  void givenUnknownCategory_whenAssigning_thenNotFound() {
+    assertThatThrownBy(() -> productService.assignCategory(productId, 999_999L))
+        .isInstanceOf(ResourceNotFoundException.class)
+        .hasMessageContaining("Category");
+  }
+
+  @Test
+  @DisplayName("Given product when deleting it then two deletes and one event insert are issued")
+  void givenProduct_whenDeleting_thenThreeStatements() {
+    assertThat(Counter.during(() -> productService.deleteProduct(productId))).hasSize(3);
+    assertThatThrownBy(() -> productService.deleteProduct(productId))
+        .isInstanceOf(ResourceNotFoundException.class);
+  }
+
+  @Test
+  @DisplayName("Given category when updating it then one update and one event insert are issued")
+  void givenCategory_whenUpdating_thenTwoStatements() {
+    CategoryResponseDto[] updated = new CategoryResponseDto[1];
+
+    assertThat(
+            Counter.during(
+                () ->
+                    updated[0] =
+                        categoryService.updateCategory(
+                            categoryId, new CategoryRequestDto("Recounted", null, null, 0L))))
+        .hasSize(2);
+    assertThat(updated[0].getName()).isEqualTo("Recounted");
+  }
+
+  @Test
+  @DisplayName("Given category with products when deleting it then five statements plus events")
+  void givenCategoryWithProducts_whenDeleting_thenFiveStatementsPlusEvents() {
+    productService.assignCategory(productId, categoryId);
+    productService.assignCategory(createProduct("Counted Desk").getId(), categoryId);
+
+    List<String> statements = Counter.during(() -> categoryService.deleteCategory(categoryId));
+
+    assertThat(statements).hasSize(5 + 3);
+    assertThatThrownBy(() -> productService.getProductById(productId))
+        .isInstanceOf(ResourceNotFoundException.class);
+  }
+
+  private ProductResponseDto createProduct(String name) {
+    return productService.createProduct(
+        new ProductRequestDto(name, null, BigDecimal.TEN, 1, null, null));
+  }
+}
@@ -0,0 +1,212 @@
+package com.phoenix.productinventory.sharding;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.phoenix.productinventory.dto.CategoryRequestDto;
+import com.phoenix.productinventory.dto.CategoryResponseDto;
+import com.phoenix.productinventory.dto.PriceRangeFacetDto;
+import com.phoenix.productinventory.dto.ProductFacetsDto;
+import com.phoenix.productinventory.dto.ProductField;
+import com.phoenix.productinventory.dto.ProductRequestDto;
+import com.phoenix.productinventory.dto.ProductResponseDto;
+import com.phoenix.productinventory.exception.BadRequestException;
+import com.phoenix.productinventory.model.Product;
+import com.phoenix.productinventory.service.CategoryService;
+import com.phoenix.productinventory.service.ProductService;
+import com.phoenix.productinventory.spcification.ProductSpecification;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+/** Runs the {@code sharding} profile against three embedded H2 databases. */
+@SpringBootTest(
+    properties = {
+      "sharding.shards[0].url=jdbc:h2:mem:sharding-test-0;DB_CLOSE_DELAY=-1",
+      "sharding.shards[1].url=jdbc:h2:mem:sharding-test-1;DB_CLOSE_DELAY=-1",
+      "sharding.shards[2].url=jdbc:h2:mem:sharding-test-2;DB_CLOSE_DELAY=-1",
+      "sharding.shards[2].username=sa",
+      "sharding.shards[2].password=securepassword"
+    })
+@ActiveProfiles("sharding")
+class ShardingIntegrationTest {
+
+  private static final Specification<Product> ALL = ProductSpecification.hasName(null);
+
+  @Autowired private ProductService productService;
+  @Autowired private CategoryService categoryService;
+  @Autowired private ShardRoutingDataSource shards;
+
+  @Test
+  @DisplayName("Given seed data in every shard when started then each product is on one shard")
+  void givenSeedData_whenStarted_thenProductsAreRebalanced() {
+    List<Long> ids = new ArrayList<>();
+    for (int shard = 0; shard < 3; shard++) {
+      List<Long> shardIds = jdbc(shard).queryForList("SELECT id FROM products", Long.class);
+      int owner = shard;
+      assertThat(shardIds).allMatch(id -> id % 3 == owner);
+      ids.addAll(shardIds);
+    }
+
+    assertThat(ids).doesNotHaveDuplicates().contains(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L);
+  }
+
+  @Test
+  @DisplayName("Given new products when created then they are spread over shards by id")
+  void givenNewProducts_whenCreated_thenKeyedOperationsFindTheirShard() {
+    List<ProductResponseDto> created = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      created.add(productService.createProduct(request("Sharded " + i, 10 + i)));
+    }
+
+    assertThat(created)
+        .extracting(product -> product.getId() % 3)
+        .containsExactlyInAnyOrder(0L, 1L, 2L);
+    for (ProductResponseDto product : created) {
+      Integer rows =
+          jdbc(shards.shardOf(product.getId()))
+              .queryForObject(
+                  "SELECT COUNT(*) FROM products WHERE id = ?", Integer.class, product.getId());
+      assertThat(rows).isEqualTo(1);
+      ProductResponseDto updated =
+          productService.updateProduct(
+              product.getId(), new ProductRequestDto(null, null, null, 99, null, null));
+      assertThat(productService.getProductById(product.getId()).getQuantity())
+          .isEqualTo(updated.getQuantity())
+          .isEqualTo(99);
+    }
+  }
+
+  @Test
+  @DisplayName("Given sorted paging when listing then pages equal a sort over all shards")
+  void givenSortedPaging_whenListing_thenMergedPagesMatchGlobalOrder() {
+    List<Map<String, Object>> all = new ArrayList<>();
+    for (int shard = 0; shard < 3; shard++) {
+      all.addAll(jdbc(shard).queryForList("SELECT id, price FROM products"));
+    }
+    List<Long> expected =
+        all.stream()
+            .sorted(
+                Comparator.comparing((Map<String, Object> row) -> (BigDecimal) row.get("price"))
+                    .reversed()
+                    .thenComparing(row -> (Long) row.get("id")))
+            .map(row -> (Long) row.get("id"))
+            .toList();
+
+    Sort sort = Sort.by(Sort.Direction.DESC, "price");
+    Page<ProductResponseDto> second =
+        productService.getAllProducts(ALL, PageRequest.of(1, 3, sort));
+    Page<ProductResponseDto> sparse =
+        productService.getAllProducts(
+            ALL, PageRequest.of(1, 3, sort), Set.of(ProductField.ID, ProductField.NAME));
+
+    assertThat(second.getTotalElements()).isEqualTo(expected.size());
+    assertThat(second.getContent())
+        .extracting(ProductResponseDto::getId)
+        .containsExactlyElementsOf(expected.subList(3, 6));
+    assertThat(sparse.getContent())
+        .extracting(ProductResponseDto::getId)
+        .containsExactlyElementsOf(expected.subList(3, 6));
+  }
+
+  @Test
+  @DisplayName("Given products on all shards when faceting then counts are summed")
+  void givenProductsOnAllShards_whenFaceting_thenCountsAreSummed() {
+    long products = 0;
+    for (int shard = 0; shard < 3; shard++) {
+      products += jdbc(shard).queryForObject("SELECT COUNT(*) FROM products", Long.class);
+    }
+
+    ProductFacetsDto facets = productService.getFacets(ALL, List.of(BigDecimal.valueOf(50)));
+
+    assertThat(facets.getTotal()).isEqualTo(products);
+    assertThat(facets.getInStock() + facets.getOutOfStock()).isEqualTo(products);
+    assertThat(facets.getPriceRanges()).hasSize(2);
+    assertThat(facets.getPriceRanges().stream().mapToLong(PriceRangeFacetDto::getCount).sum())
+        .isEqualTo(products);
+    assertThat(facets.getCategories()).extracting("count").doesNotContainNull();
+  }
+
+  @Test
+  @DisplayName("Given a new category when created then every shard holds it under the same id")
+  void givenNewCategory_whenCreated_thenReplicatedToEveryShard() {
+    CategoryResponseDto category =
+        categoryService.createCategory(new CategoryRequestDto("Garden", "Outdoor", null, null));
+    productService.createProduct(request("Hose", 25));
+    ProductResponseDto product = productService.createProduct(request("Rake", 30));
+
+    ProductResponseDto assigned =
+        productService.assignCategory(product.getId(), category.getId());
+
+    assertThat(assigned.getCategory().getId()).isEqualTo(category.getId());
+    for (int shard = 0; shard < 3; shard++) {
+      assertThat(
+              jdbc(shard)
+                  .queryForObject(
+                      "SELECT name FROM categories WHERE id = ?", String.class, category.getId()))
+          .isEqualTo("Garden");
+    }
+  }
+
+  @Test
+  @DisplayName("Given diverged identities when a category is created then all shards share its id")
+  void givenDivergedIdentities_whenCategoryCreated_thenShardsShareId() {
+    jdbc(1).execute("ALTER TABLE categories ALTER COLUMN id RESTART WITH 500");
+
+    CategoryResponseDto category =
+        categoryService.createCategory(new CategoryRequestDto("Tools", null, null, null));
+
+    for (int shard = 0; shard < 3; shard++) {
+      assertThat(
+              jdbc(shard)
+                  .queryForObject(
+                      "SELECT name FROM categories WHERE id = ?", String.class, category.getId()))
+          .isEqualTo("Tools");
+    }
+  }
+
+  @Test
+  @DisplayName("Given a delete rejected by one shard when deleted then no shard deletes")
+  void givenDeleteRejectedByOneShard_whenDeleted_thenNoShardDeletes() {
+    CategoryResponseDto category =
+        categoryService.createCategory(new CategoryRequestDto("Lighting", null, null, null));
+    // A subcategory on the last shard only makes the delete fail there after the others applied it
+    jdbc(2)
+        .update(
+            "INSERT INTO categories (id, name, parent_id, version) VALUES (?, 'Lamps', ?, 0)",
+            category.getId() + 100_000,
+            category.getId());
+
+    assertThatThrownBy(() -> categoryService.deleteCategory(category.getId()))
+        .isInstanceOf(BadRequestException.class);
+
+    for (int shard = 0; shard < 3; shard++) {
+      assertThat(
+              jdbc(shard)
+                  .queryForObject(
+                      "SELECT COUNT(*) FROM categories WHERE id = ?", Long.class, category.getId()))
+          .isOne();
+    }
+  }
+
+  private JdbcTemplate jdbc(int shard) {
+    return new JdbcTemplate(shards.shard(shard));
+  }
+
+  private static ProductRequestDto request(String name, int price) {
+    return new ProductRequestDto(name, null, BigDecimal.valueOf(price), 5, null, null);
+  }
+}
@@ -0,0 +1,137 @@
+package com.phoenix.productinventory.snapshot;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.phoenix.productinventory.repository.CategoryRepository;
+import com.phoenix.productinventory.repository.ProductRepository;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+class CatalogSnapshotServiceTest {
+
+  private static final Instant CREATED_AT = Instant.parse("2025-01-01T00:00:00Z");
+
+  @Mock private ProductRepository productRepository;
+  @Mock private CategoryRepository categoryRepository;
+  @TempDir private Path tempDir;
+
+  private Path snapshotPath;
+  private CatalogSnapshotService snapshotService;
+  private List<ProductState> products;
+  private List<CategoryState> categories;
+
+  @BeforeEach
+  void setUp() {
+    MockitoAnnotations.openMocks(this);
+    snapshotPath = tempDir.resolve("catalog.snapshot");
+    snapshotService =
+        new CatalogSnapshotService(
+            productRepository,
+            categoryRepository,
+            new CatalogSnapshotProperties(true, snapshotPath, Duration.ofMinutes(5)));
+    products =
+        List.of(
+            new ProductState(1L, 3, new BigDecimal("1200.00"), 10, 1L),
+            new ProductState(2L, 0, new BigDecimal("15.99"), 0, null));
+    categories = List.of(new CategoryState(1L, 2L));
+  }
+
+  @Test
+  @DisplayName("Given snapshot written when read then returns identical state")
+  void givenSnapshotWritten_whenRead_thenReturnsIdenticalState() throws IOException {
+    CatalogSnapshot snapshot = new CatalogSnapshot(CREATED_AT, products, categories);
+
+    CatalogSnapshotFile.write(snapshotPath, snapshot);
+
+    assertThat(CatalogSnapshotFile.read(snapshotPath)).contains(snapshot);
+  }
+
+  @Test
+  @DisplayName("Given corrupted snapshot when read then returns empty")
+  void givenCorruptedSnapshot_whenRead_thenReturnsEmpty() throws IOException {
+    CatalogSnapshotFile.write(snapshotPath, new CatalogSnapshot(CREATED_AT, products, categories));
+    byte[] bytes = Files.readAllBytes(snapshotPath);
+    bytes[bytes.length / 2] ^= 0x7F;
+    Files.write(snapshotPath, bytes);
+
+    assertThat(CatalogSnapshotFile.read(snapshotPath)).isEmpty();
+  }
+
+  @Test
+  @DisplayName("Given no snapshot when restore then reloads from database and writes snapshot")
+  void givenNoSnapshot_whenRestore_thenReloadsAndWritesSnapshot() throws IOException {
+    when(productRepository.findAllStates()).thenReturn(products);
+    when(categoryRepository.findAllStates()).thenReturn(categories);
+
+    snapshotService.restore();
+
+    assertThat(snapshotService.current())
+        .get()
+        .extracting(CatalogSnapshot::products)
+        .isEqualTo(products);
+    assertThat(CatalogSnapshotFile.read(snapshotPath)).isPresent();
+  }
+
+  @Test
+  @DisplayName("Given snapshot matching database when restore then skips full reload")
+  void givenMatchingSnapshot_whenRestore_thenSkipsFullReload() throws IOException {
+    CatalogSnapshot snapshot = new CatalogSnapshot(CREATED_AT, products, categories);
+    CatalogSnapshotFile.write(snapshotPath, snapshot);
+    when(productRepository.findFingerprint()).thenReturn(new CatalogFingerprint(2L, 2L, 3L));
+    when(categoryRepository.findFingerprint()).thenReturn(new CatalogFingerprint(1L, 1L, 2L));
+
+    snapshotService.restore();
+
+    assertThat(snapshotService.current()).contains(snapshot);
+    verify(productRepository, never()).findAllStates();
+    verify(categoryRepository, never()).findAllStates();
+  }
+
+  @Test
+  @DisplayName("Given stale snapshot when restore then reloads from database")
+  void givenStaleSnapshot_whenRestore_thenReloadsFromDatabase() throws IOException {
+    CatalogSnapshotFile.write(snapshotPath, new CatalogSnapshot(CREATED_AT, products, categories));
+    when(productRepository.findFingerprint()).thenReturn(new CatalogFingerprint(2L, 2L, 4L));
+    when(categoryRepository.findFingerprint()).thenReturn(new CatalogFingerprint(1L, 1L, 2L));
+    when(productRepository.findAllStates()).thenReturn(products);
+    when(categoryRepository.findAllStates()).thenReturn(categories);
+
+    snapshotService.restore();
+
+    verify(productRepository).findAllStates();
+    verify(categoryRepository).findAllStates();
+  }
+
+  @Test
+  @DisplayName("Given restored snapshot when database changed then verified snapshot is reloaded")
+  void givenRestoredSnapshot_whenDatabaseChanged_thenVerifiedSnapshotReloaded() throws IOException {
+    CatalogSnapshotFile.write(snapshotPath, new CatalogSnapshot(CREATED_AT, products, categories));
+    when(productRepository.findFingerprint())
+        .thenReturn(new CatalogFingerprint(2L, 2L, 3L), new CatalogFingerprint(2L, 2L, 4L));
+    when(categoryRepository.findFingerprint()).thenReturn(new CatalogFingerprint(1L, 1L, 2L));
+    List<ProductState> changed =
+        List.of(products.get(0), new ProductState(2L, 1, new BigDecimal("15.99"), 5, null));
+    when(productRepository.findAllStates()).thenReturn(changed);
+    when(categoryRepository.findAllStates()).thenReturn(categories);
+
+    snapshotService.restore();
+    CatalogSnapshot verified = snapshotService.verifiedSnapshot();
+
+    assertThat(verified.products()).isEqualTo(changed);
+    verify(productRepository).findAllStates();
+  }
+}
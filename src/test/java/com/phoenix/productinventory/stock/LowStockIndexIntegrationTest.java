@@ -0,0 +1,268 @@
+package com.phoenix.productinventory.stock;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.phoenix.productinventory.dto.BulkProductUpdateDto;
+import com.phoenix.productinventory.dto.CategoryRequestDto;
+import com.phoenix.productinventory.dto.LowStockProductDto;
+import com.phoenix.productinventory.dto.ProductRequestDto;
+import com.phoenix.productinventory.dto.ProductResponseDto;
+import com.phoenix.productinventory.exception.BadRequestException;
+import com.phoenix.productinventory.outbox.AggregateType;
+import com.phoenix.productinventory.outbox.ChangeEvent;
+import com.phoenix.productinventory.outbox.ChangeType;
+import com.phoenix.productinventory.outbox.OutboxTail;
+import com.phoenix.productinventory.repository.ReorderThresholdRepository;
+import com.phoenix.productinventory.service.CategoryService;
+import com.phoenix.productinventory.service.ProductService;
+import com.phoenix.productinventory.spcification.ProductSpecification;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Drives the low-stock index through committed product changes and threshold changes. The read of
+ * the outbox is run by the test, so every change has reached the index when the assertions run.
+ */
+@SpringBootTest
+@Import(LowStockIndexIntegrationTest.Crossings.class)
+class LowStockIndexIntegrationTest {
+
+  @Autowired private LowStockIndex index;
+  @Autowired private ReorderThresholdService thresholdService;
+  @Autowired private ProductService productService;
+  @Autowired private CategoryService categoryService;
+  @Autowired private OutboxTail outboxTail;
+  @Autowired private ReorderThresholdRepository thresholdRepository;
+  @Autowired private JdbcTemplate jdbc;
+  @Autowired private ObjectMapper objectMapper;
+  @Autowired private Crossings crossings;
+
+  /** Collects the crossing events, whichever thread relays the outbox. */
+  @TestConfiguration
+  static class Crossings {
+
+    private final List<StockThresholdCrossedEvent> events = new CopyOnWriteArrayList<>();
+
+    @EventListener
+    void onCrossing(StockThresholdCrossedEvent event) {
+      events.add(event);
+    }
+
+    List<StockThresholdCrossedEvent> of(Long productId) {
+      return events.stream().filter(event -> event.productId() == productId).toList();
+    }
+  }
+
+  @Test
+  @DisplayName("Given a product threshold when its quantity changes then crossings are published")
+  void givenProductThreshold_whenQuantityChanges_thenCrossingsPublished() {
+    Long categoryId = createCategory("Low Stock Paint");
+    Long id = createProduct("Low Stock Primer", 8, categoryId);
+    thresholdService.setProductThreshold(id, 5);
+    relay();
+    assertThat(lowStockIn(categoryId)).isEmpty();
+
+    updateQuantity(id, 4);
+    relay();
+    assertThat(lowStockIn(categoryId))
+        .extracting(LowStockProductDto::getProductId, LowStockProductDto::getThreshold)
+        .containsExactly(tuple(id, 5));
+
+    updateQuantity(id, 9);
+    relay();
+    assertThat(lowStockIn(categoryId)).isEmpty();
+    assertThat(crossings.of(id))
+        .extracting(StockThresholdCrossedEvent::quantity, StockThresholdCrossedEvent::lowStock)
+        .containsExactly(tuple(4, true), tuple(9, false));
+  }
+
+  @Test
+  @DisplayName("Given a category threshold when it changes then its products are re-evaluated")
+  void givenCategoryThreshold_whenChanged_thenProductsReevaluated() {
+    Long categoryId = createCategory("Low Stock Garden");
+    Long hose = createProduct("Low Stock Hose", 2, categoryId);
+    Long rake = createProduct("Low Stock Rake", 6, categoryId);
+    Long spade = createProduct("Low Stock Spade", 20, categoryId);
+    relay();
+
+    thresholdService.setCategoryThreshold(categoryId, 5);
+    assertThat(lowStockIn(categoryId))
+        .extracting(LowStockProductDto::getProductId)
+        .containsExactly(hose);
+
+    thresholdService.setCategoryThreshold(categoryId, 10);
+    thresholdService.setProductThreshold(spade, 25);
+    assertThat(lowStockIn(categoryId))
+        .extracting(LowStockProductDto::getProductId, LowStockProductDto::getThreshold)
+        .containsExactly(tuple(hose, 10), tuple(rake, 10), tuple(spade, 25));
+
+    thresholdService.removeCategoryThreshold(categoryId);
+    assertThat(lowStockIn(categoryId))
+        .extracting(LowStockProductDto::getProductId)
+        .containsExactly(spade);
+    assertThat(crossings.of(rake))
+        .extracting(StockThresholdCrossedEvent::lowStock)
+        .containsExactly(true, false);
+  }
+
+  @Test
+  @DisplayName("Given a bulk quantity update when relayed then the emptied products are low")
+  void givenBulkUpdate_whenRelayed_thenEmptiedProductsLow() {
+    Long categoryId = createCategory("Low Stock Tools");
+    Long hammer = createProduct("Low Stock Hammer", 3, categoryId);
+    Long saw = createProduct("Low Stock Saw", 7, categoryId);
+    relay();
+
+    productService.bulkUpdate(
+        ProductSpecification.hasCategoryId(categoryId), new BulkProductUpdateDto(null, null, -3));
+    relay();
+
+    assertThat(lowStockIn(categoryId))
+        .extracting(LowStockProductDto::getProductId, LowStockProductDto::getQuantity)
+        .containsExactly(tuple(hammer, 0));
+
+    productService.deleteProduct(hammer);
+    relay();
+    assertThat(lowStockIn(categoryId)).isEmpty();
+    assertThat(crossings.of(saw)).isEmpty();
+  }
+
+  @Test
+  @DisplayName("Given a threshold set by another instance when the outbox is read then it applies")
+  void givenThresholdSetElsewhere_whenOutboxRead_thenApplied() {
+    Long categoryId = createCategory("Low Stock Kitchen");
+    Long kettle = createProduct("Low Stock Kettle", 3, categoryId);
+    relay();
+    assertThat(lowStockIn(categoryId)).isEmpty();
+
+    // Committed and relayed by another instance
+    jdbc.update(
+        "INSERT INTO reorder_thresholds (category_id, threshold) VALUES (?, 5)", categoryId);
+    Timestamp now = Timestamp.from(Instant.now());
+    jdbc.update(
+        "INSERT INTO outbox_events (aggregate_type, aggregate_id, event_type, payload, created_at,"
+            + " published_at) VALUES ('REORDER_THRESHOLD', 0, 'CREATED', ?, ?, ?)",
+        "{\"productId\":null,\"categoryId\":" + categoryId + ",\"threshold\":5}",
+        now,
+        now);
+    relay();
+
+    assertThat(lowStockIn(categoryId))
+        .extracting(LowStockProductDto::getProductId, LowStockProductDto::getThreshold)
+        .containsExactly(tuple(kettle, 5));
+  }
+
+  @Test
+  @DisplayName("Given an undecodable change when applied then it is skipped")
+  void givenUndecodableChange_whenApplied_thenSkipped() {
+    ChangeEvent event =
+        new ChangeEvent(
+            -1L,
+            AggregateType.REORDER_THRESHOLD,
+            1L,
+            null,
+            ChangeType.UPDATED,
+            "{\"threshold\":",
+            Instant.now());
+
+    assertThatCode(() -> index.onChange(event)).doesNotThrowAnyException();
+  }
+
+  @Test
+  @DisplayName("Given a deleted product when an older change arrives then it is not brought back")
+  void givenDeletedProduct_whenOlderChangeArrives_thenNotBroughtBack() throws Exception {
+    Long categoryId = createCategory("Low Stock Cellar");
+    Long id = createProduct("Low Stock Shelf", 8, categoryId);
+    thresholdService.setCategoryThreshold(categoryId, 5);
+    relay();
+    ProductResponseDto older = productService.getProductById(id);
+    older.setQuantity(2);
+    String payload = objectMapper.writeValueAsString(older);
+
+    index.onChange(productChange(id, ChangeType.DELETED, older.getVersion() + 1, "{}"));
+    index.onChange(productChange(id, ChangeType.UPDATED, older.getVersion(), payload));
+
+    assertThat(lowStockIn(categoryId)).isEmpty();
+    assertThat(crossings.of(id)).isEmpty();
+  }
+
+  @Test
+  @DisplayName("Given thresholds when their category is deleted then they are deleted with it")
+  void givenThresholds_whenCategoryDeleted_thenDeleted() {
+    Long categoryId = createCategory("Low Stock Attic");
+    Long lamp = createProduct("Low Stock Lamp", 3, categoryId);
+    Long other = createProduct("Low Stock Rug", 3, null);
+    thresholdService.setCategoryThreshold(categoryId, 5);
+    thresholdService.setProductThreshold(lamp, 8);
+    thresholdService.setProductThreshold(other, 8);
+    assertThat(lowStockIn(categoryId))
+        .extracting(LowStockProductDto::getProductId)
+        .containsExactly(lamp);
+
+    categoryService.deleteCategory(categoryId);
+    productService.deleteProduct(other);
+
+    assertThat(thresholdRepository.findByCategoryId(categoryId)).isEmpty();
+    assertThat(thresholdRepository.findByProductId(lamp)).isEmpty();
+    assertThat(thresholdRepository.findByProductId(other)).isEmpty();
+    relay();
+    assertThat(lowStockIn(categoryId)).isEmpty();
+  }
+
+  @Test
+  @DisplayName("Given invalid thresholds and page sizes when requested then they are rejected")
+  void givenInvalidInput_whenRequested_thenRejected() {
+    assertThatThrownBy(() -> thresholdService.setProductThreshold(1L, -1))
+        .isInstanceOf(BadRequestException.class);
+    assertThatThrownBy(() -> index.getLowStock(null, null, 0))
+        .isInstanceOf(BadRequestException.class);
+  }
+
+  private List<LowStockProductDto> lowStockIn(Long categoryId) {
+    return index.getLowStock(categoryId, null, 100).getContent();
+  }
+
+  private void relay() {
+    // Waits for a scheduled run that holds the tail
+    outboxTail.tail();
+  }
+
+  private static ChangeEvent productChange(Long id, ChangeType type, long version, String payload) {
+    return new ChangeEvent(-id, AggregateType.PRODUCT, id, version, type, payload, Instant.now());
+  }
+
+  private void updateQuantity(Long id, int quantity) {
+    productService.updateProduct(id, new ProductRequestDto(null, null, null, quantity, null, null));
+  }
+
+  private Long createProduct(String name, int quantity, Long categoryId) {
+    Long id =
+        productService
+            .createProduct(
+                new ProductRequestDto(name, null, BigDecimal.TEN, quantity, null, null))
+            .getId();
+    if (categoryId != null) {
+      productService.assignCategory(id, categoryId);
+    }
+    return id;
+  }
+
+  private Long createCategory(String name) {
+    return categoryService.createCategory(new CategoryRequestDto(name, null, null, null)).getId();
+  }
+}
@@ -0,0 +1,56 @@
+package com.phoenix.productinventory.warmup;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.phoenix.productinventory.search.ProductSearchPlanCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.availability.ApplicationAvailability;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.boot.test.context.SpringBootTest;
+
+/**
+ * Starts the application on a random port and checks that the warm-up replays its requests
+ * before the application turns ready. The replayed readiness probe fails in every round because
+ * the application is not ready yet while the warm-up runs.
+ */
+@SpringBootTest(
+    webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+    properties = {
+      "warmup.enabled=true",
+      "warmup.rounds=3",
+      "warmup.products=2",
+      "warmup.categories=1",
+      "warmup.requests[0].path=/products?fields=id,name",
+      "warmup.requests[1].method=POST",
+      "warmup.requests[1].path=/products/search",
+      "warmup.requests[1].body={\"filter\":{\"field\":\"quantity\",\"gte\":1}}",
+      "warmup.requests[2].path=/actuator/health/readiness"
+    })
+class WarmupRunnerIntegrationTest {
+
+  @Autowired private WarmupRunner warmupRunner;
+  @Autowired private ApplicationAvailability availability;
+  @Autowired private ProductSearchPlanCache planCache;
+  @Autowired private MeterRegistry meterRegistry;
+
+  @Test
+  @DisplayName("Given warm-up requests when the application starts then they run before readiness")
+  void givenWarmupRequests_whenStarted_thenReplayedBeforeReadiness() {
+    WarmupRunner.Result result = warmupRunner.lastResult().orElseThrow();
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    planCache.bindTo(registry);
+
+    // 3 configured requests, 2 products and 2 requests per category, in each of 3 rounds
+    assertThat(result.rounds()).isEqualTo(3);
+    assertThat(result.requests()).isEqualTo(21);
+    assertThat(result.failures()).isEqualTo(3);
+    assertThat(registry.get("product.search.plan.cache.hits").functionCounter().count())
+        .isGreaterThanOrEqualTo(2);
+    assertThat(availability.getReadinessState()).isEqualTo(ReadinessState.ACCEPTING_TRAFFIC);
+    assertThat(meterRegistry.find("http.server.requests").timers()).isEmpty();
+  }
+}